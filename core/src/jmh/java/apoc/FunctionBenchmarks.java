@@ -0,0 +1,157 @@
+package apoc;
+
+import apoc.coll.Coll;
+import apoc.convert.Convert;
+import apoc.convert.Json;
+import apoc.text.Strings;
+import apoc.util.TestUtil;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.internal.helpers.collection.Iterators;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the {@code apoc.coll.*}, {@code apoc.text.*} and {@code apoc.convert.*} functions called from Cypher
+ * on {@code rows} rows, with lists of {@code size} numbers generated with a fixed seed.
+ * The {@code baseline} benchmark measures the same rows without any function,
+ * to tell the cost of the functions from the one of Cypher.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class FunctionBenchmarks {
+
+    @Param({"10000"})
+    public int rows;
+
+    @Param({"100"})
+    public int size;
+
+    private DatabaseManagementService managementService;
+    private GraphDatabaseService db;
+    private List<Long> numbers;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        managementService = new TestDatabaseManagementServiceBuilder()
+                .setFileSystem(new EphemeralFileSystemAbstraction())
+                .impermanent()
+                .build();
+        db = managementService.database(GraphDatabaseSettings.DEFAULT_DATABASE_NAME);
+        TestUtil.registerProcedure(db, Coll.class, Strings.class, Convert.class, Json.class);
+        numbers = new Random(GraphDatabaseState.SEED)
+                .longs(size, 0, size / 2)
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        managementService.shutdown();
+    }
+
+    @Benchmark
+    public long baseline() {
+        return count("RETURN [i, i + 1, i + 2] AS value");
+    }
+
+    @Benchmark
+    public long collSum() {
+        return count("RETURN apoc.coll.sum($numbers + i) AS value");
+    }
+
+    @Benchmark
+    public long collSort() {
+        return count("RETURN apoc.coll.sort($numbers + i) AS value");
+    }
+
+    @Benchmark
+    public long collToSet() {
+        return count("RETURN apoc.coll.toSet($numbers + i) AS value");
+    }
+
+    @Benchmark
+    public long collMin() {
+        return count("RETURN apoc.coll.min($numbers + i) AS value");
+    }
+
+    @Benchmark
+    public long collMax() {
+        return count("RETURN apoc.coll.max($numbers + i) AS value");
+    }
+
+    @Benchmark
+    public long cypherMin() {
+        return count(
+                "RETURN reduce(res = null, x IN $numbers + i | CASE WHEN res IS NULL OR x < res THEN x ELSE res END) "
+                        + "AS value");
+    }
+
+    @Benchmark
+    public long collContains() {
+        return count("RETURN apoc.coll.contains($numbers, i) AS value");
+    }
+
+    @Benchmark
+    public long collFlatten() {
+        return count("RETURN apoc.coll.flatten([$numbers, [i, [i + 1]]], true) AS value");
+    }
+
+    @Benchmark
+    public long textJoin() {
+        return count("RETURN apoc.text.join(['node', toString(i), 'of', toString($rows)], '-') AS value");
+    }
+
+    @Benchmark
+    public long textClean() {
+        return count("RETURN apoc.text.clean(' The Node-' + i + '! ') AS value");
+    }
+
+    @Benchmark
+    public long textLevenshteinDistance() {
+        return count("RETURN apoc.text.levenshteinDistance('node-' + i, 'node-' + (i * 7)) AS value");
+    }
+
+    @Benchmark
+    public long textRegexGroups() {
+        return count("RETURN apoc.text.regexGroups('node-' + i + '@example.com', '(\\\\w+)-(\\\\d+)@') AS value");
+    }
+
+    @Benchmark
+    public long convertToJson() {
+        return count("RETURN apoc.convert.toJson({id: i, name: 'node-' + i, numbers: $numbers}) AS value");
+    }
+
+    @Benchmark
+    public long convertFromJsonMap() {
+        return count("RETURN apoc.convert.fromJsonMap('{\"id\": ' + i + ', \"name\": \"node\", \"tags\": [1, 2]}') "
+                + "AS value");
+    }
+
+    @Benchmark
+    public long convertToSet() {
+        return count("RETURN apoc.convert.toSet($numbers + i) AS value");
+    }
+
+    private long count(String returns) {
+        return db.executeTransactionally(
+                "UNWIND range(1, $rows) AS i " + returns, Map.of("rows", rows, "numbers", numbers), Iterators::count);
+    }
+}
@@ -1,44 +1,120 @@
 package apoc;
 
-import java.util.Collections;
+import apoc.generate.Neo4jGraphGenerator;
+import apoc.generate.config.BarabasiAlbertConfig;
+import apoc.generate.config.BasicGeneratorConfig;
+import apoc.generate.node.DefaultNodeCreator;
+import apoc.generate.relationship.BarabasiAlbertRelationshipGenerator;
+import apoc.generate.relationship.DefaultRelationshipCreator;
+import apoc.util.TestUtil;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
 import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.api.DatabaseManagementService;
 import org.neo4j.graphdb.GraphDatabaseService;
-import org.neo4j.graphdb.Transaction;
-import org.neo4j.internal.helpers.collection.Iterables;
-import org.neo4j.test.TestGraphDatabaseFactory;
-import org.openjdk.jmh.annotations.*;
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.internal.helpers.collection.Iterators;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
 
+/**
+ * The database of the benchmarks extending it, with a Barabasi-Albert graph of {@code nodes} nodes
+ * attached with {@code edgesPerNode} relationships each, generated like {@code apoc.generate.ba} does
+ * but with a fixed seed, so that every run measures the same graph.
+ * The nodes have the {@code Node} label, an indexed {@code id} and a few properties of different types,
+ * the relationships have the {@code LINK} type and a {@code weight}.
+ */
 @State(Scope.Benchmark)
-public class GraphDatabaseState {
+public abstract class GraphDatabaseState {
 
-    private GraphDatabaseService graphDatabaseService;
+    public static final String LABEL = "Node";
+    public static final String TYPE = "LINK";
+    public static final long SEED = 42;
 
-    public GraphDatabaseService getGraphDatabaseService() {
-        return graphDatabaseService;
-    }
+    @Param({"10000"})
+    public int nodes;
+
+    @Param({"5"})
+    public int edgesPerNode;
+
+    protected DatabaseManagementService managementService;
+    protected GraphDatabaseService db;
 
-    @Setup(Level.Invocation)
-    public final void setup() {
-        graphDatabaseService = new TestGraphDatabaseFactory()
-                .newImpermanentDatabaseBuilder()
+    // the directory of the files exported and imported by the benchmarks
+    protected Path directory;
+
+    @Setup(Level.Trial)
+    public final void setup() throws IOException {
+        directory = Files.createTempDirectory("apoc-jmh");
+        managementService = new TestDatabaseManagementServiceBuilder()
+                .setFileSystem(new EphemeralFileSystemAbstraction())
+                .impermanent()
                 .setConfig(getGraphDatabaseConfig())
-                .newGraphDatabase();
-        setupGraphDatabase(graphDatabaseService);
+                .build();
+        db = managementService.database(GraphDatabaseSettings.DEFAULT_DATABASE_NAME);
+        TestUtil.registerProcedure(db, getProcedures());
+        generateGraph();
+        setupGraphDatabase();
+    }
+
+    @TearDown(Level.Trial)
+    public final void tearDown() throws IOException {
+        managementService.shutdown();
+        FileUtils.deleteDirectory(directory.toFile());
+    }
+
+    public Map<Setting<?>, Object> getGraphDatabaseConfig() {
+        Map<Setting<?>, Object> config = new HashMap<>();
+        config.put(GraphDatabaseSettings.load_csv_file_url_root, directory.toAbsolutePath());
+        config.put(ApocSettings.apoc_export_file_enabled, true);
+        config.put(ApocSettings.apoc_import_file_enabled, true);
+        return config;
     }
 
-    @TearDown(Level.Invocation)
-    public final void tearDown() {
+    /**
+     * @return the procedure and function classes used by the benchmarks
+     */
+    protected abstract Class<?>[] getProcedures();
 
-        try (Transaction tx = graphDatabaseService.beginTx()) {
-            long numberOfNodes = Iterables.count(graphDatabaseService.getAllNodes());
-            tx.success();
-        }
-        graphDatabaseService.shutdown();
+    /**
+     * Called once the graph is generated, to add what the benchmarks need on top of it
+     */
+    protected void setupGraphDatabase() {}
+
+    private void generateGraph() {
+        new Neo4jGraphGenerator(db)
+                .generateGraph(new BasicGeneratorConfig(
+                        new BarabasiAlbertRelationshipGenerator(new BarabasiAlbertConfig(nodes, edgesPerNode), SEED),
+                        new DefaultNodeCreator(LABEL),
+                        new DefaultRelationshipCreator(TYPE)));
+        // the random uuids of the generated nodes are replaced by values derived from the ids
+        db.executeTransactionally("MATCH (n:Node) WITH n ORDER BY id(n) WITH collect(n) AS nodes "
+                + "UNWIND range(0, size(nodes) - 1) AS id WITH nodes[id] AS n, id "
+                + "REMOVE n.uuid "
+                + "SET n.id = id, n.name = 'node-' + id, n.score = id % 100, "
+                + "n.tags = ['tag-' + (id % 10), 'tag-' + (id % 7)], "
+                + "n.created = date('2020-01-01') + duration({days: id % 365})");
+        db.executeTransactionally(
+                "MATCH (:Node)-[r:LINK]->(m:Node) SET r.weight = (m.id % 10) / 10.0, r.since = 2000 + m.id % 20");
+        db.executeTransactionally("CREATE INDEX FOR (n:Node) ON (n.id)");
+        db.executeTransactionally("CALL db.awaitIndexes()");
     }
 
-    public Map<String, String> getGraphDatabaseConfig() {
-        return Collections.EMPTY_MAP;
+    protected long count(String query, Map<String, Object> params) {
+        return db.executeTransactionally(query, params, Iterators::count);
     }
 
-    void setupGraphDatabase(GraphDatabaseService graphDatabaseService) {}
+    protected <T> T single(String query, Map<String, Object> params, String column) {
+        return db.executeTransactionally(query, params, result -> Iterators.single(result.columnAs(column)));
+    }
 }
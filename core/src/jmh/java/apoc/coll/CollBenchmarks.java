@@ -0,0 +1,102 @@
+package apoc.coll;
+
+import apoc.GraphDatabaseState;
+import com.google.common.util.concurrent.AtomicDouble;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.apache.commons.math3.stat.descriptive.moment.StandardDeviation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the numeric functions of {@link Coll} on the boxed lists of {@code size} integers or floats,
+ * as the procedure framework passes them, with the boxed implementations they had before their primitive fast paths.
+ * {@code apoc.coll.min} and {@code apoc.coll.max} ran a Cypher query for every list,
+ * their gain is measured against that query by {@code FunctionBenchmarks}.
+ */
+@State(Scope.Benchmark)
+public class CollBenchmarks {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean floats;
+
+    private final Coll coll = new Coll();
+    private List<Object> values;
+    private List<Number> numbers;
+
+    @Setup
+    public void setUp() {
+        numbers = new Random(GraphDatabaseState.SEED)
+                .doubles(size)
+                .mapToObj(value -> floats ? (Number) (value * size) : (Number) (long) (value * size))
+                .collect(Collectors.toList());
+        values = new ArrayList<>(numbers);
+    }
+
+    @Benchmark
+    public List<Object> sort() {
+        return coll.sort(values);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Object> boxedSort() {
+        List sorted = new ArrayList<>(values);
+        Collections.sort((List<? extends Comparable>) sorted);
+        return sorted;
+    }
+
+    @Benchmark
+    public List<Number> runningTotal() {
+        return coll.runningTotal(numbers);
+    }
+
+    @Benchmark
+    public List<Number> boxedRunningTotal() {
+        AtomicDouble sum = new AtomicDouble();
+        return numbers.stream()
+                .map(i -> {
+                    double value = sum.addAndGet(i.doubleValue());
+                    if (value == sum.longValue()) return sum.longValue();
+                    return value;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public Number stdev() {
+        return coll.stdev(numbers, true);
+    }
+
+    @Benchmark
+    public double boxedStdev() {
+        return new StandardDeviation(true)
+                .evaluate(numbers.stream().mapToDouble(Number::doubleValue).toArray());
+    }
+
+    @Benchmark
+    public Object min() {
+        return coll.min(values);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Object boxedMin() {
+        Comparable min = (Comparable) values.get(0);
+        for (Object value : values) {
+            if (min.compareTo(value) > 0) {
+                min = (Comparable) value;
+            }
+        }
+        return min;
+    }
+}
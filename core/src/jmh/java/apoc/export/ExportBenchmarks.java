@@ -0,0 +1,61 @@
+package apoc.export;
+
+import apoc.GraphDatabaseState;
+import apoc.export.csv.ExportCSV;
+import apoc.export.cypher.ExportCypher;
+import apoc.export.graphml.ExportGraphML;
+import apoc.export.json.ExportJson;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+
+/**
+ * Measures the export of the whole generated graph in each format, streamed to the caller and written to a file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExportBenchmarks extends GraphDatabaseState {
+
+    @Override
+    protected Class<?>[] getProcedures() {
+        return new Class<?>[] {ExportJson.class, ExportCSV.class, ExportCypher.class, ExportGraphML.class};
+    }
+
+    @Benchmark
+    public long jsonStream() {
+        return stream("CALL apoc.export.json.all(null, {stream: true}) YIELD data RETURN data");
+    }
+
+    @Benchmark
+    public long csvStream() {
+        return stream("CALL apoc.export.csv.all(null, {stream: true}) YIELD data RETURN data");
+    }
+
+    @Benchmark
+    public long cypherStream() {
+        return stream("CALL apoc.export.cypher.all(null, {stream: true, format: 'plain'}) "
+                + "YIELD cypherStatements RETURN cypherStatements");
+    }
+
+    @Benchmark
+    public long graphmlStream() {
+        return stream("CALL apoc.export.graphml.all(null, {stream: true, useTypes: true}) YIELD data RETURN data");
+    }
+
+    @Benchmark
+    public long jsonFile() {
+        return single("CALL apoc.export.json.all('all.json', {}) YIELD nodes RETURN nodes", Map.of(), "nodes");
+    }
+
+    @Benchmark
+    public long csvFile() {
+        return single("CALL apoc.export.csv.all('all.csv', {}) YIELD nodes RETURN nodes", Map.of(), "nodes");
+    }
+
+    private long stream(String query) {
+        return count(query, Map.of());
+    }
+}
@@ -0,0 +1,58 @@
+package apoc.export;
+
+import apoc.GraphDatabaseState;
+import apoc.export.graphml.ExportGraphML;
+import apoc.export.json.ExportJson;
+import apoc.export.json.ImportJson;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the import of the files exported from the generated graph, into the same database.
+ * The imported nodes are deleted after each import, outside the measurement,
+ * so that every import starts from the generated graph.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ImportBenchmarks extends GraphDatabaseState {
+
+    private long lastGeneratedId;
+
+    @Override
+    protected Class<?>[] getProcedures() {
+        return new Class<?>[] {ExportJson.class, ImportJson.class, ExportGraphML.class};
+    }
+
+    @Override
+    protected void setupGraphDatabase() {
+        lastGeneratedId = single("MATCH (n) RETURN max(id(n)) AS id", Map.of(), "id");
+        db.executeTransactionally("CREATE CONSTRAINT FOR (n:Node) REQUIRE n.neo4jImportId IS UNIQUE");
+        db.executeTransactionally("CALL apoc.export.json.all('all.json', {})");
+        db.executeTransactionally("CALL apoc.export.graphml.all('all.graphml', {useTypes: true})");
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteImported() {
+        db.executeTransactionally("MATCH (n) WHERE id(n) > $id DETACH DELETE n", Map.of("id", lastGeneratedId));
+    }
+
+    @Benchmark
+    public long json() {
+        return single("CALL apoc.import.json('all.json') YIELD nodes RETURN nodes", Map.of(), "nodes");
+    }
+
+    @Benchmark
+    public long graphml() {
+        return single(
+                "CALL apoc.import.graphml('all.graphml', {readLabels: true, storeNodeIds: false}) "
+                        + "YIELD nodes RETURN nodes",
+                Map.of(),
+                "nodes");
+    }
+}
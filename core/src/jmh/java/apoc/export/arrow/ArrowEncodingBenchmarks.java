@@ -0,0 +1,127 @@
+package apoc.export.arrow;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowStreamWriter;
+import org.apache.arrow.vector.types.pojo.Schema;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.Values;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the typed columns of the Arrow export with the columns of JSON strings,
+ * for the time to encode a batch of rows and the size of the encoded batch.
+ */
+public class ArrowEncodingBenchmarks {
+
+    private static final Map<String, String> TYPES = Map.of(
+            "id", "Long",
+            "score", "Double",
+            "active", "Boolean",
+            "born", "LocalDateTime",
+            "since", "Duration",
+            "place", "Point",
+            "tags", "StringArray");
+
+    @State(Scope.Benchmark)
+    public static class Rows {
+
+        @Param({"10000"})
+        public int size;
+
+        BufferAllocator allocator;
+        List<Map<String, Object>> rows;
+        Schema typedSchema;
+        Schema stringSchema;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            allocator = new RootAllocator();
+            rows = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                Map<String, Object> row = new HashMap<>();
+                row.put("id", (long) i);
+                row.put("score", i / 3.0D);
+                row.put("active", i % 2 == 0);
+                row.put("born", LocalDateTime.of(2000, 1, 1, 0, 0).plusMinutes(i));
+                row.put("since", DurationValue.duration(i % 12, i % 30, i, 0));
+                row.put("place", Values.pointValue(CoordinateReferenceSystem.WGS84, i % 180, i % 90));
+                row.put("tags", List.of("tag" + i % 10, "tag" + i % 7));
+                rows.add(row);
+            }
+            typedSchema = new Schema(TYPES.entrySet().stream()
+                    .map(e -> ExportArrowStrategy.toField(e.getKey(), Set.of(e.getValue())))
+                    .collect(Collectors.toList()));
+            stringSchema = new Schema(TYPES.keySet().stream()
+                    .map(name -> ExportArrowStrategy.toField(name, Set.of("String")))
+                    .collect(Collectors.toList()));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            allocator.close();
+        }
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Bytes {
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            bytes = 0;
+        }
+    }
+
+    @Benchmark
+    public byte[] typedColumns(Rows rows, Bytes bytes) throws IOException {
+        return encode(rows, rows.typedSchema, bytes);
+    }
+
+    @Benchmark
+    public byte[] jsonColumns(Rows rows, Bytes bytes) throws IOException {
+        return encode(rows, rows.stringSchema, bytes);
+    }
+
+    private static byte[] encode(Rows rows, Schema schema, Bytes bytes) throws IOException {
+        try (VectorSchemaRoot root = VectorSchemaRoot.create(schema, rows.allocator);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                ArrowStreamWriter writer =
+                        new ArrowStreamWriter(root, ArrowDictionaries.EMPTY.getProvider(), Channels.newChannel(out))) {
+            root.allocateNew();
+            for (FieldVector vector : root.getFieldVectors()) {
+                final ArrowColumnWriter columnWriter = ArrowColumnWriter.of(vector, ArrowDictionaries.EMPTY);
+                final String name = vector.getName();
+                for (int i = 0; i < rows.rows.size(); i++) {
+                    columnWriter.write(i, rows.rows.get(i).get(name));
+                }
+            }
+            root.setRowCount(rows.rows.size());
+            writer.writeBatch();
+            writer.end();
+            bytes.bytes += out.size();
+            return out.toByteArray();
+        }
+    }
+}
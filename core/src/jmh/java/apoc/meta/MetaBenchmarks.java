@@ -0,0 +1,50 @@
+package apoc.meta;
+
+import apoc.GraphDatabaseState;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures the schema introspection of the generated graph, examining every node or one in {@code sample}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MetaBenchmarks extends GraphDatabaseState {
+
+    @Param({"1", "1000"})
+    public long sample;
+
+    @Override
+    protected Class<?>[] getProcedures() {
+        return new Class<?>[] {Meta.class};
+    }
+
+    @Benchmark
+    public long schema() {
+        return count("CALL apoc.meta.schema($config) YIELD value RETURN value");
+    }
+
+    @Benchmark
+    public long data() {
+        return count("CALL apoc.meta.data($config) YIELD label RETURN label");
+    }
+
+    @Benchmark
+    public long nodeTypeProperties() {
+        return count("CALL apoc.meta.nodeTypeProperties($config) YIELD nodeType RETURN nodeType");
+    }
+
+    @Benchmark
+    public long stats() {
+        return count("CALL apoc.meta.stats() YIELD nodeCount RETURN nodeCount");
+    }
+
+    private long count(String query) {
+        return count(query, Map.of("config", Map.of("sample", sample)));
+    }
+}
@@ -0,0 +1,57 @@
+package apoc.neighbors;
+
+import apoc.GraphDatabaseState;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures the {@code apoc.neighbors.*} procedures up to {@code distance} hops,
+ * from one of the first nodes of the generated graph, which are its hubs, or from the last one.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NeighborsBenchmarks extends GraphDatabaseState {
+
+    @Param({"2", "3"})
+    public long distance;
+
+    @Param({"true", "false"})
+    public boolean fromHub;
+
+    @Override
+    protected Class<?>[] getProcedures() {
+        return new Class<?>[] {Neighbors.class};
+    }
+
+    @Benchmark
+    public long tohop() {
+        return count("MATCH (n:Node {id: $id}) CALL apoc.neighbors.tohop(n, 'LINK', $distance) YIELD node RETURN node");
+    }
+
+    @Benchmark
+    public long tohopCount() {
+        return count(
+                "MATCH (n:Node {id: $id}) CALL apoc.neighbors.tohop.count(n, 'LINK>', $distance) YIELD value RETURN value");
+    }
+
+    @Benchmark
+    public long byhop() {
+        return count(
+                "MATCH (n:Node {id: $id}) CALL apoc.neighbors.byhop(n, 'LINK', $distance) YIELD nodes RETURN nodes");
+    }
+
+    @Benchmark
+    public long athopCount() {
+        return count(
+                "MATCH (n:Node {id: $id}) CALL apoc.neighbors.athop.count(n, '<LINK', $distance) YIELD value RETURN value");
+    }
+
+    private long count(String query) {
+        return count(query, Map.of("id", fromHub ? 0 : nodes - 1, "distance", distance));
+    }
+}
@@ -0,0 +1,65 @@
+package apoc.path;
+
+import apoc.GraphDatabaseState;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures {@code apoc.path.expandConfig} on the generated graph up to {@code maxLevel} hops,
+ * per uniqueness and with the filters and sequences commonly used.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ExpandConfigBenchmarks extends GraphDatabaseState {
+
+    @Param({"2", "3"})
+    public long maxLevel;
+
+    @Param({"NODE_GLOBAL", "RELATIONSHIP_PATH"})
+    public String uniqueness;
+
+    @Override
+    protected Class<?>[] getProcedures() {
+        return new Class<?>[] {PathExplorer.class};
+    }
+
+    @Override
+    protected void setupGraphDatabase() {
+        db.executeTransactionally("MATCH (n:Node) WHERE n.score < 10 SET n:Blocked");
+    }
+
+    @Benchmark
+    public long expand() {
+        return expand(Map.of("relationshipFilter", "LINK"));
+    }
+
+    @Benchmark
+    public long expandOutgoingWithLabelFilter() {
+        return expand(Map.of("relationshipFilter", "LINK>", "labelFilter", "-Blocked"));
+    }
+
+    @Benchmark
+    public long expandSequence() {
+        return expand(Map.of("sequence", "Node, LINK>, Node, <LINK"));
+    }
+
+    @Benchmark
+    public long expandLimit() {
+        return expand(Map.of("relationshipFilter", "LINK", "labelFilter", ">Blocked", "limit", 10L));
+    }
+
+    private long expand(Map<String, Object> config) {
+        Map<String, Object> params = new HashMap<>(config);
+        params.put("maxLevel", maxLevel);
+        params.put("uniqueness", uniqueness);
+        return count(
+                "MATCH (n:Node {id: $id}) CALL apoc.path.expandConfig(n, $config) YIELD path RETURN path",
+                Map.of("id", nodes - 1, "config", params));
+    }
+}
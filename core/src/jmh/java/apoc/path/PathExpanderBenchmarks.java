@@ -0,0 +1,107 @@
+package apoc.path;
+
+import apoc.util.TestUtil;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.internal.helpers.collection.Iterators;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares the cursor traversal of the path expander procedures with the Neo4j traversal framework,
+ * on a random graph of {@code nodes} nodes with {@code degree} outgoing relationships each.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PathExpanderBenchmarks {
+
+    @Param({"100000"})
+    public int nodes;
+
+    @Param({"5"})
+    public int degree;
+
+    @Param({"true", "false"})
+    public boolean cursorTraversal;
+
+    private DatabaseManagementService managementService;
+    private GraphDatabaseService db;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        managementService = new TestDatabaseManagementServiceBuilder()
+                .setFileSystem(new EphemeralFileSystemAbstraction())
+                .impermanent()
+                .build();
+        db = managementService.database(GraphDatabaseSettings.DEFAULT_DATABASE_NAME);
+        TestUtil.registerProcedure(db, PathExplorer.class);
+        db.executeTransactionally(
+                "UNWIND range(0, $nodes - 1) AS id CREATE (:Node:Even {id: id})", Map.of("nodes", nodes));
+        db.executeTransactionally("CREATE INDEX FOR (n:Node) ON (n.id)");
+        db.executeTransactionally("CALL db.awaitIndexes()");
+        db.executeTransactionally(
+                "MATCH (n:Node) WHERE n.id % 2 = 1 REMOVE n:Even SET n:Odd "
+                        + "WITH n UNWIND range(1, $degree) AS i "
+                        + "MATCH (m:Node {id: toInteger(rand() * $nodes)}) "
+                        + "CREATE (n)-[:LINK]->(m)",
+                Map.of("nodes", nodes, "degree", degree));
+        db.executeTransactionally(
+                "MATCH (n:Even) WITH n UNWIND range(1, $degree) AS i "
+                        + "MATCH (m:Node {id: toInteger(rand() * $nodes)}) "
+                        + "CREATE (n)-[:LINK]->(m)",
+                Map.of("nodes", nodes, "degree", degree));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        managementService.shutdown();
+    }
+
+    @Benchmark
+    public long subgraphNodes() {
+        return count(
+                "MATCH (n:Node {id: 0}) CALL apoc.path.subgraphNodes(n, $config) YIELD node RETURN node", Map.of());
+    }
+
+    @Benchmark
+    public long subgraphNodesWithFilters() {
+        return count(
+                "MATCH (n:Node {id: 0}) CALL apoc.path.subgraphNodes(n, $config) YIELD node RETURN node",
+                Map.of("relationshipFilter", "LINK>", "labelFilter", "-Odd"));
+    }
+
+    @Benchmark
+    public long spanningTree() {
+        return count(
+                "MATCH (n:Node {id: 0}) CALL apoc.path.spanningTree(n, $config) YIELD path RETURN path",
+                Map.of("maxLevel", 4L));
+    }
+
+    @Benchmark
+    public long expandConfigNodeGlobal() {
+        return count(
+                "MATCH (n:Node {id: 0}) CALL apoc.path.expandConfig(n, $config) YIELD path RETURN path",
+                Map.of("uniqueness", "NODE_GLOBAL", "bfs", false));
+    }
+
+    private long count(String query, Map<String, Object> config) {
+        Map<String, Object> params = new HashMap<>(config);
+        params.put("cursorTraversal", cursorTraversal);
+        return db.executeTransactionally(query, Map.of("config", params), Iterators::count);
+    }
+}
@@ -0,0 +1,57 @@
+package apoc.periodic;
+
+import apoc.GraphDatabaseState;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+/**
+ * Measures {@code apoc.periodic.iterate} updating every node of the generated graph,
+ * per batch size and with or without parallel batches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PeriodicIterateBenchmarks extends GraphDatabaseState {
+
+    @Param({"100", "10000"})
+    public int batchSize;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Override
+    protected Class<?>[] getProcedures() {
+        return new Class<?>[] {Periodic.class};
+    }
+
+    @Benchmark
+    public long iterate() {
+        return iterate("MATCH (n:Node) RETURN n", "SET n.visited = coalesce(n.visited, 0) + 1", false);
+    }
+
+    @Benchmark
+    public long iterateBatchSingle() {
+        return iterate(
+                "MATCH (n:Node) RETURN n",
+                "UNWIND $_batch AS row WITH row.n AS n SET n.visited = coalesce(n.visited, 0) + 1",
+                true);
+    }
+
+    @Benchmark
+    public long iterateRelationships() {
+        return iterate("MATCH (:Node)-[r:LINK]->() RETURN r", "SET r.visited = coalesce(r.visited, 0) + 1", false);
+    }
+
+    private long iterate(String iterate, String action, boolean batchSingle) {
+        Map<String, Object> config = Map.of(
+                "batchSize", batchSize, "parallel", parallel, "batchMode", batchSingle ? "BATCH_SINGLE" : "BATCH");
+        return single(
+                "CALL apoc.periodic.iterate($iterate, $action, $config) YIELD total RETURN total",
+                Map.of("iterate", iterate, "action", action, "config", config),
+                "total");
+    }
+}
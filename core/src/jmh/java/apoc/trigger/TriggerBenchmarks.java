@@ -0,0 +1,84 @@
+package apoc.trigger;
+
+import apoc.ApocSettings;
+import apoc.util.TestUtil;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.neo4j.configuration.GraphDatabaseSettings;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.io.fs.EphemeralFileSystemAbstraction;
+import org.neo4j.test.TestDatabaseManagementServiceBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Measures the overhead of the triggers on the transactions creating {@code rows} nodes,
+ * with {@code triggers} triggers in the given {@code phase}, each setting a property on the created nodes.
+ * With no triggers it measures the transactions alone, as the transaction event listener is not registered then.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TriggerBenchmarks {
+
+    @Param({"0", "1", "4"})
+    public int triggers;
+
+    @Param({"before", "after"})
+    public String phase;
+
+    @Param({"1000"})
+    public int rows;
+
+    private DatabaseManagementService managementService;
+    private GraphDatabaseService db;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        managementService = new TestDatabaseManagementServiceBuilder()
+                .setFileSystem(new EphemeralFileSystemAbstraction())
+                .impermanent()
+                .setConfig(ApocSettings.apoc_trigger_enabled, true)
+                .build();
+        db = managementService.database(GraphDatabaseSettings.DEFAULT_DATABASE_NAME);
+        TestUtil.registerProcedure(db, Trigger.class);
+        for (int i = 0; i < triggers; i++) {
+            db.executeTransactionally(
+                    "CALL apoc.trigger.add($name, $statement, {phase: $phase})",
+                    Map.of(
+                            "name",
+                            "trigger" + i,
+                            "statement",
+                            "UNWIND $createdNodes AS n SET n.trigger" + i + " = true",
+                            "phase",
+                            phase));
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCreated() {
+        db.executeTransactionally("MATCH (n:Created) DETACH DELETE n");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        managementService.shutdown();
+    }
+
+    @Benchmark
+    public long createNodes() {
+        return db.executeTransactionally(
+                "UNWIND range(1, $rows) AS id CREATE (n:Created {id: id}) RETURN count(n) AS count",
+                Map.of("rows", rows),
+                result -> (Long) result.next().get("count"));
+    }
+}
@@ -0,0 +1,65 @@
+package apoc.util;
+
+import apoc.date.Date;
+import apoc.text.Strings;
+import java.text.SimpleDateFormat;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the per row cost of the regular expressions and date formats compiled on each call
+ * with the ones taken from the {@link FormatCache}, as used by {@code apoc.text.regexGroups} and {@code apoc.date.parse}.
+ */
+@State(Scope.Benchmark)
+public class FormatCacheBenchmarks {
+
+    private static final String REGEX = "(\\w+)@(\\w+)\\.com";
+    private static final String TEXT = "contact: jane@example.com, john@example.com";
+    private static final String DATE_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    private static final String DATE = "2018-10-30 12:34:56";
+
+    private final Strings strings = new Strings();
+    private final Date date = new Date();
+
+    @Setup
+    public void setUp() {
+        FormatCache.clear();
+    }
+
+    @Benchmark
+    public boolean compiledRegex() {
+        return Pattern.compile(REGEX).matcher(TEXT).find();
+    }
+
+    @Benchmark
+    public boolean cachedRegex() {
+        return FormatCache.pattern(REGEX).matcher(TEXT).find();
+    }
+
+    @Benchmark
+    public List<List<String>> regexGroups() {
+        return strings.regexGroups(TEXT, REGEX);
+    }
+
+    @Benchmark
+    public long newDateFormat() throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat(DATE_PATTERN);
+        format.setTimeZone(TimeZone.getTimeZone("UTC"));
+        return format.parse(DATE).getTime();
+    }
+
+    @Benchmark
+    public long cachedDateFormat() {
+        return Date.parseOrThrow(DATE, Date.getFormat(DATE_PATTERN, null));
+    }
+
+    @Benchmark
+    public Long dateParse() {
+        return date.parse(DATE, "ms", DATE_PATTERN, null);
+    }
+}
@@ -83,6 +83,8 @@ public class ApocConfig extends LifecycleAdapter {
     public static final String APOC_TTL_ENABLED_DB = "apoc.ttl.enabled.%s";
     public static final String APOC_TTL_LIMIT_DB = "apoc.ttl.limit.%s";
     public static final String APOC_TRIGGER_ENABLED = "apoc.trigger.enabled";
+    public static final String APOC_META_CACHE_ENABLED = "apoc.meta.cache.enabled";
+    public static final String APOC_META_CACHE_STALENESS = "apoc.meta.cache.staleness";
     public static final String APOC_UUID_ENABLED = "apoc.uuid.enabled";
     public static final String APOC_UUID_ENABLED_DB = "apoc.uuid.enabled.%s";
     public static final String APOC_UUID_FORMAT = "apoc.uuid.format";
@@ -466,6 +468,10 @@ public class ApocConfig extends LifecycleAdapter {
         return getConfig().getKeys(prefix);
     }
 
+    public Log getLog() {
+        return log;
+    }
+
     public boolean containsKey(String key) {
         return getConfig().containsKey(key);
     }
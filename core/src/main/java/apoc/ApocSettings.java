@@ -98,6 +98,9 @@ public class ApocSettings implements SettingsDeclaration {
     public static final Setting<Boolean> apoc_uuid_enabled =
             newBuilder(APOC_UUID_ENABLED, BOOL, false).build();
 
+    public static final Setting<Boolean> apoc_meta_cache_enabled =
+            newBuilder(APOC_META_CACHE_ENABLED, BOOL, false).build();
+
     @Deprecated
     public static final Setting<String> apoc_initializer_cypher =
             newBuilder(APOC_CONFIG_INITIALIZER_CYPHER, STRING, null).build();
@@ -19,11 +19,14 @@
 package apoc;
 
 import apoc.cypher.CypherInitializer;
+import apoc.meta.MetaSchemaCache;
 import apoc.trigger.TriggerHandler;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.neo4j.annotations.service.ServiceProvider;
+import org.neo4j.internal.helpers.collection.MapUtil;
 import org.neo4j.kernel.availability.AvailabilityListener;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.kernel.lifecycle.Lifecycle;
@@ -33,20 +36,26 @@ public class CoreApocGlobalComponents implements ApocGlobalComponents {
 
     @Override
     public Map<String, Lifecycle> getServices(GraphDatabaseAPI db, ApocExtensionFactory.Dependencies dependencies) {
-        return Collections.singletonMap(
+        return MapUtil.genericMap(
                 "trigger",
-                new TriggerHandler(
-                        db,
-                        dependencies.databaseManagementService(),
-                        dependencies.apocConfig(),
-                        dependencies.log().getUserLog(TriggerHandler.class),
-                        dependencies.pools(),
-                        dependencies.scheduler()));
+                        new TriggerHandler(
+                                db,
+                                dependencies.databaseManagementService(),
+                                dependencies.apocConfig(),
+                                dependencies.log().getUserLog(TriggerHandler.class),
+                                dependencies.pools(),
+                                dependencies.scheduler()),
+                "metaSchemaCache",
+                        new MetaSchemaCache(
+                                db,
+                                dependencies.databaseManagementService(),
+                                dependencies.apocConfig(),
+                                dependencies.log().getUserLog(MetaSchemaCache.class)));
     }
 
     @Override
     public Collection<Class> getContextClasses() {
-        return Collections.singleton(TriggerHandler.class);
+        return List.of(TriggerHandler.class, MetaSchemaCache.class);
     }
 
     @Override
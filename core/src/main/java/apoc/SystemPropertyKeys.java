@@ -33,6 +33,9 @@ public enum SystemPropertyKeys {
     forceSingle,
     prefix,
     mapResult,
+    deterministic,
+    memoScope,
+    memoSize,
 
     // triggers
     selector,
@@ -18,18 +18,21 @@
  */
 package apoc.algo;
 
+import apoc.Pools;
 import apoc.result.RelationshipResult;
 import apoc.util.Util;
 import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.Collections;
+import java.util.Map;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
 import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.procedure.Context;
 import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Name;
@@ -40,18 +43,33 @@ public class Cover {
     @Context
     public Transaction tx;
 
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Pools pools;
+
     @Procedure
-    @Description("apoc.algo.cover(nodes) yield rel - returns all relationships between this set of nodes")
-    public Stream<RelationshipResult> cover(@Name("nodes") Object nodes) {
-        Set<Node> nodeSet = Util.nodeStream(tx, nodes).collect(Collectors.toSet());
-        return coverNodes(nodeSet).map(RelationshipResult::new);
+    @Description(
+            "apoc.algo.cover(nodes, {parallel: true, batchSize: 10000}) yield rel - returns all relationships between this set of nodes")
+    public Stream<RelationshipResult> cover(
+            @Name("nodes") Object nodes, @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        Map<String, Object> conf = config == null ? Collections.emptyMap() : config;
+        RelationshipCover cover = new RelationshipCover(
+                (GraphDatabaseAPI) db,
+                pools,
+                Util.toBoolean(conf.getOrDefault("parallel", true)),
+                Util.toInteger(conf.getOrDefault("batchSize", RelationshipCover.DEFAULT_BATCH_SIZE)));
+        return cover.cover(tx, Util.nodeStream(tx, nodes).mapToLong(Node::getId))
+                .map(RelationshipResult::new);
     }
 
     // non-parallelized utility method for use by other procedures
     public static Stream<Relationship> coverNodes(Collection<Node> nodes) {
-        Set<Node> nodeSet = new HashSet<>(nodes);
+        LongHashSet nodeIds = new LongHashSet(nodes.size());
+        nodes.forEach(n -> nodeIds.add(n.getId()));
         return nodes.stream().flatMap(n -> StreamSupport.stream(
                         n.getRelationships(Direction.OUTGOING).spliterator(), false)
-                .filter(r -> nodeSet.contains(r.getEndNode())));
+                .filter(r -> nodeIds.contains(r.getEndNodeId())));
     }
 }
@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.algo;
+
+import apoc.Pools;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.internal.kernel.api.helpers.Nodes;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.RelationshipSelection;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+/**
+ * Finds the relationships between a set of nodes on kernel cursors, checking the other node
+ * of each relationship against a bitmap of the node ids.
+ * Each relationship is found from its start node, except for the start nodes with at least {@link #DENSE_DEGREE}
+ * outgoing relationships when scanning the incoming relationships of all the nodes is cheaper than scanning the
+ * outgoing relationships of those dense nodes: their relationships are then found from the end node side.
+ * The nodes are processed in batches of {@code batchSize}, each one in its own read transaction on the {@link Pools}
+ * executor when there are several batches and the transaction has no uncommitted changes
+ * that the other transactions could not see.
+ */
+public class RelationshipCover {
+
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    // nodes with fewer outgoing relationships are always scanned from their own side
+    static final int DENSE_DEGREE = 1000;
+
+    private final GraphDatabaseAPI db;
+    private final Pools pools;
+    private final boolean parallel;
+    private final int batchSize;
+
+    public RelationshipCover(GraphDatabaseAPI db, Pools pools, boolean parallel, int batchSize) {
+        this.db = db;
+        this.pools = pools;
+        this.parallel = parallel;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * @return the relationships between the nodes, streamed batch by batch in the order of the node ids
+     */
+    public Stream<Relationship> cover(Transaction tx, LongStream nodeIds) {
+        final Roaring64NavigableMap nodes = new Roaring64NavigableMap();
+        nodeIds.forEach(nodes::addLong);
+        final List<long[]> batches = batches(nodes);
+        final KernelTransaction ktx = ((InternalTransaction) tx).kernelTransaction();
+
+        final Stream<long[]> relationships;
+        if (parallel && batches.size() > 1 && !ktx.dataRead().transactionStateHasChanges()) {
+            final List<Degrees> degrees = getAll(submit(batches, batch -> degrees(batch)));
+            final Roaring64NavigableMap denseNodes = denseNodes(degrees);
+            // the relationships of each batch are streamed as soon as it is scanned, while the next ones are scanned,
+            // the scans not needed anymore are cancelled when the stream is closed, e.g. after a LIMIT or a failure
+            final List<Future<long[]>> scans = submit(batches, batch -> scan(batch, nodes, denseNodes));
+            relationships = scans.stream().map(RelationshipCover::get).onClose(() -> cancel(scans));
+        } else {
+            final List<Degrees> degrees = new ArrayList<>(batches.size());
+            batches.forEach(batch -> degrees.add(degrees(ktx, batch)));
+            final Roaring64NavigableMap denseNodes = denseNodes(degrees);
+            relationships = batches.stream().map(batch -> scan(ktx, batch, nodes, denseNodes));
+        }
+        return relationships.flatMapToLong(Arrays::stream).mapToObj(tx::getRelationshipById);
+    }
+
+    private List<long[]> batches(Roaring64NavigableMap nodes) {
+        final List<long[]> batches = new ArrayList<>();
+        final LongArrayList batch = new LongArrayList(batchSize);
+        final LongIterator iterator = nodes.getLongIterator();
+        while (iterator.hasNext()) {
+            batch.add(iterator.next());
+            if (batch.size() == batchSize) {
+                batches.add(batch.toArray());
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch.toArray());
+        }
+        return batches;
+    }
+
+    private static class Degrees {
+        // the outgoing relationships of the dense nodes and the incoming relationships of all the nodes
+        long denseOutgoing;
+        long incoming;
+        final LongArrayList denseNodes = new LongArrayList();
+    }
+
+    private static Degrees degrees(KernelTransaction ktx, long[] batch) {
+        final Degrees degrees = new Degrees();
+        final Read read = ktx.dataRead();
+        try (NodeCursor node = ktx.cursors().allocateNodeCursor(ktx.cursorContext())) {
+            for (long id : batch) {
+                read.singleNode(id, node);
+                if (!node.next()) {
+                    continue;
+                }
+                // the degree of the nodes with few relationships is an upper bound of their incoming ones,
+                // so that the direction is only counted on the nodes with many relationships
+                final int all = Nodes.countAll(node);
+                if (all >= DENSE_DEGREE) {
+                    final int outgoing = Nodes.countOutgoing(node);
+                    if (outgoing >= DENSE_DEGREE) {
+                        degrees.denseOutgoing += outgoing;
+                        degrees.denseNodes.add(id);
+                    }
+                    degrees.incoming += all - outgoing;
+                } else {
+                    degrees.incoming += all;
+                }
+            }
+        }
+        return degrees;
+    }
+
+    /**
+     * @return the nodes whose relationships are found from the end node side, if any
+     */
+    private static Roaring64NavigableMap denseNodes(List<Degrees> degrees) {
+        final Roaring64NavigableMap denseNodes = new Roaring64NavigableMap();
+        final long denseOutgoing =
+                degrees.stream().mapToLong(d -> d.denseOutgoing).sum();
+        final long incoming = degrees.stream().mapToLong(d -> d.incoming).sum();
+        if (denseOutgoing > incoming) {
+            degrees.forEach(d -> d.denseNodes.forEach(denseNodes::addLong));
+        }
+        return denseNodes;
+    }
+
+    private static long[] scan(
+            KernelTransaction ktx, long[] batch, Roaring64NavigableMap nodes, Roaring64NavigableMap denseNodes) {
+        final LongArrayList relationships = new LongArrayList();
+        final Read read = ktx.dataRead();
+        final boolean fromEndNodes = !denseNodes.isEmpty();
+        try (NodeCursor node = ktx.cursors().allocateNodeCursor(ktx.cursorContext());
+                RelationshipTraversalCursor rels =
+                        ktx.cursors().allocateRelationshipTraversalCursor(ktx.cursorContext())) {
+            for (long id : batch) {
+                read.singleNode(id, node);
+                if (!node.next()) {
+                    continue;
+                }
+                if (!fromEndNodes) {
+                    node.relationships(rels, RelationshipSelection.selection(Direction.OUTGOING));
+                    while (rels.next()) {
+                        if (nodes.contains(rels.targetNodeReference())) {
+                            relationships.add(rels.relationshipReference());
+                        }
+                    }
+                    continue;
+                }
+                // the relationships of a node with few relationships are all in the same chain,
+                // so both directions are read at once
+                final boolean dense = denseNodes.contains(id);
+                node.relationships(
+                        rels,
+                        dense
+                                ? RelationshipSelection.selection(Direction.INCOMING)
+                                : RelationshipSelection.ALL_RELATIONSHIPS);
+                while (rels.next()) {
+                    final long source = rels.sourceNodeReference();
+                    if (source == id && !dense) {
+                        if (nodes.contains(rels.targetNodeReference())) {
+                            relationships.add(rels.relationshipReference());
+                        }
+                    } else if (rels.targetNodeReference() == id && denseNodes.contains(source)) {
+                        // including the loops of the dense nodes
+                        relationships.add(rels.relationshipReference());
+                    }
+                }
+            }
+        }
+        return relationships.toArray();
+    }
+
+    private Degrees degrees(long[] batch) {
+        try (Transaction tx = db.beginTx()) {
+            final Degrees degrees = degrees(((InternalTransaction) tx).kernelTransaction(), batch);
+            tx.commit();
+            return degrees;
+        }
+    }
+
+    private long[] scan(long[] batch, Roaring64NavigableMap nodes, Roaring64NavigableMap denseNodes) {
+        try (Transaction tx = db.beginTx()) {
+            final long[] relationships = scan(((InternalTransaction) tx).kernelTransaction(), batch, nodes, denseNodes);
+            tx.commit();
+            return relationships;
+        }
+    }
+
+    private <T> List<Future<T>> submit(List<long[]> batches, Function<long[], T> task) {
+        final List<Future<T>> futures = new ArrayList<>(batches.size());
+        for (long[] batch : batches) {
+            futures.add(pools.getDefaultExecutorService().submit(() -> task.apply(batch)));
+        }
+        return futures;
+    }
+
+    private static <T> List<T> getAll(List<Future<T>> futures) {
+        try {
+            final List<T> results = new ArrayList<>(futures.size());
+            futures.forEach(future -> results.add(get(future)));
+            return results;
+        } catch (RuntimeException e) {
+            cancel(futures);
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the batches not started yet, the running ones are not interrupted in the middle of their transaction
+     */
+    private static void cancel(List<? extends Future<?>> futures) {
+        futures.forEach(future -> future.cancel(false));
+    }
+
+    private static <T> T get(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(
+                    "Error covering the nodes: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while covering the nodes", e);
+        }
+    }
+}
@@ -25,10 +25,12 @@ import static java.util.Arrays.asList;
 
 import apoc.result.ListResult;
 import apoc.util.Util;
-import com.google.common.util.concurrent.AtomicDouble;
+import com.google.common.primitives.Doubles;
+import com.google.common.primitives.Longs;
 import java.lang.reflect.Array;
 import java.text.Collator;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
@@ -82,8 +84,12 @@ public class Coll {
             @Name("list") List<Number> list,
             @Name(value = "isBiasCorrected", defaultValue = "true") boolean isBiasCorrected) {
         if (list == null || list.isEmpty()) return null;
-        final double stdev = new StandardDeviation(isBiasCorrected)
-                .evaluate(list.stream().mapToDouble(Number::doubleValue).toArray());
+        double[] values = new double[list.size()];
+        int i = 0;
+        for (Number number : list) {
+            values[i++] = number.doubleValue();
+        }
+        final double stdev = new StandardDeviation(isBiasCorrected).evaluate(values);
         if ((long) stdev == stdev) return (long) stdev;
         return stdev;
     }
@@ -93,14 +99,18 @@ public class Coll {
             "apoc.coll.runningTotal(list1) - returns an accumulative array. For example apoc.coll.runningTotal([1,2,3.5]) return [1,3,6.5]")
     public List<Number> runningTotal(@Name("list") List<Number> list) {
         if (list == null || list.isEmpty()) return null;
-        AtomicDouble sum = new AtomicDouble();
-        return list.stream()
-                .map(i -> {
-                    double value = sum.addAndGet(i.doubleValue());
-                    if (value == sum.longValue()) return sum.longValue();
-                    return value;
-                })
-                .collect(Collectors.toList());
+        List<Number> result = new ArrayList<>(list.size());
+        double sum = 0;
+        for (Number number : list) {
+            sum += number.doubleValue();
+            long whole = (long) sum;
+            if (sum == whole) {
+                result.add(whole);
+            } else {
+                result.add(sum);
+            }
+        }
+        return result;
     }
 
     @Procedure
@@ -167,6 +177,10 @@ public class Coll {
     public Object min(@Name("values") List<Object> list) {
         if (list == null || list.isEmpty()) return null;
         if (list.size() == 1) return list.get(0);
+        long[] longs = NumericLists.toLongs(list);
+        if (longs != null) return NumericLists.min(longs);
+        double[] doubles = NumericLists.toDoubles(list);
+        if (doubles != null) return NumericLists.min(doubles);
 
         try (Result result = tx.execute(
                 "cypher runtime=slotted return reduce(res=null, x in $list | CASE WHEN res IS NULL OR x<res THEN x ELSE res END) as value",
@@ -180,6 +194,11 @@ public class Coll {
     public Object max(@Name("values") List<Object> list) {
         if (list == null || list.isEmpty()) return null;
         if (list.size() == 1) return list.get(0);
+        long[] longs = NumericLists.toLongs(list);
+        if (longs != null) return NumericLists.max(longs);
+        double[] doubles = NumericLists.toDoubles(list);
+        if (doubles != null) return NumericLists.max(doubles);
+
         try (Result result = tx.execute(
                 "cypher runtime=slotted return reduce(res=null, x in $list | CASE WHEN res IS NULL OR res<x THEN x ELSE res END) as value",
                 Collections.singletonMap("list", list))) {
@@ -790,6 +809,17 @@ public class Coll {
     @Description("apoc.coll.sort(coll) sort on Collections")
     public List<Object> sort(@Name("coll") List<Object> coll) {
         if (coll == null || coll.isEmpty()) return Collections.emptyList();
+        // the sorted primitive values are returned as they are, boxed only when read
+        long[] longs = NumericLists.toLongs(coll);
+        if (longs != null) {
+            Arrays.sort(longs);
+            return Collections.unmodifiableList(Longs.asList(longs));
+        }
+        double[] doubles = NumericLists.toDoubles(coll);
+        if (doubles != null) {
+            Arrays.sort(doubles);
+            return Collections.unmodifiableList(Doubles.asList(doubles));
+        }
         List sorted = new ArrayList<>(coll);
         Collections.sort((List<? extends Comparable>) sorted);
         return sorted;
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.coll;
+
+import java.util.List;
+
+/**
+ * The fast paths of the numeric functions of {@link Coll} for the lists of integers only or of floats only.
+ * They are unboxed once into a primitive array, then processed with plain indexed loops
+ * that the JIT can unroll and vectorize, instead of comparing or adding the boxed values one by one.
+ * The conversions return null for the lists with other values, nulls, or both integers and floats,
+ * for which the callers keep their generic implementation.
+ */
+final class NumericLists {
+
+    private NumericLists() {}
+
+    /**
+     * @return the values of a list of integers, null if it has any other value
+     */
+    static long[] toLongs(List<?> list) {
+        int size = list.size();
+        long[] values = new long[size];
+        for (int i = 0; i < size; i++) {
+            Object value = list.get(i);
+            if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                values[i] = ((Number) value).longValue();
+            } else {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    /**
+     * @return the values of a list of floats, null if it has any other value
+     */
+    static double[] toDoubles(List<?> list) {
+        int size = list.size();
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            Object value = list.get(i);
+            if (value instanceof Double || value instanceof Float) {
+                values[i] = ((Number) value).doubleValue();
+            } else {
+                return null;
+            }
+        }
+        return values;
+    }
+
+    static long min(long[] values) {
+        long min = values[0];
+        for (int i = 1; i < values.length; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    static long max(long[] values) {
+        long max = values[0];
+        for (int i = 1; i < values.length; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Keeps the first of the equal values and skips the NaNs after the first value, as the Cypher comparisons do,
+     * where {@link Math#min(double, double)} would return a NaN or the negative zero.
+     */
+    static double min(double[] values) {
+        double min = values[0];
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < min) {
+                min = values[i];
+            }
+        }
+        return min;
+    }
+
+    /**
+     * Keeps the first of the equal values and skips the NaNs after the first value, as the Cypher comparisons do,
+     * where {@link Math#max(double, double)} would return a NaN or the positive zero.
+     */
+    static double max(double[] values) {
+        double max = values[0];
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] > max) {
+                max = values[i];
+            }
+        }
+        return max;
+    }
+}
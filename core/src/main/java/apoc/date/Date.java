@@ -21,6 +21,7 @@ package apoc.date;
 import static java.time.temporal.ChronoField.*;
 
 import apoc.util.DateFormatUtil;
+import apoc.util.FormatCache;
 import apoc.util.Util;
 import java.text.DateFormat;
 import java.text.ParseException;
@@ -300,6 +301,10 @@ public class Date {
     }
 
     public static DateFormat getFormat(final String pattern, final String timezone) {
+        return FormatCache.dateFormat(pattern, timezone, () -> newFormat(pattern, timezone));
+    }
+
+    private static DateFormat newFormat(final String pattern, final String timezone) {
         String actualPattern = getPattern(pattern);
         SimpleDateFormat format = null;
         try {
@@ -317,6 +322,10 @@ public class Date {
 
     // work around https://bugs.openjdk.java.net/browse/JDK-8139107
     private static DateTimeFormatter getSafeDateTimeFormatter(final String pattern) {
+        return FormatCache.dateTimeFormatter(pattern, "apoc.date.fields", () -> newSafeDateTimeFormatter(pattern));
+    }
+
+    private static DateTimeFormatter newSafeDateTimeFormatter(final String pattern) {
         DateTimeFormatter safeFormatter = getDateTimeFormatter(pattern);
 
         if (Locale.UK.equals(safeFormatter.getLocale())) {
@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.arrow;
+
+import apoc.util.JsonUtil;
+import java.lang.reflect.Array;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAccessor;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import org.apache.arrow.vector.BaseVariableWidthVector;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.DateMilliVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntVector;
+import org.apache.arrow.vector.IntervalMonthDayNanoVector;
+import org.apache.arrow.vector.TimeNanoVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+import org.neo4j.graphdb.spatial.Point;
+import org.neo4j.values.storable.DurationValue;
+
+/**
+ * Writes the values of a column straight into its typed vector.
+ * The writer is chosen once per vector and batch, so that the rows are written column by column
+ * without checking the type of the vector for each value.
+ */
+@FunctionalInterface
+public interface ArrowColumnWriter {
+
+    void write(int index, Object value);
+
+    static ArrowColumnWriter of(FieldVector vector, ArrowDictionaries dictionaries) {
+        final DictionaryEncoding encoding = vector.getField().getDictionary();
+        if (encoding != null && vector instanceof IntVector) {
+            final IntVector intVector = (IntVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    intVector.setNull(index);
+                } else {
+                    intVector.setSafe(index, dictionaries.indexOf(encoding, value.toString()));
+                }
+            };
+        }
+        if (vector instanceof BitVector) {
+            final BitVector bitVector = (BitVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    bitVector.setNull(index);
+                } else if (value instanceof Boolean) {
+                    bitVector.setSafe(index, (Boolean) value ? 1 : 0);
+                } else {
+                    throw mismatch(vector, value);
+                }
+            };
+        }
+        if (vector instanceof BigIntVector) {
+            final BigIntVector bigIntVector = (BigIntVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    bigIntVector.setNull(index);
+                } else if (value instanceof Number && !(value instanceof Double || value instanceof Float)) {
+                    bigIntVector.setSafe(index, ((Number) value).longValue());
+                } else {
+                    throw mismatch(vector, value);
+                }
+            };
+        }
+        if (vector instanceof Float8Vector) {
+            final Float8Vector float8Vector = (Float8Vector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    float8Vector.setNull(index);
+                } else if (value instanceof Number) {
+                    float8Vector.setSafe(index, ((Number) value).doubleValue());
+                } else {
+                    throw mismatch(vector, value);
+                }
+            };
+        }
+        if (vector instanceof DateDayVector) {
+            final DateDayVector dateDayVector = (DateDayVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    dateDayVector.setNull(index);
+                } else if (value instanceof TemporalAccessor) {
+                    dateDayVector.setSafe(index, (int)
+                            LocalDate.from((TemporalAccessor) value).toEpochDay());
+                } else {
+                    throw mismatch(vector, value);
+                }
+            };
+        }
+        if (vector instanceof DateMilliVector) {
+            final DateMilliVector dateMilliVector = (DateMilliVector) vector;
+            return (index, value) -> {
+                final Instant instant = toInstant(value);
+                if (instant == null) {
+                    dateMilliVector.setNull(index);
+                } else {
+                    dateMilliVector.setSafe(index, instant.toEpochMilli());
+                }
+            };
+        }
+        if (vector instanceof TimeStampVector) {
+            final TimeStampVector timeStampVector = (TimeStampVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    timeStampVector.setNull(index);
+                    return;
+                }
+                final Instant instant = toInstant(value);
+                if (instant == null) {
+                    throw mismatch(vector, value);
+                }
+                timeStampVector.setSafe(index, ArrowUtils.toEpochMicros(instant));
+            };
+        }
+        if (vector instanceof TimeNanoVector) {
+            final TimeNanoVector timeNanoVector = (TimeNanoVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    timeNanoVector.setNull(index);
+                } else if (value instanceof TemporalAccessor) {
+                    timeNanoVector.setSafe(
+                            index, LocalTime.from((TemporalAccessor) value).toNanoOfDay());
+                } else {
+                    throw mismatch(vector, value);
+                }
+            };
+        }
+        if (vector instanceof IntervalMonthDayNanoVector) {
+            final IntervalMonthDayNanoVector intervalVector = (IntervalMonthDayNanoVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    intervalVector.setNull(index);
+                } else if (value instanceof DurationValue) {
+                    final DurationValue duration = (DurationValue) value;
+                    intervalVector.setSafe(
+                            index,
+                            Math.toIntExact(duration.get(ChronoUnit.MONTHS)),
+                            Math.toIntExact(duration.get(ChronoUnit.DAYS)),
+                            Math.addExact(
+                                    Math.multiplyExact(duration.get(ChronoUnit.SECONDS), 1_000_000_000L),
+                                    duration.get(ChronoUnit.NANOS)));
+                } else {
+                    throw mismatch(vector, value);
+                }
+            };
+        }
+        if (vector instanceof StructVector) {
+            return pointWriter((StructVector) vector);
+        }
+        if (vector instanceof ListVector) {
+            return listWriter((ListVector) vector, dictionaries);
+        }
+        if (vector instanceof BaseVariableWidthVector) {
+            final BaseVariableWidthVector variableWidthVector = (BaseVariableWidthVector) vector;
+            return (index, value) -> {
+                if (value == null) {
+                    variableWidthVector.setNull(index);
+                } else if (value instanceof String) {
+                    variableWidthVector.setSafe(index, ((String) value).getBytes(StandardCharsets.UTF_8));
+                } else if (value instanceof DurationValue) {
+                    variableWidthVector.setSafe(index, value.toString().getBytes(StandardCharsets.UTF_8));
+                } else {
+                    variableWidthVector.setSafe(index, JsonUtil.writeValueAsBytes(value));
+                }
+            };
+        }
+        throw new IllegalArgumentException("Unsupported Arrow vector " + vector.getField());
+    }
+
+    private static ArrowColumnWriter pointWriter(StructVector vector) {
+        final VarCharVector crs = (VarCharVector) vector.getChild(ArrowUtils.POINT_CRS);
+        final Float8Vector x = (Float8Vector) vector.getChild(ArrowUtils.POINT_X);
+        final Float8Vector y = (Float8Vector) vector.getChild(ArrowUtils.POINT_Y);
+        final Float8Vector z = (Float8Vector) vector.getChild(ArrowUtils.POINT_Z);
+        return (index, value) -> {
+            if (value == null) {
+                vector.setNull(index);
+                return;
+            }
+            if (!(value instanceof Point)) {
+                throw mismatch(vector, value);
+            }
+            final Point point = (Point) value;
+            final List<Double> coordinate = point.getCoordinate().getCoordinate();
+            vector.setIndexDefined(index);
+            crs.setSafe(index, point.getCRS().getType().getBytes(StandardCharsets.UTF_8));
+            x.setSafe(index, coordinate.get(0));
+            y.setSafe(index, coordinate.get(1));
+            if (coordinate.size() > 2) {
+                z.setSafe(index, coordinate.get(2));
+            } else {
+                z.setNull(index);
+            }
+        };
+    }
+
+    private static ArrowColumnWriter listWriter(ListVector vector, ArrowDictionaries dictionaries) {
+        final ArrowColumnWriter dataWriter = of(vector.getDataVector(), dictionaries);
+        return (index, value) -> {
+            if (value == null) {
+                vector.setNull(index);
+                return;
+            }
+            final int offset = vector.startNewValue(index);
+            int size = 0;
+            if (value instanceof Collection) {
+                for (Object item : (Collection<?>) value) {
+                    dataWriter.write(offset + size++, item);
+                }
+            } else if (value.getClass().isArray()) {
+                // the primitive arrays of the properties as well
+                size = Array.getLength(value);
+                for (int i = 0; i < size; i++) {
+                    dataWriter.write(offset + i, Array.get(value, i));
+                }
+            } else {
+                dataWriter.write(offset, value);
+                size = 1;
+            }
+            vector.endValue(index, size);
+        };
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof Date) {
+            return ((Date) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).toInstant(ZoneOffset.UTC);
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay().toInstant(ZoneOffset.UTC);
+        } else if (value instanceof Instant) {
+            return (Instant) value;
+        }
+        return null;
+    }
+
+    private static IllegalArgumentException mismatch(FieldVector vector, Object value) {
+        return new IllegalArgumentException("Cannot write the value " + value + " of type "
+                + value.getClass().getSimpleName() + " into the column " + vector.getField());
+    }
+}
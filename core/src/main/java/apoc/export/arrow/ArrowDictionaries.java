@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.arrow;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
+
+/**
+ * The dictionaries of the dictionary encoded string fields of an export, e.g. the labels and the relationship types,
+ * with the index of each of their values.
+ * They are written before the first batch, so they must hold all the values of the export.
+ */
+public class ArrowDictionaries implements AutoCloseable {
+
+    public static final ArrowDictionaries EMPTY = new ArrowDictionaries();
+
+    private final DictionaryProvider.MapDictionaryProvider provider = new DictionaryProvider.MapDictionaryProvider();
+    private final Map<Long, Map<String, Integer>> indexes = new HashMap<>();
+    private final List<VarCharVector> vectors = new ArrayList<>();
+
+    public void add(DictionaryEncoding encoding, Collection<String> values, BufferAllocator allocator) {
+        final VarCharVector vector = new VarCharVector("dictionary-" + encoding.getId(), allocator);
+        final Map<String, Integer> index = new HashMap<>();
+        vector.allocateNew(values.size());
+        for (String value : values) {
+            if (!index.containsKey(value)) {
+                vector.setSafe(index.size(), value.getBytes(StandardCharsets.UTF_8));
+                index.put(value, index.size());
+            }
+        }
+        vector.setValueCount(index.size());
+        vectors.add(vector);
+        indexes.put(encoding.getId(), index);
+        provider.put(new Dictionary(vector, encoding));
+    }
+
+    /**
+     * @return the index of the value in the dictionary of the encoding
+     */
+    public int indexOf(DictionaryEncoding encoding, String value) {
+        final Integer index = indexes.getOrDefault(encoding.getId(), Map.of()).get(value);
+        if (index == null) {
+            throw new IllegalStateException(
+                    "The value " + value + " is missing from the dictionary " + encoding.getId());
+        }
+        return index;
+    }
+
+    public DictionaryProvider getProvider() {
+        return provider;
+    }
+
+    @Override
+    public void close() {
+        vectors.forEach(VarCharVector::close);
+        vectors.clear();
+    }
+}
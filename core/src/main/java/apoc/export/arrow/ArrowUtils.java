@@ -18,23 +18,206 @@
  */
 package apoc.export.arrow;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.apache.arrow.vector.BaseIntVector;
+import org.apache.arrow.vector.BitVector;
+import org.apache.arrow.vector.DateDayVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.Float8Vector;
+import org.apache.arrow.vector.IntervalMonthDayNanoVector;
+import org.apache.arrow.vector.TimeNanoVector;
+import org.apache.arrow.vector.TimeStampVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.complex.ListVector;
+import org.apache.arrow.vector.complex.StructVector;
+import org.apache.arrow.vector.dictionary.Dictionary;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
+import org.apache.arrow.vector.holders.NullableIntervalMonthDayNanoHolder;
+import org.apache.arrow.vector.types.TimeUnit;
 import org.apache.arrow.vector.types.Types;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.DictionaryEncoding;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.util.Text;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.Values;
 
 public class ArrowUtils {
 
     private ArrowUtils() {}
 
+    public static final DictionaryEncoding LABELS_DICTIONARY = new DictionaryEncoding(0L, false, null);
+    public static final DictionaryEncoding TYPES_DICTIONARY = new DictionaryEncoding(1L, false, null);
+
     public static Field FIELD_ID = new Field("<id>", FieldType.nullable(Types.MinorType.BIGINT.getType()), null);
     public static Field FIELD_LABELS = new Field(
             "labels",
             FieldType.nullable(Types.MinorType.LIST.getType()),
-            List.of(new Field("$data$", FieldType.nullable(Types.MinorType.VARCHAR.getType()), null)));
+            List.of(new Field("$data$", new FieldType(true, Types.MinorType.INT.getType(), LABELS_DICTIONARY), null)));
     public static Field FIELD_SOURCE_ID =
             new Field("<source.id>", FieldType.nullable(Types.MinorType.BIGINT.getType()), null);
     public static Field FIELD_TARGET_ID =
             new Field("<target.id>", FieldType.nullable(Types.MinorType.BIGINT.getType()), null);
-    public static Field FIELD_TYPE = new Field("<type>", FieldType.nullable(Types.MinorType.VARCHAR.getType()), null);
+    public static Field FIELD_TYPE =
+            new Field("<type>", new FieldType(true, Types.MinorType.INT.getType(), TYPES_DICTIONARY), null);
+
+    // the children of the struct of a point, z being null for the 2D points
+    public static final String POINT_CRS = "crs";
+    public static final String POINT_X = "x";
+    public static final String POINT_Y = "y";
+    public static final String POINT_Z = "z";
+
+    public static Field pointField(String fieldName) {
+        return new Field(
+                fieldName,
+                FieldType.nullable(Types.MinorType.STRUCT.getType()),
+                List.of(
+                        new Field(POINT_CRS, FieldType.nullable(Types.MinorType.VARCHAR.getType()), null),
+                        new Field(POINT_X, FieldType.nullable(Types.MinorType.FLOAT8.getType()), null),
+                        new Field(POINT_Y, FieldType.nullable(Types.MinorType.FLOAT8.getType()), null),
+                        new Field(POINT_Z, FieldType.nullable(Types.MinorType.FLOAT8.getType()), null)));
+    }
+
+    /**
+     * Reads a value straight from the vector of the loaded batch, as the Java type of the Neo4j value it was
+     * exported from: temporal values, durations, points and the dictionary encoded strings are decoded,
+     * and the lists are read element by element from their data vector.
+     * The other vectors are read with their {@link FieldVector#getObject(int)}, with the texts as strings.
+     */
+    public static Object read(FieldVector vector, int index, DictionaryProvider dictionaries) {
+        if (vector.isNull(index)) {
+            return null;
+        }
+        final DictionaryEncoding encoding = vector.getField().getDictionary();
+        if (encoding != null && vector instanceof BaseIntVector) {
+            final Dictionary dictionary = dictionaries.lookup(encoding.getId());
+            final int position = (int) ((BaseIntVector) vector).getValueAsLong(index);
+            return read((FieldVector) dictionary.getVector(), position, dictionaries);
+        }
+        if (vector instanceof BitVector) {
+            return ((BitVector) vector).get(index) == 1;
+        }
+        if (vector instanceof VarCharVector) {
+            return new String(((VarCharVector) vector).get(index), StandardCharsets.UTF_8);
+        }
+        if (vector instanceof DateDayVector) {
+            return LocalDate.ofEpochDay(((DateDayVector) vector).get(index));
+        }
+        if (vector instanceof TimeNanoVector) {
+            return LocalTime.ofNanoOfDay(((TimeNanoVector) vector).get(index));
+        }
+        if (vector instanceof TimeStampVector) {
+            return readTimestamp((TimeStampVector) vector, index);
+        }
+        if (vector instanceof IntervalMonthDayNanoVector) {
+            final NullableIntervalMonthDayNanoHolder holder = new NullableIntervalMonthDayNanoHolder();
+            ((IntervalMonthDayNanoVector) vector).get(index, holder);
+            return DurationValue.duration(
+                    holder.months,
+                    holder.days,
+                    Math.floorDiv(holder.nanoseconds, 1_000_000_000L),
+                    Math.floorMod(holder.nanoseconds, 1_000_000_000L));
+        }
+        if (vector instanceof ListVector) {
+            final ListVector listVector = (ListVector) vector;
+            final FieldVector dataVector = listVector.getDataVector();
+            final int end = listVector.getElementEndIndex(index);
+            final List<Object> list = new ArrayList<>(end - listVector.getElementStartIndex(index));
+            for (int i = listVector.getElementStartIndex(index); i < end; i++) {
+                list.add(read(dataVector, i, dictionaries));
+            }
+            return list;
+        }
+        if (vector instanceof StructVector) {
+            final StructVector structVector = (StructVector) vector;
+            if (isPoint(structVector)) {
+                return readPoint(structVector, index);
+            }
+            final Map<String, Object> map = new HashMap<>();
+            for (FieldVector child : structVector.getChildrenFromFields()) {
+                map.put(child.getName(), read(child, index, dictionaries));
+            }
+            return map;
+        }
+        return fromArrow(vector.getObject(index));
+    }
+
+    private static Object fromArrow(Object object) {
+        if (object instanceof Text) {
+            return object.toString();
+        }
+        if (object instanceof Collection) {
+            final List<Object> list = new ArrayList<>();
+            ((Collection<?>) object).forEach(item -> list.add(fromArrow(item)));
+            return list;
+        }
+        if (object instanceof Map) {
+            final Map<String, Object> map = new HashMap<>();
+            ((Map<?, ?>) object).forEach((key, value) -> map.put(String.valueOf(key), fromArrow(value)));
+            return map;
+        }
+        return object;
+    }
+
+    private static Object readTimestamp(TimeStampVector vector, int index) {
+        final ArrowType.Timestamp type = (ArrowType.Timestamp) vector.getField().getType();
+        final long value = vector.get(index);
+        final Instant instant = toInstant(value, type.getUnit());
+        if (type.getTimezone() == null) {
+            return instant.atOffset(ZoneOffset.UTC).toLocalDateTime();
+        }
+        return instant.atZone(ZoneId.of(type.getTimezone()));
+    }
+
+    private static Instant toInstant(long value, TimeUnit unit) {
+        switch (unit) {
+            case SECOND:
+                return Instant.ofEpochSecond(value);
+            case MILLISECOND:
+                return Instant.ofEpochMilli(value);
+            case MICROSECOND:
+                return Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1000);
+            default:
+                return Instant.ofEpochSecond(
+                        Math.floorDiv(value, 1_000_000_000L), Math.floorMod(value, 1_000_000_000L));
+        }
+    }
+
+    /**
+     * @return the microseconds since the epoch of the instant
+     */
+    public static long toEpochMicros(Instant instant) {
+        return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), 1_000_000L), instant.getNano() / 1000);
+    }
+
+    private static boolean isPoint(StructVector vector) {
+        return vector.getChild(POINT_CRS) instanceof VarCharVector
+                && vector.getChild(POINT_X) instanceof Float8Vector
+                && vector.getChild(POINT_Y) instanceof Float8Vector;
+    }
+
+    private static Object readPoint(StructVector vector, int index) {
+        final VarCharVector crs = (VarCharVector) vector.getChild(POINT_CRS);
+        final Float8Vector x = (Float8Vector) vector.getChild(POINT_X);
+        final Float8Vector y = (Float8Vector) vector.getChild(POINT_Y);
+        final FieldVector z = vector.getChild(POINT_Z);
+        final CoordinateReferenceSystem crsValue =
+                CoordinateReferenceSystem.byName(new String(crs.get(index), StandardCharsets.UTF_8));
+        if (z instanceof Float8Vector && !z.isNull(index)) {
+            return Values.pointValue(crsValue, x.get(index), y.get(index), ((Float8Vector) z).get(index));
+        }
+        return Values.pointValue(crsValue, x.get(index), y.get(index));
+    }
 }
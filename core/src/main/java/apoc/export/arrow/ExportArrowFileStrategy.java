@@ -35,12 +35,10 @@ import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.VectorSchemaRoot;
-import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.ipc.ArrowFileWriter;
 import org.apache.arrow.vector.ipc.ArrowWriter;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -91,6 +89,7 @@ public interface ExportArrowFileStrategy<IN> extends ExportArrowStrategy<IN, Str
                 reporter.done();
                 Util.close(root);
                 Util.close(writer);
+                Util.close(getDictionaries());
                 QueueUtil.put(queue, ProgressInfo.EMPTY, 10);
             }
             return true;
@@ -103,16 +102,7 @@ public interface ExportArrowFileStrategy<IN> extends ExportArrowStrategy<IN, Str
     String getSource(IN data);
 
     default void writeBatch(VectorSchemaRoot root, ArrowWriter writer, List<Map<String, Object>> rows) {
-        AtomicInteger counter = new AtomicInteger();
-        root.allocateNew();
-        rows.forEach(row -> {
-            final int index = counter.getAndIncrement();
-            root.getFieldVectors().forEach(fe -> {
-                Object value = convertValue(row.get(fe.getName()));
-                write(index, value, fe);
-            });
-        });
-        root.setRowCount(counter.get());
+        writeColumns(root, rows);
         try {
             writer.writeBatch();
         } catch (IOException e) {
@@ -138,7 +128,7 @@ public interface ExportArrowFileStrategy<IN> extends ExportArrowStrategy<IN, Str
     }
 
     default ArrowWriter newArrowWriter(VectorSchemaRoot root, OutputStream out) {
-        return new ArrowFileWriter(root, new DictionaryProvider.MapDictionaryProvider(), Channels.newChannel(out));
+        return new ArrowFileWriter(root, getDictionaries().getProvider(), Channels.newChannel(out));
     }
 
     Schema schemaFor(List<Map<String, Object>> rows);
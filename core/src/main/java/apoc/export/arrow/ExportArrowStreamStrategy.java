@@ -33,12 +33,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.VectorSchemaRoot;
-import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.ipc.ArrowStreamWriter;
 import org.apache.arrow.vector.ipc.ArrowWriter;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -51,16 +49,7 @@ public interface ExportArrowStreamStrategy<IN> extends ExportArrowStrategy<IN, S
         try (final VectorSchemaRoot root = VectorSchemaRoot.create(schemaFor(rows), bufferAllocator);
                 final ByteArrayOutputStream out = new ByteArrayOutputStream();
                 final ArrowWriter writer = newArrowWriter(root, out)) {
-            AtomicInteger counter = new AtomicInteger();
-            root.allocateNew();
-            rows.forEach(row -> {
-                final int index = counter.getAndIncrement();
-                root.getFieldVectors().forEach(fe -> {
-                    Object value = convertValue(row.get(fe.getName()));
-                    write(index, value, fe);
-                });
-            });
-            root.setRowCount(counter.get());
+            writeColumns(root, rows);
             writer.writeBatch();
             root.clear();
             return out.toByteArray();
@@ -92,6 +81,7 @@ public interface ExportArrowStreamStrategy<IN> extends ExportArrowStrategy<IN, S
             } catch (Exception e) {
                 getLogger().error("Exception while extracting Arrow data:", e);
             } finally {
+                Util.close(getDictionaries());
                 QueueUtil.put(queue, ByteArrayResult.NULL, 10);
             }
             return true;
@@ -106,7 +96,7 @@ public interface ExportArrowStreamStrategy<IN> extends ExportArrowStrategy<IN, S
     }
 
     default ArrowWriter newArrowWriter(VectorSchemaRoot root, OutputStream out) {
-        return new ArrowStreamWriter(root, new DictionaryProvider.MapDictionaryProvider(), Channels.newChannel(out));
+        return new ArrowStreamWriter(root, getDictionaries().getProvider(), Channels.newChannel(out));
     }
 
     Schema schemaFor(List<Map<String, Object>> rows);
@@ -48,6 +48,7 @@ public class ExportGraphFileStrategy implements ExportArrowFileStrategy<SubGraph
     private final RootAllocator bufferAllocator;
 
     private Schema schema;
+    private ArrowDictionaries dictionaries = ArrowDictionaries.EMPTY;
 
     public ExportGraphFileStrategy(
             String fileName, GraphDatabaseService db, Pools pools, TerminationGuard terminationGuard, Log logger) {
@@ -79,6 +80,7 @@ public class ExportGraphFileStrategy implements ExportArrowFileStrategy<SubGraph
     @Override
     public Stream<ProgressInfo> export(SubGraph data, ArrowConfig config) {
         schemaFor(List.of(createConfigMap(data, config)));
+        this.dictionaries = createDictionaries(data, bufferAllocator);
         return ExportArrowFileStrategy.super.export(data, config);
     }
 
@@ -112,6 +114,11 @@ public class ExportGraphFileStrategy implements ExportArrowFileStrategy<SubGraph
         return logger;
     }
 
+    @Override
+    public ArrowDictionaries getDictionaries() {
+        return dictionaries;
+    }
+
     @Override
     public synchronized Schema schemaFor(List<Map<String, Object>> records) {
         if (schema == null) {
@@ -35,6 +35,7 @@ import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.vector.types.pojo.Field;
 import org.apache.arrow.vector.types.pojo.Schema;
 import org.neo4j.cypher.export.SubGraph;
@@ -95,6 +96,24 @@ public interface ExportGraphStrategy {
         return flattened;
     }
 
+    /**
+     * @return the dictionaries of the labels and the relationship types of the sub graph
+     */
+    default ArrowDictionaries createDictionaries(SubGraph subGraph, BufferAllocator allocator) {
+        final ArrowDictionaries dictionaries = new ArrowDictionaries();
+        dictionaries.add(
+                ArrowUtils.LABELS_DICTIONARY,
+                Iterables.stream(subGraph.getAllLabelsInUse()).map(Label::name).collect(Collectors.toList()),
+                allocator);
+        dictionaries.add(
+                ArrowUtils.TYPES_DICTIONARY,
+                Iterables.stream(subGraph.getAllRelationshipTypesInUse())
+                        .map(RelationshipType::name)
+                        .collect(Collectors.toList()),
+                allocator);
+        return dictionaries;
+    }
+
     default Map<String, Object> createConfigMap(SubGraph subGraph, ArrowConfig config) {
         final List<String> allLabelsInUse =
                 Iterables.stream(subGraph.getAllLabelsInUse()).map(Label::name).collect(Collectors.toList());
@@ -30,7 +30,6 @@ import java.util.stream.Stream;
 import org.apache.arrow.memory.BufferAllocator;
 import org.apache.arrow.memory.RootAllocator;
 import org.apache.arrow.vector.VectorSchemaRoot;
-import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.ipc.ArrowStreamWriter;
 import org.apache.arrow.vector.ipc.ArrowWriter;
 import org.apache.arrow.vector.types.pojo.Schema;
@@ -50,6 +49,7 @@ public class ExportGraphStreamStrategy implements ExportArrowStreamStrategy<SubG
     private final RootAllocator bufferAllocator;
 
     private Schema schema;
+    private ArrowDictionaries dictionaries = ArrowDictionaries.EMPTY;
 
     public ExportGraphStreamStrategy(
             GraphDatabaseService db, Pools pools, TerminationGuard terminationGuard, Log logger) {
@@ -71,6 +71,7 @@ public class ExportGraphStreamStrategy implements ExportArrowStreamStrategy<SubG
     public Stream<ByteArrayResult> export(SubGraph subGraph, ArrowConfig config) {
         Map<String, Object> configMap = createConfigMap(subGraph, config);
         this.schemaFor(List.of(configMap));
+        this.dictionaries = createDictionaries(subGraph, bufferAllocator);
         return ExportArrowStreamStrategy.super.export(subGraph, config);
     }
 
@@ -101,7 +102,12 @@ public class ExportGraphStreamStrategy implements ExportArrowStreamStrategy<SubG
 
     @Override
     public ArrowWriter newArrowWriter(VectorSchemaRoot root, OutputStream out) {
-        return new ArrowStreamWriter(root, new DictionaryProvider.MapDictionaryProvider(), Channels.newChannel(out));
+        return new ArrowStreamWriter(root, dictionaries.getProvider(), Channels.newChannel(out));
+    }
+
+    @Override
+    public ArrowDictionaries getDictionaries() {
+        return dictionaries;
     }
 
     @Override
@@ -72,7 +72,7 @@ public class CsvEntityLoader {
             final Object fileName,
             final List<String> labels,
             final GraphDatabaseService db,
-            final Map<String, Map<String, Long>> idMapping)
+            final Map<String, IdMapping> idMapping)
             throws IOException {
 
         try (final CountingReader reader = FileUtils.readerFor(fileName, clc.getCompressionAlgo())) {
@@ -94,10 +94,9 @@ public class CsvEntityLoader {
             final String idSpace =
                     idField.isPresent() ? idField.get().getIdSpace() : CsvLoaderConstants.DEFAULT_IDSPACE;
 
-            idMapping.putIfAbsent(idSpace, new HashMap<>());
-            final Map<String, Long> idspaceIdMapping = idMapping.get(idSpace);
+            final IdMapping idspaceIdMapping = idMapping.computeIfAbsent(idSpace, k -> IdMapping.create(clc));
 
-            final Map<String, Mapping> mapping = getMapping(fields);
+            final Map<String, Mapping> mapping = getMapping(fields, clc);
 
             final CSVReader csv = new CSVReaderBuilder(reader)
                     .withCSVParser(new RFC4180ParserBuilder()
@@ -132,7 +131,7 @@ public class CsvEntityLoader {
                     // if 'ignore duplicate nodes' is false, there is an id field and the mapping already has the
                     // current id,
                     // we either fail the loading process or skip it depending on the 'ignore duplicate nodes' setting
-                    if (idField.isPresent() && idspaceIdMapping.containsKey(nodeCsvId)) {
+                    if (idField.isPresent() && nodeCsvId != null && idspaceIdMapping.containsKey(nodeCsvId)) {
                         if (clc.getIgnoreDuplicateNodes()) {
                             return;
                         } else {
@@ -143,7 +142,7 @@ public class CsvEntityLoader {
 
                     // create node and add its id to the mapping
                     final Node node = btx.getTransaction().createNode();
-                    if (idField.isPresent()) {
+                    if (idField.isPresent() && nodeCsvId != null) {
                         idspaceIdMapping.put(nodeCsvId, node.getId());
                     }
 
@@ -204,10 +203,7 @@ public class CsvEntityLoader {
      * @throws IOException
      */
     public void loadRelationships(
-            final Object data,
-            final String type,
-            final GraphDatabaseService db,
-            final Map<String, Map<String, Long>> idMapping)
+            final Object data, final String type, final GraphDatabaseService db, final Map<String, IdMapping> idMapping)
             throws IOException {
 
         try (final CountingReader reader = FileUtils.readerFor(data, clc.getCompressionAlgo())) {
@@ -230,7 +226,7 @@ public class CsvEntityLoader {
                     .filter(field -> !CsvLoaderConstants.END_ID_FIELD.equals(field.getType()))
                     .collect(Collectors.toList());
 
-            final Map<String, Mapping> mapping = getMapping(fields);
+            final Map<String, Mapping> mapping = getMapping(fields, clc);
             final var parser =
                     new CSVParserBuilder().withSeparator(clc.getDelimiter()).build();
 
@@ -258,22 +254,12 @@ public class CsvEntityLoader {
                                 results);
 
                         final Object startId = result.map.get(CsvLoaderConstants.START_ID_ATTR);
-                        final Object startInternalId =
-                                idMapping.get(startIdField.getIdSpace()).get(startId);
-                        if (startInternalId == null) {
-                            throw new IllegalStateException("Node for id space " + endIdField.getIdSpace() + " and id "
-                                    + startId + " not found");
-                        }
-                        final Node source = btx.getTransaction().getNodeById((long) startInternalId);
+                        final long startInternalId = lookupNodeId(idMapping, startIdField.getIdSpace(), startId);
+                        final Node source = btx.getTransaction().getNodeById(startInternalId);
 
                         final Object endId = result.map.get(CsvLoaderConstants.END_ID_ATTR);
-                        final Object endInternalId =
-                                idMapping.get(endIdField.getIdSpace()).get(endId);
-                        if (endInternalId == null) {
-                            throw new IllegalStateException(
-                                    "Node for id space " + endIdField.getIdSpace() + " and id " + endId + " not found");
-                        }
-                        final Node target = btx.getTransaction().getNodeById((long) endInternalId);
+                        final long endInternalId = lookupNodeId(idMapping, endIdField.getIdSpace(), endId);
+                        final Node target = btx.getTransaction().getNodeById(endInternalId);
 
                         final String currentType;
                         final Object overridingType = result.map.get(CsvLoaderConstants.TYPE_ATTR);
@@ -308,7 +294,16 @@ public class CsvEntityLoader {
         }
     }
 
-    private Map<String, Mapping> getMapping(List<CsvHeaderField> fields) {
+    private static long lookupNodeId(Map<String, IdMapping> idMapping, String idSpace, Object csvId) {
+        final IdMapping idspaceIdMapping = idMapping.get(idSpace);
+        final long internalId = idspaceIdMapping == null ? IdMapping.NOT_FOUND : idspaceIdMapping.get(csvId);
+        if (internalId == IdMapping.NOT_FOUND) {
+            throw new IllegalStateException("Node for id space " + idSpace + " and id " + csvId + " not found");
+        }
+        return internalId;
+    }
+
+    static Map<String, Mapping> getMapping(List<CsvHeaderField> fields, CsvLoaderConfig clc) {
         return fields.stream().collect(Collectors.toMap(CsvHeaderField::getName, f -> {
             final Map<String, Object> mappingMap = Collections.unmodifiableMap(Stream.of(
                             new AbstractMap.SimpleEntry<>("type", f.getType()),
@@ -320,7 +315,7 @@ public class CsvEntityLoader {
         }));
     }
 
-    private static String readFirstLine(CountingReader reader) throws IOException {
+    static String readFirstLine(CountingReader reader) throws IOException {
         String line = "";
         int i;
         while ((i = reader.read()) != 0) {
@@ -19,14 +19,17 @@
 package apoc.export.csv;
 
 import static apoc.export.util.BulkImportUtil.formatHeader;
+import static apoc.export.util.MetaInformation.classFor;
 import static apoc.export.util.MetaInformation.collectPropTypesForNodes;
 import static apoc.export.util.MetaInformation.collectPropTypesForRelationships;
 import static apoc.export.util.MetaInformation.getLabelsString;
+import static apoc.export.util.MetaInformation.sampledPropTypesForNodes;
+import static apoc.export.util.MetaInformation.sampledPropTypesForRelationships;
 import static apoc.export.util.MetaInformation.updateKeyTypes;
 import static apoc.util.Util.INVALID_QUERY_MODE_ERROR;
-import static apoc.util.Util.joinLabels;
 
 import apoc.export.cypher.ExportFileManager;
+import apoc.export.cypher.FileManagerFactory;
 import apoc.export.util.ExportConfig;
 import apoc.export.util.Format;
 import apoc.export.util.FormatUtils;
@@ -34,28 +37,32 @@ import apoc.export.util.MetaInformation;
 import apoc.export.util.Reporter;
 import apoc.result.ProgressInfo;
 import com.opencsv.CSVWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 import org.neo4j.cypher.export.SubGraph;
 import org.neo4j.graphdb.Entity;
 import org.neo4j.graphdb.GraphDatabaseService;
-import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Relationship;
-import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.security.AuthorizationViolationException;
@@ -71,6 +78,7 @@ public class CsvFormat implements Format {
 
     private static final String[] NODE_HEADER_FIXED_COLUMNS = {"_id:id", "_labels:label"};
     private static final String[] REL_HEADER_FIXED_COLUMNS = {"_start:id", "_end:id", "_type:label"};
+    private static final String[] EXTRA_HEADER = {"_entity", "_id", "key", "value"};
 
     public CsvFormat(GraphDatabaseService db) {
         this.db = db;
@@ -89,7 +97,7 @@ public class CsvFormat implements Format {
             } else {
                 try (PrintWriter printWriter = writer.getPrintWriter("csv")) {
                     CSVWriter out = getCsvWriter(printWriter, config);
-                    writeAll(graph, reporter, config, out);
+                    writeAll(graph, reporter, config, out, writer);
                 }
             }
             tx.commit();
@@ -171,178 +179,356 @@ public class CsvFormat implements Format {
     }
 
     public void writeAll(SubGraph graph, Reporter reporter, ExportConfig config, CSVWriter out) {
-        Map<String, Class> nodePropTypes = collectPropTypesForNodes(graph, db, config);
-        Map<String, Class> relPropTypes = collectPropTypesForRelationships(graph, db, config);
-        List<String> nodeHeader = generateHeader(nodePropTypes, config.useTypes(), NODE_HEADER_FIXED_COLUMNS);
-        List<String> relHeader = generateHeader(relPropTypes, config.useTypes(), REL_HEADER_FIXED_COLUMNS);
+        writeAll(graph, reporter, config, out, null);
+    }
+
+    /**
+     * With {@code singlePass}, the columns are the ones declared by {@code columns}, or else the ones sampled by
+     * {@code apoc.meta.nodeTypeProperties} and {@code apoc.meta.relTypeProperties}, so that the graph is scanned once.
+     * The properties missing from the columns are then written to the {@code extra} file next to the exported one,
+     * or after the rows when the export is streamed.
+     */
+    public void writeAll(
+            SubGraph graph, Reporter reporter, ExportConfig config, CSVWriter out, ExportFileManager writer) {
+        final boolean singlePass = config.isSinglePass();
+        Map<String, Class> nodePropTypes = singlePass
+                ? declaredPropTypes(config, "nodes", () -> sampledPropTypesForNodes(graph, db, config))
+                : collectPropTypesForNodes(graph, db, config);
+        Map<String, Class> relPropTypes = singlePass
+                ? declaredPropTypes(config, "relationships", () -> sampledPropTypesForRelationships(graph, db, config))
+                : collectPropTypesForRelationships(graph, db, config);
+        List<Map.Entry<String, String>> nodeColumns = generateColumns(nodePropTypes, config.useTypes());
+        List<Map.Entry<String, String>> relColumns = generateColumns(relPropTypes, config.useTypes());
+        List<String> nodeHeader = generateHeader(nodeColumns, config.useTypes(), NODE_HEADER_FIXED_COLUMNS);
+        List<String> relHeader = generateHeader(relColumns, config.useTypes(), REL_HEADER_FIXED_COLUMNS);
         List<String> header = new ArrayList<>(nodeHeader);
         header.addAll(relHeader);
         out.writeNext(header.toArray(new String[header.size()]), applyQuotesToAll);
         int cols = header.size();
 
-        writeNodes(
-                graph,
-                out,
-                reporter,
-                nodeHeader.subList(NODE_HEADER_FIXED_COLUMNS.length, nodeHeader.size()),
-                cols,
-                config.getBatchSize(),
-                config.getDelim());
-        writeRels(
-                graph,
-                out,
-                reporter,
-                relHeader.subList(REL_HEADER_FIXED_COLUMNS.length, relHeader.size()),
-                cols,
-                nodeHeader.size(),
-                config.getBatchSize(),
-                config.getDelim());
+        ExtraProperties extraProperties = singlePass ? new ExtraProperties(config, writer) : null;
+        try {
+            writeNodes(
+                    graph,
+                    out,
+                    reporter,
+                    keys(nodeColumns),
+                    cols,
+                    config.getBatchSize(),
+                    config.getDelim(),
+                    extraProperties);
+            writeRels(
+                    graph,
+                    out,
+                    reporter,
+                    keys(relColumns),
+                    cols,
+                    nodeHeader.size(),
+                    config.getBatchSize(),
+                    config.getDelim(),
+                    extraProperties);
+            if (extraProperties != null) {
+                extraProperties.writeSpilled(out);
+            }
+        } finally {
+            if (extraProperties != null) {
+                extraProperties.close();
+            }
+        }
+    }
+
+    private static Map<String, Class> declaredPropTypes(
+            ExportConfig config, String entityType, Supplier<Map<String, Class>> sampled) {
+        Map<String, Object> columns = config.getColumns();
+        if (columns == null) {
+            return sampled.get();
+        }
+        Map<String, Class> propTypes = new LinkedHashMap<>();
+        Map<String, Object> declared = (Map<String, Object>) columns.getOrDefault(entityType, Collections.emptyMap());
+        declared.forEach((key, type) -> propTypes.put(key, classFor(String.valueOf(type))));
+        return propTypes;
+    }
+
+    private static List<String> keys(List<Map.Entry<String, String>> columns) {
+        return columns.stream().map(Map.Entry::getKey).collect(Collectors.toList());
+    }
+
+    /**
+     * The properties missing from the columns of a single pass export, written as
+     * {@code _entity,_id,key,value} rows to a file of their own, or for a streamed export,
+     * spilled to a temporary file until they are written after the rows
+     */
+    private class ExtraProperties {
+        private static final String EXTRA = "extra";
+        private final ExportConfig config;
+        private final String fileName;
+        private PrintWriter printWriter;
+        private CSVWriter csvWriter;
+        private Path spillFile;
+        private DataOutputStream spill;
+        private long spilled;
+
+        ExtraProperties(ExportConfig config, ExportFileManager writer) {
+            this.config = config;
+            this.fileName = writer == null ? null : writer.getFileName();
+        }
+
+        void write(Entity entity, String key, Object value) {
+            String[] row = {
+                entity instanceof Node ? "node" : "relationship",
+                String.valueOf(entity.getId()),
+                key,
+                FormatUtils.toString(value)
+            };
+            if (fileName == null) {
+                spill(row);
+                return;
+            }
+            if (csvWriter == null) {
+                printWriter = FileManagerFactory.createFileManager(fileName, true, config)
+                        .getPrintWriter(EXTRA);
+                csvWriter = getCsvWriter(printWriter, config);
+                csvWriter.writeNext(EXTRA_HEADER, applyQuotesToAll);
+            }
+            csvWriter.writeNext(row, applyQuotesToAll);
+        }
+
+        /**
+         * The rows are kept as length-prefixed values rather than csv, so that they are read back as they were,
+         * whatever the quotes
+         */
+        private void spill(String[] row) {
+            try {
+                if (spill == null) {
+                    spillFile = Files.createTempFile("apoc-export-csv-extra", ".bin");
+                    spill = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile)));
+                }
+                for (String value : row) {
+                    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                    spill.writeInt(bytes.length);
+                    spill.write(bytes);
+                }
+                spilled++;
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        /**
+         * The streamed export has no other file, so the spilled properties follow the rows
+         */
+        void writeSpilled(CSVWriter out) {
+            if (spill == null) {
+                return;
+            }
+            try {
+                spill.close();
+                out.writeNext(EXTRA_HEADER, applyQuotesToAll);
+                try (DataInputStream in =
+                        new DataInputStream(new BufferedInputStream(Files.newInputStream(spillFile)))) {
+                    String[] row = new String[EXTRA_HEADER.length];
+                    for (long i = 0; i < spilled; i++) {
+                        for (int j = 0; j < row.length; j++) {
+                            byte[] bytes = new byte[in.readInt()];
+                            in.readFully(bytes);
+                            row[j] = new String(bytes, StandardCharsets.UTF_8);
+                        }
+                        out.writeNext(row, applyQuotesToAll);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+
+        void close() {
+            try {
+                if (csvWriter != null) {
+                    csvWriter.close();
+                }
+                if (spill != null) {
+                    spill.close();
+                    Files.deleteIfExists(spillFile);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                if (printWriter != null) {
+                    printWriter.close();
+                }
+            }
+        }
     }
 
+    /**
+     * Writes a file per label set and per relationship type, in two scans of the sub graph:
+     * the first one collects the property types of each file, for their headers,
+     * the second one writes each entity to the file of its labels or type as it is scanned,
+     * so that only the headers and the open writers are kept in memory.
+     * A writer stays open for each label set until all the nodes are written,
+     * so a graph with many distinct label sets needs as many open files.
+     */
     private void writeAllBulkImport(SubGraph graph, Reporter reporter, ExportConfig config, ExportFileManager writer) {
-        Map<Iterable<Label>, List<Node>> objectNodes = StreamSupport.stream(
-                        graph.getNodes().spliterator(), false)
-                .collect(Collectors.groupingBy(Node::getLabels));
-        Map<RelationshipType, List<Relationship>> objectRels = StreamSupport.stream(
-                        graph.getRelationships().spliterator(), false)
-                .collect(Collectors.groupingBy(Relationship::getType));
-        writeNodesBulkImport(reporter, config, writer, objectNodes);
-        writeRelsBulkImport(reporter, config, writer, objectRels);
+        Map<List<String>, Map<String, Class>> nodeKeyTypes = new LinkedHashMap<>();
+        for (Node node : graph.getNodes()) {
+            updateKeyTypes(nodeKeyTypes.computeIfAbsent(labelNames(node), k -> new LinkedHashMap<>()), node);
+        }
+        writeNodesBulkImport(graph, reporter, config, writer, nodeKeyTypes);
+
+        Map<String, Map<String, Class>> relKeyTypes = new LinkedHashMap<>();
+        for (Relationship rel : graph.getRelationships()) {
+            updateKeyTypes(relKeyTypes.computeIfAbsent(rel.getType().name(), k -> new LinkedHashMap<>()), rel);
+        }
+        writeRelsBulkImport(graph, reporter, config, writer, relKeyTypes);
     }
 
     private void writeNodesBulkImport(
+            SubGraph graph,
             Reporter reporter,
             ExportConfig config,
             ExportFileManager writer,
-            Map<Iterable<Label>, List<Node>> objectNode) {
-        objectNode.entrySet().forEach(entrySet -> {
-            Set<String> headerNode = generateHeaderNodeBulkImport(entrySet);
-
-            List<List<String>> rows = entrySet.getValue().stream()
-                    .map(n -> {
-                        reporter.update(1, 0, n.getAllProperties().size());
-                        return headerNode.stream()
-                                .map(s -> {
-                                    if (s.equals(":LABEL")) {
-                                        return joinLabels(entrySet.getKey(), config.getArrayDelim());
-                                    }
-                                    String prop = s.split(":")[0];
-                                    return prop.isEmpty()
-                                            ? String.valueOf(n.getId())
-                                            : FormatUtils.toString(n.getProperty(prop, ""));
-                                })
-                                .collect(Collectors.toList());
-                    })
-                    .collect(Collectors.toList());
-
-            String type = joinLabels(entrySet.getKey(), ".");
-            writeRow(config, writer, headerNode, rows, "nodes." + type);
-        });
+            Map<List<String>, Map<String, Class>> keyTypes) {
+        Map<List<String>, BulkImportFile> files = new HashMap<>();
+        try {
+            for (Node node : graph.getNodes()) {
+                List<String> labels = labelNames(node);
+                BulkImportFile file = files.computeIfAbsent(labels, key -> {
+                    Map<String, Class> types = keyTypes.getOrDefault(key, Map.of());
+                    List<String> header = new ArrayList<>();
+                    header.add(":ID");
+                    types.entrySet().forEach(entry -> header.add(formatHeader(entry)));
+                    header.add(":LABEL");
+                    return new BulkImportFile(
+                            config, writer, "nodes." + String.join(".", key), header, types.keySet(), 1);
+                });
+                Map<String, Object> properties = node.getAllProperties();
+                String[] row = file.row;
+                row[0] = String.valueOf(node.getId());
+                file.setProperties(properties);
+                row[row.length - 1] = String.join(config.getArrayDelim(), labels);
+                file.write();
+                reporter.update(1, 0, properties.size());
+            }
+        } finally {
+            files.values().forEach(BulkImportFile::close);
+        }
     }
 
     private void writeRelsBulkImport(
+            SubGraph graph,
             Reporter reporter,
             ExportConfig config,
             ExportFileManager writer,
-            Map<RelationshipType, List<Relationship>> objectRel) {
-        objectRel.entrySet().forEach(entrySet -> {
-            Set<String> headerRel = generateHeaderRelationshipBulkImport(entrySet);
-
-            List<List<String>> rows = entrySet.getValue().stream()
-                    .map(r -> {
-                        reporter.update(0, 1, r.getAllProperties().size());
-                        return headerRel.stream()
-                                .map(s -> {
-                                    switch (s) {
-                                        case ":START_ID":
-                                            return String.valueOf(r.getStartNodeId());
-                                        case ":END_ID":
-                                            return String.valueOf(r.getEndNodeId());
-                                        case ":TYPE":
-                                            return entrySet.getKey().name();
-                                        default:
-                                            String prop = s.split(":")[0];
-                                            return prop.isEmpty()
-                                                    ? String.valueOf(r.getId())
-                                                    : FormatUtils.toString(r.getProperty(prop, ""));
-                                    }
-                                })
-                                .collect(Collectors.toList());
-                    })
-                    .collect(Collectors.toList());
-            writeRow(
-                    config,
-                    writer,
-                    headerRel,
-                    rows,
-                    "relationships." + entrySet.getKey().name());
-        });
+            Map<String, Map<String, Class>> keyTypes) {
+        Map<String, BulkImportFile> files = new HashMap<>();
+        try {
+            for (Relationship rel : graph.getRelationships()) {
+                String type = rel.getType().name();
+                BulkImportFile file = files.computeIfAbsent(type, key -> {
+                    Map<String, Class> types = keyTypes.getOrDefault(key, Map.of());
+                    List<String> header = new ArrayList<>(List.of(":START_ID", ":END_ID", ":TYPE"));
+                    types.entrySet().forEach(entry -> header.add(formatHeader(entry)));
+                    return new BulkImportFile(config, writer, "relationships." + key, header, types.keySet(), 3);
+                });
+                Map<String, Object> properties = rel.getAllProperties();
+                String[] row = file.row;
+                row[0] = String.valueOf(rel.getStartNodeId());
+                row[1] = String.valueOf(rel.getEndNodeId());
+                row[2] = type;
+                file.setProperties(properties);
+                file.write();
+                reporter.update(0, 1, properties.size());
+            }
+        } finally {
+            files.values().forEach(BulkImportFile::close);
+        }
     }
 
-    private Set<String> generateHeaderNodeBulkImport(Map.Entry<Iterable<Label>, List<Node>> entrySet) {
-        Set<String> headerNode = new LinkedHashSet<>();
-        headerNode.add(":ID");
-        Map<String, Class> keyTypes = new LinkedHashMap<>();
-        entrySet.getValue().forEach(node -> updateKeyTypes(keyTypes, node));
-        final LinkedHashSet<String> otherFields = keyTypes.entrySet().stream()
-                .map(stringClassEntry -> formatHeader(stringClassEntry))
-                .collect(Collectors.toCollection(LinkedHashSet::new));
-        headerNode.addAll(otherFields);
-        headerNode.add(":LABEL");
-        return headerNode;
+    // the labels in token order, as in the names of the files and the :LABEL column
+    private static List<String> labelNames(Node node) {
+        List<String> labels = new ArrayList<>();
+        node.getLabels().forEach(label -> labels.add(label.name()));
+        return labels;
     }
 
-    private Set<String> generateHeaderRelationshipBulkImport(Map.Entry<RelationshipType, List<Relationship>> entrySet) {
-        Set<String> headerNode = new LinkedHashSet<>();
-        Map<String, Class> keyTypes = new LinkedHashMap<>();
-        entrySet.getValue().forEach(relationship -> updateKeyTypes(keyTypes, relationship));
-        headerNode.add(":START_ID");
-        headerNode.add(":END_ID");
-        headerNode.add(":TYPE");
-        headerNode.addAll(keyTypes.entrySet().stream()
-                .map(stringClassEntry -> formatHeader(stringClassEntry))
-                .collect(Collectors.toCollection(LinkedHashSet::new)));
-        return headerNode;
-    }
+    /**
+     * A bulk import file being written, with its header already written and the row reused for each entity
+     */
+    private class BulkImportFile {
+        private final PrintWriter printWriter;
+        private final CSVWriter csvWriter;
+        private final String[] keys;
+        private final int offset;
+        private final String[] row;
 
-    private void writeRow(
-            ExportConfig config,
-            ExportFileManager writer,
-            Set<String> headerNode,
-            List<List<String>> rows,
-            String name) {
-        try (PrintWriter pw = writer.getPrintWriter(name);
-                CSVWriter csvWriter = getCsvWriter(pw, config)) {
+        BulkImportFile(
+                ExportConfig config,
+                ExportFileManager writer,
+                String name,
+                List<String> header,
+                Collection<String> keys,
+                int offset) {
+            this.keys = keys.toArray(new String[0]);
+            this.offset = offset;
+            this.row = new String[header.size()];
+            this.printWriter = writer.getPrintWriter(name);
+            this.csvWriter = getCsvWriter(printWriter, config);
+            String[] headerRow = header.toArray(new String[0]);
             if (config.isSeparateHeader()) {
                 try (PrintWriter pwHeader = writer.getPrintWriter("header." + name)) {
                     CSVWriter csvWriterHeader = getCsvWriter(pwHeader, config);
-                    csvWriterHeader.writeNext(headerNode.toArray(new String[headerNode.size()]), false);
+                    csvWriterHeader.writeNext(headerRow, false);
                 }
             } else {
-                csvWriter.writeNext(headerNode.toArray(new String[headerNode.size()]), false);
+                csvWriter.writeNext(headerRow, false);
+            }
+        }
+
+        void setProperties(Map<String, Object> properties) {
+            for (int i = 0; i < keys.length; i++) {
+                row[offset + i] = FormatUtils.toString(properties.getOrDefault(keys[i], ""));
+            }
+        }
+
+        void write() {
+            csvWriter.writeNext(row, false);
+        }
+
+        void close() {
+            try {
+                csvWriter.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            } finally {
+                printWriter.close();
             }
-            rows.forEach(row -> csvWriter.writeNext(row.toArray(new String[row.size()]), false));
-        } catch (IOException e) {
-            throw new RuntimeException(e);
         }
     }
 
-    private List<String> generateHeader(Map<String, Class> propTypes, boolean useTypes, String... starters) {
+    /**
+     * @return the property keys with their column names, sorted by column name
+     */
+    private List<Map.Entry<String, String>> generateColumns(Map<String, Class> propTypes, boolean useTypes) {
+        return propTypes.entrySet().stream()
+                .map(entry -> {
+                    String type = MetaInformation.typeFor(entry.getValue(), null);
+                    String name = (type == null || type.equals("string") || !useTypes)
+                            ? entry.getKey()
+                            : entry.getKey() + ":" + type;
+                    return Map.entry(entry.getKey(), name);
+                })
+                .sorted(Map.Entry.comparingByValue())
+                .collect(Collectors.toList());
+    }
+
+    private List<String> generateHeader(List<Map.Entry<String, String>> columns, boolean useTypes, String... starters) {
         List<String> result = new ArrayList<>();
         if (useTypes) {
             Collections.addAll(result, starters);
         } else {
             result.addAll(Stream.of(starters).map(s -> s.split(":")[0]).collect(Collectors.toList()));
         }
-        result.addAll(propTypes.entrySet().stream()
-                .map(entry -> {
-                    String type = MetaInformation.typeFor(entry.getValue(), null);
-                    return (type == null || type.equals("string") || !useTypes)
-                            ? entry.getKey()
-                            : entry.getKey() + ":" + type;
-                })
-                .sorted()
-                .collect(Collectors.toList()));
+        columns.forEach(column -> result.add(column.getValue()));
         return result;
     }
 
@@ -353,13 +539,14 @@ public class CsvFormat implements Format {
             List<String> header,
             int cols,
             int batchSize,
-            String delimiter) {
+            String delimiter,
+            ExtraProperties extraProperties) {
         String[] row = new String[cols];
         int nodes = 0;
         for (Node node : graph.getNodes()) {
             row[0] = String.valueOf(node.getId());
             row[1] = getLabelsString(node);
-            collectProps(header, node, reporter, row, 2, delimiter);
+            collectProps(header, node, reporter, row, 2, delimiter, extraProperties);
             out.writeNext(row, applyQuotesToAll);
             nodes++;
             if (batchSize == -1 || nodes % batchSize == 0) {
@@ -373,7 +560,32 @@ public class CsvFormat implements Format {
     }
 
     private void collectProps(
-            Collection<String> fields, Entity pc, Reporter reporter, String[] row, int offset, String delimiter) {
+            Collection<String> fields,
+            Entity pc,
+            Reporter reporter,
+            String[] row,
+            int offset,
+            String delimiter,
+            ExtraProperties extraProperties) {
+        if (extraProperties != null) {
+            // a single pass reads all the properties at once, and writes the ones without a column apart
+            Map<String, Object> properties = new HashMap<>(pc.getAllProperties());
+            for (String field : fields) {
+                Object value = properties.remove(field);
+                if (value != null) {
+                    row[offset] = FormatUtils.toString(value);
+                    reporter.update(0, 0, 1);
+                } else {
+                    row[offset] = "";
+                }
+                offset++;
+            }
+            properties.forEach((key, value) -> {
+                extraProperties.write(pc, key, value);
+                reporter.update(0, 0, 1);
+            });
+            return;
+        }
         for (String field : fields) {
             if (pc.hasProperty(field)) {
                 row[offset] = FormatUtils.toString(pc.getProperty(field));
@@ -393,14 +605,15 @@ public class CsvFormat implements Format {
             int cols,
             int offset,
             int batchSize,
-            String delimiter) {
+            String delimiter,
+            ExtraProperties extraProperties) {
         String[] row = new String[cols];
         int rels = 0;
         for (Relationship rel : graph.getRelationships()) {
             row[offset] = String.valueOf(rel.getStartNode().getId());
             row[offset + 1] = String.valueOf(rel.getEndNode().getId());
             row[offset + 2] = rel.getType().name();
-            collectProps(relHeader, rel, reporter, row, 3 + offset, delimiter);
+            collectProps(relHeader, rel, reporter, row, 3 + offset, delimiter, extraProperties);
             out.writeNext(row, applyQuotesToAll);
             rels++;
             if (batchSize == -1 || rels % batchSize == 0) {
@@ -40,6 +40,9 @@ public class CsvLoaderConfig extends CompressionConfig {
     private static final String IGNORE_DUPLICATE_NODES = "ignoreDuplicateNodes";
     private static final String IGNORE_BLANK_STRING = "ignoreBlankString";
     private static final String IGNORE_EMPTY_CELL_ARRAY = "ignoreEmptyCellArray";
+    private static final String ID_MAPPING_STORAGE = "idMappingStorage";
+    private static final String PARALLEL = "parallel";
+    private static final String CONCURRENCY = "concurrency";
 
     private static char DELIMITER_DEFAULT = ',';
     private static char ARRAY_DELIMITER_DEFAULT = ';';
@@ -50,6 +53,9 @@ public class CsvLoaderConfig extends CompressionConfig {
     private static boolean IGNORE_DUPLICATE_NODES_DEFAULT = false;
     private static boolean IGNORE_BLANK_STRING_DEFAULT = false;
     private static boolean IGNORE_EMPTY_CELL_ARRAY_DEFAULT = false;
+    private static IdMappingStorage.Type ID_MAPPING_STORAGE_DEFAULT = IdMappingStorage.Type.HEAP;
+    private static boolean PARALLEL_DEFAULT = false;
+    private static int CONCURRENCY_DEFAULT = Runtime.getRuntime().availableProcessors();
 
     private final char delimiter;
     private final char arrayDelimiter;
@@ -60,6 +66,9 @@ public class CsvLoaderConfig extends CompressionConfig {
     private final boolean ignoreDuplicateNodes;
     private final boolean ignoreBlankString;
     private final boolean ignoreEmptyCellArray;
+    private final IdMappingStorage.Type idMappingStorage;
+    private final boolean parallel;
+    private final int concurrency;
 
     private CsvLoaderConfig(Builder builder) {
         super(Map.of(COMPRESSION, builder.compressionAlgo, CHARSET, builder.charset));
@@ -72,6 +81,9 @@ public class CsvLoaderConfig extends CompressionConfig {
         this.ignoreDuplicateNodes = builder.ignoreDuplicateNodes;
         this.ignoreBlankString = builder.ignoreBlankString;
         this.ignoreEmptyCellArray = builder.ignoreEmptyCellArray;
+        this.idMappingStorage = builder.idMappingStorage;
+        this.parallel = builder.parallel;
+        this.concurrency = builder.concurrency;
     }
 
     public char getDelimiter() {
@@ -110,6 +122,18 @@ public class CsvLoaderConfig extends CompressionConfig {
         return ignoreEmptyCellArray;
     }
 
+    public IdMappingStorage.Type getIdMappingStorage() {
+        return idMappingStorage;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
     /**
      * Creates builder to build {@link CsvLoaderConfig}.
      *
@@ -150,6 +174,11 @@ public class CsvLoaderConfig extends CompressionConfig {
             builder.ignoreBlankString((boolean) config.get(IGNORE_BLANK_STRING));
         if (config.get(IGNORE_EMPTY_CELL_ARRAY) != null)
             builder.ignoreEmptyCellArray((boolean) config.get(IGNORE_EMPTY_CELL_ARRAY));
+        if (config.get(ID_MAPPING_STORAGE) != null)
+            builder.idMappingStorage(IdMappingStorage.Type.valueOf(
+                    config.get(ID_MAPPING_STORAGE).toString().toUpperCase()));
+        if (config.get(PARALLEL) != null) builder.parallel(Util.toBoolean(config.get(PARALLEL)));
+        if (config.get(CONCURRENCY) != null) builder.concurrency(Util.toInteger(config.get(CONCURRENCY)));
         builder.binary((String) config.getOrDefault(COMPRESSION, CompressionAlgo.NONE.name()));
         builder.charset((String) config.getOrDefault(CHARSET, UTF_8.name()));
 
@@ -169,6 +198,9 @@ public class CsvLoaderConfig extends CompressionConfig {
         private boolean ignoreDuplicateNodes = IGNORE_DUPLICATE_NODES_DEFAULT;
         private boolean ignoreBlankString = IGNORE_BLANK_STRING_DEFAULT;
         private boolean ignoreEmptyCellArray = IGNORE_EMPTY_CELL_ARRAY_DEFAULT;
+        private IdMappingStorage.Type idMappingStorage = ID_MAPPING_STORAGE_DEFAULT;
+        private boolean parallel = PARALLEL_DEFAULT;
+        private int concurrency = CONCURRENCY_DEFAULT;
         private String compressionAlgo = null;
         private String charset = UTF_8.name();
 
@@ -229,6 +261,21 @@ public class CsvLoaderConfig extends CompressionConfig {
             return this;
         }
 
+        public Builder idMappingStorage(IdMappingStorage.Type idMappingStorage) {
+            this.idMappingStorage = idMappingStorage;
+            return this;
+        }
+
+        public Builder parallel(boolean parallel) {
+            this.parallel = parallel;
+            return this;
+        }
+
+        public Builder concurrency(int concurrency) {
+            this.concurrency = Math.max(1, concurrency);
+            return this;
+        }
+
         public CsvLoaderConfig build() {
             return new CsvLoaderConfig(this);
         }
@@ -0,0 +1,616 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.csv;
+
+import apoc.Pools;
+import apoc.export.util.CountingReader;
+import apoc.export.util.ProgressReporter;
+import apoc.load.CSVResult;
+import apoc.load.Mapping;
+import apoc.load.util.Results;
+import apoc.util.FileUtils;
+import com.opencsv.CSVParserBuilder;
+import com.opencsv.CSVReader;
+import com.opencsv.CSVReaderBuilder;
+import com.opencsv.RFC4180ParserBuilder;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransientFailureException;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.TerminationGuard;
+
+/**
+ * Pipelined variant of the {@link CsvEntityLoader}, used with the {@code parallel: true} config.
+ * Each file is parsed and converted by its own reader task, which hands batches of ready-to-write rows
+ * to the {@link Pools} executor, where each batch is committed in its own transaction.
+ * Node files are ingested concurrently, relationship files once all the nodes are created,
+ * with their batches partitioned by start node, so that concurrent batches don't compete for the same locks.
+ * The readers and the writers share the executor, so instead of waiting for a task which hasn't started yet,
+ * e.g. because the readers hold all the threads, the waiting thread runs it itself.
+ */
+public class CsvPipelineLoader {
+
+    private static final int MAX_RETRIES = 10;
+
+    private final CsvLoaderConfig clc;
+    private final ProgressReporter reporter;
+    private final Log log;
+    private final TerminationGuard terminationGuard;
+    private final GraphDatabaseService db;
+    private final Pools pools;
+
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    // the ids of the batches being written, by id space, guarded by the id space's mapping
+    private final Map<IdMapping, Set<String>> pendingIds = new IdentityHashMap<>();
+    private volatile long relationshipsStart;
+
+    public CsvPipelineLoader(
+            CsvLoaderConfig clc,
+            ProgressReporter reporter,
+            Log log,
+            TerminationGuard terminationGuard,
+            GraphDatabaseService db,
+            Pools pools) {
+        this.clc = clc;
+        this.reporter = reporter;
+        this.log = log;
+        this.terminationGuard = terminationGuard;
+        this.db = db;
+        this.pools = pools;
+    }
+
+    /**
+     * Loads all the node files, then all the relationship files, filling and then using the {@code idMapping}
+     *
+     * @param nodes the node files, with their labels
+     * @param relationships the relationship files, with their types
+     * @param idMapping to be filled with the mapping between the CSV ids and the DB's internal node ids
+     */
+    public void load(
+            List<Map<String, Object>> nodes,
+            List<Map<String, Object>> relationships,
+            Map<String, IdMapping> idMapping) {
+        final int concurrency = clc.getConcurrency();
+        // bounds the batches handed to the executor, readers write the others themselves
+        final Semaphore writePermits = new Semaphore(concurrency);
+        final List<FutureTask<?>> readers = new ArrayList<>();
+        final List<FutureTask<?>> writes = Collections.synchronizedList(new ArrayList<>());
+        try {
+            // the id spaces are created upfront, so that the readers only need to synchronize on their mapping
+            final List<NodeFile> nodeFiles = new ArrayList<>();
+            for (Map<String, Object> node : nodes) {
+                final NodeFile nodeFile = new NodeFile(
+                        node.getOrDefault("fileName", node.get("data")), (List<String>) node.get("labels"));
+                final IdMapping idspaceIdMapping =
+                        idMapping.computeIfAbsent(nodeFile.idSpace, k -> IdMapping.create(clc));
+                pendingIds.computeIfAbsent(idspaceIdMapping, k -> new HashSet<>());
+                nodeFiles.add(nodeFile);
+            }
+
+            for (NodeFile nodeFile : nodeFiles) {
+                final IdMapping idspaceIdMapping = idMapping.get(nodeFile.idSpace);
+                readers.add(execute(() -> readNodes(nodeFile, idspaceIdMapping, writePermits, writes)));
+            }
+            awaitAll(readers);
+            awaitAll(writes);
+            throwIfFailed();
+            readers.clear();
+            writes.clear();
+            relationshipsStart = System.nanoTime();
+
+            final Partition[] partitions = new Partition[concurrency];
+            for (int i = 0; i < concurrency; i++) {
+                partitions[i] = new Partition();
+            }
+            for (Map<String, Object> relationship : relationships) {
+                final Object data = relationship.getOrDefault("fileName", relationship.get("data"));
+                final String type = (String) relationship.get("type");
+                readers.add(execute(() -> readRelationships(data, type, idMapping, partitions, writes)));
+            }
+            awaitAll(readers);
+            if (failure.get() == null) {
+                for (Partition partition : partitions) {
+                    partition.flush(writes);
+                }
+            }
+            awaitAll(writes);
+            throwIfFailed();
+        } catch (RuntimeException e) {
+            fail(e);
+            throw e;
+        } finally {
+            // the tasks stop as soon as they see the failure, but none of them may still be running
+            // once the id mappings, possibly memory-mapped, are closed
+            awaitAll(readers);
+            awaitAll(writes);
+        }
+    }
+
+    /**
+     * @return the {@link System#nanoTime()} at which the nodes were all created and the relationships started
+     */
+    public long getRelationshipsStart() {
+        return relationshipsStart;
+    }
+
+    private void readNodes(
+            NodeFile nodeFile, IdMapping idspaceIdMapping, Semaphore writePermits, List<FutureTask<?>> writes) {
+        try (final CountingReader reader = FileUtils.readerFor(nodeFile.data, clc.getCompressionAlgo())) {
+            CsvEntityLoader.readFirstLine(reader);
+            final List<CsvHeaderField> fields = nodeFile.fields;
+            final Optional<CsvHeaderField> idField = idField(fields);
+            if (!idField.isPresent()) {
+                log.warn(
+                        "Please note that if no ID is specified, the node will be imported but it will not be able to be connected by any relationships during the import");
+            }
+            final Map<String, Mapping> mapping = CsvEntityLoader.getMapping(fields, clc);
+            final String[] loadCsvCompatibleHeader =
+                    fields.stream().map(CsvHeaderField::getName).toArray(String[]::new);
+
+            final CSVReader csv = new CSVReaderBuilder(reader)
+                    .withCSVParser(new RFC4180ParserBuilder()
+                            .withSeparator(clc.getDelimiter())
+                            .withQuoteChar(clc.getQuotationCharacter())
+                            .build())
+                    .withSkipLines(clc.getSkipLines() - 1)
+                    .build();
+
+            List<NodeRow> batch = new ArrayList<>(clc.getBatchSize());
+            int lineNo = 0;
+            for (String[] line : csv) {
+                checkRunning();
+                lineNo++;
+                final CSVResult result = new CSVResult(
+                        loadCsvCompatibleHeader,
+                        line,
+                        lineNo,
+                        false,
+                        mapping,
+                        Collections.emptyList(),
+                        EnumSet.of(Results.map));
+                batch.add(toNodeRow(result, fields, idField, line, lineNo));
+                if (batch.size() >= clc.getBatchSize()) {
+                    submitNodes(batch, nodeFile.labels, idspaceIdMapping, writePermits, writes);
+                    batch = new ArrayList<>(clc.getBatchSize());
+                }
+            }
+            if (!batch.isEmpty()) {
+                submitNodes(batch, nodeFile.labels, idspaceIdMapping, writePermits, writes);
+            }
+        } catch (IOException e) {
+            fail(new UncheckedIOException(e));
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private NodeRow toNodeRow(
+            CSVResult result,
+            List<CsvHeaderField> fields,
+            Optional<CsvHeaderField> idField,
+            String[] line,
+            int lineNo) {
+        final String csvId =
+                (String) idField.map(f -> result.map.get(f.getName())).orElse(null);
+        final List<String> customLabels = new ArrayList<>();
+        final Map<String, Object> properties = new LinkedHashMap<>();
+        for (CsvHeaderField field : fields) {
+            final Object value = result.map.get(field.getName());
+            if (field.isMeta()) {
+                customLabels.addAll((List<String>) value);
+            } else if (field.isId()) {
+                properties.put(field.getName(), clc.getStringIds() ? value : Long.valueOf((String) value));
+            } else {
+                final Object property = CsvPropertyConverter.convert(field, value, clc);
+                if (property != null) {
+                    properties.put(field.getName(), property);
+                }
+            }
+        }
+        return new NodeRow(csvId, customLabels, properties, line, lineNo);
+    }
+
+    private void submitNodes(
+            List<NodeRow> batch,
+            List<String> labels,
+            IdMapping idspaceIdMapping,
+            Semaphore writePermits,
+            List<FutureTask<?>> writes) {
+        if (!writePermits.tryAcquire()) {
+            // enough batches are waiting for the executor, the reader writes this one
+            writeNodes(batch, labels, idspaceIdMapping);
+            return;
+        }
+        try {
+            track(writes, execute(() -> {
+                try {
+                    writeNodes(batch, labels, idspaceIdMapping);
+                } catch (RuntimeException e) {
+                    fail(e);
+                } finally {
+                    writePermits.release();
+                }
+            }));
+        } catch (RuntimeException e) {
+            writePermits.release();
+            throw e;
+        }
+    }
+
+    private void writeNodes(List<NodeRow> batch, List<String> labels, IdMapping idspaceIdMapping) {
+        checkRunning();
+        int nodes = 0;
+        int props = 0;
+        // the ids of this batch are only reserved until the commit, and mapped once it succeeds,
+        // so that the relationships can't be connected to the nodes of a batch which was rolled back
+        final Set<String> reservedIds = pendingIds.get(idspaceIdMapping);
+        final Map<String, Long> batchIds = new LinkedHashMap<>();
+        boolean committed = false;
+        try (Transaction tx = db.beginTx()) {
+            for (NodeRow row : batch) {
+                final Node node = tx.createNode();
+                if (row.csvId != null) {
+                    final boolean duplicate;
+                    // the duplicate check and the reservation have to be atomic, as other batches
+                    // of the same id space are written concurrently
+                    synchronized (idspaceIdMapping) {
+                        duplicate = idspaceIdMapping.containsKey(row.csvId) || !reservedIds.add(row.csvId);
+                    }
+                    if (duplicate) {
+                        if (clc.getIgnoreDuplicateNodes()) {
+                            node.delete();
+                            continue;
+                        }
+                        throw new IllegalStateException("Duplicate node with id " + row.csvId + " found on line "
+                                + row.lineNo + "\n" + Arrays.toString(row.line));
+                    }
+                    batchIds.put(row.csvId, node.getId());
+                }
+                for (String label : labels) {
+                    node.addLabel(Label.label(label));
+                }
+                for (String label : row.customLabels) {
+                    node.addLabel(Label.label(label));
+                }
+                row.properties.forEach(node::setProperty);
+                nodes++;
+                props += row.properties.size();
+            }
+            tx.commit();
+            committed = true;
+        } finally {
+            synchronized (idspaceIdMapping) {
+                if (committed) {
+                    batchIds.forEach(idspaceIdMapping::put);
+                }
+                reservedIds.removeAll(batchIds.keySet());
+            }
+        }
+        synchronized (reporter) {
+            reporter.update(nodes, 0, props);
+        }
+    }
+
+    private void readRelationships(
+            Object data,
+            String type,
+            Map<String, IdMapping> idMapping,
+            Partition[] partitions,
+            List<FutureTask<?>> writes) {
+        try (final CountingReader reader = FileUtils.readerFor(data, clc.getCompressionAlgo())) {
+            final String header = CsvEntityLoader.readFirstLine(reader);
+            final List<CsvHeaderField> fields =
+                    CsvHeaderFields.processHeader(header, clc.getDelimiter(), clc.getQuotationCharacter());
+
+            final CsvHeaderField startIdField = fields.stream()
+                    .filter(f -> CsvLoaderConstants.START_ID_FIELD.equals(f.getType()))
+                    .findFirst()
+                    .get();
+            final CsvHeaderField endIdField = fields.stream()
+                    .filter(f -> CsvLoaderConstants.END_ID_FIELD.equals(f.getType()))
+                    .findFirst()
+                    .get();
+            final List<CsvHeaderField> edgePropertiesFields = fields.stream()
+                    .filter(field -> !CsvLoaderConstants.START_ID_FIELD.equals(field.getType()))
+                    .filter(field -> !CsvLoaderConstants.END_ID_FIELD.equals(field.getType()))
+                    .collect(Collectors.toList());
+
+            final Map<String, Mapping> mapping = CsvEntityLoader.getMapping(fields, clc);
+            final String[] loadCsvCompatibleHeader =
+                    fields.stream().map(CsvHeaderField::getName).toArray(String[]::new);
+            final var parser =
+                    new CSVParserBuilder().withSeparator(clc.getDelimiter()).build();
+
+            try (final var csv =
+                    new CSVReaderBuilder(reader).withCSVParser(parser).build()) {
+                int lineNo = 0;
+                for (String[] line : csv) {
+                    checkRunning();
+                    lineNo++;
+                    final CSVResult result = new CSVResult(
+                            loadCsvCompatibleHeader,
+                            line,
+                            lineNo,
+                            false,
+                            mapping,
+                            Collections.emptyList(),
+                            EnumSet.of(Results.map));
+
+                    final long start = lookupNodeId(
+                            idMapping, startIdField.getIdSpace(), result.map.get(CsvLoaderConstants.START_ID_ATTR));
+                    final long end = lookupNodeId(
+                            idMapping, endIdField.getIdSpace(), result.map.get(CsvLoaderConstants.END_ID_ATTR));
+
+                    final Object overridingType = result.map.get(CsvLoaderConstants.TYPE_ATTR);
+                    final String currentType = overridingType != null && !((String) overridingType).isEmpty()
+                            ? (String) overridingType
+                            : type;
+
+                    final Map<String, Object> properties = new LinkedHashMap<>();
+                    for (CsvHeaderField field : edgePropertiesFields) {
+                        final Object property =
+                                CsvPropertyConverter.convert(field, result.map.get(field.getName()), clc);
+                        if (property != null) {
+                            properties.put(field.getName(), property);
+                        }
+                    }
+
+                    final Partition partition = partitions[(int) Long.remainderUnsigned(start, partitions.length)];
+                    partition.add(new RelationshipRow(start, end, currentType, properties), writes);
+                }
+            }
+        } catch (IOException e) {
+            fail(new UncheckedIOException(e));
+        } catch (RuntimeException e) {
+            fail(e);
+        }
+    }
+
+    private void writeRelationships(List<RelationshipRow> batch) {
+        checkRunning();
+        final int props = writeInTx(tx -> {
+            int count = 0;
+            for (RelationshipRow row : batch) {
+                final Node source = tx.getNodeById(row.start);
+                final Node target = tx.getNodeById(row.end);
+                final Relationship rel = source.createRelationshipTo(target, RelationshipType.withName(row.type));
+                row.properties.forEach(rel::setProperty);
+                count += row.properties.size();
+            }
+            return count;
+        });
+        synchronized (reporter) {
+            reporter.update(0, batch.size(), props);
+        }
+    }
+
+    /**
+     * Relationships of different partitions can still share their end node,
+     * so the batches which fail because of a deadlock are retried
+     */
+    private int writeInTx(Function<Transaction, Integer> function) {
+        for (int retry = 0; ; retry++) {
+            try (Transaction tx = db.beginTx()) {
+                final int result = function.apply(tx);
+                tx.commit();
+                return result;
+            } catch (TransientFailureException e) {
+                if (retry >= MAX_RETRIES) throw e;
+                log.warn("Retrying relationship batch %d of %d: %s", retry + 1, MAX_RETRIES, e.getMessage());
+            }
+        }
+    }
+
+    private static long lookupNodeId(Map<String, IdMapping> idMapping, String idSpace, Object csvId) {
+        final IdMapping idspaceIdMapping = idMapping.get(idSpace);
+        final long internalId = idspaceIdMapping == null ? IdMapping.NOT_FOUND : idspaceIdMapping.get(csvId);
+        if (internalId == IdMapping.NOT_FOUND) {
+            throw new IllegalStateException("Node for id space " + idSpace + " and id " + csvId + " not found");
+        }
+        return internalId;
+    }
+
+    private static Optional<CsvHeaderField> idField(List<CsvHeaderField> fields) {
+        return fields.stream()
+                .filter(f -> CsvLoaderConstants.ID_FIELD.equals(f.getType()))
+                .findFirst();
+    }
+
+    private void checkRunning() {
+        terminationGuard.check();
+        if (failure.get() != null) {
+            throw new IllegalStateException("Import aborted");
+        }
+    }
+
+    private void fail(Throwable e) {
+        failure.compareAndSet(null, e);
+    }
+
+    private FutureTask<?> execute(Runnable runnable) {
+        final FutureTask<?> task = new FutureTask<>(runnable, null);
+        pools.getDefaultExecutorService().execute(task);
+        return task;
+    }
+
+    /**
+     * Waits for the task, running it in the current thread if no thread of the executor started it yet
+     */
+    private void await(FutureTask<?> task) {
+        task.run();
+        try {
+            Pools.force(task);
+        } catch (ExecutionException e) {
+            fail(e.getCause());
+        }
+    }
+
+    /**
+     * Failures are collected by the write tasks themselves, so the completed ones can be dropped
+     */
+    private void track(List<FutureTask<?>> writes, FutureTask<?> future) {
+        synchronized (writes) {
+            if (writes.size() >= clc.getConcurrency() * 4) {
+                writes.removeIf(Future::isDone);
+            }
+            writes.add(future);
+        }
+    }
+
+    private void awaitAll(List<FutureTask<?>> tasks) {
+        final List<FutureTask<?>> pending;
+        synchronized (tasks) {
+            pending = new ArrayList<>(tasks);
+        }
+        pending.forEach(this::await);
+    }
+
+    private void throwIfFailed() {
+        final Throwable e = failure.get();
+        if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+        }
+        if (e != null) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private class NodeFile {
+        final Object data;
+        final List<String> labels;
+        final String idSpace;
+        final List<CsvHeaderField> fields;
+
+        NodeFile(Object data, List<String> labels) {
+            this.data = data;
+            this.labels = labels;
+            try (final CountingReader reader = FileUtils.readerFor(data, clc.getCompressionAlgo())) {
+                this.fields = CsvHeaderFields.processHeader(
+                        CsvEntityLoader.readFirstLine(reader), clc.getDelimiter(), clc.getQuotationCharacter());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.idSpace = idField(fields).map(CsvHeaderField::getIdSpace).orElse(CsvLoaderConstants.DEFAULT_IDSPACE);
+        }
+    }
+
+    /**
+     * Relationships whose start node falls in the same partition are written by one batch at a time
+     */
+    private class Partition {
+        private final Object writing = new Object();
+        private FutureTask<?> previous;
+        private List<RelationshipRow> rows = new ArrayList<>();
+
+        void add(RelationshipRow row, List<FutureTask<?>> writes) {
+            final List<RelationshipRow> full;
+            synchronized (this) {
+                rows.add(row);
+                if (rows.size() < clc.getBatchSize()) {
+                    return;
+                }
+                full = rows;
+                rows = new ArrayList<>(clc.getBatchSize());
+            }
+            submit(full, writes);
+        }
+
+        void flush(List<FutureTask<?>> writes) {
+            final List<RelationshipRow> remaining;
+            synchronized (this) {
+                remaining = rows;
+                rows = new ArrayList<>();
+            }
+            if (!remaining.isEmpty()) {
+                submit(remaining, writes);
+            }
+        }
+
+        private void submit(List<RelationshipRow> batch, List<FutureTask<?>> writes) {
+            synchronized (writing) {
+                // waits until the previous batch of the partition is written
+                if (previous != null) {
+                    await(previous);
+                }
+                previous = execute(() -> {
+                    try {
+                        writeRelationships(batch);
+                    } catch (RuntimeException e) {
+                        fail(e);
+                    }
+                });
+                track(writes, previous);
+            }
+        }
+    }
+
+    private static class NodeRow {
+        final String csvId;
+        final List<String> customLabels;
+        final Map<String, Object> properties;
+        final String[] line;
+        final int lineNo;
+
+        NodeRow(String csvId, List<String> customLabels, Map<String, Object> properties, String[] line, int lineNo) {
+            this.csvId = csvId;
+            this.customLabels = customLabels;
+            this.properties = properties;
+            this.line = line;
+            this.lineNo = lineNo;
+        }
+    }
+
+    private static class RelationshipRow {
+        final long start;
+        final long end;
+        final String type;
+        final Map<String, Object> properties;
+
+        RelationshipRow(long start, long end, String type, Map<String, Object> properties) {
+            this.start = start;
+            this.end = end;
+            this.type = type;
+            this.properties = properties;
+        }
+    }
+}
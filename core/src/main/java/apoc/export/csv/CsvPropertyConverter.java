@@ -35,9 +35,24 @@ public class CsvPropertyConverter {
 
     public static boolean addPropertyToGraphEntity(
             Entity entity, CsvHeaderField field, Object value, CsvLoaderConfig config) {
-        if (field.isIgnore() || value == null) {
+        final Object property = convert(field, value, config);
+        if (property == null) {
             return false;
         }
+        entity.setProperty(field.getName(), property);
+        return true;
+    }
+
+    /**
+     * Converts the value read from the CSV file into the value to be stored as property,
+     * so that the conversion can be done ahead of the transaction writing it.
+     *
+     * @return the property value, or null if the property should not be set
+     */
+    public static Object convert(CsvHeaderField field, Object value, CsvLoaderConfig config) {
+        if (field.isIgnore() || value == null) {
+            return null;
+        }
         if (field.isArray()) {
             final List list = (List) value;
             final boolean listContainingNull = list.stream().anyMatch(Objects::isNull);
@@ -47,18 +62,15 @@ public class CsvPropertyConverter {
             // "...,a;b;;;c,..."
             final boolean isEmptyCell = config.isIgnoreEmptyCellArray() && list.equals(Collections.singletonList(""));
             if (listContainingNull || isEmptyCell) {
-                return false;
+                return null;
             }
             final Object[] prototype = getPrototypeFor(field.getType().toUpperCase());
-            final Object[] array = list.toArray(prototype);
-            entity.setProperty(field.getName(), array);
-        } else {
-            if (config.isIgnoreBlankString() && value instanceof String && StringUtils.isBlank((String) value)) {
-                return false;
-            }
-            entity.setProperty(field.getName(), value);
+            return list.toArray(prototype);
         }
-        return true;
+        if (config.isIgnoreBlankString() && value instanceof String && StringUtils.isBlank((String) value)) {
+            return null;
+        }
+        return value;
     }
 
     public static Object[] getPrototypeFor(String type) {
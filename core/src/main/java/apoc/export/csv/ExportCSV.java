@@ -26,6 +26,7 @@ import apoc.export.util.ExportConfig;
 import apoc.export.util.ExportFormat;
 import apoc.export.util.ExportUtils;
 import apoc.export.util.NodesAndRelsSubGraph;
+import apoc.export.util.PartitionedExport;
 import apoc.export.util.ProgressReporter;
 import apoc.result.ProgressInfo;
 import apoc.util.Util;
@@ -74,7 +75,24 @@ public class ExportCSV {
     public Stream<ProgressInfo> all(@Name("file") String fileName, @Name("config") Map<String, Object> config)
             throws Exception {
         String source = String.format("database: nodes(%d), rels(%d)", Util.nodeCount(tx), Util.relCount(tx));
-        return exportCsv(fileName, source, new DatabaseSubGraph(tx), new ExportConfig(config, ExportFormat.CSV));
+        ExportConfig exportConfig = new ExportConfig(config, ExportFormat.CSV);
+        if (exportConfig.getPartitions() > 1) {
+            if (exportConfig.isBulkImport()) {
+                throw new RuntimeException("You cannot use the `bulkImport` with `partitions`");
+            }
+            apocConfig.checkWriteAllowed(exportConfig, fileName);
+            return PartitionedExport.export(
+                    db,
+                    tx,
+                    pools.getDefaultExecutorService(),
+                    terminationGuard,
+                    fileName,
+                    source,
+                    "csv",
+                    exportConfig,
+                    () -> new CsvFormat(db));
+        }
+        return exportCsv(fileName, source, new DatabaseSubGraph(tx), exportConfig);
     }
 
     @Procedure
@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.csv;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maps the ids of an id space of the CSV files to the internal ids of the nodes created by the {@link CsvEntityLoader}.
+ * Implementations are open-addressing hash tables on top of an {@link IdMappingStorage},
+ * so neither the keys nor the values are boxed.
+ */
+public abstract class IdMapping implements AutoCloseable {
+    public static final long NOT_FOUND = -1L;
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final double MAX_LOAD_FACTOR = 0.6;
+
+    protected final IdMappingStorage storage;
+    protected long size;
+    protected long capacity;
+    protected long mask;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    protected IdMapping(IdMappingStorage storage) {
+        this.storage = storage;
+        this.capacity = INITIAL_CAPACITY;
+        this.mask = capacity - 1;
+    }
+
+    public static IdMapping create(CsvLoaderConfig clc) {
+        final IdMappingStorage storage = IdMappingStorage.of(clc.getIdMappingStorage());
+        return clc.getStringIds() ? new StringIdMapping(storage) : new LongIdMapping(storage);
+    }
+
+    public abstract boolean containsKey(String csvId);
+
+    public abstract void put(String csvId, long nodeId);
+
+    /**
+     * @return the internal id of the node or {@link #NOT_FOUND}
+     */
+    protected abstract long lookup(String csvId);
+
+    protected abstract void resize(long newCapacity);
+
+    public abstract String getKeyType();
+
+    public abstract long heapBytes();
+
+    public abstract long diskBytes();
+
+    @Override
+    public abstract void close();
+
+    /**
+     * @return the internal id of the node or {@link #NOT_FOUND}
+     */
+    public long get(Object csvId) {
+        lookups.increment();
+        final long nodeId = csvId == null ? NOT_FOUND : lookup(csvId.toString());
+        if (nodeId == NOT_FOUND) {
+            misses.increment();
+        }
+        return nodeId;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long getLookups() {
+        return lookups.sum();
+    }
+
+    public Map<String, Object> getStats() {
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("storage", storage.getType().name());
+        stats.put("keyType", getKeyType());
+        stats.put("entries", size());
+        stats.put("heapBytes", heapBytes());
+        stats.put("diskBytes", diskBytes());
+        stats.put("lookups", lookups.sum());
+        stats.put("misses", misses.sum());
+        return stats;
+    }
+
+    /**
+     * Grows the table if adding an entry would exceed the load factor
+     * @return whether the table was resized, which moves the entries to other slots
+     */
+    protected boolean ensureCapacity() {
+        if (size + 1 > capacity * MAX_LOAD_FACTOR) {
+            resize(capacity << 1);
+            capacity <<= 1;
+            mask = capacity - 1;
+            return true;
+        }
+        return false;
+    }
+
+    protected static long hash(long value) {
+        // murmur3 finalizer, spreads sequential ids over the whole table
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
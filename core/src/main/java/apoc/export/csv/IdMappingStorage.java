@@ -0,0 +1,448 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.csv;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.neo4j.internal.unsafe.UnsafeUtil;
+
+/**
+ * Paged storage used by the {@link IdMapping} implementations, either on heap or in memory-mapped temporary files.
+ * Pages are allocated lazily, so that the heap usage of the mapped storage doesn't depend on the number of ids.
+ */
+public abstract class IdMappingStorage {
+
+    public enum Type {
+        HEAP,
+        MAPPED
+    }
+
+    // addresses of the byte arrays are stored in 40 bits
+    static final long MAX_ADDRESS = 1L << 40;
+
+    private static final int HEAP_LONG_PAGE_BITS = 16;
+    private static final int HEAP_BYTE_PAGE_BITS = 20;
+    private static final int MAPPED_LONG_PAGE_BITS = 20;
+    private static final int MAPPED_BYTE_PAGE_BITS = 24;
+
+    public static IdMappingStorage of(Type type) {
+        switch (type) {
+            case HEAP:
+                return new Heap();
+            case MAPPED:
+                return new Mapped();
+            default:
+                throw new IllegalArgumentException("Unrecognised id mapping storage: [" + type + "]");
+        }
+    }
+
+    public abstract Type getType();
+
+    public abstract LongArray newLongArray(long size);
+
+    public abstract ByteArray newByteArray();
+
+    /**
+     * A fixed size array of longs, initialized to 0
+     */
+    public interface LongArray extends AutoCloseable {
+        long get(long index);
+
+        void set(long index, long value);
+
+        long size();
+
+        long heapBytes();
+
+        long diskBytes();
+
+        @Override
+        void close();
+    }
+
+    /**
+     * An append only array of length-prefixed byte sequences
+     */
+    public interface ByteArray extends AutoCloseable {
+        /**
+         * @return the address of the appended bytes
+         */
+        long append(byte[] bytes);
+
+        boolean equalsAt(long address, byte[] bytes);
+
+        byte[] read(long address);
+
+        long heapBytes();
+
+        long diskBytes();
+
+        @Override
+        void close();
+    }
+
+    private static class Heap extends IdMappingStorage {
+
+        @Override
+        public Type getType() {
+            return Type.HEAP;
+        }
+
+        @Override
+        public LongArray newLongArray(long size) {
+            return new HeapLongArray(size);
+        }
+
+        @Override
+        public ByteArray newByteArray() {
+            return new HeapByteArray();
+        }
+    }
+
+    private static class Mapped extends IdMappingStorage {
+
+        @Override
+        public Type getType() {
+            return Type.MAPPED;
+        }
+
+        @Override
+        public LongArray newLongArray(long size) {
+            return new MappedLongArray(size);
+        }
+
+        @Override
+        public ByteArray newByteArray() {
+            return new MappedByteArray();
+        }
+    }
+
+    private static class HeapLongArray implements LongArray {
+        private static final int MASK = (1 << HEAP_LONG_PAGE_BITS) - 1;
+
+        private final long size;
+        private final long[][] pages;
+
+        HeapLongArray(long size) {
+            this.size = size;
+            int pageCount = (int) ((size + MASK) >>> HEAP_LONG_PAGE_BITS);
+            this.pages = new long[pageCount][];
+            for (int i = 0; i < pageCount; i++) {
+                pages[i] = new long[(int) Math.min(MASK + 1, size - ((long) i << HEAP_LONG_PAGE_BITS))];
+            }
+        }
+
+        @Override
+        public long get(long index) {
+            return pages[(int) (index >>> HEAP_LONG_PAGE_BITS)][(int) (index & MASK)];
+        }
+
+        @Override
+        public void set(long index, long value) {
+            pages[(int) (index >>> HEAP_LONG_PAGE_BITS)][(int) (index & MASK)] = value;
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public long heapBytes() {
+            return size * Long.BYTES;
+        }
+
+        @Override
+        public long diskBytes() {
+            return 0;
+        }
+
+        @Override
+        public void close() {}
+    }
+
+    private static class MappedLongArray implements LongArray {
+        private static final int MASK = (1 << MAPPED_LONG_PAGE_BITS) - 1;
+
+        private final long size;
+        private final MappedFile file;
+        private final LongBuffer[] pages;
+
+        MappedLongArray(long size) {
+            this.size = size;
+            this.file = new MappedFile();
+            int pageCount = (int) ((size + MASK) >>> MAPPED_LONG_PAGE_BITS);
+            this.pages = new LongBuffer[pageCount];
+            for (int i = 0; i < pageCount; i++) {
+                long pageStart = (long) i << MAPPED_LONG_PAGE_BITS;
+                long pageSize = Math.min(MASK + 1, size - pageStart);
+                pages[i] =
+                        file.map(pageStart * Long.BYTES, pageSize * Long.BYTES).asLongBuffer();
+            }
+        }
+
+        @Override
+        public long get(long index) {
+            return pages[(int) (index >>> MAPPED_LONG_PAGE_BITS)].get((int) (index & MASK));
+        }
+
+        @Override
+        public void set(long index, long value) {
+            pages[(int) (index >>> MAPPED_LONG_PAGE_BITS)].put((int) (index & MASK), value);
+        }
+
+        @Override
+        public long size() {
+            return size;
+        }
+
+        @Override
+        public long heapBytes() {
+            return 0;
+        }
+
+        @Override
+        public long diskBytes() {
+            return size * Long.BYTES;
+        }
+
+        @Override
+        public void close() {
+            // fails instead of reading the unmapped memory if still used
+            Arrays.fill(pages, null);
+            file.close();
+        }
+    }
+
+    /**
+     * Each entry is stored as a varint length followed by the bytes, entries never span multiple pages,
+     * so the address is the page index followed by the offset in the page
+     */
+    private abstract static class PagedByteArray implements ByteArray {
+        private final int pageBits;
+        private final int pageSize;
+        protected final List<ByteBuffer> pages = new ArrayList<>();
+        private int position;
+
+        PagedByteArray(int pageBits) {
+            this.pageBits = pageBits;
+            this.pageSize = 1 << pageBits;
+            this.position = pageSize;
+        }
+
+        protected abstract ByteBuffer newPage(int index, int pageSize);
+
+        @Override
+        public long append(byte[] bytes) {
+            int required = varIntSize(bytes.length) + bytes.length;
+            if (required > pageSize) {
+                throw new IllegalArgumentException("Id of " + bytes.length + " bytes is too long to be mapped");
+            }
+            if (position + required > pageSize) {
+                long nextAddress = (long) pages.size() << pageBits;
+                if (nextAddress >= MAX_ADDRESS) {
+                    throw new IllegalStateException("Too many ids to be mapped");
+                }
+                pages.add(newPage(pages.size(), pageSize));
+                position = 0;
+            }
+            long address = ((long) (pages.size() - 1) << pageBits) | position;
+            ByteBuffer page = pages.get(pages.size() - 1);
+            position = writeVarInt(page, position, bytes.length);
+            for (byte b : bytes) {
+                page.put(position++, b);
+            }
+            return address;
+        }
+
+        @Override
+        public boolean equalsAt(long address, byte[] bytes) {
+            ByteBuffer page = pages.get((int) (address >>> pageBits));
+            int offset = (int) (address & (pageSize - 1));
+            int length = readVarInt(page, offset);
+            if (length != bytes.length) return false;
+            offset += varIntSize(length);
+            for (int i = 0; i < length; i++) {
+                if (page.get(offset + i) != bytes[i]) return false;
+            }
+            return true;
+        }
+
+        @Override
+        public byte[] read(long address) {
+            ByteBuffer page = pages.get((int) (address >>> pageBits));
+            int offset = (int) (address & (pageSize - 1));
+            int length = readVarInt(page, offset);
+            offset += varIntSize(length);
+            byte[] bytes = new byte[length];
+            for (int i = 0; i < length; i++) {
+                bytes[i] = page.get(offset + i);
+            }
+            return bytes;
+        }
+
+        protected long allocatedBytes() {
+            return (long) pages.size() * pageSize;
+        }
+
+        private static int varIntSize(int value) {
+            int size = 1;
+            while ((value >>>= 7) != 0) size++;
+            return size;
+        }
+
+        private static int writeVarInt(ByteBuffer page, int offset, int value) {
+            while ((value & ~0x7F) != 0) {
+                page.put(offset++, (byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            page.put(offset++, (byte) value);
+            return offset;
+        }
+
+        private static int readVarInt(ByteBuffer page, int offset) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = page.get(offset++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+
+    private static class HeapByteArray extends PagedByteArray {
+
+        HeapByteArray() {
+            super(HEAP_BYTE_PAGE_BITS);
+        }
+
+        @Override
+        protected ByteBuffer newPage(int index, int pageSize) {
+            return ByteBuffer.allocate(pageSize);
+        }
+
+        @Override
+        public long heapBytes() {
+            return allocatedBytes();
+        }
+
+        @Override
+        public long diskBytes() {
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            pages.clear();
+        }
+    }
+
+    private static class MappedByteArray extends PagedByteArray {
+        private final MappedFile file = new MappedFile();
+
+        MappedByteArray() {
+            super(MAPPED_BYTE_PAGE_BITS);
+        }
+
+        @Override
+        protected ByteBuffer newPage(int index, int pageSize) {
+            return file.map((long) index * pageSize, pageSize);
+        }
+
+        @Override
+        public long heapBytes() {
+            return 0;
+        }
+
+        @Override
+        public long diskBytes() {
+            return allocatedBytes();
+        }
+
+        @Override
+        public void close() {
+            pages.clear();
+            file.close();
+        }
+    }
+
+    /**
+     * A temporary file, deleted on close, whose regions are mapped in memory.
+     * The regions are unmapped on close, instead of whenever their buffers are garbage collected,
+     * so they must not be accessed anymore.
+     */
+    private static class MappedFile {
+        private final Path path;
+        private final FileChannel channel;
+        private final List<ByteBuffer> regions = new ArrayList<>();
+
+        MappedFile() {
+            try {
+                this.path = Files.createTempFile("apoc-import-id-mapping", ".bin");
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot create the id mapping file", e);
+            }
+            // not registered with deleteOnExit, which would keep every path until the JVM exits,
+            // as close deletes the file
+            try {
+                this.channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            } catch (IOException e) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+                throw new UncheckedIOException("Cannot open the id mapping file " + path, e);
+            }
+        }
+
+        ByteBuffer map(long position, long size) {
+            try {
+                final ByteBuffer region = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+                regions.add(region);
+                return region;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map the id mapping file " + path, e);
+            }
+        }
+
+        void close() {
+            regions.forEach(UnsafeUtil::invokeCleaner);
+            regions.clear();
+            try {
+                channel.close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete the id mapping file " + path, e);
+            }
+        }
+    }
+}
@@ -25,6 +25,7 @@ import apoc.util.Util;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.logging.Log;
@@ -66,23 +67,47 @@ public class ImportCsv {
             }
             final CsvLoaderConfig clc = CsvLoaderConfig.from(config);
             final ProgressReporter reporter = new ProgressReporter(null, null, new ProgressInfo(file, source, "csv"));
-            final CsvEntityLoader loader = new CsvEntityLoader(clc, reporter, log, terminationGuard);
+            final Map<String, IdMapping> idMapping = new HashMap<>();
+            try {
+                final long relationshipsStart;
+                if (clc.isParallel()) {
+                    final CsvPipelineLoader loader =
+                            new CsvPipelineLoader(clc, reporter, log, terminationGuard, db, pools);
+                    loader.load(nodes, relationships, idMapping);
+                    relationshipsStart = loader.getRelationshipsStart();
+                } else {
+                    final CsvEntityLoader loader = new CsvEntityLoader(clc, reporter, log, terminationGuard);
+                    for (Map<String, Object> node : nodes) {
+                        final Object data = node.getOrDefault("fileName", node.get("data"));
+                        final List<String> labels = (List<String>) node.get("labels");
+                        loader.loadNodes(data, labels, db, idMapping);
+                    }
 
-            final Map<String, Map<String, Long>> idMapping = new HashMap<>();
-            for (Map<String, Object> node : nodes) {
-                final Object data = node.getOrDefault("fileName", node.get("data"));
-                final List<String> labels = (List<String>) node.get("labels");
-                loader.loadNodes(data, labels, db, idMapping);
-            }
-
-            for (Map<String, Object> relationship : relationships) {
-                final Object fileName = relationship.getOrDefault("fileName", relationship.get("data"));
-                final String type = (String) relationship.get("type");
-                loader.loadRelationships(fileName, type, db, idMapping);
+                    relationshipsStart = System.nanoTime();
+                    for (Map<String, Object> relationship : relationships) {
+                        final Object fileName = relationship.getOrDefault("fileName", relationship.get("data"));
+                        final String type = (String) relationship.get("type");
+                        loader.loadRelationships(fileName, type, db, idMapping);
+                    }
+                }
+                reporter.getTotal().data = idMappingStats(idMapping, System.nanoTime() - relationshipsStart);
+            } finally {
+                idMapping.values().forEach(IdMapping::close);
             }
 
             return reporter.getTotal();
         });
         return Stream.of(result);
     }
+
+    private static Map<String, Object> idMappingStats(Map<String, IdMapping> idMapping, long relationshipsNanos) {
+        final Map<String, Object> idSpaces = new HashMap<>();
+        long lookups = 0;
+        for (Map.Entry<String, IdMapping> entry : idMapping.entrySet()) {
+            idSpaces.put(entry.getKey(), entry.getValue().getStats());
+            lookups += entry.getValue().getLookups();
+        }
+        final double seconds = Math.max(relationshipsNanos, 1) / (double) TimeUnit.SECONDS.toNanos(1);
+        return Map.of("idMapping", idSpaces, "lookupsPerSecond", lookups == 0 ? 0L : (long) (lookups / seconds));
+    }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.csv;
+
+/**
+ * {@link IdMapping} for numeric ids, used with <code>stringIds: false</code>.
+ * The values are stored as <code>nodeId + 1</code>, so that 0 marks an empty slot.
+ * Only the ids written exactly like {@link Long#toString(long)} does are stored as longs,
+ * the others, e.g. <code>01</code> or <code> 1</code>, are kept as strings so that they don't collide with <code>1</code>.
+ */
+public class LongIdMapping extends IdMapping {
+    private IdMappingStorage.LongArray keys;
+    private IdMappingStorage.LongArray values;
+    // created on the first id which isn't a canonical long
+    private StringIdMapping others;
+
+    public LongIdMapping(IdMappingStorage storage) {
+        super(storage);
+        this.keys = storage.newLongArray(capacity);
+        this.values = storage.newLongArray(capacity);
+    }
+
+    @Override
+    public boolean containsKey(String csvId) {
+        return csvId != null && lookup(csvId) != NOT_FOUND;
+    }
+
+    @Override
+    public void put(String csvId, long nodeId) {
+        if (!isCanonicalLong(csvId)) {
+            if (others == null) {
+                others = new StringIdMapping(storage);
+            }
+            others.put(csvId, nodeId);
+            return;
+        }
+        final long key = Long.parseLong(csvId);
+        long slot = findSlot(key);
+        if (values.get(slot) != 0) {
+            values.set(slot, nodeId + 1);
+            return;
+        }
+        if (ensureCapacity()) {
+            slot = findSlot(key);
+        }
+        keys.set(slot, key);
+        values.set(slot, nodeId + 1);
+        size++;
+    }
+
+    @Override
+    protected long lookup(String csvId) {
+        if (!isCanonicalLong(csvId)) {
+            return others == null ? NOT_FOUND : others.lookup(csvId);
+        }
+        final long value = values.get(findSlot(Long.parseLong(csvId)));
+        return value == 0 ? NOT_FOUND : value - 1;
+    }
+
+    @Override
+    public long size() {
+        return others == null ? size : size + others.size();
+    }
+
+    @Override
+    protected void resize(long newCapacity) {
+        final IdMappingStorage.LongArray newKeys = storage.newLongArray(newCapacity);
+        final IdMappingStorage.LongArray newValues = storage.newLongArray(newCapacity);
+        final long newMask = newCapacity - 1;
+        for (long i = 0; i < capacity; i++) {
+            long value = values.get(i);
+            if (value == 0) continue;
+            long key = keys.get(i);
+            long slot = hash(key) & newMask;
+            while (newValues.get(slot) != 0) {
+                slot = (slot + 1) & newMask;
+            }
+            newKeys.set(slot, key);
+            newValues.set(slot, value);
+        }
+        keys.close();
+        values.close();
+        keys = newKeys;
+        values = newValues;
+    }
+
+    @Override
+    public String getKeyType() {
+        return "LONG";
+    }
+
+    @Override
+    public long heapBytes() {
+        return keys.heapBytes() + values.heapBytes() + (others == null ? 0 : others.heapBytes());
+    }
+
+    @Override
+    public long diskBytes() {
+        return keys.diskBytes() + values.diskBytes() + (others == null ? 0 : others.diskBytes());
+    }
+
+    @Override
+    public void close() {
+        keys.close();
+        values.close();
+        if (others != null) {
+            others.close();
+        }
+    }
+
+    /**
+     * @return the slot containing the key or the empty slot where it should be inserted
+     */
+    private long findSlot(long key) {
+        long slot = hash(key) & mask;
+        while (values.get(slot) != 0 && keys.get(slot) != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    /**
+     * @return whether the id is an optional minus followed by ASCII digits without leading zeros, within the long range
+     */
+    private static boolean isCanonicalLong(String csvId) {
+        final int start = csvId.startsWith("-") ? 1 : 0;
+        final int digits = csvId.length() - start;
+        if (digits == 0 || digits > 19 || (csvId.charAt(start) == '0' && csvId.length() > 1)) {
+            return false;
+        }
+        for (int i = start; i < csvId.length(); i++) {
+            final char c = csvId.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        if (digits < 19) {
+            return true;
+        }
+        try {
+            Long.parseLong(csvId);
+            return true;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+}
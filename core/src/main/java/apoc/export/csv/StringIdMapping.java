@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.csv;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link IdMapping} for string ids, used with <code>stringIds: true</code>.
+ * The ids are kept, UTF-8 encoded, in a single dictionary of bytes instead of one <code>String</code> per id.
+ * Each slot of the table packs the 40 bit address of the id in the dictionary (plus one, so that 0 marks an empty slot)
+ * with the upper 24 bits of its hash, which avoids most of the comparisons with the dictionary.
+ */
+public class StringIdMapping extends IdMapping {
+    private static final int ADDRESS_BITS = 40;
+    private static final long ADDRESS_MASK = (1L << ADDRESS_BITS) - 1;
+    private static final long TAG_MASK = ~ADDRESS_MASK;
+
+    private final IdMappingStorage.ByteArray dictionary;
+    private IdMappingStorage.LongArray entries;
+    private IdMappingStorage.LongArray values;
+
+    public StringIdMapping(IdMappingStorage storage) {
+        super(storage);
+        this.dictionary = storage.newByteArray();
+        this.entries = storage.newLongArray(capacity);
+        this.values = storage.newLongArray(capacity);
+    }
+
+    @Override
+    public boolean containsKey(String csvId) {
+        return lookup(csvId) != NOT_FOUND;
+    }
+
+    @Override
+    public void put(String csvId, long nodeId) {
+        final byte[] bytes = csvId.getBytes(UTF_8);
+        final long hash = hash(bytes);
+        final long slot = findSlot(bytes, hash);
+        if (entries.get(slot) != 0) {
+            values.set(slot, nodeId);
+            return;
+        }
+        ensureCapacity();
+        final long address = dictionary.append(bytes);
+        insert(entries, values, mask, (hash & TAG_MASK) | (address + 1), hash, nodeId);
+        size++;
+    }
+
+    @Override
+    protected long lookup(String csvId) {
+        final byte[] bytes = csvId.getBytes(UTF_8);
+        final long slot = findSlot(bytes, hash(bytes));
+        return entries.get(slot) == 0 ? NOT_FOUND : values.get(slot);
+    }
+
+    @Override
+    protected void resize(long newCapacity) {
+        final IdMappingStorage.LongArray newEntries = storage.newLongArray(newCapacity);
+        final IdMappingStorage.LongArray newValues = storage.newLongArray(newCapacity);
+        for (long i = 0; i < capacity; i++) {
+            long entry = entries.get(i);
+            if (entry == 0) continue;
+            long hash = hash(dictionary.read((entry & ADDRESS_MASK) - 1));
+            insert(newEntries, newValues, newCapacity - 1, entry, hash, values.get(i));
+        }
+        entries.close();
+        values.close();
+        entries = newEntries;
+        values = newValues;
+    }
+
+    @Override
+    public String getKeyType() {
+        return "STRING";
+    }
+
+    @Override
+    public long heapBytes() {
+        return dictionary.heapBytes() + entries.heapBytes() + values.heapBytes();
+    }
+
+    @Override
+    public long diskBytes() {
+        return dictionary.diskBytes() + entries.diskBytes() + values.diskBytes();
+    }
+
+    @Override
+    public void close() {
+        dictionary.close();
+        entries.close();
+        values.close();
+    }
+
+    /**
+     * @return the slot containing the id or the empty slot where it should be inserted
+     */
+    private long findSlot(byte[] bytes, long hash) {
+        final long tag = hash & TAG_MASK;
+        long slot = hash & mask;
+        long entry;
+        while ((entry = entries.get(slot)) != 0) {
+            if ((entry & TAG_MASK) == tag && dictionary.equalsAt((entry & ADDRESS_MASK) - 1, bytes)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void insert(
+            IdMappingStorage.LongArray entries,
+            IdMappingStorage.LongArray values,
+            long mask,
+            long entry,
+            long hash,
+            long nodeId) {
+        long slot = hash & mask;
+        while (entries.get(slot) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        entries.set(slot, entry);
+        values.set(slot, nodeId);
+    }
+
+    private static long hash(byte[] bytes) {
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        return hash(hash);
+    }
+}
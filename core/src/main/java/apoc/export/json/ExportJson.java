@@ -25,6 +25,7 @@ import apoc.export.cypher.FileManagerFactory;
 import apoc.export.util.ExportConfig;
 import apoc.export.util.ExportUtils;
 import apoc.export.util.NodesAndRelsSubGraph;
+import apoc.export.util.PartitionedExport;
 import apoc.export.util.ProgressReporter;
 import apoc.result.ProgressInfo;
 import apoc.util.Util;
@@ -75,6 +76,20 @@ public class ExportJson {
             throws Exception {
 
         String source = String.format("database: nodes(%d), rels(%d)", Util.nodeCount(tx), Util.relCount(tx));
+        ExportConfig exportConfig = new ExportConfig(config);
+        if (exportConfig.getPartitions() > 1) {
+            apocConfig.checkWriteAllowed(exportConfig, fileName);
+            return PartitionedExport.export(
+                    db,
+                    tx,
+                    pools.getDefaultExecutorService(),
+                    terminationGuard,
+                    fileName,
+                    source,
+                    "json",
+                    exportConfig,
+                    () -> new JsonFormat(db, getJsonFormat(config)));
+        }
         return exportJson(fileName, source, new DatabaseSubGraph(tx), config);
     }
 
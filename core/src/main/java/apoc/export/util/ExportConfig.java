@@ -90,6 +90,9 @@ public class ExportConfig extends CompressionConfig {
     private int unwindBatchSize;
     private long awaitForIndexes;
     private final Map<String, Object> samplingConfig;
+    private final Map<String, Object> columns;
+    private final boolean singlePass;
+    private final int partitions;
 
     public int getBatchSize() {
         return batchSize;
@@ -168,6 +171,9 @@ public class ExportConfig extends CompressionConfig {
         this.batchSize = ((Number) config.getOrDefault("batchSize", DEFAULT_BATCH_SIZE)).intValue();
         this.sampling = toBoolean(config.getOrDefault("sampling", false));
         this.samplingConfig = (Map<String, Object>) config.getOrDefault("samplingConfig", new HashMap<>());
+        this.columns = (Map<String, Object>) config.get("columns");
+        this.singlePass = toBoolean(config.getOrDefault("singlePass", columns != null));
+        this.partitions = Math.max(Util.toInteger(config.getOrDefault("partitions", 1)), 1);
         this.unwindBatchSize =
                 ((Number) getOptimizations().getOrDefault("unwindBatchSize", DEFAULT_UNWIND_BATCH_SIZE)).intValue();
         this.awaitForIndexes = ((Number) config.getOrDefault("awaitForIndexes", 300)).longValue();
@@ -291,6 +297,18 @@ public class ExportConfig extends CompressionConfig {
         return sampling;
     }
 
+    public boolean isSinglePass() {
+        return singlePass;
+    }
+
+    public Map<String, Object> getColumns() {
+        return columns;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
     public boolean ifNotExists() {
         return ifNotExists;
     }
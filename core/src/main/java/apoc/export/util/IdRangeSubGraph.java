@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.util;
+
+import java.util.Iterator;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.stream.LongStream;
+import org.neo4j.cypher.export.DatabaseSubGraph;
+import org.neo4j.cypher.export.SubGraph;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.schema.ConstraintDefinition;
+import org.neo4j.graphdb.schema.IndexDefinition;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+
+/**
+ * The nodes and the relationships of the database with their ids in a range,
+ * the schema, the labels and the types are the ones of the whole database.
+ */
+public class IdRangeSubGraph implements SubGraph {
+    private final Transaction tx;
+    private final SubGraph database;
+    private final Read read;
+    private final long nodesFrom;
+    private final long nodesTo;
+    private final long relsFrom;
+    private final long relsTo;
+
+    /**
+     * @param nodesFrom the first node id, included
+     * @param nodesTo the last node id, excluded
+     * @param relsFrom the first relationship id, included
+     * @param relsTo the last relationship id, excluded
+     */
+    public IdRangeSubGraph(Transaction tx, long nodesFrom, long nodesTo, long relsFrom, long relsTo) {
+        this.tx = tx;
+        this.database = new DatabaseSubGraph(tx);
+        this.read = ((InternalTransaction) tx).kernelTransaction().dataRead();
+        this.nodesFrom = nodesFrom;
+        this.nodesTo = nodesTo;
+        this.relsFrom = relsFrom;
+        this.relsTo = relsTo;
+    }
+
+    @Override
+    public Iterable<Node> getNodes() {
+        return () -> inRange(nodesFrom, nodesTo, read::nodeExists, tx::getNodeById);
+    }
+
+    @Override
+    public Iterable<Relationship> getRelationships() {
+        return () -> inRange(relsFrom, relsTo, read::relationshipExists, tx::getRelationshipById);
+    }
+
+    private static <T> Iterator<T> inRange(long from, long to, LongPredicate exists, LongFunction<T> get) {
+        return LongStream.range(from, to).filter(exists).mapToObj(get).iterator();
+    }
+
+    @Override
+    public boolean contains(Relationship relationship) {
+        return relationship.getId() >= relsFrom && relationship.getId() < relsTo;
+    }
+
+    @Override
+    public Iterable<IndexDefinition> getIndexes() {
+        return database.getIndexes();
+    }
+
+    @Override
+    public Iterable<ConstraintDefinition> getConstraints() {
+        return database.getConstraints();
+    }
+
+    @Override
+    public Iterable<ConstraintDefinition> getConstraints(Label label) {
+        return database.getConstraints(label);
+    }
+
+    @Override
+    public Iterable<ConstraintDefinition> getConstraints(RelationshipType type) {
+        return database.getConstraints(type);
+    }
+
+    @Override
+    public Iterable<IndexDefinition> getIndexes(Label label) {
+        return database.getIndexes(label);
+    }
+
+    @Override
+    public Iterable<IndexDefinition> getIndexes(RelationshipType type) {
+        return database.getIndexes(type);
+    }
+
+    @Override
+    public Iterable<RelationshipType> getAllRelationshipTypesInUse() {
+        return database.getAllRelationshipTypesInUse();
+    }
+
+    @Override
+    public Iterable<Label> getAllLabelsInUse() {
+        return database.getAllLabelsInUse();
+    }
+
+    @Override
+    public long countsForRelationship(Label start, RelationshipType type, Label end) {
+        return database.countsForRelationship(start, type, end);
+    }
+
+    @Override
+    public long countsForNode(Label label) {
+        return database.countsForNode(label);
+    }
+
+    @Override
+    public Iterator<Node> findNodes(Label label) {
+        return LongStream.range(nodesFrom, nodesTo)
+                .filter(read::nodeExists)
+                .mapToObj(tx::getNodeById)
+                .filter(node -> node.hasLabel(label))
+                .iterator();
+    }
+}
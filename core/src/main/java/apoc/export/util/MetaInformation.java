@@ -29,6 +29,7 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.ClassUtils;
@@ -58,13 +59,7 @@ public class MetaInformation {
             }
             return propTypes;
         }
-        final Map<String, Object> conf = config.getSamplingConfig();
-        conf.putIfAbsent(
-                "includeLabels",
-                stream(graph.getAllLabelsInUse()).map(Label::name).collect(Collectors.toList()));
-
-        return db.executeTransactionally(
-                "CALL apoc.meta.nodeTypeProperties($conf)", Map.of("conf", conf), getMapResultTransformer());
+        return sampledPropTypesForNodes(graph, db, config);
     }
 
     public static Map<String, Class> collectPropTypesForRelationships(
@@ -76,6 +71,22 @@ public class MetaInformation {
             }
             return propTypes;
         }
+        return sampledPropTypesForRelationships(graph, db, config);
+    }
+
+    public static Map<String, Class> sampledPropTypesForNodes(
+            SubGraph graph, GraphDatabaseService db, ExportConfig config) {
+        final Map<String, Object> conf = config.getSamplingConfig();
+        conf.putIfAbsent(
+                "includeLabels",
+                stream(graph.getAllLabelsInUse()).map(Label::name).collect(Collectors.toList()));
+
+        return db.executeTransactionally(
+                "CALL apoc.meta.nodeTypeProperties($conf)", Map.of("conf", conf), getMapResultTransformer());
+    }
+
+    public static Map<String, Class> sampledPropTypesForRelationships(
+            SubGraph graph, GraphDatabaseService db, ExportConfig config) {
         final Map<String, Object> conf = config.getSamplingConfig();
         conf.putIfAbsent(
                 "includeRels",
@@ -87,6 +98,23 @@ public class MetaInformation {
                 "CALL apoc.meta.relTypeProperties($conf)", Map.of("conf", conf), getMapResultTransformer());
     }
 
+    /**
+     * @param type a type name of the meta procedures, e.g. {@code Long} or {@code StringArray}
+     * @return the class of the property values of the type
+     */
+    public static Class classFor(String type) {
+        String className = REVERSED_TYPE_MAP.get(type);
+        if (className == null) {
+            throw new IllegalArgumentException(
+                    "Unknown property type " + type + ", expected one of " + new TreeSet<>(REVERSED_TYPE_MAP.keySet()));
+        }
+        try {
+            return ClassUtils.getClass(className);
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     private static ResultTransformer<Map<String, Class>> getMapResultTransformer() {
         return result -> result.stream()
                 .filter(map -> map.get("propertyName") != null)
@@ -96,12 +124,7 @@ public class MetaInformation {
                             final String propertyTypes = ((List<String>) map.get("propertyTypes")).get(0);
                             // take the className from the result, inversely to the
                             // meta.relTypeProperties/nodeTypeProperties procedures
-                            String className = REVERSED_TYPE_MAP.get(propertyTypes);
-                            try {
-                                return ClassUtils.getClass(className);
-                            } catch (ClassNotFoundException e) {
-                                throw new RuntimeException(e);
-                            }
+                            return classFor(propertyTypes);
                         },
                         (e1, e2) -> e2));
     }
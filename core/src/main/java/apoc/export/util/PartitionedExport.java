@@ -0,0 +1,286 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.util;
+
+import apoc.export.cypher.ExportFileManager;
+import apoc.export.cypher.FileManagerFactory;
+import apoc.result.ProgressInfo;
+import apoc.util.kernel.MultiThreadedGlobalGraphOperations;
+import apoc.util.kernel.MultiThreadedGlobalGraphOperations.GlobalOperationsTypes;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.neo4j.common.DependencyResolver;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.procedure.TerminationGuard;
+
+/**
+ * Exports the whole database in {@code partitions} parts, each with a range of the node ids and a range of the
+ * relationship ids, exported in its own transaction on the executor.
+ * Each part is written to its own numbered file, e.g. {@code all.0.csv}, {@code all.1.csv},
+ * or when streaming, returned as its own rows of {@code batchSize} entities in the order of the parts.
+ * The progress returned is the sum of the progress of the parts.
+ * As the parts are read by their own transactions, they don't see the changes of the calling transaction,
+ * so the export is refused if there are any.
+ */
+public class PartitionedExport {
+    public static final String PARTITIONS_WITH_CHANGES_ERROR =
+            "You cannot use `partitions` in a transaction with changes, as the parts are exported in their own transactions";
+
+    // the batches of each part kept while the previous parts are streamed
+    private static final int QUEUED_BATCHES = 10;
+
+    private PartitionedExport() {}
+
+    public static Stream<ProgressInfo> export(
+            GraphDatabaseService db,
+            Transaction tx,
+            ExecutorService executorService,
+            TerminationGuard terminationGuard,
+            String fileName,
+            String source,
+            String format,
+            ExportConfig config,
+            Supplier<Format> exporter) {
+        if (((InternalTransaction) tx).kernelTransaction().dataRead().transactionStateHasChanges()) {
+            throw new RuntimeException(PARTITIONS_WITH_CHANGES_ERROR);
+        }
+        DependencyResolver dependencyResolver = ((GraphDatabaseAPI) db).getDependencyResolver();
+        int partitions = config.getPartitions();
+        long[] nodeRanges = split(
+                MultiThreadedGlobalGraphOperations.getHighestIdInUseForStore(
+                        dependencyResolver, GlobalOperationsTypes.NODES),
+                partitions);
+        long[] relRanges = split(
+                MultiThreadedGlobalGraphOperations.getHighestIdInUseForStore(
+                        dependencyResolver, GlobalOperationsTypes.RELATIONSHIPS),
+                partitions);
+
+        long start = System.currentTimeMillis();
+        List<Future<ProgressInfo>> futures = new ArrayList<>(partitions);
+        List<BlockingQueue<ProgressInfo>> queues = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            String partitionFileName = fileName == null ? null : partitionFileName(fileName, i);
+            long nodesFrom = nodeRanges[i];
+            long nodesTo = nodeRanges[i + 1];
+            long relsFrom = relRanges[i];
+            long relsTo = relRanges[i + 1];
+            BlockingQueue<ProgressInfo> queue =
+                    config.streamStatements() ? new ArrayBlockingQueue<>(QUEUED_BATCHES) : null;
+            queues.add(queue);
+            futures.add(executorService.submit(() -> {
+                ProgressInfo progressInfo = new ProgressInfo(partitionFileName, source, format);
+                progressInfo.batchSize = config.getBatchSize();
+                ProgressReporter reporter = new ProgressReporter(null, null, progressInfo);
+                ExportFileManager fileManager = FileManagerFactory.createFileManager(partitionFileName, false, config);
+                if (queue != null) {
+                    // each batch is drained from the writer of the part, the end of the part is marked below
+                    reporter.withConsumer(pi -> {
+                        if (pi != ProgressInfo.EMPTY) {
+                            put(
+                                    queue,
+                                    new ProgressInfo(pi).drain(fileManager.getStringWriter(format), config),
+                                    terminationGuard);
+                        }
+                    });
+                }
+                try (Transaction partitionTx = db.beginTx()) {
+                    IdRangeSubGraph graph = new IdRangeSubGraph(partitionTx, nodesFrom, nodesTo, relsFrom, relsTo);
+                    exporter.get().dump(graph, fileManager, reporter, config);
+                    partitionTx.commit();
+                } finally {
+                    if (queue != null) {
+                        put(queue, ProgressInfo.EMPTY, terminationGuard);
+                    }
+                }
+                return new ProgressInfo(reporter.getTotal()).drain(fileManager.getStringWriter(format), config);
+            }));
+        }
+
+        ProgressInfo total = new ProgressInfo(fileName, source, format);
+        total.batchSize = config.getBatchSize();
+        if (config.streamStatements()) {
+            Iterator<ProgressInfo> rows = new StreamedParts(futures, queues, terminationGuard, total, start);
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.NONNULL), false)
+                    .onClose(() -> futures.forEach(future -> future.cancel(true)));
+        }
+        try {
+            for (Future<ProgressInfo> future : futures) {
+                add(total, await(future, terminationGuard));
+            }
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return Stream.of(total.done(start));
+    }
+
+    /**
+     * @return the bounds of the ranges of ids, the range {@code i} being from {@code bounds[i]} to {@code bounds[i + 1]}
+     */
+    static long[] split(long highId, int partitions) {
+        long[] bounds = new long[partitions + 1];
+        long size = (highId + partitions - 1) / partitions;
+        for (int i = 0; i <= partitions; i++) {
+            bounds[i] = Math.min(i * size, highId);
+        }
+        return bounds;
+    }
+
+    /**
+     * @return the file name with the number of the part before its extensions, e.g. {@code all.1.csv.gz}
+     */
+    static String partitionFileName(String fileName, int partition) {
+        int nameStart = Math.max(fileName.lastIndexOf('/'), fileName.lastIndexOf('\\')) + 1;
+        int extension = fileName.indexOf('.', nameStart);
+        return extension < 0
+                ? fileName + "." + partition
+                : fileName.substring(0, extension) + "." + partition + fileName.substring(extension);
+    }
+
+    private static void add(ProgressInfo total, ProgressInfo partition) {
+        total.update(partition.nodes, partition.relationships, partition.properties);
+        total.rows += partition.rows;
+        total.batches += partition.batches;
+    }
+
+    /**
+     * Waits for the previous parts to be streamed, as long as the export isn't terminated or closed
+     */
+    private static void put(
+            BlockingQueue<ProgressInfo> queue, ProgressInfo progressInfo, TerminationGuard terminationGuard) {
+        try {
+            while (!queue.offer(progressInfo, 100, TimeUnit.MILLISECONDS)) {
+                terminationGuard.check();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while streaming the export", e);
+        }
+    }
+
+    private static ProgressInfo await(Future<ProgressInfo> future, TerminationGuard terminationGuard) {
+        while (true) {
+            terminationGuard.check();
+            try {
+                return future.get(100, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                // checks the termination again
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the export", e);
+            } catch (ExecutionException e) {
+                throw new RuntimeException(e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * The batches of the parts, in the order of the parts, with the progress of the parts streamed so far.
+     * A part failing fails the stream once its previous batches are streamed.
+     */
+    private static class StreamedParts implements Iterator<ProgressInfo> {
+        private final List<Future<ProgressInfo>> futures;
+        private final List<BlockingQueue<ProgressInfo>> queues;
+        private final TerminationGuard terminationGuard;
+        private final ProgressInfo total;
+        private final long start;
+        private int part;
+        private ProgressInfo partProgress;
+        private ProgressInfo next;
+
+        StreamedParts(
+                List<Future<ProgressInfo>> futures,
+                List<BlockingQueue<ProgressInfo>> queues,
+                TerminationGuard terminationGuard,
+                ProgressInfo total,
+                long start) {
+            this.futures = futures;
+            this.queues = queues;
+            this.terminationGuard = terminationGuard;
+            this.total = total;
+            this.start = start;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && part < queues.size()) {
+                ProgressInfo batch = take(queues.get(part));
+                if (batch == ProgressInfo.EMPTY) {
+                    // throws the failure of the part, if any
+                    await(futures.get(part), terminationGuard);
+                    if (partProgress != null) {
+                        add(total, partProgress);
+                    }
+                    partProgress = null;
+                    part++;
+                } else {
+                    partProgress = batch;
+                    next = new ProgressInfo(total);
+                    add(next, batch);
+                    next.data = batch.data;
+                    next.done = part == queues.size() - 1 && batch.done;
+                    next.updateTime(start);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public ProgressInfo next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ProgressInfo result = next;
+            next = null;
+            return result;
+        }
+
+        private ProgressInfo take(BlockingQueue<ProgressInfo> queue) {
+            try {
+                while (true) {
+                    terminationGuard.check();
+                    ProgressInfo batch = queue.poll(100, TimeUnit.MILLISECONDS);
+                    if (batch != null) {
+                        return batch;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for the export", e);
+            }
+        }
+    }
+}
@@ -36,7 +36,7 @@ import org.neo4j.internal.helpers.collection.Pair;
  */
 public class BarabasiAlbertRelationshipGenerator extends BaseRelationshipGenerator<BarabasiAlbertConfig> {
 
-    private final Random random = new Random();
+    private final Random random;
 
     /**
      * Create a new generator.
@@ -44,7 +44,22 @@ public class BarabasiAlbertRelationshipGenerator extends BaseRelationshipGenerat
      * @param configuration of the generator.
      */
     public BarabasiAlbertRelationshipGenerator(BarabasiAlbertConfig configuration) {
+        this(configuration, new Random());
+    }
+
+    /**
+     * Create a new generator, generating the same edges for the same seed.
+     *
+     * @param configuration of the generator.
+     * @param seed          of the random attachments.
+     */
+    public BarabasiAlbertRelationshipGenerator(BarabasiAlbertConfig configuration, long seed) {
+        this(configuration, new Random(seed));
+    }
+
+    private BarabasiAlbertRelationshipGenerator(BarabasiAlbertConfig configuration, Random random) {
         super(configuration);
+        this.random = random;
     }
 
     /**
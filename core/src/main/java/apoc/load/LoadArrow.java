@@ -19,6 +19,7 @@
 package apoc.load;
 
 import apoc.Pools;
+import apoc.export.arrow.ArrowUtils;
 import apoc.result.MapResult;
 import apoc.util.FileUtils;
 import apoc.util.JsonUtil;
@@ -39,14 +40,13 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.apache.arrow.memory.RootAllocator;
-import org.apache.arrow.vector.BitVector;
 import org.apache.arrow.vector.DateMilliVector;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.ipc.ArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowReader;
 import org.apache.arrow.vector.ipc.ArrowStreamReader;
-import org.apache.arrow.vector.util.Text;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.Context;
@@ -97,7 +97,8 @@ public class LoadArrow {
                 final Map<String, Object> row = schemaRoot.getFieldVectors().stream()
                         .collect(
                                 HashMap::new,
-                                (map, fieldVector) -> map.put(fieldVector.getName(), read(fieldVector, counter.get())),
+                                (map, fieldVector) ->
+                                        map.put(fieldVector.getName(), read(fieldVector, counter.get(), reader)),
                                 HashMap::putAll); // please look at https://bugs.openjdk.java.net/browse/JDK-8148463
                 counter.incrementAndGet();
                 action.accept(new MapResult(row));
@@ -145,18 +146,15 @@ public class LoadArrow {
                 });
     }
 
-    private static Object read(FieldVector fieldVector, int index) {
+    private static Object read(FieldVector fieldVector, int index, DictionaryProvider dictionaries) {
         if (fieldVector.isNull(index)) {
             return null;
         } else if (fieldVector instanceof DateMilliVector) {
+            // the date times of the files exported before the typed columns
             DateMilliVector fe = (DateMilliVector) fieldVector;
             return Instant.ofEpochMilli(fe.get(index)).atOffset(ZoneOffset.UTC);
-        } else if (fieldVector instanceof BitVector) {
-            BitVector fe = (BitVector) fieldVector;
-            return fe.get(index) == 1;
         } else {
-            Object object = fieldVector.getObject(index);
-            return getObject(object);
+            return getObject(ArrowUtils.read(fieldVector, index, dictionaries));
         }
     }
 
@@ -168,9 +166,6 @@ public class LoadArrow {
             return ((Map<String, Object>) object)
                     .entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> getObject(e.getValue())));
         }
-        if (object instanceof Text) {
-            return object.toString();
-        }
         try {
             // we test if is a valid Neo4j type
             return Values.of(object);
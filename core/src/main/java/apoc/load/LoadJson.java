@@ -24,6 +24,7 @@ import apoc.result.MapResult;
 import apoc.result.ObjectResult;
 import apoc.util.CompressionAlgo;
 import apoc.util.JsonUtil;
+import apoc.util.SharedHttpClient;
 import apoc.util.Util;
 import java.util.Collections;
 import java.util.HashMap;
@@ -96,6 +97,14 @@ public class LoadJson {
                 urlOrKeyOrBinary, headers, payload, path, failOnError, compressionAlgo, pathOptions, terminationGuard);
     }
 
+    @Procedure
+    @Description(
+            "apoc.load.httpStats() YIELD value - the requests, errors, requests in flight and latencies of the HTTP client shared by the procedures loading from http and https urls")
+    public Stream<MapResult> httpStats() {
+        SharedHttpClient httpClient = SharedHttpClient.getInstance();
+        return Stream.of(new MapResult(httpClient == null ? Map.of("enabled", false) : httpClient.stats()));
+    }
+
     public static Stream<MapResult> loadJsonStream(
             @Name("url") Object url, @Name("headers") Map<String, Object> headers, @Name("payload") String payload) {
         return loadJsonStream(url, headers, payload, "", true, null, null, null);
@@ -39,6 +39,18 @@ public class LoadJdbcConfig {
 
     private final boolean autoCommit;
 
+    private final boolean batch;
+
+    private final int batchSize;
+
+    private final String partitionColumn;
+
+    private final long lowerBound;
+
+    private final long upperBound;
+
+    private final int partitions;
+
     public LoadJdbcConfig(Map<String, Object> config) {
         config = config != null ? config : Collections.emptyMap();
         try {
@@ -54,6 +66,16 @@ public class LoadJdbcConfig {
                 : null;
         this.fetchSize = Util.toLong(config.getOrDefault("fetchSize", 5000L));
         this.autoCommit = Util.toBoolean(config.getOrDefault("autoCommit", false));
+        this.batch = Util.toBoolean(config.getOrDefault("batch", false));
+        this.batchSize = Util.toInteger(config.getOrDefault("batchSize", 10000));
+        this.partitionColumn = (String) config.get("partitionColumn");
+        this.lowerBound = Util.toLong(config.getOrDefault("lowerBound", 0L));
+        this.upperBound = Util.toLong(config.getOrDefault("upperBound", 0L));
+        this.partitions = Util.toInteger(config.getOrDefault("partitions", 1));
+        if (isPartitioned() && upperBound <= lowerBound) {
+            throw new IllegalArgumentException(
+                    "The partitionColumn needs an upperBound greater than the lowerBound, to split the reads");
+        }
     }
 
     public ZoneId getZoneId() {
@@ -104,4 +126,35 @@ public class LoadJdbcConfig {
     public boolean isAutoCommit() {
         return autoCommit;
     }
+
+    public boolean isBatch() {
+        return batch;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return whether the reads are split by ranges of the partitionColumn
+     */
+    public boolean isPartitioned() {
+        return partitionColumn != null && partitions > 1;
+    }
+
+    public String getPartitionColumn() {
+        return partitionColumn;
+    }
+
+    public long getLowerBound() {
+        return lowerBound;
+    }
+
+    public long getUpperBound() {
+        return upperBound;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
 }
@@ -23,6 +23,7 @@ import static java.lang.String.format;
 import static org.neo4j.internal.kernel.api.TokenRead.ANY_LABEL;
 import static org.neo4j.internal.kernel.api.TokenRead.ANY_RELATIONSHIP_TYPE;
 
+import apoc.Pools;
 import apoc.export.util.NodesAndRelsSubGraph;
 import apoc.result.GraphResult;
 import apoc.result.MapResult;
@@ -30,6 +31,7 @@ import apoc.result.VirtualGraph;
 import apoc.result.VirtualNode;
 import apoc.result.VirtualRelationship;
 import apoc.util.MapUtil;
+import apoc.util.Util;
 import com.google.common.primitives.Booleans;
 import com.google.common.primitives.Bytes;
 import com.google.common.primitives.Chars;
@@ -56,6 +58,7 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.TreeMap;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -68,6 +71,7 @@ import org.neo4j.graphdb.Entity;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.NotFoundException;
 import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.RelationshipType;
@@ -81,10 +85,12 @@ import org.neo4j.graphdb.schema.IndexDefinition;
 import org.neo4j.graphdb.schema.Schema;
 import org.neo4j.graphdb.spatial.Point;
 import org.neo4j.internal.helpers.collection.Iterables;
+import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.internal.helpers.collection.Pair;
 import org.neo4j.internal.kernel.api.Read;
 import org.neo4j.internal.kernel.api.TokenRead;
 import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.Context;
 import org.neo4j.procedure.Description;
@@ -134,6 +140,12 @@ public class Meta {
     @Context
     public Log log;
 
+    @Context
+    public Pools pools;
+
+    @Context
+    public MetaSchemaCache metaSchemaCache;
+
     public static class ConstraintTracker {
         // The following maps are (label|rel-type)/constraintdefinition entries
 
@@ -707,6 +719,12 @@ public class Meta {
     @Procedure
     @Description("apoc.meta.schema({config})  - examines a subset of the graph to provide a map-like meta information")
     public Stream<MapResult> schema(@Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        return withCache(MetaSchemaCache.SCHEMA, config, schemaDefinitions(), () -> List.of(collectSchema(config)))
+                .stream()
+                .map(schema -> new MapResult(withCachedCounts(schema)));
+    }
+
+    private Map<String, Object> collectSchema(Map<String, Object> config) {
         MetaStats metaStats = collectStats();
         SampleMetaConfig metaConfig = new SampleMetaConfig(config);
         Map<MetadataKey, Map<String, MetaItem>> metaData =
@@ -727,7 +745,83 @@ public class Meta {
                     .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
         }
         nodes.putAll(relationships);
-        return Stream.of(new MapResult(nodes));
+        return nodes;
+    }
+
+    /**
+     * Answers from the {@link MetaSchemaCache} if it's enabled, unless the config has {@code useCache: false}.
+     * The config {@code maxStaleness} overrides the maximum age in milliseconds of a cached result.
+     * @param schema the indexes and constraints reported by the result
+     */
+    private <T> List<T> withCache(
+            String procedure, Map<String, Object> config, String schema, Supplier<List<T>> compute) {
+        if (metaSchemaCache == null
+                || !metaSchemaCache.isEnabled()
+                || !Util.toBoolean(config.getOrDefault("useCache", true))) {
+            return compute.get();
+        }
+        long maxStaleness = Util.toLong(config.getOrDefault("maxStaleness", metaSchemaCache.getDefaultStaleness()));
+        Map<String, Object> key = new TreeMap<>(config);
+        key.remove("useCache");
+        key.remove("maxStaleness");
+        return metaSchemaCache.get(procedure, key, maxStaleness, schema, compute);
+    }
+
+    /**
+     * @return the names and property keys of the indexes and constraints, whose changes the cache can't listen to
+     */
+    private String schemaDefinitions() {
+        if (metaSchemaCache == null || !metaSchemaCache.isEnabled()) {
+            return null;
+        }
+        Schema schema = transaction.schema();
+        StringBuilder definitions = new StringBuilder();
+        for (IndexDefinition index : schema.getIndexes()) {
+            definitions.append(index.getName()).append(index.getPropertyKeys()).append(';');
+        }
+        for (ConstraintDefinition constraint : schema.getConstraints()) {
+            definitions
+                    .append(constraint.getName())
+                    .append(constraint.getPropertyKeys())
+                    .append(';');
+        }
+        return definitions.toString();
+    }
+
+    /**
+     * The counts are kept up to date by the cache, so we return the current ones even if the schema is cached
+     */
+    private Map<String, Object> withCachedCounts(Map<String, Object> schema) {
+        if (metaSchemaCache == null || !metaSchemaCache.isEnabled()) {
+            return schema;
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        schema.forEach((name, value) -> {
+            Map<String, Object> entity = new LinkedHashMap<>((Map<String, Object>) value);
+            Long count = "node".equals(entity.get("type"))
+                    ? metaSchemaCache.labelCount(name)
+                    : metaSchemaCache.typeCount(name.replace(" (" + Types.RELATIONSHIP.name() + ")", ""));
+            if (count != null) {
+                entity.put("count", count);
+            }
+            result.put(name, entity);
+        });
+        return result;
+    }
+
+    @Procedure("apoc.meta.cache.refresh")
+    @Description(
+            "apoc.meta.cache.refresh() - drops the results cached for apoc.meta.schema, apoc.meta.nodeTypeProperties and apoc.meta.relTypeProperties, and rebuilds the counts")
+    public Stream<MapResult> cacheRefresh() {
+        metaSchemaCache.checkEnabled();
+        metaSchemaCache.refresh();
+        return Stream.of(new MapResult(metaSchemaCache.stats()));
+    }
+
+    @Procedure("apoc.meta.cache.stats")
+    @Description("apoc.meta.cache.stats() - returns the hits, misses and invalidations of the meta schema cache")
+    public Stream<MapResult> cacheStats() {
+        return Stream.of(new MapResult(metaSchemaCache.stats()));
     }
 
     /**
@@ -741,7 +835,12 @@ public class Meta {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         MetaConfig metaConfig = new MetaConfig(config);
         try {
-            return collectTables4LabelsProfile(metaConfig).asNodeStream();
+            return withCache(
+                    MetaSchemaCache.NODE_TYPE_PROPERTIES,
+                    config,
+                    schemaDefinitions(),
+                    () -> collectTables4LabelsProfile(metaConfig).asNodeStream().collect(Collectors.toList()))
+                    .stream();
         } catch (Exception e) {
             log.debug("apoc.meta.nodeTypeProperties(): Failed to return stream", e);
             throw new RuntimeException(e);
@@ -759,7 +858,12 @@ public class Meta {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         MetaConfig metaConfig = new MetaConfig(config);
         try {
-            return collectTables4LabelsProfile(metaConfig).asRelStream();
+            return withCache(
+                    MetaSchemaCache.REL_TYPE_PROPERTIES,
+                    config,
+                    schemaDefinitions(),
+                    () -> collectTables4LabelsProfile(metaConfig).asRelStream().collect(Collectors.toList()))
+                    .stream();
         } catch (Exception e) {
             log.debug("apoc.meta.relTypeProperties(): Failed to return stream", e);
             throw new RuntimeException(e);
@@ -801,6 +905,15 @@ public class Meta {
         Set<String> includeRels = config.getIncludeRels();
         Set<String> excludeRels = config.getExcludeRels();
 
+        Map<String, long[]> sampledIds = null;
+        if (config.getSampleSize() > 0) {
+            Map<String, Long> includedCounts = countStore.entrySet().stream()
+                    .filter(e -> !excludes.contains(e.getKey())
+                            && (includeLabels.isEmpty() || includeLabels.contains(e.getKey())))
+                    .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+            sampledIds = sampleNodeIds(includedCounts, config.getSampleSize());
+        }
+
         for (Label label : tx.getAllLabelsInUse()) {
             String labelName = label.name();
 
@@ -815,9 +928,10 @@ public class Meta {
                 }
 
                 long labelCount = countStore.get(labelName);
-                long sample = getSampleForLabelCount(labelCount, config.getSample());
+                long sample = sampledIds != null ? 1L : getSampleForLabelCount(labelCount, config.getSample());
 
-                try (ResourceIterator<Node> nodes = tx.findNodes(label)) {
+                try (ResourceIterator<Node> nodes =
+                        sampledIds != null ? sampledNodes(label, sampledIds.get(labelName)) : tx.findNodes(label)) {
                     int count = 1;
                     while (nodes.hasNext()) {
                         Node node = nodes.next();
@@ -856,6 +970,15 @@ public class Meta {
     private Map<MetadataKey, Map<String, MetaItem>> collectMetaData(SubGraph graph, SampleMetaConfig config) {
         Map<MetadataKey, Map<String, MetaItem>> metaData = new LinkedHashMap<>(100);
 
+        Map<String, long[]> sampledIds = null;
+        if (config.getSampleSize() > 0 && graph instanceof DatabaseSubGraph) {
+            Map<String, Long> labelCounts = new HashMap<>();
+            for (Label label : graph.getAllLabelsInUse()) {
+                labelCounts.put(label.name(), graph.countsForNode(label));
+            }
+            sampledIds = sampleNodeIds(labelCounts, config.getSampleSize());
+        }
+
         Set<RelationshipType> types = Iterables.asSet(graph.getAllRelationshipTypesInUse());
         Map<String, Iterable<ConstraintDefinition>> relConstraints = new HashMap<>(20);
         Map<String, Set<String>> relIndexes = new HashMap<>();
@@ -872,8 +995,9 @@ public class Meta {
             Iterable<ConstraintDefinition> constraints = graph.getConstraints(label);
             Set<String> indexed = getIndexedProperties(graph.getIndexes(label));
             long labelCount = graph.countsForNode(label);
-            long sample = getSampleForLabelCount(labelCount, config.getSample());
-            Iterator<Node> nodes = graph.findNodes(label);
+            long sample = sampledIds != null ? 1L : getSampleForLabelCount(labelCount, config.getSample());
+            Iterator<Node> nodes =
+                    sampledIds != null ? sampledNodes(label, sampledIds.get(labelName)) : graph.findNodes(label);
             int count = 1;
             while (nodes.hasNext()) {
                 Node node = nodes.next();
@@ -886,6 +1010,31 @@ public class Meta {
         return metaData;
     }
 
+    /**
+     * Picks at most {@code sampleSize} random node ids per label, see {@link RandomNodeSampler}
+     */
+    private Map<String, long[]> sampleNodeIds(Map<String, Long> labelCounts, long sampleSize) {
+        return new RandomNodeSampler((GraphDatabaseAPI) db, pools, sampleSize).sample(labelCounts);
+    }
+
+    /**
+     * The ids are sampled in separate transactions,
+     * so we skip the nodes deleted or relabelled in the meantime
+     */
+    private ResourceIterator<Node> sampledNodes(Label label, long[] ids) {
+        final long[] labelIds = ids == null ? new long[0] : ids;
+        return Iterators.asResourceIterator(Arrays.stream(labelIds)
+                .mapToObj(id -> {
+                    try {
+                        return transaction.getNodeById(id);
+                    } catch (NotFoundException e) {
+                        return null;
+                    }
+                })
+                .filter(node -> node != null && node.hasLabel(label))
+                .iterator());
+    }
+
     private Set<String> getIndexedProperties(Iterable<IndexDefinition> indexes) {
         return Iterables.stream(indexes)
                 .map(IndexDefinition::getPropertyKeys)
@@ -50,6 +50,7 @@ public class MetaConfig {
      * every 1000th node will be examined.  It does **not** mean that a total of 1000 nodes
      * will be sampled.
      * - maxRels: the maximum number of relationships to look at per Node Label.
+     * - sampleSize: if set, at most this number of nodes per Node Label, picked at random, will be examined.
      */
     public MetaConfig(Map<String, Object> config, Boolean shouldSampleByDefault) {
         config = config != null ? config : Collections.emptyMap();
@@ -114,6 +115,10 @@ public class MetaConfig {
         return sampleMetaConfig.getMaxRels();
     }
 
+    public long getSampleSize() {
+        return sampleMetaConfig.getSampleSize();
+    }
+
     public SampleMetaConfig getSampleMetaConfig() {
         return sampleMetaConfig;
     }
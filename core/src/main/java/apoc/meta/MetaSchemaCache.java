@@ -0,0 +1,589 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.meta;
+
+import static apoc.ApocConfig.APOC_META_CACHE_ENABLED;
+import static apoc.ApocConfig.APOC_META_CACHE_STALENESS;
+
+import apoc.ApocConfig;
+import apoc.util.Util;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.neo4j.dbms.api.DatabaseManagementService;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.event.LabelEntry;
+import org.neo4j.graphdb.event.PropertyEntry;
+import org.neo4j.graphdb.event.TransactionData;
+import org.neo4j.graphdb.event.TransactionEventListener;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+
+/**
+ * Per database cache of the results of {@code apoc.meta.schema}, {@code apoc.meta.nodeTypeProperties}
+ * and {@code apoc.meta.relTypeProperties}, enabled with {@code apoc.meta.cache.enabled=true}.
+ * Like the {@link apoc.trigger.TriggerHandler} it listens to the committed transactions, keeping up to date
+ * the node count per label, the relationship count per type, the property keys and value types seen per label and type,
+ * the label combinations and the patterns connecting them with their property keys,
+ * and the labels connected by each type.
+ * Commits which don't change this model, e.g. which only create nodes of known labels with known properties,
+ * leave the cached results valid, the others invalidate the results of the procedures reporting the change.
+ * The indexes and constraints, which the results report, e.g. as unique or mandatory properties,
+ * are compared on each call, as the schema changes aren't seen by the transaction listeners.
+ * Results older than {@code apoc.meta.cache.staleness} milliseconds are computed again,
+ * as what is removed, e.g. properties, value types and relationships, is not tracked.
+ */
+public class MetaSchemaCache extends LifecycleAdapter implements TransactionEventListener<MetaSchemaCache.Changes> {
+
+    public static final String NOT_ENABLED_ERROR = "The meta schema cache has not been enabled."
+            + " Set 'apoc.meta.cache.enabled=true' in your apoc.conf file located in the $NEO4J_HOME/conf/ directory.";
+
+    public static final String SCHEMA = "apoc.meta.schema";
+    public static final String NODE_TYPE_PROPERTIES = "apoc.meta.nodeTypeProperties";
+    public static final String REL_TYPE_PROPERTIES = "apoc.meta.relTypeProperties";
+
+    private static final long DEFAULT_STALENESS = 300_000;
+    private static final String ANY_TYPE = Meta.Types.ANY.name();
+
+    private final GraphDatabaseService db;
+    private final DatabaseManagementService databaseManagementService;
+    private final ApocConfig apocConfig;
+    private final Log log;
+
+    private final Map<String, CachedResult> results = new ConcurrentHashMap<>();
+
+    // the model of the graph kept up to date from the committed transactions
+    private final Map<String, AtomicLong> labelCounts = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> typeCounts = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<String>>> nodeProperties = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Set<String>>> relProperties = new ConcurrentHashMap<>();
+    // the property keys per label combination, e.g. "Movie:Person", as reported by apoc.meta.nodeTypeProperties
+    private final Map<String, Map<String, Set<String>>> combinationProperties = new ConcurrentHashMap<>();
+    // the labels connected by each type, e.g. "(Person)-[KNOWS]->" and "-[KNOWS]->(Person)", as in apoc.meta.schema
+    private final Set<String> connections = ConcurrentHashMap.newKeySet();
+    // the property keys per pattern, e.g. "Person-[KNOWS]->Movie", as reported by apoc.meta.relTypeProperties
+    private final Map<String, Map<String, Set<String>>> patternProperties = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    // changes on each invalidation or refresh, so that results computed meanwhile aren't cached
+    private final AtomicLong version = new AtomicLong();
+    private volatile long lastRefresh;
+
+    private final AtomicBoolean registeredWithKernel = new AtomicBoolean(false);
+
+    public MetaSchemaCache(
+            GraphDatabaseService db,
+            DatabaseManagementService databaseManagementService,
+            ApocConfig apocConfig,
+            Log log) {
+        this.db = db;
+        this.databaseManagementService = databaseManagementService;
+        this.apocConfig = apocConfig;
+        this.log = log;
+    }
+
+    public boolean isEnabled() {
+        return apocConfig.getBoolean(APOC_META_CACHE_ENABLED, false);
+    }
+
+    public void checkEnabled() {
+        if (!isEnabled()) {
+            throw new RuntimeException(NOT_ENABLED_ERROR);
+        }
+    }
+
+    public long getDefaultStaleness() {
+        return apocConfig.getInt(APOC_META_CACHE_STALENESS, (int) DEFAULT_STALENESS);
+    }
+
+    /**
+     * Returns the cached result for the procedure and config, or computes and caches it.
+     *
+     * @param maxStaleness the maximum age in milliseconds of a cached result
+     * @param schema the indexes and constraints the result depends on, if any, which invalidate it when they differ
+     */
+    public <T> List<T> get(
+            String procedure, Map<String, Object> config, long maxStaleness, String schema, Supplier<List<T>> compute) {
+        refreshIfNeeded();
+        final String key = procedure + Util.toJson(config);
+        final CachedResult cached = results.get(key);
+        if (cached != null
+                && System.currentTimeMillis() - cached.createdAt <= maxStaleness
+                && Objects.equals(schema, cached.schema)) {
+            hits.increment();
+            return (List<T>) cached.value;
+        }
+        misses.increment();
+        final long createdAt = System.currentTimeMillis();
+        final long computedVersion = version.get();
+        final List<T> value = compute.get();
+        observe(value);
+        // if the model changed while computing, the result may already be outdated
+        if (computedVersion == version.get()) {
+            results.put(key, new CachedResult(procedure, value, createdAt, schema));
+        }
+        return value;
+    }
+
+    /**
+     * @return the current node count of the label, or null if it's not tracked
+     */
+    public Long labelCount(String label) {
+        refreshIfNeeded();
+        final AtomicLong count = labelCounts.get(label);
+        return count == null ? null : count.get();
+    }
+
+    /**
+     * @return the current relationship count of the type, or null if it's not tracked
+     */
+    public Long typeCount(String type) {
+        refreshIfNeeded();
+        final AtomicLong count = typeCounts.get(type);
+        return count == null ? null : count.get();
+    }
+
+    private void refreshIfNeeded() {
+        if (lastRefresh == 0) {
+            synchronized (this) {
+                if (lastRefresh == 0) {
+                    refresh();
+                }
+            }
+        }
+    }
+
+    /**
+     * Drops the cached results and rebuilds the counts from the count store
+     */
+    public synchronized void refresh() {
+        version.incrementAndGet();
+        results.clear();
+        nodeProperties.clear();
+        relProperties.clear();
+        combinationProperties.clear();
+        patternProperties.clear();
+        try (Transaction tx = db.beginTx()) {
+            final KernelTransaction ktx = ((InternalTransaction) tx).kernelTransaction();
+            final TokenRead tokenRead = ktx.tokenRead();
+            final Read read = ktx.dataRead();
+            labelCounts.clear();
+            for (Label label : tx.getAllLabelsInUse()) {
+                labelCounts.put(label.name(), new AtomicLong(read.countsForNode(tokenRead.nodeLabel(label.name()))));
+            }
+            typeCounts.clear();
+            for (RelationshipType type : tx.getAllRelationshipTypesInUse()) {
+                final int typeId = tokenRead.relationshipType(type.name());
+                typeCounts.put(
+                        type.name(),
+                        new AtomicLong(read.countsForRelationship(TokenRead.ANY_LABEL, typeId, TokenRead.ANY_LABEL)));
+            }
+            connections.clear();
+            for (String label : labelCounts.keySet()) {
+                final int labelId = tokenRead.nodeLabel(label);
+                for (String type : typeCounts.keySet()) {
+                    final int typeId = tokenRead.relationshipType(type);
+                    if (read.countsForRelationship(labelId, typeId, TokenRead.ANY_LABEL) > 0) {
+                        connections.add(outgoing(label, type));
+                    }
+                    if (read.countsForRelationship(TokenRead.ANY_LABEL, typeId, labelId) > 0) {
+                        connections.add(incoming(type, label));
+                    }
+                }
+            }
+            tx.commit();
+        }
+        lastRefresh = System.currentTimeMillis();
+    }
+
+    public Map<String, Object> stats() {
+        if (isEnabled()) {
+            refreshIfNeeded();
+        }
+        final Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", isEnabled());
+        stats.put("entries", results.size());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("invalidations", invalidations.sum());
+        stats.put("labels", labelCounts.size());
+        stats.put("relationshipTypes", typeCounts.size());
+        stats.put("lastRefresh", lastRefresh);
+        return stats;
+    }
+
+    @Override
+    public Changes beforeCommit(TransactionData txData, Transaction transaction, GraphDatabaseService databaseService) {
+        // labels and types of the deleted entities are only available before the commit
+        final Changes changes = new Changes();
+        // the labels of each node are resolved once, as the entries below often concern the same nodes
+        final Map<Long, List<String>> nodeLabels = new HashMap<>();
+        final Set<Node> created = new HashSet<>();
+        txData.createdNodes().forEach(created::add);
+        final Set<Node> relabeled = new HashSet<>();
+        for (LabelEntry entry : txData.assignedLabels()) {
+            changes.labels.merge(entry.label().name(), 1L, Long::sum);
+            relabeled.add(entry.node());
+        }
+        for (LabelEntry entry : txData.removedLabels()) {
+            changes.labels.merge(entry.label().name(), -1L, Long::sum);
+            if (!txData.isDeleted(entry.node())) {
+                relabeled.add(entry.node());
+            }
+        }
+        for (Relationship rel : txData.createdRelationships()) {
+            changes.types.merge(rel.getType().name(), 1L, Long::sum);
+            connect(changes, rel, nodeLabels);
+        }
+        for (Relationship rel : txData.deletedRelationships()) {
+            changes.types.merge(rel.getType().name(), -1L, Long::sum);
+        }
+        for (Node node : created) {
+            combine(changes, node, nodeLabels);
+        }
+        // the relationships of the created nodes are all created ones
+        relabeled.removeAll(created);
+        for (Node node : relabeled) {
+            combine(changes, node, nodeLabels);
+            connectTypes(changes, node, nodeLabels);
+        }
+        for (PropertyEntry<Node> entry : txData.assignedNodeProperties()) {
+            final String valueType = Meta.Types.of(entry.value()).name();
+            final List<String> labels = labels(entry.entity(), nodeLabels);
+            for (String label : labels) {
+                changes.nodeProperties.add(new PropertyType(label, entry.key(), valueType));
+            }
+            changes.combinationProperties.add(new PropertyType(combination(labels), entry.key(), ANY_TYPE));
+        }
+        for (PropertyEntry<Relationship> entry : txData.assignedRelationshipProperties()) {
+            final String valueType = Meta.Types.of(entry.value()).name();
+            changes.relProperties.add(new PropertyType(entry.entity().getType().name(), entry.key(), valueType));
+            changes.patternProperties.add(new PropertyType(pattern(entry.entity(), nodeLabels), entry.key(), ANY_TYPE));
+        }
+        return changes;
+    }
+
+    @Override
+    public void afterCommit(TransactionData txData, Changes changes, GraphDatabaseService databaseService) {
+        if (changes == null) {
+            return;
+        }
+        // every model is updated, even once a change invalidates all the results
+        boolean changed = applyCounts(labelCounts, changes.labels);
+        changed |= applyCounts(typeCounts, changes.types);
+        changed |= applyProperties(nodeProperties, changes.nodeProperties);
+        changed |= applyProperties(relProperties, changes.relProperties);
+        final boolean nodeTypesChanged = applyProperties(combinationProperties, changes.combinationProperties);
+        final boolean relTypesChanged =
+                applyProperties(patternProperties, changes.patternProperties) || changes.patternsChanged;
+        final boolean connectionsChanged = connections.addAll(changes.connections);
+        if (changed) {
+            invalidate(Set.of(SCHEMA, NODE_TYPE_PROPERTIES, REL_TYPE_PROPERTIES));
+            return;
+        }
+        final Set<String> procedures = new HashSet<>();
+        if (nodeTypesChanged) {
+            procedures.add(NODE_TYPE_PROPERTIES);
+        }
+        if (connectionsChanged) {
+            procedures.add(SCHEMA);
+        }
+        if (relTypesChanged) {
+            procedures.add(REL_TYPE_PROPERTIES);
+        }
+        if (!procedures.isEmpty()) {
+            invalidate(procedures);
+        }
+    }
+
+    @Override
+    public void afterRollback(TransactionData txData, Changes changes, GraphDatabaseService databaseService) {}
+
+    /**
+     * Drops the results of the procedures, counting an invalidation if there were any
+     */
+    private void invalidate(Set<String> procedures) {
+        version.incrementAndGet();
+        if (results.values().removeIf(result -> procedures.contains(result.procedure))) {
+            invalidations.increment();
+        }
+    }
+
+    private static void combine(Changes changes, Node node, Map<Long, List<String>> nodeLabels) {
+        changes.combinationProperties.add(new PropertyType(combination(labels(node, nodeLabels)), null, ANY_TYPE));
+    }
+
+    private static void connect(Changes changes, Relationship rel, Map<Long, List<String>> nodeLabels) {
+        final String type = rel.getType().name();
+        for (String label : labels(rel.getStartNode(), nodeLabels)) {
+            changes.connections.add(outgoing(label, type));
+        }
+        for (String label : labels(rel.getEndNode(), nodeLabels)) {
+            changes.connections.add(incoming(type, label));
+        }
+        changes.patternProperties.add(new PropertyType(pattern(rel, nodeLabels), null, ANY_TYPE));
+    }
+
+    /**
+     * The relationships of a relabeled node now connect its new label combination.
+     * They are not iterated, as a supernode would add a walk of its relationship chain to every write:
+     * the connections are found from the degree per type and direction, which dense nodes keep per type,
+     * and the patterns, which need the labels at the other ends, are computed again.
+     */
+    private static void connectTypes(Changes changes, Node node, Map<Long, List<String>> nodeLabels) {
+        for (RelationshipType type : node.getRelationshipTypes()) {
+            changes.patternsChanged = true;
+            final boolean outgoing = node.getDegree(type, Direction.OUTGOING) > 0;
+            final boolean incoming = node.getDegree(type, Direction.INCOMING) > 0;
+            for (String label : labels(node, nodeLabels)) {
+                if (outgoing) {
+                    changes.connections.add(outgoing(label, type.name()));
+                }
+                if (incoming) {
+                    changes.connections.add(incoming(type.name(), label));
+                }
+            }
+        }
+    }
+
+    private static List<String> labels(Node node, Map<Long, List<String>> nodeLabels) {
+        return nodeLabels.computeIfAbsent(node.getId(), id -> {
+            final List<String> labels = new ArrayList<>();
+            node.getLabels().forEach(label -> labels.add(label.name()));
+            return labels;
+        });
+    }
+
+    private static String pattern(Relationship rel, Map<Long, List<String>> nodeLabels) {
+        return pattern(
+                labels(rel.getStartNode(), nodeLabels), rel.getType().name(), labels(rel.getEndNode(), nodeLabels));
+    }
+
+    private static String pattern(List<String> source, String type, List<String> target) {
+        return combination(source) + "-[" + type + "]->" + combination(target);
+    }
+
+    private static String combination(List<String> labels) {
+        return labels.stream().sorted().collect(Collectors.joining(":"));
+    }
+
+    private static String outgoing(String label, String type) {
+        return "(" + label + ")-[" + type + "]->";
+    }
+
+    private static String incoming(String type, String label) {
+        return "-[" + type + "]->(" + label + ")";
+    }
+
+    /**
+     * @return true if a label or type appeared or disappeared
+     */
+    private static boolean applyCounts(Map<String, AtomicLong> counts, Map<String, Long> deltas) {
+        boolean changed = false;
+        for (Map.Entry<String, Long> delta : deltas.entrySet()) {
+            final AtomicLong count = counts.computeIfAbsent(delta.getKey(), k -> new AtomicLong());
+            final long before = count.getAndAdd(delta.getValue());
+            final long after = before + delta.getValue();
+            changed |= (before <= 0) != (after <= 0);
+        }
+        return changed;
+    }
+
+    /**
+     * @return true if a label, type or combination, a property key or a value type wasn't known
+     */
+    private static boolean applyProperties(Map<String, Map<String, Set<String>>> model, Set<PropertyType> properties) {
+        boolean changed = false;
+        for (PropertyType property : properties) {
+            Map<String, Set<String>> keys = model.get(property.owner);
+            if (keys == null) {
+                changed = true;
+                keys = model.computeIfAbsent(property.owner, k -> new ConcurrentHashMap<>());
+            }
+            if (property.key == null) {
+                // only the owner, e.g. a combination of labels without properties
+                continue;
+            }
+            Set<String> valueTypes = keys.get(property.key);
+            if (valueTypes == null) {
+                changed = true;
+                valueTypes = keys.computeIfAbsent(property.key, k -> ConcurrentHashMap.newKeySet());
+            }
+            changed |= valueTypes.add(property.valueType) && !valueTypes.contains(ANY_TYPE);
+        }
+        return changed;
+    }
+
+    /**
+     * Adds the properties found by a computed result to the model,
+     * so that the next commits with the same properties don't invalidate it
+     */
+    private void observe(List<?> value) {
+        for (Object row : value) {
+            if (row instanceof Map) {
+                observeSchema((Map<String, Object>) row);
+            } else if (row instanceof Tables4LabelsProfile.NodeTypePropertiesEntry) {
+                final Tables4LabelsProfile.NodeTypePropertiesEntry entry =
+                        (Tables4LabelsProfile.NodeTypePropertiesEntry) row;
+                final String combination = combination(entry.nodeLabels);
+                combinationProperties.computeIfAbsent(combination, k -> new ConcurrentHashMap<>());
+                if (entry.propertyName != null) {
+                    entry.nodeLabels.forEach(label -> observeKey(nodeProperties, label, entry.propertyName));
+                    observeKey(combinationProperties, combination, entry.propertyName);
+                }
+            } else if (row instanceof Tables4LabelsProfile.RelTypePropertiesEntry) {
+                final Tables4LabelsProfile.RelTypePropertiesEntry entry =
+                        (Tables4LabelsProfile.RelTypePropertiesEntry) row;
+                // the type is formatted as :`TYPE`
+                final String type = entry.relType.substring(2, entry.relType.length() - 1);
+                final String pattern = pattern(entry.sourceNodeLabels, type, entry.targetNodeLabels);
+                patternProperties.computeIfAbsent(pattern, k -> new ConcurrentHashMap<>());
+                if (entry.propertyName != null) {
+                    observeKey(relProperties, type, entry.propertyName);
+                    observeKey(patternProperties, pattern, entry.propertyName);
+                }
+            }
+        }
+    }
+
+    private void observeSchema(Map<String, Object> schema) {
+        schema.forEach((name, value) -> {
+            final Map<String, Object> entity = (Map<String, Object>) value;
+            final Map<String, Object> properties = (Map<String, Object>) entity.get("properties");
+            if (properties == null) {
+                return;
+            }
+            final boolean isNode = "node".equals(entity.get("type"));
+            // types clashing with a label are suffixed with " (RELATIONSHIP)"
+            final String owner = isNode ? name : name.replace(" (" + Meta.Types.RELATIONSHIP.name() + ")", "");
+            properties.forEach((key, property) -> {
+                // e.g. "LIST OF STRING", while the commits only see the LIST type
+                final String valueType = ((String) ((Map<String, Object>) property).get("type")).split(" ")[0];
+                (isNode ? nodeProperties : relProperties)
+                        .computeIfAbsent(owner, k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
+                        .add(valueType);
+            });
+        });
+    }
+
+    /**
+     * The type properties procedures name the value types differently,
+     * so only the key is added, with any value type
+     */
+    private void observeKey(Map<String, Map<String, Set<String>>> model, String owner, String key) {
+        model.computeIfAbsent(owner, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
+                .add(ANY_TYPE);
+    }
+
+    @Override
+    public void start() {
+        if (isEnabled()) {
+            // the database isn't available yet, the counts are read on first use
+            if (registeredWithKernel.compareAndSet(false, true)) {
+                databaseManagementService.registerTransactionEventListener(db.databaseName(), this);
+            }
+            log.info("Meta schema cache enabled for database " + db.databaseName());
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (registeredWithKernel.compareAndSet(true, false)) {
+            databaseManagementService.unregisterTransactionEventListener(db.databaseName(), this);
+        }
+        results.clear();
+        lastRefresh = 0;
+    }
+
+    public static class Changes {
+        private final Map<String, Long> labels = new LinkedHashMap<>();
+        private final Map<String, Long> types = new LinkedHashMap<>();
+        private final Set<PropertyType> nodeProperties = new HashSet<>();
+        private final Set<PropertyType> relProperties = new HashSet<>();
+        private final Set<PropertyType> combinationProperties = new HashSet<>();
+        private final Set<String> connections = new HashSet<>();
+        private final Set<PropertyType> patternProperties = new HashSet<>();
+        // patterns changed without being known, e.g. by relabeling connected nodes
+        private boolean patternsChanged;
+    }
+
+    private static class PropertyType {
+        private final String owner;
+        private final String key;
+        private final String valueType;
+
+        PropertyType(String owner, String key, String valueType) {
+            this.owner = owner;
+            this.key = key;
+            this.valueType = valueType;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof PropertyType)) return false;
+            PropertyType that = (PropertyType) o;
+            return owner.equals(that.owner) && Objects.equals(key, that.key) && valueType.equals(that.valueType);
+        }
+
+        @Override
+        public int hashCode() {
+            return (owner + "-" + key + "-" + valueType).hashCode();
+        }
+    }
+
+    private static class CachedResult {
+        private final String procedure;
+        private final Object value;
+        private final long createdAt;
+        private final String schema;
+
+        CachedResult(String procedure, Object value, long createdAt, String schema) {
+            this.procedure = procedure;
+            this.value = value;
+            this.createdAt = createdAt;
+            this.schema = schema;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.meta;
+
+import apoc.Pools;
+import apoc.util.kernel.MultiThreadedGlobalGraphOperations;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+/**
+ * Picks a bounded random set of node ids per label, so that the cost of the sampling
+ * depends on the sample size and not on the number of nodes of the label.
+ * The ids are picked by probing random ids of the node store, falling back
+ * to a reservoir sample over the label scan when the label is too sparse for probing to pay off,
+ * i.e. when the expected number of probes exceeds the number of nodes with the label.
+ * Each label is sampled in its own read transaction on the {@link Pools} executor.
+ */
+public class RandomNodeSampler {
+
+    // probing stops after this many times the expected number of probes, e.g. for labels of deleted nodes
+    private static final int PROBE_BUDGET_FACTOR = 4;
+
+    private final GraphDatabaseAPI db;
+    private final Pools pools;
+    private final long sampleSize;
+
+    public RandomNodeSampler(GraphDatabaseAPI db, Pools pools, long sampleSize) {
+        this.db = db;
+        this.pools = pools;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * @param labelCounts the labels to be sampled, with their node count
+     * @return the sorted ids of the sampled nodes per label
+     */
+    public Map<String, long[]> sample(Map<String, Long> labelCounts) {
+        final long highId = MultiThreadedGlobalGraphOperations.getHighestIdInUseForStore(
+                db.getDependencyResolver(), MultiThreadedGlobalGraphOperations.GlobalOperationsTypes.NODES);
+
+        final Map<String, Future<long[]>> futures = new LinkedHashMap<>();
+        labelCounts.forEach((label, count) ->
+                futures.put(label, pools.getDefaultExecutorService().submit(() -> sampleLabel(label, count, highId))));
+
+        final Map<String, long[]> result = new LinkedHashMap<>();
+        try {
+            for (Map.Entry<String, Future<long[]>> entry : futures.entrySet()) {
+                result.put(entry.getKey(), entry.getValue().get());
+            }
+        } catch (ExecutionException e) {
+            futures.values().forEach(f -> f.cancel(true));
+            throw new RuntimeException(
+                    "Error sampling the nodes: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            futures.values().forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sampling the nodes", e);
+        }
+        return result;
+    }
+
+    private long[] sampleLabel(String label, long labelCount, long highId) {
+        try (Transaction tx = db.beginTx()) {
+            final long[] ids;
+            final double expectedProbes = sampleSize * (double) highId / Math.max(labelCount, 1);
+            if (labelCount > sampleSize && expectedProbes < labelCount) {
+                ids = probe(((InternalTransaction) tx).kernelTransaction(), label, (long) expectedProbes, highId);
+            } else {
+                ids = scan(tx, label, (int) Math.min(sampleSize, Math.max(labelCount, 1)));
+            }
+            tx.commit();
+            Arrays.sort(ids);
+            return ids;
+        }
+    }
+
+    private long[] probe(KernelTransaction ktx, String label, long expectedProbes, long highId) {
+        final TokenRead tokenRead = ktx.tokenRead();
+        final int labelId = tokenRead.nodeLabel(label);
+        if (labelId == TokenRead.NO_TOKEN) {
+            return new long[0];
+        }
+        final Read read = ktx.dataRead();
+        final SplittableRandom random = new SplittableRandom();
+        final LongHashSet sampled = new LongHashSet((int) sampleSize);
+        final long budget = Math.max(expectedProbes, 1) * PROBE_BUDGET_FACTOR;
+        try (NodeCursor cursor = ktx.cursors().allocateNodeCursor(ktx.cursorContext())) {
+            for (long probes = 0; probes < budget && sampled.size() < sampleSize; probes++) {
+                final long id = random.nextLong(highId);
+                read.singleNode(id, cursor);
+                if (cursor.next() && cursor.hasLabel(labelId)) {
+                    sampled.add(id);
+                }
+            }
+        }
+        return sampled.toArray();
+    }
+
+    private long[] scan(Transaction tx, String label, int size) {
+        // reservoir sampling, see Algorithm R
+        final SplittableRandom random = new SplittableRandom();
+        final long[] reservoir = new long[size];
+        long seen = 0;
+        try (ResourceIterator<Node> nodes = tx.findNodes(Label.label(label))) {
+            while (nodes.hasNext()) {
+                final long id = nodes.next().getId();
+                if (seen < size) {
+                    reservoir[(int) seen] = id;
+                } else {
+                    final long slot = random.nextLong(seen + 1);
+                    if (slot < size) {
+                        reservoir[(int) slot] = id;
+                    }
+                }
+                seen++;
+            }
+        }
+        return seen < size ? Arrays.copyOf(reservoir, (int) seen) : reservoir;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.neighbors;
+
+import apoc.Pools;
+import apoc.path.RelationshipTypeAndDirections;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.storageengine.api.RelationshipSelection;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+/**
+ * Expands a frontier of the neighbors search with kernel cursors.
+ * Frontiers of at least {@link NeighborsConfig#getMinParallelFrontier()} nodes are split into
+ * {@link NeighborsConfig#getConcurrency()} ranges of consecutive ids, each expanded on the {@link Pools} executor
+ * in its own read transaction into its own bitmap; the bitmaps are then merged.
+ * As the workers only see the committed data, the frontiers are expanded by the transaction of the procedure
+ * when it has changes of its own, like {@code apoc.algo.cover} does.
+ */
+public class FrontierExpander {
+
+    private final GraphDatabaseAPI db;
+    private final Pools pools;
+    private final NeighborsConfig config;
+    // the token ids are the same in every transaction, so the selections are resolved once and shared by the workers
+    private final RelationshipSelection[] selections;
+
+    public FrontierExpander(
+            GraphDatabaseAPI db,
+            Pools pools,
+            KernelTransaction ktx,
+            List<Pair<RelationshipType, Direction>> typesAndDirections,
+            NeighborsConfig config) {
+        this.db = db;
+        this.pools = pools;
+        this.config = config;
+        this.selections = RelationshipTypeAndDirections.selections(ktx.tokenRead(), typesAndDirections);
+    }
+
+    /**
+     * @param ktx the transaction of the procedure, used for the frontiers too small to be worth splitting
+     * and when it has changes not visible to the workers
+     * @return the ids of the nodes adjacent to the frontier
+     */
+    public Roaring64NavigableMap expand(KernelTransaction ktx, Roaring64NavigableMap frontier) {
+        final long size = frontier.getLongCardinality();
+        if (config.getConcurrency() == 1
+                || size < Math.max(2, config.getMinParallelFrontier())
+                || ktx.dataRead().transactionStateHasChanges()) {
+            final Roaring64NavigableMap next = new Roaring64NavigableMap();
+            expand(ktx, frontier.getLongIterator(), next);
+            return next;
+        }
+
+        final long rangeSize = (size + config.getConcurrency() - 1) / config.getConcurrency();
+        final List<Future<Roaring64NavigableMap>> futures = new ArrayList<>(config.getConcurrency());
+        final LongIterator iterator = frontier.getLongIterator();
+        while (iterator.hasNext()) {
+            final Roaring64NavigableMap range = new Roaring64NavigableMap();
+            for (long i = 0; i < rangeSize && iterator.hasNext(); i++) {
+                range.addLong(iterator.next());
+            }
+            futures.add(pools.getDefaultExecutorService().submit(() -> expandInTx(range)));
+        }
+
+        final Roaring64NavigableMap next = new Roaring64NavigableMap();
+        try {
+            for (Future<Roaring64NavigableMap> future : futures) {
+                next.or(future.get());
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(f -> f.cancel(true));
+            throw new RuntimeException(
+                    "Error expanding the neighbors: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(f -> f.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while expanding the neighbors", e);
+        }
+        return next;
+    }
+
+    private Roaring64NavigableMap expandInTx(Roaring64NavigableMap range) {
+        final Roaring64NavigableMap next = new Roaring64NavigableMap();
+        try (Transaction tx = db.beginTx()) {
+            expand(((InternalTransaction) tx).kernelTransaction(), range.getLongIterator(), next);
+            tx.commit();
+        }
+        return next;
+    }
+
+    private void expand(KernelTransaction ktx, LongIterator ids, Roaring64NavigableMap next) {
+        final Read read = ktx.dataRead();
+        try (NodeCursor node = ktx.cursors().allocateNodeCursor(ktx.cursorContext());
+                RelationshipTraversalCursor rel =
+                        ktx.cursors().allocateRelationshipTraversalCursor(ktx.cursorContext())) {
+            while (ids.hasNext()) {
+                read.singleNode(ids.next(), node);
+                if (!node.next()) {
+                    continue;
+                }
+                for (RelationshipSelection selection : selections) {
+                    node.relationships(rel, selection);
+                    while (rel.next()) {
+                        next.addLong(rel.otherNodeReference());
+                    }
+                }
+            }
+        }
+    }
+}
@@ -20,6 +20,7 @@ package apoc.neighbors;
 
 import static apoc.path.RelationshipTypeAndDirections.parse;
 
+import apoc.Pools;
 import apoc.result.ListResult;
 import apoc.result.LongResult;
 import apoc.result.NodeListResult;
@@ -31,6 +32,8 @@ import java.util.stream.StreamSupport;
 import org.neo4j.graphdb.*;
 import org.neo4j.internal.helpers.collection.Iterables;
 import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.procedure.Context;
 import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Name;
@@ -42,6 +45,12 @@ public class Neighbors {
     @Context
     public Transaction tx;
 
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Pools pools;
+
     private Iterable<Relationship> getRelationshipsByTypeAndDirection(
             Node node, Pair<RelationshipType, Direction> typesAndDirection) {
         // as policy if both elements in the pair are null we return an empty result
@@ -58,13 +67,53 @@ public class Neighbors {
         return node.getRelationships(typesAndDirection.other(), typesAndDirection.first());
     }
 
+    private FrontierExpander frontierExpander(
+            List<Pair<RelationshipType, Direction>> typesAndDirections, Map<String, Object> config) {
+        NeighborsConfig neighborsConfig = new NeighborsConfig(config);
+        if (!neighborsConfig.isParallel()) {
+            return null;
+        }
+        return new FrontierExpander(
+                (GraphDatabaseAPI) db,
+                pools,
+                ((InternalTransaction) tx).kernelTransaction(),
+                typesAndDirections,
+                neighborsConfig);
+    }
+
+    /**
+     * Adds to {@code next} the nodes adjacent to the {@code frontier} ones,
+     * with the {@link FrontierExpander} if the procedure has been called with {@code parallel: true}
+     */
+    private void expand(
+            Roaring64NavigableMap frontier,
+            Roaring64NavigableMap next,
+            List<Pair<RelationshipType, Direction>> typesAndDirections,
+            FrontierExpander expander) {
+        if (expander != null) {
+            next.or(expander.expand(((InternalTransaction) tx).kernelTransaction(), frontier));
+            return;
+        }
+        Iterator<Long> iterator = frontier.iterator();
+        while (iterator.hasNext()) {
+            long nodeId = iterator.next();
+            Node node = tx.getNodeById(nodeId);
+            for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
+                for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
+                    next.addLong(r.getOtherNodeId(nodeId));
+                }
+            }
+        }
+    }
+
     @Procedure("apoc.neighbors.tohop")
     @Description(
             "apoc.neighbors.tohop(node, rel-direction-pattern, distance) - returns distinct nodes of the given relationships in the pattern up to a certain distance, can use '>' or '<' for all outgoing or incoming relationships")
     public Stream<NodeResult> neighbors(
             @Name("node") Node node,
             @Name(value = "types", defaultValue = "") String types,
-            @Name(value = "distance", defaultValue = "1") Long distance) {
+            @Name(value = "distance", defaultValue = "1") Long distance,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         if (distance < 1) return Stream.empty();
         if (types == null || types.isEmpty()) return Stream.empty();
 
@@ -76,9 +125,9 @@ public class Neighbors {
         Roaring64NavigableMap nextB = new Roaring64NavigableMap();
         long nodeId = node.getId();
         seen.addLong(nodeId);
-        Iterator<Long> iterator;
 
         List<Pair<RelationshipType, Direction>> typesAndDirections = parse(types);
+        FrontierExpander expander = frontierExpander(typesAndDirections, config);
 
         // First Hop
         for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
@@ -92,16 +141,7 @@ public class Neighbors {
             nextB.andNot(seen);
             seen.or(nextB);
             nextA.clear();
-            iterator = nextB.iterator();
-            while (iterator.hasNext()) {
-                nodeId = iterator.next();
-                node = tx.getNodeById(nodeId);
-                for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                    for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                        nextA.add((r.getOtherNodeId(nodeId)));
-                    }
-                }
-            }
+            expand(nextB, nextA, typesAndDirections, expander);
 
             i++;
             if (i < distance) {
@@ -109,16 +149,7 @@ public class Neighbors {
                 nextA.andNot(seen);
                 seen.or(nextA);
                 nextB.clear();
-                iterator = nextA.iterator();
-                while (iterator.hasNext()) {
-                    nodeId = iterator.next();
-                    node = tx.getNodeById(nodeId);
-                    for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                        for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                            nextB.add(r.getOtherNodeId(nodeId));
-                        }
-                    }
-                }
+                expand(nextA, nextB, typesAndDirections, expander);
             }
         }
         if ((distance % 2) == 0) {
@@ -139,7 +170,8 @@ public class Neighbors {
     public Stream<LongResult> neighborsCount(
             @Name("node") Node node,
             @Name(value = "types", defaultValue = "") String types,
-            @Name(value = "distance", defaultValue = "1") Long distance) {
+            @Name(value = "distance", defaultValue = "1") Long distance,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         if (distance < 1) return Stream.empty();
         if (types == null || types.isEmpty()) return Stream.empty();
 
@@ -151,9 +183,9 @@ public class Neighbors {
         Roaring64NavigableMap nextB = new Roaring64NavigableMap();
         long nodeId = node.getId();
         seen.add(nodeId);
-        Iterator<Long> iterator;
 
         List<Pair<RelationshipType, Direction>> typesAndDirections = parse(types);
+        FrontierExpander expander = frontierExpander(typesAndDirections, config);
         // First Hop
         for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
             for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
@@ -166,16 +198,7 @@ public class Neighbors {
             nextB.andNot(seen);
             seen.or(nextB);
             nextA.clear();
-            iterator = nextB.iterator();
-            while (iterator.hasNext()) {
-                nodeId = iterator.next();
-                node = tx.getNodeById(nodeId);
-                for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                    for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                        nextA.add(r.getOtherNodeId(nodeId));
-                    }
-                }
-            }
+            expand(nextB, nextA, typesAndDirections, expander);
 
             i++;
             if (i < distance) {
@@ -183,16 +206,7 @@ public class Neighbors {
                 nextA.andNot(seen);
                 seen.or(nextA);
                 nextB.clear();
-                iterator = nextA.iterator();
-                while (iterator.hasNext()) {
-                    nodeId = iterator.next();
-                    node = tx.getNodeById(nodeId);
-                    for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                        for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                            nextB.add(r.getOtherNodeId(nodeId));
-                        }
-                    }
-                }
+                expand(nextA, nextB, typesAndDirections, expander);
             }
         }
         if ((distance % 2) == 0) {
@@ -212,7 +226,8 @@ public class Neighbors {
     public Stream<NodeListResult> neighborsByHop(
             @Name("node") Node node,
             @Name(value = "types", defaultValue = "") String types,
-            @Name(value = "distance", defaultValue = "1") Long distance) {
+            @Name(value = "distance", defaultValue = "1") Long distance,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         if (distance < 1) return Stream.empty();
         if (types == null || types.isEmpty()) return Stream.empty();
 
@@ -223,9 +238,8 @@ public class Neighbors {
         }
         long nodeId = node.getId();
 
-        Iterator<Long> iterator;
-
         List<Pair<RelationshipType, Direction>> typesAndDirections = parse(types);
+        FrontierExpander expander = frontierExpander(typesAndDirections, config);
         // First Hop
         for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
             for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
@@ -234,15 +248,7 @@ public class Neighbors {
         }
 
         for (int i = 1; i < distance; i++) {
-            iterator = seen[i - 1].iterator();
-            while (iterator.hasNext()) {
-                node = tx.getNodeById(iterator.next());
-                for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                    for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                        seen[i].add(r.getOtherNodeId(node.getId()));
-                    }
-                }
-            }
+            expand(seen[i - 1], seen[i], typesAndDirections, expander);
             for (int j = 0; j < i; j++) {
                 seen[i].andNot(seen[j]);
                 seen[i].removeLong(nodeId);
@@ -262,7 +268,8 @@ public class Neighbors {
     public Stream<ListResult> neighborsByHopCount(
             @Name("node") Node node,
             @Name(value = "types", defaultValue = "") String types,
-            @Name(value = "distance", defaultValue = "1") Long distance) {
+            @Name(value = "distance", defaultValue = "1") Long distance,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         if (distance < 1) return Stream.empty();
         if (types == null || types.isEmpty()) return Stream.empty();
 
@@ -273,9 +280,8 @@ public class Neighbors {
         }
         long nodeId = node.getId();
 
-        Iterator<Long> iterator;
-
         List<Pair<RelationshipType, Direction>> typesAndDirections = parse(types);
+        FrontierExpander expander = frontierExpander(typesAndDirections, config);
         // First Hop
         for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
             for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
@@ -284,15 +290,7 @@ public class Neighbors {
         }
 
         for (int i = 1; i < distance; i++) {
-            iterator = seen[i - 1].iterator();
-            while (iterator.hasNext()) {
-                node = tx.getNodeById(iterator.next());
-                for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                    for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                        seen[i].add(r.getOtherNodeId(node.getId()));
-                    }
-                }
-            }
+            expand(seen[i - 1], seen[i], typesAndDirections, expander);
             for (int j = 0; j < i; j++) {
                 seen[i].andNot(seen[j]);
                 seen[i].removeLong(nodeId);
@@ -313,7 +311,8 @@ public class Neighbors {
     public Stream<NodeResult> neighborsAtHop(
             @Name("node") Node node,
             @Name(value = "types", defaultValue = "") String types,
-            @Name(value = "distance", defaultValue = "1") Long distance) {
+            @Name(value = "distance", defaultValue = "1") Long distance,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         if (distance < 1) return Stream.empty();
         if (types == null || types.isEmpty()) return Stream.empty();
 
@@ -324,9 +323,8 @@ public class Neighbors {
         }
         long nodeId = node.getId();
 
-        Iterator<Long> iterator;
-
         List<Pair<RelationshipType, Direction>> typesAndDirections = parse(types);
+        FrontierExpander expander = frontierExpander(typesAndDirections, config);
         // First Hop
         for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
             for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
@@ -335,15 +333,7 @@ public class Neighbors {
         }
 
         for (int i = 1; i < distance; i++) {
-            iterator = seen[i - 1].iterator();
-            while (iterator.hasNext()) {
-                node = tx.getNodeById(iterator.next());
-                for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                    for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                        seen[i].add(r.getOtherNodeId(node.getId()));
-                    }
-                }
-            }
+            expand(seen[i - 1], seen[i], typesAndDirections, expander);
             for (int j = 0; j < i; j++) {
                 seen[i].andNot(seen[j]);
                 seen[i].removeLong(nodeId);
@@ -363,7 +353,8 @@ public class Neighbors {
     public Stream<LongResult> neighborsAtHopCount(
             @Name("node") Node node,
             @Name(value = "types", defaultValue = "") String types,
-            @Name(value = "distance", defaultValue = "1") Long distance) {
+            @Name(value = "distance", defaultValue = "1") Long distance,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         if (distance < 1) return Stream.empty();
         if (types == null || types.isEmpty()) return Stream.empty();
 
@@ -374,9 +365,8 @@ public class Neighbors {
         }
         long nodeId = node.getId();
 
-        Iterator<Long> iterator;
-
         List<Pair<RelationshipType, Direction>> typesAndDirections = parse(types);
+        FrontierExpander expander = frontierExpander(typesAndDirections, config);
         // First Hop
         for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
             for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
@@ -385,15 +375,7 @@ public class Neighbors {
         }
 
         for (int i = 1; i < distance; i++) {
-            iterator = seen[i - 1].iterator();
-            while (iterator.hasNext()) {
-                node = tx.getNodeById(iterator.next());
-                for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
-                    for (Relationship r : getRelationshipsByTypeAndDirection(node, pair)) {
-                        seen[i].add(r.getOtherNodeId(node.getId()));
-                    }
-                }
-            }
+            expand(seen[i - 1], seen[i], typesAndDirections, expander);
             for (int j = 0; j < i; j++) {
                 seen[i].andNot(seen[j]);
                 seen[i].removeLong(nodeId);
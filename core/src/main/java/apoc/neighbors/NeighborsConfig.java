@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.neighbors;
+
+import apoc.util.Util;
+import java.util.Collections;
+import java.util.Map;
+
+public class NeighborsConfig {
+
+    private static final long DEFAULT_MIN_PARALLEL_FRONTIER = 10_000;
+
+    private final boolean parallel;
+    private final int concurrency;
+    private final long minParallelFrontier;
+
+    /**
+     * A map of values, with the following keys and meanings.
+     * - parallel: if true, each hop with a frontier of at least {@code minParallelFrontier} nodes
+     * is expanded by several threads, each in its own transaction.
+     * - concurrency: the number of ranges each frontier is split into, defaults to the number of processors.
+     * - minParallelFrontier: smaller frontiers are expanded by the calling thread.
+     */
+    public NeighborsConfig(Map<String, Object> config) {
+        config = config != null ? config : Collections.emptyMap();
+        this.parallel = Util.toBoolean(config.getOrDefault("parallel", false));
+        this.concurrency = Math.max(
+                1,
+                Util.toLong(config.getOrDefault(
+                                "concurrency", Runtime.getRuntime().availableProcessors()))
+                        .intValue());
+        this.minParallelFrontier =
+                Util.toLong(config.getOrDefault("minParallelFrontier", DEFAULT_MIN_PARALLEL_FRONTIER));
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public long getMinParallelFrontier() {
+        return minParallelFrontier;
+    }
+}
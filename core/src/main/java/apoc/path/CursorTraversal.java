@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.path;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.eclipse.collections.impl.map.mutable.primitive.LongLongHashMap;
+import org.eclipse.collections.impl.set.mutable.primitive.LongHashSet;
+import org.neo4j.graphalgo.impl.util.PathImpl;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Path;
+import org.neo4j.graphdb.Relationship;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.traversal.Evaluation;
+import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.Read;
+import org.neo4j.internal.kernel.api.RelationshipTraversalCursor;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.storageengine.api.RelationshipSelection;
+
+/**
+ * A breadth or depth first traversal with {@code NODE_GLOBAL} uniqueness on kernel cursors,
+ * visiting the nodes in the same order as the Neo4j traversal framework configured by {@link PathExplorer#traverse},
+ * without the label filters, relationship filters and sequences being evaluated on {@link Path} objects.
+ * The labels and relationship types are resolved to token ids once, and each node is evaluated on a {@link NodeCursor}.
+ * As each node is reached only once, its path is the chain of the relationships through which the nodes were reached:
+ * when paths are needed, the relationship through which each node is reached is kept, and the path is built
+ * only for the nodes returned.
+ */
+public class CursorTraversal implements PrimitiveIterator.OfLong, AutoCloseable {
+
+    private static final long NO_PARENT = -1;
+
+    private final KernelTransaction ktx;
+    private final Read read;
+    private final long[] startNodes;
+    private final RelationshipSequenceExpander expander;
+    private final LabelSequenceEvaluator labelEvaluator;
+    private final long minLevel;
+    private final long maxLevel;
+    private final boolean bfs;
+
+    private final Map<List<Pair<RelationshipType, Direction>>, RelationshipSelection[]> selections =
+            new IdentityHashMap<>();
+    private final LongHashSet visited = new LongHashSet();
+    private final LongHashSet started = new LongHashSet();
+    private final LongLongHashMap parents;
+
+    private final NodeCursor expandedNode;
+    private final NodeCursor evaluatedNode;
+    // one relationship cursor per depth for depth first, one only for breadth first
+    private final List<RelationshipTraversalCursor> relationshipCursors = new ArrayList<>();
+
+    // the nodes to expand, a queue for breadth first and a stack for depth first
+    private final LongArrayList pendingNodes = new LongArrayList();
+    private final IntArrayList pendingDepths = new IntArrayList();
+    private final IntArrayList pendingSelections = new IntArrayList();
+    private int queueHead;
+
+    private int nextStartNode;
+    private boolean expanding;
+    private int expandingDepth;
+    private RelationshipSelection[] expandingSelections;
+    private int expandingSelection;
+    private RelationshipTraversalCursor expandingRelationships;
+
+    private long next;
+    private boolean hasNext;
+
+    /**
+     * @param expander the relationship filter or sequence, null to expand all the relationships
+     * @param labelEvaluator the label filter or sequence, null to evaluate no labels
+     * @param trackPaths whether {@link #path(Transaction, long)} is going to be used
+     */
+    public CursorTraversal(
+            KernelTransaction ktx,
+            long[] startNodes,
+            RelationshipSequenceExpander expander,
+            LabelSequenceEvaluator labelEvaluator,
+            long minLevel,
+            long maxLevel,
+            boolean bfs,
+            boolean trackPaths) {
+        this.ktx = ktx;
+        this.read = ktx.dataRead();
+        this.startNodes = startNodes;
+        this.expander = expander;
+        this.labelEvaluator = labelEvaluator;
+        this.minLevel = minLevel;
+        this.maxLevel = maxLevel;
+        this.bfs = bfs;
+        this.parents = trackPaths ? new LongLongHashMap() : null;
+        // like the eager start branches of the traversal framework, the start nodes are visited before any expansion,
+        // so that none of them is reached from another one
+        visited.addAll(startNodes);
+        if (labelEvaluator != null) {
+            labelEvaluator.resolve(ktx.tokenRead());
+        }
+        this.expandedNode = ktx.cursors().allocateNodeCursor(ktx.cursorContext());
+        this.evaluatedNode = ktx.cursors().allocateNodeCursor(ktx.cursorContext());
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (!hasNext) {
+            hasNext = computeNext();
+        }
+        return hasNext;
+    }
+
+    @Override
+    public long nextLong() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        hasNext = false;
+        return next;
+    }
+
+    /**
+     * @return the path to a node returned by the traversal, which must have been created with {@code trackPaths}
+     */
+    public Path path(Transaction tx, long nodeId) {
+        List<Relationship> relationships = new ArrayList<>();
+        long current = nodeId;
+        long parent;
+        while ((parent = parents.getIfAbsent(current, NO_PARENT)) != NO_PARENT) {
+            Relationship relationship = tx.getRelationshipById(parent);
+            relationships.add(relationship);
+            current = relationship.getOtherNodeId(current);
+        }
+        PathImpl.Builder builder = new PathImpl.Builder(tx.getNodeById(current));
+        for (int i = relationships.size() - 1; i >= 0; i--) {
+            builder = builder.push(relationships.get(i));
+        }
+        return builder.build();
+    }
+
+    private boolean computeNext() {
+        while (true) {
+            if (expanding) {
+                if (expandingRelationships.next()) {
+                    long nodeId = expandingRelationships.otherNodeReference();
+                    if (visited.add(nodeId)) {
+                        if (parents != null) {
+                            parents.put(nodeId, expandingRelationships.relationshipReference());
+                        }
+                        if (reached(nodeId, expandingDepth + 1)) {
+                            return true;
+                        }
+                    }
+                } else if (!nextSelection()) {
+                    finishExpansion();
+                }
+            } else if (nextStartNode < startNodes.length && (bfs || pendingNodes.isEmpty())) {
+                // like the start branches of the traversal framework, breadth first reaches all the start nodes
+                // before expanding them, depth first reaches each one after the subtree of the previous one
+                long nodeId = startNodes[nextStartNode++];
+                if (started.add(nodeId) && reached(nodeId, 0)) {
+                    return true;
+                }
+            } else if (!startExpansion()) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Evaluates the node reached at the given depth, adding it to the nodes to expand if the traversal continues
+     * @return true if the node is returned
+     */
+    private boolean reached(long nodeId, int depth) {
+        read.singleNode(nodeId, evaluatedNode);
+        if (!evaluatedNode.next()) {
+            return false;
+        }
+        boolean includes = true;
+        boolean continues = true;
+        if (labelEvaluator != null) {
+            Evaluation evaluation = labelEvaluator.evaluate(depth, evaluatedNode);
+            includes = evaluation.includes();
+            continues = evaluation.continues();
+        }
+        if (minLevel != -1 && depth < minLevel) {
+            includes = false;
+        }
+        if (maxLevel != -1) {
+            includes &= depth <= maxLevel;
+            continues &= depth < maxLevel;
+        }
+        if (continues) {
+            pendingNodes.add(nodeId);
+            pendingDepths.add(depth);
+            pendingSelections.add(0);
+            if (!bfs) {
+                // the node just reached is expanded first
+                expanding = false;
+            }
+        }
+        if (includes) {
+            next = nodeId;
+        }
+        return includes;
+    }
+
+    /**
+     * Starts or resumes the expansion of the next node: the head of the queue for breadth first,
+     * the top of the stack for depth first
+     */
+    private boolean startExpansion() {
+        int index = bfs ? queueHead : pendingNodes.size() - 1;
+        if (bfs ? queueHead >= pendingNodes.size() : index < 0) {
+            return false;
+        }
+        expandingDepth = pendingDepths.get(index);
+        expandingSelections = selections(expandingDepth);
+        expandingSelection = pendingSelections.get(index) - 1;
+        expandingRelationships = relationshipCursor(bfs ? 0 : index);
+        expanding = true;
+        if (bfs || pendingSelections.get(index) == 0) {
+            if (!nextSelection()) {
+                finishExpansion();
+            }
+        }
+        return true;
+    }
+
+    private boolean nextSelection() {
+        int index = bfs ? queueHead : pendingNodes.size() - 1;
+        expandingSelection++;
+        if (expandingSelection >= expandingSelections.length) {
+            return false;
+        }
+        pendingSelections.set(index, expandingSelection + 1);
+        read.singleNode(pendingNodes.get(index), expandedNode);
+        if (!expandedNode.next()) {
+            return false;
+        }
+        expandedNode.relationships(expandingRelationships, expandingSelections[expandingSelection]);
+        return true;
+    }
+
+    private void finishExpansion() {
+        expanding = false;
+        if (bfs) {
+            queueHead++;
+            if (queueHead == pendingNodes.size()) {
+                pendingNodes.clear();
+                pendingDepths.clear();
+                pendingSelections.clear();
+                queueHead = 0;
+            }
+        } else {
+            int top = pendingNodes.size() - 1;
+            pendingNodes.removeAtIndex(top);
+            pendingDepths.removeAtIndex(top);
+            pendingSelections.removeAtIndex(top);
+        }
+    }
+
+    private RelationshipSelection[] selections(int depth) {
+        if (expander == null) {
+            return new RelationshipSelection[] {RelationshipSelection.ALL_RELATIONSHIPS};
+        }
+        return selections.computeIfAbsent(
+                expander.stepRels(depth),
+                stepRels -> RelationshipTypeAndDirections.selections(ktx.tokenRead(), stepRels));
+    }
+
+    private RelationshipTraversalCursor relationshipCursor(int depth) {
+        while (relationshipCursors.size() <= depth) {
+            relationshipCursors.add(ktx.cursors().allocateRelationshipTraversalCursor(ktx.cursorContext()));
+        }
+        return relationshipCursors.get(depth);
+    }
+
+    @Override
+    public void close() {
+        expandedNode.close();
+        evaluatedNode.close();
+        relationshipCursors.forEach(RelationshipTraversalCursor::close);
+    }
+}
@@ -20,6 +20,8 @@ package apoc.path;
 
 import java.util.*;
 import java.util.stream.Collectors;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
 
 /**
  * A generic label matcher which evaluates whether or not a node has at least one of the labels added on the matcher.
@@ -34,10 +36,13 @@ import java.util.stream.Collectors;
  * Also accepts a special `*` label, indicating that the matcher will always return a positive match.
  * LabelMatchers hold no context about what a match means, and do not handle labels prefixed with filter symbols (+, -, /, &gt;).
  * Please strip these symbols from the start of each label before adding to the matcher.
+ * Once resolved to token ids, the matcher can also match the node of a kernel {@link NodeCursor}.
  */
 public class LabelMatcher {
     private List<String> labels = new ArrayList<>();
     private List<List<String>> compoundLabels;
+    private int[] labelIds;
+    private int[][] compoundLabelIds;
 
     private static LabelMatcher ACCEPTS_ALL_LABEL_MATCHER = new LabelMatcher() {
         @Override
@@ -45,11 +50,21 @@ public class LabelMatcher {
             return true;
         }
 
+        @Override
+        public boolean matchesLabels(NodeCursor node) {
+            return true;
+        }
+
         @Override
         public LabelMatcher addLabel(String label) {
             return this; // no-op
         }
 
+        @Override
+        public void resolve(TokenRead tokenRead) {
+            // no-op
+        }
+
         @Override
         public boolean isEmpty() {
             return false;
@@ -110,6 +125,51 @@ public class LabelMatcher {
         return false;
     }
 
+    /**
+     * Resolves the labels to token ids, needed by {@link #matchesLabels(NodeCursor)}.
+     * A label without token id can't be on any node, so it's left out, along with the compound labels including it.
+     */
+    public void resolve(TokenRead tokenRead) {
+        labelIds = labels.stream()
+                .mapToInt(tokenRead::nodeLabel)
+                .filter(id -> id != TokenRead.NO_TOKEN)
+                .toArray();
+        if (compoundLabels == null) {
+            compoundLabelIds = new int[0][];
+            return;
+        }
+        compoundLabelIds = compoundLabels.stream()
+                .map(compoundLabel ->
+                        compoundLabel.stream().mapToInt(tokenRead::nodeLabel).toArray())
+                .filter(ids -> Arrays.stream(ids).noneMatch(id -> id == TokenRead.NO_TOKEN))
+                .toArray(int[][]::new);
+    }
+
+    public boolean matchesLabels(NodeCursor node) {
+        for (int labelId : labelIds) {
+            if (node.hasLabel(labelId)) {
+                return true;
+            }
+        }
+
+        for (int[] compoundLabel : compoundLabelIds) {
+            if (hasAllLabels(node, compoundLabel)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean hasAllLabels(NodeCursor node, int[] labelIds) {
+        for (int labelId : labelIds) {
+            if (!node.hasLabel(labelId)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public boolean isEmpty() {
         return labels.isEmpty() && (compoundLabels == null || compoundLabels.isEmpty());
     }
@@ -22,8 +22,11 @@ import static org.neo4j.graphdb.traversal.Evaluation.*;
 
 import java.util.HashSet;
 import java.util.Set;
+import java.util.function.Predicate;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.traversal.Evaluation;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
 
 /**
  * A matcher for evaluating whether or not a node is accepted by a group of matchers comprised of a blacklist, whitelist, endNode and termination node matchers.
@@ -91,25 +94,43 @@ public class LabelMatcherGroup {
         Set<String> nodeLabels = new HashSet<>();
         node.getLabels().forEach(label -> nodeLabels.add(label.name()));
 
-        if (blacklistMatcher.matchesLabels(nodeLabels)) {
+        return evaluate(matcher -> matcher.matchesLabels(nodeLabels), belowMinLevel);
+    }
+
+    /**
+     * Evaluates the node the cursor is positioned on, the group must have been resolved before
+     */
+    public Evaluation evaluate(NodeCursor node, boolean belowMinLevel) {
+        return evaluate(matcher -> matcher.matchesLabels(node), belowMinLevel);
+    }
+
+    private Evaluation evaluate(Predicate<LabelMatcher> matches, boolean belowMinLevel) {
+        if (matches.test(blacklistMatcher)) {
             return EXCLUDE_AND_PRUNE;
         }
 
-        if (terminatorNodeMatcher.matchesLabels(nodeLabels)) {
+        if (matches.test(terminatorNodeMatcher)) {
             return belowMinLevel ? EXCLUDE_AND_CONTINUE : INCLUDE_AND_PRUNE;
         }
 
-        if (endNodeMatcher.matchesLabels(nodeLabels)) {
+        if (matches.test(endNodeMatcher)) {
             return belowMinLevel ? EXCLUDE_AND_CONTINUE : INCLUDE_AND_CONTINUE;
         }
 
-        if (whitelistMatcher.isEmpty() || whitelistMatcher.matchesLabels(nodeLabels)) {
+        if (whitelistMatcher.isEmpty() || matches.test(whitelistMatcher)) {
             return endNodesOnly || belowMinLevel ? EXCLUDE_AND_CONTINUE : INCLUDE_AND_CONTINUE;
         }
 
         return EXCLUDE_AND_PRUNE;
     }
 
+    public void resolve(TokenRead tokenRead) {
+        whitelistMatcher.resolve(tokenRead);
+        blacklistMatcher.resolve(tokenRead);
+        endNodeMatcher.resolve(tokenRead);
+        terminatorNodeMatcher.resolve(tokenRead);
+    }
+
     public boolean isEndNodesOnly() {
         return endNodesOnly;
     }
@@ -29,6 +29,8 @@ import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.traversal.Evaluation;
 import org.neo4j.graphdb.traversal.Evaluator;
+import org.neo4j.internal.kernel.api.NodeCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
 
 // when no commas present, acts as a pathwide label filter
 public class LabelSequenceEvaluator implements Evaluator {
@@ -94,11 +96,30 @@ public class LabelSequenceEvaluator implements Evaluator {
             return whitelistAllowedEvaluation;
         }
 
+        return matcherGroup(depth).evaluate(node, belowMinLevel);
+    }
+
+    /**
+     * Same as {@link #evaluate(Path)} for the node the cursor is positioned on, reached at the given depth.
+     * The evaluator must have been resolved before.
+     */
+    public Evaluation evaluate(int depth, NodeCursor node) {
+        if (depth == 0 && (!filterStartNode || !beginSequenceAtStart)) {
+            return whitelistAllowedEvaluation;
+        }
+
+        return matcherGroup(depth).evaluate(node, depth < minLevel);
+    }
+
+    public void resolve(TokenRead tokenRead) {
+        for (LabelMatcherGroup group : sequenceMatchers) {
+            group.resolve(tokenRead);
+        }
+    }
+
+    private LabelMatcherGroup matcherGroup(int depth) {
         // the user may want the sequence to begin at the start node (default), or the sequence may only apply from the
         // next node on
-        LabelMatcherGroup matcherGroup =
-                sequenceMatchers.get((beginSequenceAtStart ? depth : depth - 1) % sequenceMatchers.size());
-
-        return matcherGroup.evaluate(node, belowMinLevel);
+        return sequenceMatchers.get((beginSequenceAtStart ? depth : depth - 1) % sequenceMatchers.size());
     }
 }
@@ -20,21 +20,27 @@ package apoc.path;
 
 import static apoc.path.PathExplorer.NodeFilter.*;
 
-import apoc.algo.Cover;
+import apoc.Pools;
+import apoc.algo.RelationshipCover;
 import apoc.result.GraphResult;
 import apoc.result.NodeResult;
 import apoc.result.PathResult;
 import apoc.util.Util;
 import java.util.*;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import org.neo4j.graphalgo.impl.util.PathImpl;
+import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.Node;
 import org.neo4j.graphdb.Path;
 import org.neo4j.graphdb.Relationship;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.graphdb.traversal.*;
 import org.neo4j.internal.helpers.collection.Iterables;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.Context;
 import org.neo4j.procedure.Description;
@@ -51,6 +57,12 @@ public class PathExplorer {
     @Context
     public Log log;
 
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Pools pools;
+
     @Procedure("apoc.path.expand")
     @Description(
             "apoc.path.expand(startNode <id>|Node|list, 'TYPE|TYPE_OUT>|<TYPE_IN', '+YesLabel|-NoLabel', minLevel, maxLevel ) yield path - expand from start node following the given relationships from min to max-level adhering to the label filters")
@@ -102,7 +114,7 @@ public class PathExplorer {
             throw new IllegalArgumentException("minLevel can only be 0 or 1 in subgraphNodes()");
         }
 
-        return expandConfigPrivate(start, configMap)
+        return expandConfigPrivate(start, configMap, true)
                 .map(path -> path == null ? new NodeResult(null) : new NodeResult(path.endNode()));
     }
 
@@ -121,9 +133,16 @@ public class PathExplorer {
             throw new IllegalArgumentException("minLevel can only be 0 or 1 in subgraphAll()");
         }
 
-        List<Node> subgraphNodes =
-                expandConfigPrivate(start, configMap).map(Path::endNode).collect(Collectors.toList());
-        List<Relationship> subgraphRels = Cover.coverNodes(subgraphNodes).collect(Collectors.toList());
+        List<Node> subgraphNodes;
+        try (Stream<Path> paths = expandConfigPrivate(start, configMap, true)) {
+            subgraphNodes = paths.map(Path::endNode).collect(Collectors.toList());
+        }
+        List<Relationship> subgraphRels;
+        RelationshipCover cover =
+                new RelationshipCover((GraphDatabaseAPI) db, pools, true, RelationshipCover.DEFAULT_BATCH_SIZE);
+        try (Stream<Relationship> rels = cover.cover(tx, subgraphNodes.stream().mapToLong(Node::getId))) {
+            subgraphRels = rels.collect(Collectors.toList());
+        }
 
         return Stream.of(new GraphResult(subgraphNodes, subgraphRels));
     }
@@ -185,6 +204,15 @@ public class PathExplorer {
 
     private Stream<Path> expandConfigPrivate(@Name("start") Object start, @Name("config") Map<String, Object> config)
             throws Exception {
+        return expandConfigPrivate(start, config, false);
+    }
+
+    /**
+     * @param endNodesOnly true if only the end nodes of the paths are used,
+     *                     in which case the paths returned by the {@link CursorTraversal} are made of the end node only
+     */
+    private Stream<Path> expandConfigPrivate(Object start, Map<String, Object> config, boolean endNodesOnly)
+            throws Exception {
         List<Node> nodes = startToNodes(start);
 
         String uniqueness = (String) config.getOrDefault("uniqueness", UNIQUENESS.name());
@@ -198,6 +226,7 @@ public class PathExplorer {
         boolean optional = Util.toBoolean(config.getOrDefault("optional", false));
         String sequence = (String) config.getOrDefault("sequence", null);
         boolean beginSequenceAtStart = Util.toBoolean(config.getOrDefault("beginSequenceAtStart", true));
+        boolean cursorTraversal = Util.toBoolean(config.getOrDefault("cursorTraversal", false));
 
         List<Node> endNodes = startToNodes(config.get("endNodes"));
         List<Node> terminatorNodes = startToNodes(config.get("terminatorNodes"));
@@ -221,19 +250,35 @@ public class PathExplorer {
             nodeFilter.put(BLACKLIST_NODES, blacklistNodes);
         }
 
-        Stream<Path> results = explorePathPrivate(
-                nodes,
-                relationshipFilter,
-                labelFilter,
-                minLevel,
-                maxLevel,
-                bfs,
-                getUniqueness(uniqueness),
-                filterStartNode,
-                limit,
-                nodeFilter,
-                sequence,
-                beginSequenceAtStart);
+        Stream<Path> results;
+        if (cursorTraversal && getUniqueness(uniqueness) == Uniqueness.NODE_GLOBAL && nodeFilter.isEmpty()) {
+            results = cursorTraversalPrivate(
+                    nodes,
+                    relationshipFilter,
+                    labelFilter,
+                    minLevel,
+                    maxLevel,
+                    bfs,
+                    filterStartNode,
+                    limit,
+                    sequence,
+                    beginSequenceAtStart,
+                    endNodesOnly);
+        } else {
+            results = explorePathPrivate(
+                    nodes,
+                    relationshipFilter,
+                    labelFilter,
+                    minLevel,
+                    maxLevel,
+                    bfs,
+                    getUniqueness(uniqueness),
+                    filterStartNode,
+                    limit,
+                    nodeFilter,
+                    sequence,
+                    beginSequenceAtStart);
+        }
 
         if (optional) {
             return optionalStream(results);
@@ -277,6 +322,73 @@ public class PathExplorer {
         }
     }
 
+    /**
+     * Same as {@link #explorePathPrivate} with {@code NODE_GLOBAL} uniqueness and without node filters,
+     * on a {@link CursorTraversal}
+     */
+    private Stream<Path> cursorTraversalPrivate(
+            List<Node> startNodes,
+            String pathFilter,
+            String labelFilter,
+            long minLevel,
+            long maxLevel,
+            boolean bfs,
+            boolean filterStartNode,
+            long limit,
+            String sequence,
+            boolean beginSequenceAtStart,
+            boolean endNodesOnly) {
+        RelationshipSequenceExpander expander = null;
+        LabelSequenceEvaluator labelEvaluator = null;
+
+        // same as in traverse(), `sequence` overrides `labelFilter` and `relationshipFilter`
+        if (sequence != null && !sequence.trim().isEmpty()) {
+            String[] sequenceSteps = sequence.split(",");
+            List<String> labelSequenceList = new ArrayList<>();
+            List<String> relSequenceList = new ArrayList<>();
+
+            for (int index = 0; index < sequenceSteps.length; index++) {
+                List<String> seq =
+                        (beginSequenceAtStart ? index : index - 1) % 2 == 0 ? labelSequenceList : relSequenceList;
+                seq.add(sequenceSteps[index]);
+            }
+
+            expander = new RelationshipSequenceExpander(relSequenceList, beginSequenceAtStart);
+            labelEvaluator = new LabelSequenceEvaluator(
+                    labelSequenceList, filterStartNode, beginSequenceAtStart, (int) minLevel);
+        } else {
+            if (pathFilter != null && !pathFilter.trim().isEmpty()) {
+                expander = new RelationshipSequenceExpander(pathFilter.trim(), beginSequenceAtStart);
+            }
+
+            if (labelFilter != null && sequence == null && !labelFilter.trim().isEmpty()) {
+                labelEvaluator = new LabelSequenceEvaluator(
+                        labelFilter.trim(), filterStartNode, beginSequenceAtStart, (int) minLevel);
+            }
+        }
+
+        long[] startNodeIds = startNodes.stream().mapToLong(Node::getId).toArray();
+        CursorTraversal traversal = new CursorTraversal(
+                ((InternalTransaction) tx).kernelTransaction(),
+                startNodeIds,
+                expander,
+                labelEvaluator,
+                minLevel,
+                maxLevel,
+                bfs,
+                !endNodesOnly);
+
+        LongStream nodeIds = StreamSupport.longStream(
+                        Spliterators.spliteratorUnknownSize(traversal, Spliterator.ORDERED), false)
+                .onClose(traversal::close);
+        if (limit != -1) {
+            nodeIds = nodeIds.limit(limit);
+        }
+        return endNodesOnly
+                ? nodeIds.mapToObj(id -> new PathImpl.Builder(tx.getNodeById(id)).build())
+                : nodeIds.mapToObj(id -> traversal.path(tx, id));
+    }
+
     /**
      * If the stream is empty, returns a stream of a single null value, otherwise returns the equivalent of the input stream
      * @param stream the input stream
@@ -286,11 +398,12 @@ public class PathExplorer {
         Stream<Path> optionalStream;
         Iterator<Path> itr = stream.iterator();
         if (itr.hasNext()) {
-            optionalStream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, 0), false);
+            optionalStream = StreamSupport.stream(Spliterators.spliteratorUnknownSize(itr, 0), false)
+                    .onClose(stream::close);
         } else {
             List<Path> listOfNull = new ArrayList<>();
             listOfNull.add(null);
-            optionalStream = listOfNull.stream();
+            optionalStream = listOfNull.stream().onClose(stream::close);
         }
 
         return optionalStream;
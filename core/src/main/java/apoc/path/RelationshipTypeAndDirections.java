@@ -27,6 +27,8 @@ import java.util.List;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.RelationshipType;
 import org.neo4j.internal.helpers.collection.Pair;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.storageengine.api.RelationshipSelection;
 
 /**
  * helper class parsing relationship types and directions
@@ -73,4 +75,27 @@ public abstract class RelationshipTypeAndDirections {
         }
         return name.trim().isEmpty() ? null : RelationshipType.withName(name);
     }
+
+    /**
+     * Resolves the parsed types and directions to kernel relationship selections.
+     * A type without token id can't be on any relationship, so it's left out.
+     */
+    public static RelationshipSelection[] selections(
+            TokenRead tokenRead, List<Pair<RelationshipType, Direction>> typesAndDirections) {
+        List<RelationshipSelection> selections = new ArrayList<>();
+        for (Pair<RelationshipType, Direction> pair : typesAndDirections) {
+            Direction direction = pair.other() == null ? BOTH : pair.other();
+            if (pair.first() == null) {
+                if (pair.other() != null) {
+                    selections.add(RelationshipSelection.selection(direction));
+                }
+                continue;
+            }
+            int typeId = tokenRead.relationshipType(pair.first().name());
+            if (typeId != TokenRead.NO_TOKEN) {
+                selections.add(RelationshipSelection.selection(typeId, direction));
+            }
+        }
+        return selections.toArray(new RelationshipSelection[0]);
+    }
 }
@@ -22,17 +22,17 @@ import static apoc.periodic.Periodic.JobInfo;
 
 import apoc.Pools;
 import apoc.util.Util;
-import java.util.ArrayList;
+import java.util.ArrayDeque;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
-import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
-import java.util.function.ToLongFunction;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -46,6 +46,8 @@ import org.neo4j.procedure.TerminationGuard;
 
 public class PeriodicUtils {
 
+    private static final long PERMIT_POLL_MILLIS = 10;
+
     private PeriodicUtils() {}
 
     public static Pair<String, Boolean> prepareInnerStatement(
@@ -102,26 +104,26 @@ public class PeriodicUtils {
             String periodicId) {
 
         ExecutorService pool = parallel ? pools.getDefaultExecutorService() : pools.getSingleExecutorService();
-        List<Future<Long>> futures = new ArrayList<>(concurrency);
+        // only the batches still running are retained, completed ones are drained as we go,
+        // so that memory stays flat regardless of the number of batches
+        Deque<Future<Long>> inFlight = new ArrayDeque<>(concurrency);
+        Semaphore permits = new Semaphore(concurrency);
         BatchAndTotalCollector collector = new BatchAndTotalCollector(terminationGuard, failedParams);
-        AtomicInteger activeFutures = new AtomicInteger(0);
 
         do {
-            if (Util.transactionIsTerminated(terminationGuard)) break;
-
-            if (activeFutures.get() < concurrency || !parallel) {
-                // we have capacity, add a new Future to the list
-                activeFutures.incrementAndGet();
+            if (!acquirePermit(permits, terminationGuard)) break;
+            drainCompleted(inFlight, collector);
 
-                if (log.isDebugEnabled())
-                    log.debug("Execute, in periodic iteration with id %s, no %d batch size ", periodicId, batchsize);
-                List<Map<String, Object>> batch = Util.take(iterator, batchsize);
-                final long currentBatchSize = batch.size();
-                Periodic.ExecuteBatch executeBatch = iterateList
-                        ? new Periodic.ListExecuteBatch(terminationGuard, collector, batch, consumer)
-                        : new Periodic.OneByOneExecuteBatch(terminationGuard, collector, batch, consumer);
+            if (log.isDebugEnabled())
+                log.debug("Execute, in periodic iteration with id %s, no %d batch size ", periodicId, batchsize);
+            List<Map<String, Object>> batch = Util.take(iterator, batchsize);
+            final long currentBatchSize = batch.size();
+            Periodic.ExecuteBatch executeBatch = iterateList
+                    ? new Periodic.ListExecuteBatch(terminationGuard, collector, batch, consumer)
+                    : new Periodic.OneByOneExecuteBatch(terminationGuard, collector, batch, consumer);
 
-                futures.add(Util.inTxFuture(
+            try {
+                inFlight.add(Util.inTxFuture(
                         log,
                         pool,
                         db,
@@ -131,27 +133,30 @@ public class PeriodicUtils {
                         onComplete -> {
                             collector.incrementBatches();
                             executeBatch.release();
-                            activeFutures.decrementAndGet();
+                            permits.release();
                         }));
-                collector.incrementCount(currentBatchSize);
-                if (log.isDebugEnabled()) {
-                    log.debug(
-                            "Processed in periodic iteration with id %s, %d iterations of %d total",
-                            periodicId, batchsize, collector.getCount());
-                }
-            } else {
-                // we can't block until the counter decrease as we might miss a cancellation, so
-                // let this thread be preempted for a bit before we check for cancellation or
-                // capacity.
-                LockSupport.parkNanos(1000);
+            } catch (RuntimeException e) {
+                permits.release();
+                throw e;
+            }
+            collector.incrementCount(currentBatchSize);
+            if (log.isDebugEnabled()) {
+                log.debug(
+                        "Processed in periodic iteration with id %s, %d iterations of %d total",
+                        periodicId, batchsize, collector.getCount());
             }
         } while (iterator.hasNext());
 
         boolean wasTerminated = Util.transactionIsTerminated(terminationGuard);
-        ToLongFunction<Future<Long>> toLongFunction = wasTerminated
-                ? f -> Util.getFutureOrCancel(f, collector.getBatchErrors(), collector.getFailedBatches(), 0L)
-                : f -> Util.getFuture(f, collector.getBatchErrors(), collector.getFailedBatches(), 0L);
-        collector.incrementSuccesses(futures.stream().mapToLong(toLongFunction).sum());
+        drainCompleted(inFlight, collector);
+        while (!inFlight.isEmpty()) {
+            Future<Long> future = inFlight.poll();
+            collector.incrementSuccesses(
+                    wasTerminated
+                            ? Util.getFutureOrCancel(
+                                    future, collector.getBatchErrors(), collector.getFailedBatches(), 0L)
+                            : Util.getFuture(future, collector.getBatchErrors(), collector.getFailedBatches(), 0L));
+        }
 
         Util.logErrors("Error during iterate.commit:", collector.getBatchErrors(), log);
         Util.logErrors("Error during iterate.execute:", collector.getOperationErrors(), log);
@@ -161,6 +166,40 @@ public class PeriodicUtils {
         return Stream.of(collector.getResult());
     }
 
+    /**
+     * Waits for a free batch slot, returns false if the transaction was terminated in the meantime.
+     * We can't block indefinitely until a batch completes as we might miss a cancellation,
+     * so we wake up periodically to check for it.
+     */
+    private static boolean acquirePermit(Semaphore permits, TerminationGuard terminationGuard) {
+        try {
+            while (!Util.transactionIsTerminated(terminationGuard)) {
+                if (permits.tryAcquire(PERMIT_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Collects the result of the already completed batches and removes them from the in-flight queue
+     */
+    private static void drainCompleted(Deque<Future<Long>> inFlight, BatchAndTotalCollector collector) {
+        Iterator<Future<Long>> it = inFlight.iterator();
+        while (it.hasNext()) {
+            Future<Long> future = it.next();
+            if (future.isDone()) {
+                it.remove();
+                collector.incrementSuccesses(
+                        Util.getFuture(future, collector.getBatchErrors(), collector.getFailedBatches(), 0L));
+            }
+        }
+    }
+
     public static Stream<JobInfo> submitProc(
             String name, String statement, Map<String, Object> config, GraphDatabaseService db, Log log, Pools pools) {
         Map<String, Object> params = (Map) config.getOrDefault("params", Collections.emptyMap());
@@ -31,7 +31,9 @@ import apoc.result.GraphResult;
 import apoc.result.NodeResult;
 import apoc.result.RelationshipResult;
 import apoc.util.Util;
+import apoc.util.kernel.MultiThreadedGlobalGraphOperations;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.function.BiFunction;
@@ -39,13 +41,24 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.apache.commons.collections4.IterableUtils;
+import org.apache.commons.collections4.ListUtils;
 import org.neo4j.graphdb.*;
 import org.neo4j.graphdb.schema.ConstraintType;
 import org.neo4j.internal.helpers.collection.Iterables;
+import org.neo4j.internal.kernel.api.PropertyCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
+import org.neo4j.values.storable.Value;
+import org.neo4j.values.storable.Values;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
 
 public class GraphRefactoring {
+    private static final int CATEGORIZE_SCAN_BATCH_SIZE = 10_000;
+
     @Context
     public Transaction tx;
 
@@ -500,7 +513,9 @@ public class GraphRefactoring {
     }
 
     /**
-     * Create category nodes from unique property values
+     * Create category nodes from unique property values.
+     * Only the nodes with the sourceKey are connected, found by a parallel scan of the node store,
+     * the category nodes are created once before connecting the nodes in parallel batches.
      */
     @Procedure(mode = Mode.WRITE)
     @Description(
@@ -527,27 +542,86 @@ public class GraphRefactoring {
                             + String.format("CREATE CONSTRAINT ON (n:`%s`) ASSERT n.`%s` IS UNIQUE", label, targetKey));
         }
 
-        // Create batches of nodes
-        List<Node> batch = null;
-        List<Future<Void>> futures = new ArrayList<>();
-        for (Node node : tx.getAllNodes()) {
-            if (batch == null) {
-                batch = new ArrayList<>((int) batchSize);
-            }
-            batch.add(node);
-            if (batch.size() == batchSize) {
-                futures.add(
-                        categorizeNodes(batch, sourceKey, relationshipType, outgoing, label, targetKey, copiedKeys));
-                batch = null;
+        // Find the nodes with the property and its distinct values, scanning the store in parallel.
+        // The scan reads the committed data only, the changes of the calling transaction are not seen.
+        int propertyKey =
+                ((InternalTransaction) tx).kernelTransaction().tokenRead().propertyKey(sourceKey);
+        if (propertyKey == TokenRead.NO_TOKEN) {
+            return;
+        }
+        Set<Value> values = ConcurrentHashMap.newKeySet();
+        // a bitmap per scanning thread, as they are not thread safe
+        Map<Thread, Roaring64NavigableMap> nodeIdsByThread = new ConcurrentHashMap<>();
+        MultiThreadedGlobalGraphOperations.BatchJobResult scan = MultiThreadedGlobalGraphOperations.forAllNodes(
+                (GraphDatabaseAPI) db,
+                pools.getDefaultExecutorService(),
+                CATEGORIZE_SCAN_BATCH_SIZE,
+                (ktx, nodeCursor) -> {
+                    try (PropertyCursor properties =
+                            ktx.cursors().allocatePropertyCursor(ktx.cursorContext(), ktx.memoryTracker())) {
+                        nodeCursor.properties(properties);
+                        while (properties.next()) {
+                            if (properties.propertyKey() == propertyKey) {
+                                values.add(properties.propertyValue());
+                                nodeIdsByThread
+                                        .computeIfAbsent(Thread.currentThread(), t -> new Roaring64NavigableMap())
+                                        .addLong(nodeCursor.nodeReference());
+                                break;
+                            }
+                        }
+                    }
+                });
+        if (scan.getFailures() > 0) {
+            throw new RuntimeException("Failed to read " + scan.getFailures() + " nodes with the " + sourceKey);
+        }
+
+        // Create each category node once
+        Map<Value, Long> categories = new HashMap<>(values.size());
+        for (List<Value> batch : ListUtils.partition(new ArrayList<>(values), (int) batchSize)) {
+            terminationGuard.check();
+            try (Transaction innerTx = db.beginTx()) {
+                for (Value value : batch) {
+                    categories.put(
+                            value,
+                            mergeCategory(innerTx, label, targetKey, value.asObjectCopy())
+                                    .getId());
+                }
+                innerTx.commit();
             }
         }
-        if (batch != null) {
-            futures.add(categorizeNodes(batch, sourceKey, relationshipType, outgoing, label, targetKey, copiedKeys));
+
+        // Connect the nodes in batches of consecutive ids, with a bounded number of batches in flight
+        Roaring64NavigableMap nodeIds = new Roaring64NavigableMap();
+        nodeIdsByThread.values().forEach(nodeIds::or);
+        LongIterator ids = nodeIds.getLongIterator();
+        Deque<Future<Void>> futures = new ArrayDeque<>();
+        while (ids.hasNext()) {
+            terminationGuard.check();
+            List<Long> batch = new ArrayList<>((int) Math.min(batchSize, nodeIds.getLongCardinality()));
+            while (ids.hasNext() && batch.size() < batchSize) {
+                batch.add(ids.next());
+            }
+            if (futures.size() >= Pools.DEFAULT_POOL_THREADS) {
+                Pools.force(futures.poll());
+            }
+            futures.add(pools.processBatch(
+                    batch,
+                    db,
+                    (innerTx, id) -> categorizeNode(
+                            innerTx,
+                            innerTx.getNodeById(id),
+                            categories,
+                            sourceKey,
+                            relationshipType,
+                            outgoing,
+                            label,
+                            targetKey,
+                            copiedKeys)));
         }
 
         // Await processing of node batches
-        for (Future<Void> future : futures) {
-            Pools.force(future);
+        while (!futures.isEmpty()) {
+            Pools.force(futures.poll());
         }
     }
 
@@ -638,52 +712,57 @@ public class GraphRefactoring {
                 });
     }
 
-    private Future<Void> categorizeNodes(
-            List<Node> batch,
+    private void categorizeNode(
+            Transaction innerTx,
+            Node node,
+            Map<Value, Long> categories,
             String sourceKey,
             String relationshipType,
             Boolean outgoing,
             String label,
             String targetKey,
             List<String> copiedKeys) {
-
-        return pools.processBatch(batch, db, (innerTx, node) -> {
-            node = Util.rebind(innerTx, node);
-            Object value = node.getProperty(sourceKey, null);
-            if (value != null) {
-                String nodeLabel = Util.sanitize(label);
-                String key = Util.sanitize(targetKey);
-                String relType = Util.sanitize(relationshipType);
-                String q = "WITH $node AS n " + "MERGE (cat:`"
-                        + nodeLabel + "` {`" + key + "`: $value}) "
-                        + (outgoing
-                                ? "MERGE (n)-[:`" + relType + "`]->(cat) "
-                                : "MERGE (n)<-[:`" + relType + "`]-(cat) ")
-                        + "RETURN cat";
-                Map<String, Object> params = new HashMap<>(2);
-                params.put("node", node);
-                params.put("value", value);
-                Result result = innerTx.execute(q, params);
-                if (result.hasNext()) {
-                    Node cat = (Node) result.next().get("cat");
-                    for (String copiedKey : copiedKeys) {
-                        Object copiedValue = node.getProperty(copiedKey, null);
-                        if (copiedValue != null) {
-                            Object catValue = cat.getProperty(copiedKey, null);
-                            if (catValue == null) {
-                                cat.setProperty(copiedKey, copiedValue);
-                                node.removeProperty(copiedKey);
-                            } else if (copiedValue.equals(catValue)) {
-                                node.removeProperty(copiedKey);
-                            }
-                        }
-                    }
+        Object value = node.getProperty(sourceKey, null);
+        if (value == null) {
+            return;
+        }
+        // the value can have changed since the scan
+        Long categoryId = categories.get(Values.of(value));
+        Node cat =
+                categoryId == null ? mergeCategory(innerTx, label, targetKey, value) : innerTx.getNodeById(categoryId);
+        RelationshipType type = RelationshipType.withName(relationshipType);
+        Direction direction = outgoing ? Direction.OUTGOING : Direction.INCOMING;
+        boolean connected = StreamSupport.stream(
+                        node.getRelationships(direction, type).spliterator(), false)
+                .anyMatch(rel -> rel.getOtherNode(node).equals(cat));
+        if (!connected) {
+            if (outgoing) {
+                node.createRelationshipTo(cat, type);
+            } else {
+                cat.createRelationshipTo(node, type);
+            }
+        }
+        for (String copiedKey : copiedKeys) {
+            Object copiedValue = node.getProperty(copiedKey, null);
+            if (copiedValue != null) {
+                Object catValue = cat.getProperty(copiedKey, null);
+                if (catValue == null) {
+                    cat.setProperty(copiedKey, copiedValue);
+                    node.removeProperty(copiedKey);
+                } else if (copiedValue.equals(catValue)) {
+                    node.removeProperty(copiedKey);
                 }
-                assert (!result.hasNext());
-                result.close();
-                node.removeProperty(sourceKey);
             }
-        });
+        }
+        node.removeProperty(sourceKey);
+    }
+
+    private Node mergeCategory(Transaction innerTx, String label, String targetKey, Object value) {
+        String q = "MERGE (cat:`" + Util.sanitize(label) + "` {`" + Util.sanitize(targetKey) + "`: $value}) "
+                + "RETURN cat";
+        try (Result result = innerTx.execute(q, Collections.singletonMap("value", value))) {
+            return (Node) result.next().get("cat");
+        }
     }
 
     private void mergeNodes(Node source, Node target, RefactorConfig conf, List<Long> excludeRelIds) {
@@ -22,6 +22,7 @@ import static apoc.util.Util.quote;
 import static java.lang.Math.toIntExact;
 import static java.util.Arrays.asList;
 
+import apoc.util.FormatCache;
 import apoc.util.Util;
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
@@ -149,7 +150,7 @@ public class Strings {
         if (text == null || regex == null || replacement == null) {
             return null;
         }
-        return text.replaceAll(regex, replacement);
+        return FormatCache.pattern(regex).matcher(text).replaceAll(replacement);
     }
 
     @UserFunction
@@ -161,7 +162,7 @@ public class Strings {
         if (text == null || regex == null || limit == null) {
             return null;
         }
-        String[] resultArray = text.split(regex, limit.intValue());
+        String[] resultArray = FormatCache.pattern(regex).split(text, limit.intValue());
         return new ArrayList<>(asList(resultArray));
     }
 
@@ -171,7 +172,7 @@ public class Strings {
         if (text == null || regex == null) {
             return Collections.EMPTY_LIST;
         } else {
-            final Pattern pattern = Pattern.compile(regex);
+            final Pattern pattern = FormatCache.pattern(regex);
             final Matcher matcher = pattern.matcher(text);
 
             List<List<String>> result = new ArrayList<>();
@@ -315,6 +316,14 @@ public class Strings {
 
     private static Pattern cleanPattern = Pattern.compile("[^\\p{L}\\p{N}]+");
     private static Pattern specialCharPattern = Pattern.compile("\\p{IsM}+");
+    private static final Pattern SLUG_PATTERN = Pattern.compile("[^\\p{L}0-9_]+");
+    private static final Pattern CAMEL_CASE_SEPARATOR_PATTERN = Pattern.compile("[^\\p{L}0-9]|_");
+    private static final Pattern WHITESPACE_PATTERN = Pattern.compile("(\\s+)");
+    private static final Pattern UPPER_SNAKE_CASE_PATTERN = Pattern.compile("^([\\p{Lu}0-9_]+)$");
+    private static final Pattern SNAKE_CASE_SPLIT_PATTERN = Pattern.compile("(?=[^\\p{Ll}0-9])");
+    private static final Pattern DOUBLE_DASH_PATTERN = Pattern.compile("--");
+    private static final Pattern UPPER_CASE_SPLIT_PATTERN = Pattern.compile("(?=[^a-z0-9]+)");
+    private static final Pattern NON_UPPER_CASE_PATTERN = Pattern.compile("[^A-Z0-9]+");
     private static String[][] UMLAUT_REPLACEMENTS = {
         {new String("Ä"), "Ae"},
         {new String("Ü"), "Ue"},
@@ -383,7 +392,7 @@ public class Strings {
     public String slug(@Name("text") String text, @Name(value = "delim", defaultValue = "-") String delim) {
         if (text == null) return null;
         if (delim == null) return null;
-        return text.trim().replaceAll("[^\\p{L}0-9_]+", delim);
+        return SLUG_PATTERN.matcher(text.trim()).replaceAll(delim);
     }
 
     private static final String lower = "abcdefghijklmnopqrstuvwxyz";
@@ -456,9 +465,9 @@ public class Strings {
     @UserFunction
     @Description("apoc.text.camelCase(text) YIELD value - Convert a string to camelCase")
     public String camelCase(@Name("text") String text) {
-        text = text.replaceAll("[^\\p{L}0-9]|_", " ");
+        text = CAMEL_CASE_SEPARATOR_PATTERN.matcher(text).replaceAll(" ");
 
-        String[] parts = text.split("(\\s+)");
+        String[] parts = WHITESPACE_PATTERN.split(text);
         StringBuilder output = new StringBuilder();
 
         for (String part : parts) {
@@ -482,11 +491,11 @@ public class Strings {
     @Description("apoc.text.snakeCase(text) YIELD value - Convert a string to snake-case")
     public String snakeCase(@Name("text") String text) {
         // Convert Snake Case
-        if (text.matches("^([\\p{Lu}0-9_]+)$")) {
+        if (UPPER_SNAKE_CASE_PATTERN.matcher(text).matches()) {
             text = text.toLowerCase().replace("_", " ");
         }
 
-        String[] parts = text.split("(?=[^\\p{Ll}0-9])");
+        String[] parts = SNAKE_CASE_SPLIT_PATTERN.split(text);
         StringBuilder output = new StringBuilder();
 
         for (String part : parts) {
@@ -501,17 +510,17 @@ public class Strings {
             }
         }
 
-        return output.toString().toLowerCase().replaceAll("--", "-");
+        return DOUBLE_DASH_PATTERN.matcher(output.toString().toLowerCase()).replaceAll("-");
     }
 
     @UserFunction
     @Description("apoc.text.toUpperCase(text) YIELD value - Convert a string to UPPER_CASE")
     public String toUpperCase(@Name("text") String text) {
-        String[] parts = text.split("(?=[^a-z0-9]+)");
+        String[] parts = UPPER_CASE_SPLIT_PATTERN.split(text);
         StringBuilder output = new StringBuilder();
 
         for (String part : parts) {
-            part = part.trim().toUpperCase().replaceAll("[^A-Z0-9]+", "");
+            part = NON_UPPER_CASE_PATTERN.matcher(part.trim().toUpperCase()).replaceAll("");
 
             if (part.length() > 0) {
                 if (output.length() > 0) {
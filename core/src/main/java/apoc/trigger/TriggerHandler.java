@@ -27,8 +27,10 @@ import apoc.SystemLabels;
 import apoc.SystemPropertyKeys;
 import apoc.util.Util;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -64,6 +66,8 @@ public class TriggerHandler extends LifecycleAdapter implements TransactionEvent
     public static final String TRIGGER_REFRESH = "apoc.trigger.refresh";
 
     private final ConcurrentHashMap<String, Map<String, Object>> activeTriggers = new ConcurrentHashMap();
+    // the transaction data parameters referenced by each statement
+    private final ConcurrentHashMap<String, Set<String>> statementParameters = new ConcurrentHashMap<>();
     private final Log log;
     private final GraphDatabaseService db;
     private final DatabaseManagementService databaseManagementService;
@@ -107,6 +111,7 @@ public class TriggerHandler extends LifecycleAdapter implements TransactionEvent
 
     private void updateCache() {
         activeTriggers.clear();
+        statementParameters.clear();
 
         lastUpdate = System.currentTimeMillis();
 
@@ -270,7 +275,16 @@ public class TriggerHandler extends LifecycleAdapter implements TransactionEvent
 
     private void afterAsync(TransactionData txData) {
         if (hasPhase(Phase.afterAsync)) {
-            TriggerMetadata triggerMetadata = TriggerMetadata.from(txData, true);
+            // only the parameters of the triggers are built before the transaction data is gone
+            Set<String> parameters = new HashSet<>();
+            activeTriggers.values().stream()
+                    .filter(data -> isActive(data, Phase.afterAsync))
+                    .forEach(data -> {
+                        parameters.addAll(parameters((String) data.get("statement")));
+                        parameters.addAll(
+                                TriggerMetadata.selectorParameters((Map<String, Object>) data.get("selector")));
+                    });
+            TriggerMetadata triggerMetadata = TriggerMetadata.from(txData, true).materialize(parameters);
             Util.inTxFuture(pools.getDefaultExecutorService(), db, (inner) -> {
                 setTriggerMetadata(inner);
                 executeTriggers(inner, triggerMetadata.rebind(inner), Phase.afterAsync);
@@ -306,15 +320,19 @@ public class TriggerHandler extends LifecycleAdapter implements TransactionEvent
     private void executeTriggers(Transaction tx, TriggerMetadata triggerMetadata, Phase phase) {
         Map<String, String> exceptions = new LinkedHashMap<>();
         activeTriggers.forEach((name, data) -> {
-            Map<String, Object> params = triggerMetadata.toMap();
-            if (data.get("params") != null) {
-                params.putAll((Map<String, Object>) data.get("params"));
-            }
-            Map<String, Object> selector = (Map<String, Object>) data.get("selector");
-            if ((!(boolean) data.get("paused")) && when(selector, phase)) {
+            if (isActive(data, phase)) {
                 try {
+                    Map<String, Object> selector = (Map<String, Object>) data.get("selector");
+                    if (!triggerMetadata.matches(tx, selector)) {
+                        return;
+                    }
+                    String statement = (String) data.get("statement");
+                    Map<String, Object> params = triggerMetadata.toMap(parameters(statement));
+                    if (data.get("params") != null) {
+                        params.putAll((Map<String, Object>) data.get("params"));
+                    }
                     params.put("trigger", name);
-                    Result result = tx.execute((String) data.get("statement"), params);
+                    Result result = tx.execute(statement, params);
                     Iterators.count(result);
                 } catch (Exception e) {
                     log.warn("Error executing trigger " + name + " in phase " + phase, e);
@@ -327,6 +345,14 @@ public class TriggerHandler extends LifecycleAdapter implements TransactionEvent
         }
     }
 
+    private boolean isActive(Map<String, Object> data, Phase phase) {
+        return !(boolean) data.get("paused") && when((Map<String, Object>) data.get("selector"), phase);
+    }
+
+    private Set<String> parameters(String statement) {
+        return statementParameters.computeIfAbsent(statement, TriggerMetadata::referencedParameters);
+    }
+
     private boolean when(Map<String, Object> selector, Phase phase) {
         if (selector == null) return phase == Phase.before;
         return Phase.valueOf(selector.getOrDefault("phase", "before").toString()) == phase;
@@ -25,11 +25,18 @@ import apoc.result.VirtualNode;
 import apoc.result.VirtualRelationship;
 import apoc.util.Util;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.neo4j.graphdb.Entity;
 import org.neo4j.graphdb.Label;
 import org.neo4j.graphdb.Node;
@@ -40,100 +47,233 @@ import org.neo4j.graphdb.event.PropertyEntry;
 import org.neo4j.graphdb.event.TransactionData;
 import org.neo4j.internal.helpers.collection.Iterables;
 
+/**
+ * The transaction data passed as parameters to the trigger statements.
+ * Each parameter is built from the {@link TransactionData} only when a statement of the phase references it,
+ * and then shared by all the triggers of the phase.
+ */
 public class TriggerMetadata {
-    private final long transactionId;
-    private final long commitTime;
-    private final List<Node> createdNodes;
-    private final List<Relationship> createdRelationships;
-    private final List<Node> deletedNodes;
-    private final List<Relationship> deletedRelationships;
-    private final Map<String, List<Node>> removedLabels;
-    private final Map<String, List<PropertyEntryContainer<Node>>> removedNodeProperties;
-    private final Map<String, List<PropertyEntryContainer<Relationship>>> removedRelationshipProperties;
-    private final Map<String, List<Node>> assignedLabels;
-    private final Map<String, List<PropertyEntryContainer<Node>>> assignedNodeProperties;
-    private final Map<String, List<PropertyEntryContainer<Relationship>>> assignedRelationshipProperties;
-    private final Map<String, Object> metaData;
-
-    private TriggerMetadata(
-            long transactionId,
-            long commitTime,
-            List<Node> createdNodes,
-            List<Relationship> createdRelationships,
-            List<Node> deletedNodes,
-            List<Relationship> deletedRelationships,
-            Map<String, List<Node>> removedLabels,
-            Map<String, List<PropertyEntryContainer<Node>>> removedNodeProperties,
-            Map<String, List<PropertyEntryContainer<Relationship>>> removedRelationshipProperties,
-            Map<String, List<Node>> assignedLabels,
-            Map<String, List<PropertyEntryContainer<Node>>> assignedNodeProperties,
-            Map<String, List<PropertyEntryContainer<Relationship>>> assignedRelationshipProperties,
-            Map<String, Object> metaData) {
-        this.transactionId = transactionId;
-        this.commitTime = commitTime;
-        this.createdNodes = createdNodes;
-        this.createdRelationships = createdRelationships;
-        this.deletedNodes = deletedNodes;
-        this.deletedRelationships = deletedRelationships;
-        this.removedLabels = removedLabels;
-        this.removedNodeProperties = removedNodeProperties;
-        this.removedRelationshipProperties = removedRelationshipProperties;
-        this.assignedLabels = assignedLabels;
-        this.assignedNodeProperties = assignedNodeProperties;
-        this.assignedRelationshipProperties = assignedRelationshipProperties;
-        this.metaData = metaData;
+    public static final String TRANSACTION_ID = "transactionId";
+    public static final String COMMIT_TIME = "commitTime";
+    public static final String CREATED_NODES = "createdNodes";
+    public static final String CREATED_RELATIONSHIPS = "createdRelationships";
+    public static final String DELETED_NODES = "deletedNodes";
+    public static final String DELETED_RELATIONSHIPS = "deletedRelationships";
+    public static final String REMOVED_LABELS = "removedLabels";
+    public static final String REMOVED_NODE_PROPERTIES = "removedNodeProperties";
+    public static final String REMOVED_RELATIONSHIP_PROPERTIES = "removedRelationshipProperties";
+    public static final String ASSIGNED_LABELS = "assignedLabels";
+    public static final String ASSIGNED_NODE_PROPERTIES = "assignedNodeProperties";
+    public static final String ASSIGNED_RELATIONSHIP_PROPERTIES = "assignedRelationshipProperties";
+    public static final String META_DATA = "metaData";
+
+    public static final List<String> PARAMETERS = List.of(
+            TRANSACTION_ID,
+            COMMIT_TIME,
+            CREATED_NODES,
+            CREATED_RELATIONSHIPS,
+            DELETED_NODES,
+            DELETED_RELATIONSHIPS,
+            REMOVED_LABELS,
+            REMOVED_NODE_PROPERTIES,
+            REMOVED_RELATIONSHIP_PROPERTIES,
+            ASSIGNED_LABELS,
+            ASSIGNED_NODE_PROPERTIES,
+            ASSIGNED_RELATIONSHIP_PROPERTIES,
+            META_DATA);
+
+    private static final List<String> PROPERTY_PARAMETERS = List.of(
+            REMOVED_NODE_PROPERTIES,
+            REMOVED_RELATIONSHIP_PROPERTIES,
+            ASSIGNED_NODE_PROPERTIES,
+            ASSIGNED_RELATIONSHIP_PROPERTIES);
+
+    // optional selector entries, the trigger only runs when the transaction changes any of them
+    public static final String SELECTOR_LABELS = "labels";
+    public static final String SELECTOR_TYPES = "types";
+    public static final String SELECTOR_PROPERTIES = "properties";
+
+    // a $parameter or $`parameter` of a statement
+    private static final Pattern PARAMETER = Pattern.compile("\\$\\s*(?:`([^`]+)`|([\\p{L}_][\\p{L}\\p{N}_]*))");
+
+    // null once the parameters needed have been built, see #materialize
+    private final TransactionData txData;
+    private final boolean rebindDeleted;
+    // the parameters built so far, with the property entries not yet converted to maps
+    private final Map<String, Object> values;
+    // the property entries converted to maps, shared by the triggers
+    private final Map<String, Object> convertedProperties = new HashMap<>();
+
+    private TriggerMetadata(TransactionData txData, boolean rebindDeleted, Map<String, Object> values) {
+        this.txData = txData;
+        this.rebindDeleted = rebindDeleted;
+        this.values = values;
     }
 
+    /**
+     * @param rebindDeleted whether the deleted entities are turned into virtual ones,
+     * to be used after the transaction data is gone
+     */
     public static TriggerMetadata from(TransactionData txData, boolean rebindDeleted) {
-        long txId, commitTime;
-        try {
-            txId = txData.getTransactionId();
-        } catch (Exception ignored) {
-            txId = -1L;
+        return new TriggerMetadata(txData, rebindDeleted, new HashMap<>());
+    }
+
+    /**
+     * @return the parameters of {@link #PARAMETERS} referenced by the statement
+     */
+    public static Set<String> referencedParameters(String statement) {
+        Set<String> parameters = new HashSet<>();
+        Matcher matcher = PARAMETER.matcher(statement);
+        while (matcher.find()) {
+            String name = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+            if (PARAMETERS.contains(name)) {
+                parameters.add(name);
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * @return the parameters needed to evaluate the optional labels, types and properties of the selector
+     */
+    public static Set<String> selectorParameters(Map<String, Object> selector) {
+        Set<String> parameters = new HashSet<>();
+        if (selector == null) {
+            return parameters;
+        }
+        if (selector.get(SELECTOR_LABELS) != null) {
+            parameters.addAll(List.of(REMOVED_LABELS, ASSIGNED_LABELS));
+        }
+        if (selector.get(SELECTOR_TYPES) != null) {
+            parameters.addAll(List.of(CREATED_RELATIONSHIPS, DELETED_RELATIONSHIPS));
+        }
+        if (selector.get(SELECTOR_PROPERTIES) != null) {
+            parameters.addAll(PROPERTY_PARAMETERS);
+        }
+        return parameters;
+    }
+
+    /**
+     * Builds the given parameters, for them to be used once the transaction data is gone
+     */
+    public TriggerMetadata materialize(Collection<String> parameters) {
+        parameters.forEach(this::value);
+        return new TriggerMetadata(null, rebindDeleted, values);
+    }
+
+    private Object value(String parameter) {
+        Object value = values.get(parameter);
+        if (value == null && txData != null && PARAMETERS.contains(parameter)) {
+            value = compute(parameter);
+            values.put(parameter, value);
+        }
+        return value;
+    }
+
+    private Object compute(String parameter) {
+        switch (parameter) {
+            case TRANSACTION_ID:
+                try {
+                    return txData.getTransactionId();
+                } catch (Exception ignored) {
+                    return -1L;
+                }
+            case COMMIT_TIME:
+                try {
+                    return txData.getCommitTime();
+                } catch (Exception ignored) {
+                    return -1L;
+                }
+            case CREATED_NODES:
+                return Convert.convertToList(txData.createdNodes());
+            case CREATED_RELATIONSHIPS:
+                return Convert.convertToList(txData.createdRelationships());
+            case DELETED_NODES:
+                List<Node> deletedNodes = Convert.convertToList(txData.deletedNodes());
+                return rebindDeleted ? rebindDeleted(deletedNodes, txData) : deletedNodes;
+            case DELETED_RELATIONSHIPS:
+                List<Relationship> deletedRelationships = Convert.convertToList(txData.deletedRelationships());
+                return rebindDeleted ? rebindDeleted(deletedRelationships, txData) : deletedRelationships;
+            case REMOVED_LABELS:
+                Map<String, List<Node>> removedLabels = aggregateLabels(txData.removedLabels());
+                return rebindDeleted
+                        ? removedLabels.entrySet().stream()
+                                .collect(Collectors.toMap(Map.Entry::getKey, e -> rebindDeleted(e.getValue(), txData)))
+                        : removedLabels;
+            case ASSIGNED_LABELS:
+                return aggregateLabels(txData.assignedLabels());
+            case REMOVED_NODE_PROPERTIES:
+                Map<String, List<PropertyEntryContainer<Node>>> removedNodeProperties =
+                        aggregatePropertyKeys(txData.removedNodeProperties(), true);
+                return rebindDeleted ? rebindPropsEntries(txData, removedNodeProperties) : removedNodeProperties;
+            case REMOVED_RELATIONSHIP_PROPERTIES:
+                Map<String, List<PropertyEntryContainer<Relationship>>> removedRelationshipProperties =
+                        aggregatePropertyKeys(txData.removedRelationshipProperties(), true);
+                return rebindDeleted
+                        ? rebindPropsEntries(txData, removedRelationshipProperties)
+                        : removedRelationshipProperties;
+            case ASSIGNED_NODE_PROPERTIES:
+                return aggregatePropertyKeys(txData.assignedNodeProperties(), false);
+            case ASSIGNED_RELATIONSHIP_PROPERTIES:
+                return aggregatePropertyKeys(txData.assignedRelationshipProperties(), false);
+            case META_DATA:
+                return txData.metaData();
+            default:
+                throw new IllegalArgumentException("Unknown trigger parameter " + parameter);
+        }
+    }
+
+    /**
+     * @return true if the selector has no labels, types and properties,
+     * or if the transaction changed any of its labels, relationship types or property keys
+     */
+    public boolean matches(Transaction tx, Map<String, Object> selector) {
+        if (selector == null) {
+            return true;
+        }
+        Collection<String> labels = (Collection<String>) selector.get(SELECTOR_LABELS);
+        Collection<String> types = (Collection<String>) selector.get(SELECTOR_TYPES);
+        Collection<String> properties = (Collection<String>) selector.get(SELECTOR_PROPERTIES);
+        if (labels == null && types == null && properties == null) {
+            return true;
         }
-        try {
-            commitTime = txData.getCommitTime();
-        } catch (Exception ignored) {
-            commitTime = -1L;
+        return (labels != null && changedLabels().anyMatch(labels::contains))
+                || (types != null && changedTypes(tx).anyMatch(types::contains))
+                || (properties != null && changedProperties().anyMatch(properties::contains));
+    }
+
+    private Stream<String> changedLabels() {
+        if (txData == null) {
+            return Stream.of(REMOVED_LABELS, ASSIGNED_LABELS)
+                    .flatMap(parameter -> ((Map<String, ?>) values.get(parameter)).keySet().stream());
         }
-        List<Node> createdNodes = Convert.convertToList(txData.createdNodes());
-        List<Relationship> createdRelationships = Convert.convertToList(txData.createdRelationships());
-        List<Node> deletedNodes = rebindDeleted
-                ? rebindDeleted(Convert.convertToList(txData.deletedNodes()), txData)
-                : Convert.convertToList(txData.deletedNodes());
-        List<Relationship> deletedRelationships = rebindDeleted
-                ? rebindDeleted(Convert.convertToList(txData.deletedRelationships()), txData)
-                : Convert.convertToList(txData.deletedRelationships());
-        Map<String, List<Node>> removedLabels = aggregateLabels(txData.removedLabels());
-        Map<String, List<Node>> assignedLabels = aggregateLabels(txData.assignedLabels());
-        Map<String, List<PropertyEntryContainer<Node>>> removedNodeProperties =
-                aggregatePropertyKeys(txData.removedNodeProperties(), true);
-        Map<String, List<PropertyEntryContainer<Relationship>>> removedRelationshipProperties =
-                aggregatePropertyKeys(txData.removedRelationshipProperties(), true);
-        final Map<String, List<PropertyEntryContainer<Node>>> assignedNodeProperties =
-                aggregatePropertyKeys(txData.assignedNodeProperties(), false);
-        final Map<String, List<PropertyEntryContainer<Relationship>>> assignedRelationshipProperties =
-                aggregatePropertyKeys(txData.assignedRelationshipProperties(), false);
-        if (rebindDeleted) {
-            removedLabels = removedLabels.entrySet().stream()
-                    .collect(Collectors.toMap(Map.Entry::getKey, e -> rebindDeleted(e.getValue(), txData)));
-            removedNodeProperties = rebindPropsEntries(txData, removedNodeProperties);
-            removedRelationshipProperties = rebindPropsEntries(txData, removedRelationshipProperties);
+        return Stream.concat(Iterables.stream(txData.removedLabels()), Iterables.stream(txData.assignedLabels()))
+                .map(entry -> entry.label().name());
+    }
+
+    private Stream<String> changedTypes(Transaction tx) {
+        Stream<Relationship> created = txData == null
+                ? ((List<Relationship>) values.get(CREATED_RELATIONSHIPS)).stream()
+                : Iterables.stream(txData.createdRelationships());
+        Stream<Relationship> deleted = txData == null
+                ? ((List<Relationship>) values.get(DELETED_RELATIONSHIPS)).stream()
+                : Iterables.stream(txData.deletedRelationships());
+        return Stream.concat(created.map(rel -> Util.rebind(tx, rel).getType().name()), deleted.map(rel -> rel.getType()
+                .name()));
+    }
+
+    private Stream<String> changedProperties() {
+        if (txData == null) {
+            return PROPERTY_PARAMETERS.stream()
+                    .flatMap(parameter -> ((Map<String, ?>) values.get(parameter)).keySet().stream());
         }
-        return new TriggerMetadata(
-                txId,
-                commitTime,
-                createdNodes,
-                createdRelationships,
-                deletedNodes,
-                deletedRelationships,
-                removedLabels,
-                removedNodeProperties,
-                removedRelationshipProperties,
-                assignedLabels,
-                assignedNodeProperties,
-                assignedRelationshipProperties,
-                txData.metaData());
+        return Stream.of(
+                        Iterables.stream(txData.removedNodeProperties()).map(PropertyEntry::key),
+                        Iterables.stream(txData.removedRelationshipProperties()).map(PropertyEntry::key),
+                        Iterables.stream(txData.assignedNodeProperties()).map(PropertyEntry::key),
+                        Iterables.stream(txData.assignedRelationshipProperties())
+                                .map(PropertyEntry::key))
+                .flatMap(Function.identity());
     }
 
     private static <T extends Entity> Map<String, List<PropertyEntryContainer<T>>> rebindPropsEntries(
@@ -171,35 +311,35 @@ public class TriggerMetadata {
                 .collect(Collectors.toMap(PropertyEntry::key, PropertyEntry::previouslyCommittedValue));
     }
 
+    /**
+     * @return the parameters built so far, bound to the given transaction
+     */
     public TriggerMetadata rebind(Transaction tx) {
-        final List<Node> createdNodes = Util.rebind(this.createdNodes, tx);
-        final List<Relationship> createdRelationships = Util.rebind(this.createdRelationships, tx);
-        //        final List<Node> deletedNodes = Util.rebind(this.deletedNodes, tx);
-        //        final List<Relationship> deletedRelationships = Util.rebind(this.deletedRelationships, tx);
-        final Map<String, List<Node>> removedLabels = rebindMap(this.removedLabels, tx);
-        final Map<String, List<Node>> assignedLabels = rebindMap(this.assignedLabels, tx);
-        final Map<String, List<PropertyEntryContainer<Node>>> removedNodeProperties =
-                rebindPropertyEntryContainer(this.removedNodeProperties, tx);
-        final Map<String, List<PropertyEntryContainer<Relationship>>> removedRelationshipProperties =
-                rebindPropertyEntryContainer(this.removedRelationshipProperties, tx);
-        final Map<String, List<PropertyEntryContainer<Node>>> assignedNodeProperties =
-                rebindPropertyEntryContainer(this.assignedNodeProperties, tx);
-        final Map<String, List<PropertyEntryContainer<Relationship>>> assignedRelationshipProperties =
-                rebindPropertyEntryContainer(this.assignedRelationshipProperties, tx);
-        return new TriggerMetadata(
-                transactionId,
-                commitTime,
-                createdNodes,
-                createdRelationships,
-                deletedNodes,
-                deletedRelationships,
-                removedLabels,
-                removedNodeProperties,
-                removedRelationshipProperties,
-                assignedLabels,
-                assignedNodeProperties,
-                assignedRelationshipProperties,
-                metaData);
+        Map<String, Object> rebound = new HashMap<>(values);
+        values.forEach((parameter, value) -> {
+            switch (parameter) {
+                case CREATED_NODES:
+                case CREATED_RELATIONSHIPS:
+                    rebound.put(parameter, Util.rebind((List<Entity>) value, tx));
+                    break;
+                case REMOVED_LABELS:
+                case ASSIGNED_LABELS:
+                    rebound.put(parameter, rebindMap((Map<String, List<Entity>>) value, tx));
+                    break;
+                case REMOVED_NODE_PROPERTIES:
+                case REMOVED_RELATIONSHIP_PROPERTIES:
+                case ASSIGNED_NODE_PROPERTIES:
+                case ASSIGNED_RELATIONSHIP_PROPERTIES:
+                    rebound.put(
+                            parameter,
+                            rebindPropertyEntryContainer(
+                                    (Map<String, List<PropertyEntryContainer<Entity>>>) value, tx));
+                    break;
+                default:
+                    // the deleted entities are not rebound
+            }
+        });
+        return new TriggerMetadata(txData, rebindDeleted, rebound);
     }
 
     private <T extends Entity> Map<String, List<PropertyEntryContainer<T>>> rebindPropertyEntryContainer(
@@ -221,33 +361,29 @@ public class TriggerMetadata {
     }
 
     public Map<String, Object> toMap() {
-        return map(
-                "transactionId",
-                transactionId,
-                "commitTime",
-                commitTime,
-                "createdNodes",
-                createdNodes,
-                "createdRelationships",
-                createdRelationships,
-                "deletedNodes",
-                deletedNodes,
-                "deletedRelationships",
-                deletedRelationships,
-                "removedLabels",
-                removedLabels,
-                "removedNodeProperties",
-                convertMapOfPropertyEntryContainers(removedNodeProperties),
-                "removedRelationshipProperties",
-                convertMapOfPropertyEntryContainers(removedRelationshipProperties),
-                "assignedLabels",
-                assignedLabels,
-                "assignedNodeProperties",
-                convertMapOfPropertyEntryContainers(assignedNodeProperties),
-                "assignedRelationshipProperties",
-                convertMapOfPropertyEntryContainers(assignedRelationshipProperties),
-                "metaData",
-                metaData);
+        return toMap(PARAMETERS);
+    }
+
+    /**
+     * @return a new map of the given parameters, built if they were not yet
+     */
+    public Map<String, Object> toMap(Collection<String> parameters) {
+        Map<String, Object> map = new HashMap<>();
+        for (String parameter : parameters) {
+            Object value = value(parameter);
+            if (value == null) {
+                continue;
+            }
+            if (PROPERTY_PARAMETERS.contains(parameter)) {
+                Object entries = value;
+                value = convertedProperties.computeIfAbsent(
+                        parameter,
+                        p -> convertMapOfPropertyEntryContainers(
+                                (Map<String, List<PropertyEntryContainer<Entity>>>) entries));
+            }
+            map.put(parameter, value);
+        }
+        return map;
     }
 
     private static Map<String, List<Node>> aggregateLabels(Iterable<LabelEntry> labelEntries) {
@@ -123,7 +123,10 @@ public class DateFormatUtil {
         if (ISO_DATE_FORMAT.containsKey(formatLower)) {
             return ISO_DATE_FORMAT.get(formatLower);
         }
-        return DateTimeFormatter.ofPattern(ELASTIC_PATTERNS.getOrDefault(formatLower, format));
+        return FormatCache.dateTimeFormatter(
+                format,
+                "elastic",
+                () -> DateTimeFormatter.ofPattern(ELASTIC_PATTERNS.getOrDefault(formatLower, format)));
     }
 
     public static Set<String> getTypes() {
@@ -41,6 +41,11 @@ import org.neo4j.values.storable.DurationFields;
 import org.neo4j.values.storable.DurationValue;
 
 public class DurationFormatUtil {
+    private static final Pattern DURATION_FIELDS_PATTERN = Pattern.compile(
+            "(?<year>[yYu])\\1*|(?<day>[dD])\\2*|(?<monthYear>[ML])\\3*|(?<quarterYear>[qQ])\\4*|(?<week>[wW])\\5*|"
+                    + "(?<hour>[hHkK])\\6*|(?<minHour>m)\\7*|(?<secMin>s)\\8*|(?<nsSeconds>[nS])\\9*|"
+                    + "(?<ms>A)\\10*|(?<ns>N)\\11|(?<iso>I)\\12*");
+
     public static String getOrCreateDurationPattern(String format) {
         final String formatLower = format.toLowerCase();
         return ISO_DURATION_PATTERNS.getOrDefault(formatLower, ELASTIC_PATTERNS.getOrDefault(formatLower, format));
@@ -61,56 +66,51 @@ public class DurationFormatUtil {
     }
 
     private static String getInnerDurationFormat(DurationValue duration, String formatter) {
-        return Pattern.compile(
-                        "(?<year>[yYu])\\1*|(?<day>[dD])\\2*|(?<monthYear>[ML])\\3*|(?<quarterYear>[qQ])\\4*|(?<week>[wW])\\5*|"
-                                + "(?<hour>[hHkK])\\6*|(?<minHour>m)\\7*|(?<secMin>s)\\8*|(?<nsSeconds>[nS])\\9*|"
-                                + "(?<ms>A)\\10*|(?<ns>N)\\11|(?<iso>I)\\12*")
-                .matcher(formatter)
-                .replaceAll(res -> {
-                    final Matcher m = (Matcher) res;
-                    if (m.group("year") != null) {
-                        return getFieldDigit(m, duration, YEARS);
-                    }
-                    if (m.group("day") != null) {
-                        return getFieldDigit(m, duration, DAYS);
-                    }
-                    if (m.group("monthYear") != null) {
-                        return getFieldDigit(m, duration, MONTHS_OF_YEAR);
-                    }
-                    if (m.group("quarterYear") != null) {
-                        return getFieldDigit(m, duration, QUARTERS_OF_YEAR);
-                    }
-                    if (m.group("week") != null) {
-                        return getFieldDigit(m, duration, WEEKS);
-                    }
-                    if (m.group("hour") != null) {
-                        return getFieldDigit(m, duration, HOURS);
-                    }
-                    if (m.group("minHour") != null) {
-                        return getFieldDigit(m, duration, MINUTES_OF_HOUR);
-                    }
-                    if (m.group("secMin") != null) {
-                        return getFieldDigit(m, duration, SECONDS_OF_MINUTE);
-                    }
-                    if (m.group("nsSeconds") != null) {
-                        return getFieldDigit(m, duration, NANOSECONDS_OF_SECOND, true);
-                    }
-                    if (m.group("ms") != null) {
-                        return getFieldDigit(m, duration, MILLISECONDS);
-                    }
-                    if (m.group("ns") != null) {
-                        return getFieldDigit(m, duration, NANOSECONDS);
-                    }
-                    // the letter `I` is used to create nanoseconds in iso format, i.e. with trailing zeros. e.g.
-                    // '123000' become '123'
-                    if (m.group("iso") != null) {
-                        final String isoNanos = getFieldDigit(m, duration, NANOSECONDS_OF_SECOND)
-                                .replaceAll("(?!$)0+$", "");
-                        return isoNanos.isEmpty() ? "" : ("." + isoNanos);
-                    }
-                    // fallback
-                    return formatter;
-                });
+        return DURATION_FIELDS_PATTERN.matcher(formatter).replaceAll(res -> {
+            final Matcher m = (Matcher) res;
+            if (m.group("year") != null) {
+                return getFieldDigit(m, duration, YEARS);
+            }
+            if (m.group("day") != null) {
+                return getFieldDigit(m, duration, DAYS);
+            }
+            if (m.group("monthYear") != null) {
+                return getFieldDigit(m, duration, MONTHS_OF_YEAR);
+            }
+            if (m.group("quarterYear") != null) {
+                return getFieldDigit(m, duration, QUARTERS_OF_YEAR);
+            }
+            if (m.group("week") != null) {
+                return getFieldDigit(m, duration, WEEKS);
+            }
+            if (m.group("hour") != null) {
+                return getFieldDigit(m, duration, HOURS);
+            }
+            if (m.group("minHour") != null) {
+                return getFieldDigit(m, duration, MINUTES_OF_HOUR);
+            }
+            if (m.group("secMin") != null) {
+                return getFieldDigit(m, duration, SECONDS_OF_MINUTE);
+            }
+            if (m.group("nsSeconds") != null) {
+                return getFieldDigit(m, duration, NANOSECONDS_OF_SECOND, true);
+            }
+            if (m.group("ms") != null) {
+                return getFieldDigit(m, duration, MILLISECONDS);
+            }
+            if (m.group("ns") != null) {
+                return getFieldDigit(m, duration, NANOSECONDS);
+            }
+            // the letter `I` is used to create nanoseconds in iso format, i.e. with trailing zeros. e.g.
+            // '123000' become '123'
+            if (m.group("iso") != null) {
+                final String isoNanos =
+                        getFieldDigit(m, duration, NANOSECONDS_OF_SECOND).replaceAll("(?!$)0+$", "");
+                return isoNanos.isEmpty() ? "" : ("." + isoNanos);
+            }
+            // fallback
+            return formatter;
+        });
     }
 
     private static String getFieldDigit(Matcher m, DurationValue duration, DurationFields field) {
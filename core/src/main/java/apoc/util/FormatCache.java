@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.util;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * The compiled regular expressions and date formats of the {@code apoc.text.*}, {@code apoc.date.*}
+ * and {@code apoc.temporal.*} functions, shared by all the calls so that a pattern is compiled once
+ * instead of once per row.
+ * Each cache keeps at most {@link #MAX_SIZE} patterns, the least recently used being dropped first.
+ * The {@link Pattern}s and {@link DateTimeFormatter}s are immutable and returned as they are,
+ * while the {@link SimpleDateFormat}s are not thread safe and are cloned from the cached ones,
+ * which is much cheaper than parsing their pattern again.
+ */
+public class FormatCache {
+
+    public static final int MAX_SIZE = 1000;
+
+    private static final Cache<List<Object>, Pattern> PATTERNS = newCache();
+    private static final Cache<List<Object>, DateTimeFormatter> DATE_TIME_FORMATTERS = newCache();
+    private static final Cache<List<Object>, DateFormat> DATE_FORMATS = newCache();
+
+    private static <V> Cache<List<Object>, V> newCache() {
+        return CacheBuilder.newBuilder().maximumSize(MAX_SIZE).recordStats().build();
+    }
+
+    public static Pattern pattern(String regex) {
+        return pattern(regex, 0);
+    }
+
+    public static Pattern pattern(String regex, int flags) {
+        return get(PATTERNS, Arrays.asList(regex, flags), () -> Pattern.compile(regex, flags));
+    }
+
+    /**
+     * @param kind tells apart the formatters built differently from the same pattern
+     */
+    public static DateTimeFormatter dateTimeFormatter(
+            String pattern, String kind, Supplier<DateTimeFormatter> factory) {
+        List<Object> key = Arrays.asList(pattern, kind, Locale.getDefault(Locale.Category.FORMAT));
+        return get(DATE_TIME_FORMATTERS, key, factory);
+    }
+
+    /**
+     * @return a new instance, cloned from the cached one
+     */
+    public static DateFormat dateFormat(String pattern, String timezone, Supplier<? extends DateFormat> factory) {
+        List<Object> key = Arrays.asList(pattern, timezone, Locale.getDefault(Locale.Category.FORMAT));
+        return (DateFormat) get(DATE_FORMATS, key, factory).clone();
+    }
+
+    /**
+     * @return the size, hits, misses and evictions of each cache, the counts are not reset by {@link #clear()}
+     */
+    public static Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("patterns", stats(PATTERNS));
+        stats.put("dateTimeFormatters", stats(DATE_TIME_FORMATTERS));
+        stats.put("dateFormats", stats(DATE_FORMATS));
+        return stats;
+    }
+
+    public static void clear() {
+        PATTERNS.invalidateAll();
+        DATE_TIME_FORMATTERS.invalidateAll();
+        DATE_FORMATS.invalidateAll();
+    }
+
+    private static Map<String, Object> stats(Cache<?, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.size());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+
+    // not Cache.get(key, loader), which wraps the exceptions of the loader, e.g. the invalid patterns
+    private static <V> V get(Cache<List<Object>, V> cache, List<Object> key, Supplier<? extends V> factory) {
+        V value = cache.getIfPresent(key);
+        if (value == null) {
+            value = factory.get();
+            cache.put(key, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,575 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.util;
+
+import static apoc.ApocConfig.apocConfig;
+import static apoc.export.util.LimitedSizeInputStream.toLimitedIStream;
+import static java.net.HttpURLConnection.HTTP_GONE;
+import static java.net.HttpURLConnection.HTTP_NOT_FOUND;
+import static java.net.HttpURLConnection.HTTP_NOT_MODIFIED;
+
+import apoc.ApocConfig;
+import java.io.FileNotFoundException;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The HTTP client shared by all the procedures reading from http and https urls,
+ * e.g. {@code apoc.load.json}, {@code apoc.es.*}, {@code apoc.vectordb.*} and {@code apoc.ml.*}:
+ * its connections are kept alive and reused between the requests, and negotiated as HTTP/2 by the https servers
+ * supporting it. The responses are requested gzip compressed, unless the request sets its own {@code Accept-Encoding}.
+ * The requests to the same host, from their sending until their body is read or closed,
+ * are limited by {@code apoc.http.client.max_concurrent_per_host},
+ * and the redirects are followed like {@link Util#readHttpInputStream}, with the same url checks.
+ * Like {@link java.net.HttpURLConnection}, a read of the body waiting longer than {@code apoc.http.timeout.read}
+ * fails, and the client is created again when {@code apoc.http.timeout.connect} or {@code apoc.http.timeout.read}
+ * change.
+ */
+public class SharedHttpClient {
+
+    public static final String ENABLED = "apoc.http.client.enabled";
+    public static final String VERSION = "apoc.http.client.version";
+    public static final String MAX_CONCURRENT_PER_HOST = "apoc.http.client.max_concurrent_per_host";
+    public static final String GZIP = "apoc.http.client.gzip";
+    public static final String CONNECT_TIMEOUT = "apoc.http.timeout.connect";
+    public static final String READ_TIMEOUT = "apoc.http.timeout.read";
+
+    // the headers the client sets itself, which it does not allow to be set
+    private static final Set<String> RESTRICTED_HEADERS =
+            Set.of("connection", "content-length", "date", "expect", "from", "host", "upgrade", "via", "warning");
+
+    private static volatile SharedHttpClient instance;
+
+    // the restricted headers already warned about, to log them once
+    private static final Set<String> IGNORED_HEADERS = ConcurrentHashMap.newKeySet();
+
+    private final HttpClient client;
+    private final HttpClient.Version version;
+    private final int maxConcurrentPerHost;
+    private final boolean gzip;
+    private final int connectTimeout;
+    private final int readTimeout;
+
+    // the hosts with requests waiting or in flight, so that the idle ones are not kept
+    private final Map<String, Host> hosts = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final AtomicLong inFlight = new AtomicLong();
+    private final LongAdder latency = new LongAdder();
+    private final AtomicLong maxLatency = new AtomicLong();
+
+    SharedHttpClient(
+            HttpClient.Version version, int maxConcurrentPerHost, boolean gzip, int connectTimeout, int readTimeout) {
+        this.version = version;
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.gzip = gzip;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        HttpClient.Builder builder =
+                HttpClient.newBuilder().version(version).followRedirects(HttpClient.Redirect.NEVER);
+        if (connectTimeout > 0) {
+            builder.connectTimeout(Duration.ofMillis(connectTimeout));
+        }
+        this.client = builder.build();
+    }
+
+    /**
+     * @return the shared client, null if disabled by {@code apoc.http.client.enabled}
+     */
+    public static SharedHttpClient getInstance() {
+        ApocConfig config = apocConfig();
+        int connectTimeout = config.getInt(CONNECT_TIMEOUT, 10_000);
+        int readTimeout = config.getInt(READ_TIMEOUT, 60_000);
+        SharedHttpClient httpClient = instance;
+        if (httpClient == null || !httpClient.hasTimeouts(connectTimeout, readTimeout)) {
+            synchronized (SharedHttpClient.class) {
+                httpClient = instance;
+                if (httpClient == null || !httpClient.hasTimeouts(connectTimeout, readTimeout)) {
+                    if (!config.getBoolean(ENABLED, true)) {
+                        return null;
+                    }
+                    httpClient = new SharedHttpClient(
+                            HttpClient.Version.valueOf(config.getString(VERSION, HttpClient.Version.HTTP_2.name())),
+                            config.getInt(MAX_CONCURRENT_PER_HOST, 64),
+                            config.getBoolean(GZIP, true),
+                            connectTimeout,
+                            readTimeout);
+                    instance = httpClient;
+                }
+            }
+        }
+        return httpClient;
+    }
+
+    private boolean hasTimeouts(int connectTimeout, int readTimeout) {
+        return this.connectTimeout == connectTimeout && this.readTimeout == readTimeout;
+    }
+
+    /**
+     * Drops the shared client, which is created again from the configuration on its next use
+     */
+    public static void reset() {
+        instance = null;
+    }
+
+    public static boolean isHttp(String urlAddress) {
+        return urlAddress.startsWith("http://") || urlAddress.startsWith("https://");
+    }
+
+    /**
+     * @return the response of the url, following at most {@code redirectLimit} redirects
+     */
+    public StreamConnection openStream(
+            String urlAddress, Map<String, Object> headers, String payload, int redirectLimit) throws IOException {
+        URI uri = checkedUri(urlAddress);
+        HttpResponse<InputStream> response = send(uri, request(uri, headers, payload));
+        String location = location(response);
+        if (location != null) {
+            response.body().close();
+            if (redirectLimit == 0) {
+                throw new IOException("Redirect limit exceeded");
+            }
+            return openStream(location, headers, payload, redirectLimit - 1);
+        }
+        return new HttpStreamConnection(response);
+    }
+
+    public Map<String, Object> stats() {
+        long count = requests.sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", true);
+        stats.put("requests", count);
+        stats.put("errors", errors.sum());
+        stats.put("inFlight", inFlight.get());
+        stats.put("hosts", (long) hosts.size());
+        stats.put("meanLatencyMs", count == 0 ? 0.0 : latency.sum() / 1_000_000.0 / count);
+        stats.put("maxLatencyMs", maxLatency.get() / 1_000_000.0);
+        stats.put("version", version.name());
+        stats.put("maxConcurrentPerHost", (long) maxConcurrentPerHost);
+        return stats;
+    }
+
+    private static URI checkedUri(String urlAddress) throws IOException {
+        URL url = apocConfig().checkAllowedUrlAndPinToIP(urlAddress);
+        try {
+            return url.toURI();
+        } catch (URISyntaxException e) {
+            // the urls accepted by HttpURLConnection with characters to escape, e.g. spaces in the query
+            try {
+                return new URI(
+                        url.getProtocol(),
+                        url.getUserInfo(),
+                        url.getHost(),
+                        url.getPort(),
+                        url.getPath(),
+                        url.getQuery(),
+                        url.getRef());
+            } catch (URISyntaxException invalid) {
+                throw new IOException(invalid);
+            }
+        }
+    }
+
+    private HttpRequest request(URI uri, Map<String, Object> headers, String payload) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri);
+        // the cleartext servers are not asked to upgrade to HTTP/2, which some of them do not handle
+        builder.version("https".equals(uri.getScheme()) ? version : HttpClient.Version.HTTP_1_1);
+        if (readTimeout > 0) {
+            builder.timeout(Duration.ofMillis(readTimeout));
+        }
+        builder.header("User-Agent", "APOC Procedures for Neo4j");
+        boolean acceptEncoding = false;
+        Object method = null;
+        if (headers != null) {
+            method = headers.get("method");
+            for (Map.Entry<String, Object> header : headers.entrySet()) {
+                String name = header.getKey();
+                if (name.equals("method")) {
+                    continue;
+                }
+                if (RESTRICTED_HEADERS.contains(name.toLowerCase())) {
+                    // like HttpURLConnection, the client sets them itself, so they are left out
+                    if (IGNORED_HEADERS.add(name.toLowerCase())) {
+                        String message = "The header '%s' is set by the http client, so the request's one is ignored";
+                        apocConfig().getLog().warn(message, name);
+                    }
+                    continue;
+                }
+                acceptEncoding |= name.equalsIgnoreCase("Accept-Encoding");
+                builder.setHeader(
+                        name, header.getValue() == null ? "" : header.getValue().toString());
+            }
+        }
+        if (gzip && !acceptEncoding) {
+            builder.header("Accept-Encoding", "gzip");
+        }
+        // like HttpURLConnection, a payload without a method is posted
+        String requestMethod = method != null ? method.toString() : payload != null ? "POST" : "GET";
+        return builder.method(
+                        requestMethod,
+                        payload == null
+                                ? HttpRequest.BodyPublishers.noBody()
+                                : HttpRequest.BodyPublishers.ofString(payload, StandardCharsets.UTF_8))
+                .build();
+    }
+
+    /**
+     * @return the response, whose body holds the permit of the host until it is read or closed
+     */
+    private HttpResponse<InputStream> send(URI uri, HttpRequest request) throws IOException {
+        Host host = acquire(uri);
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable releasePermit = () -> {
+            if (released.compareAndSet(false, true)) {
+                release(host);
+            }
+        };
+        long start = started();
+        boolean failed = true;
+        try {
+            HttpResponse<InputStream> response = client.send(
+                    request,
+                    info -> HttpResponse.BodySubscribers.mapping(
+                            withReadTimeout(HttpResponse.BodySubscribers.ofInputStream()),
+                            body -> new PermitInputStream(body, releasePermit)));
+            failed = response.statusCode() >= 400;
+            return response;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while requesting " + uri, e);
+        } finally {
+            if (failed) {
+                // the body of the errors is not read
+                releasePermit.run();
+            }
+            finished(start, failed);
+        }
+    }
+
+    private <T> HttpResponse.BodySubscriber<T> withReadTimeout(HttpResponse.BodySubscriber<T> subscriber) {
+        return readTimeout > 0 ? new ReadTimeoutSubscriber<>(subscriber, readTimeout) : subscriber;
+    }
+
+    /**
+     * @return the location the response redirects to, null if it is not a redirect
+     */
+    private static String location(HttpResponse<?> response) throws IOException {
+        int code = response.statusCode();
+        boolean isRedirectCode = code >= 300 && code <= 307 && code != 306 && code != HTTP_NOT_MODIFIED;
+        if (!isRedirectCode) {
+            return null;
+        }
+        String location = response.headers()
+                .firstValue("Location")
+                .orElseThrow(() -> new IOException("Redirect without location from " + response.uri()));
+        URI redirect = response.uri().resolve(location);
+        String oldProtocol = response.uri().getScheme();
+        String protocol = redirect.getScheme();
+        if (!protocol.equals(oldProtocol) && !protocol.startsWith(oldProtocol)) {
+            // we allow http -> https redirect and similar
+            throw new RuntimeException("The redirect URI has a different protocol: " + redirect);
+        }
+        return redirect.toString();
+    }
+
+    /**
+     * Throws the same exceptions as {@link java.net.HttpURLConnection#getInputStream()} for the error status codes
+     */
+    private static void checkStatus(HttpResponse<?> response) throws IOException {
+        int code = response.statusCode();
+        if (code == HTTP_NOT_FOUND || code == HTTP_GONE) {
+            throw new FileNotFoundException(response.uri().toString());
+        }
+        if (code >= 400) {
+            throw new IOException("Server returned HTTP response code: " + code + " for URL: " + response.uri());
+        }
+    }
+
+    private Host acquire(URI uri) throws IOException {
+        if (maxConcurrentPerHost <= 0) {
+            return null;
+        }
+        Host host = hosts.compute(uri.getHost() + ":" + uri.getPort(), (key, current) -> {
+            Host entry = current == null ? new Host(key, maxConcurrentPerHost) : current;
+            entry.users++;
+            return entry;
+        });
+        boolean acquired = false;
+        try {
+            long timeout = connectTimeout > 0 ? connectTimeout : Long.MAX_VALUE;
+            acquired = host.permits.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                throw new IOException("Timed out waiting for one of the " + maxConcurrentPerHost
+                        + " concurrent requests allowed to " + uri.getHost());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while requesting " + uri, e);
+        } finally {
+            if (!acquired) {
+                leave(host);
+            }
+        }
+        return host;
+    }
+
+    private void release(Host host) {
+        if (host != null) {
+            host.permits.release();
+            leave(host);
+        }
+    }
+
+    private void leave(Host host) {
+        hosts.computeIfPresent(host.key, (key, current) -> --current.users == 0 ? null : current);
+    }
+
+    private long started() {
+        requests.increment();
+        inFlight.incrementAndGet();
+        return System.nanoTime();
+    }
+
+    private void finished(long start, boolean failed) {
+        long elapsed = System.nanoTime() - start;
+        inFlight.decrementAndGet();
+        latency.add(elapsed);
+        maxLatency.accumulateAndGet(elapsed, Math::max);
+        if (failed) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * The permits of a host, with the number of requests waiting for or holding one of them,
+     * updated by the atomic operations of the {@code hosts} map
+     */
+    private static class Host {
+        private final String key;
+        private final Semaphore permits;
+        private int users;
+
+        Host(String key, int maxConcurrent) {
+            this.key = key;
+            this.permits = new Semaphore(maxConcurrent, true);
+        }
+    }
+
+    private static class HttpStreamConnection implements StreamConnection {
+        private final HttpResponse<InputStream> response;
+
+        HttpStreamConnection(HttpResponse<InputStream> response) {
+            this.response = response;
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            try {
+                checkStatus(response);
+            } catch (IOException e) {
+                response.body().close();
+                throw e;
+            }
+            return toLimitedIStream(response.body(), getLength());
+        }
+
+        @Override
+        public String getEncoding() {
+            return response.headers().firstValue("Content-Encoding").orElse(null);
+        }
+
+        @Override
+        public long getLength() {
+            return response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        }
+
+        @Override
+        public String getName() {
+            return response.uri().toString();
+        }
+    }
+
+    /**
+     * The body of a response, releasing the permit of its host once it is read until the end or closed
+     */
+    private static class PermitInputStream extends FilterInputStream {
+        private final Runnable releasePermit;
+
+        PermitInputStream(InputStream in, Runnable releasePermit) {
+            super(in);
+            this.releasePermit = releasePermit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = super.read();
+            if (read == -1) {
+                releasePermit.run();
+            }
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read == -1) {
+                releasePermit.run();
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                releasePermit.run();
+            }
+        }
+    }
+
+    /**
+     * Fails the body with an {@link HttpTimeoutException} when the data requested by its reader
+     * does not arrive within the timeout, like the read timeout of {@link java.net.HttpURLConnection},
+     * as the timeout of the {@link HttpRequest} only bounds the wait for the headers.
+     */
+    private static class ReadTimeoutSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> delegate;
+        private final long timeout;
+
+        private Flow.Subscription subscription;
+        private long demand;
+        private long lastActivity;
+        private boolean scheduled;
+        private boolean done;
+
+        ReadTimeoutSubscriber(HttpResponse.BodySubscriber<T> delegate, long timeout) {
+            this.delegate = delegate;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return delegate.getBody();
+        }
+
+        @Override
+        public synchronized void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            delegate.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requested(n);
+                    subscription.request(n);
+                }
+
+                @Override
+                public void cancel() {
+                    synchronized (ReadTimeoutSubscriber.this) {
+                        done = true;
+                    }
+                    subscription.cancel();
+                }
+            });
+        }
+
+        @Override
+        public synchronized void onNext(List<ByteBuffer> item) {
+            if (done) {
+                return;
+            }
+            demand--;
+            lastActivity = System.nanoTime();
+            delegate.onNext(item);
+        }
+
+        @Override
+        public synchronized void onError(Throwable throwable) {
+            if (done) {
+                return;
+            }
+            done = true;
+            delegate.onError(throwable);
+        }
+
+        @Override
+        public synchronized void onComplete() {
+            if (done) {
+                return;
+            }
+            done = true;
+            delegate.onComplete();
+        }
+
+        private synchronized void requested(long n) {
+            if (demand == 0) {
+                // the wait starts with the request, not with the previous data
+                lastActivity = System.nanoTime();
+            }
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            if (!scheduled) {
+                schedule(timeout);
+            }
+        }
+
+        private void schedule(long delay) {
+            scheduled = true;
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS).execute(this::check);
+        }
+
+        private synchronized void check() {
+            scheduled = false;
+            if (done || demand <= 0) {
+                return;
+            }
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - lastActivity);
+            if (elapsed < timeout) {
+                schedule(timeout - elapsed);
+                return;
+            }
+            done = true;
+            subscription.cancel();
+            delegate.onError(new HttpTimeoutException("Read timed out"));
+        }
+    }
+}
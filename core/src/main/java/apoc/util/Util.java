@@ -90,6 +90,7 @@ import java.util.stream.IntStream;
 import java.util.stream.LongStream;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
 import javax.lang.model.SourceVersion;
 import org.apache.commons.collections4.ListUtils;
 import org.apache.commons.compress.archivers.ArchiveEntry;
@@ -460,7 +461,11 @@ public class Util {
         if (tokens.length == 2) {
             zipFileName = tokens[1];
             sc = getStreamConnection(urlAddress, headers, payload);
-            stream = getFileStreamIntoCompressedFile(sc.getInputStream(), zipFileName, archiveType);
+            stream = sc.getInputStream();
+            if ("gzip".equals(sc.getEncoding())) {
+                stream = new GZIPInputStream(stream);
+            }
+            stream = getFileStreamIntoCompressedFile(stream, zipFileName, archiveType);
             stream = toLimitedIStream(stream, sc.getLength());
         } else throw new IllegalArgumentException("filename can't be null or empty");
 
@@ -489,6 +494,12 @@ public class Util {
 
     public static StreamConnection readHttpInputStream(
             String urlAddress, Map<String, Object> headers, String payload, int redirectLimit) throws IOException {
+        if (SharedHttpClient.isHttp(urlAddress)) {
+            SharedHttpClient httpClient = SharedHttpClient.getInstance();
+            if (httpClient != null) {
+                return httpClient.openStream(urlAddress, headers, payload, redirectLimit);
+            }
+        }
         URL url = ApocConfig.apocConfig().checkAllowedUrlAndPinToIP(urlAddress);
         URLConnection con = openUrlConnection(url, headers);
         writePayload(con, payload);
@@ -18,9 +18,11 @@
  */
 package apoc.util;
 
+import apoc.result.MapResult;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.apache.commons.codec.digest.DigestUtils;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.graphdb.TransactionTerminatedException;
@@ -89,6 +91,13 @@ public class Utils {
         }
     }
 
+    @Procedure("apoc.util.formatCache.stats")
+    @Description(
+            "apoc.util.formatCache.stats() | returns the size, hits, misses and evictions of the caches of the compiled regular expressions and date formats")
+    public Stream<MapResult> formatCacheStats() {
+        return Stream.of(new MapResult(FormatCache.stats()));
+    }
+
     @Procedure
     @Description("apoc.util.validate(predicate, message, params) | if the predicate yields to true raise an exception")
     public void validate(
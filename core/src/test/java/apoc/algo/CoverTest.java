@@ -21,6 +21,8 @@ package apoc.algo;
 import static org.junit.Assert.assertEquals;
 
 import apoc.util.TestUtil;
+import java.util.List;
+import java.util.Map;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.ClassRule;
@@ -55,4 +57,38 @@ public class CoverTest {
                 "match (n) with collect(id(n)) as nodes call apoc.algo.cover(nodes) yield rel return count(*) as c",
                 (r) -> assertEquals(3L, r.get("c")));
     }
+
+    @Test
+    public void testCoverWithDenseNode() {
+        db.executeTransactionally("CREATE (hub:Hub)-[:LOOP]->(hub) WITH hub "
+                + "UNWIND range(0, 1499) AS i CREATE (hub)-[:X]->(leaf:Leaf {id: i}) "
+                + "WITH leaf WHERE leaf.id % 100 = 0 MATCH (hub:Hub) CREATE (leaf)-[:Y]->(hub)");
+        db.executeTransactionally("MATCH (a:Leaf), (b:Leaf) WHERE b.id = a.id + 1 CREATE (a)-[:NEXT]->(b)");
+        try {
+            // few leaves: the relationships of the hub are found from the leaves
+            assertCover("MATCH (n) WHERE n:Hub OR (n:Leaf AND n.id < 300) RETURN collect(id(n)) AS nodes");
+            // all the leaves: the outgoing relationships of the hub are scanned
+            assertCover("MATCH (n) WHERE n:Hub OR n:Leaf RETURN collect(id(n)) AS nodes");
+        } finally {
+            db.executeTransactionally("MATCH (n) WHERE n:Hub OR n:Leaf DETACH DELETE n");
+        }
+    }
+
+    private void assertCover(String nodesQuery) {
+        List<Long> nodes = db.executeTransactionally(
+                nodesQuery, Map.of(), r -> (List<Long>) r.next().get("nodes"));
+        long expected = db.executeTransactionally(
+                "MATCH (a)-[r]->(b) WHERE id(a) IN $nodes AND id(b) IN $nodes RETURN count(r) AS c",
+                Map.of("nodes", nodes),
+                r -> (long) r.next().get("c"));
+        String query = "CALL apoc.algo.cover($nodes, $config) YIELD rel "
+                + "RETURN count(rel) AS c, count(DISTINCT rel) AS distinct";
+        for (Map<String, Object> config : List.<Map<String, Object>>of(
+                Map.of("parallel", false), Map.of("parallel", true, "batchSize", 100), Map.of())) {
+            TestUtil.testCall(db, query, Map.of("nodes", nodes, "config", config), row -> {
+                assertEquals(expected, row.get("c"));
+                assertEquals(expected, row.get("distinct"));
+            });
+        }
+    }
 }
@@ -160,6 +160,35 @@ public class CollTest {
         testCall(db, "RETURN apoc.coll.max([0.5,1,2.3]) as value", (row) -> assertEquals(2.3D, row.get("value")));
     }
 
+    @Test
+    public void testMinMaxOfLargeLists() {
+        testCall(
+                db,
+                "WITH range(1, 10000) AS list RETURN apoc.coll.min(list) AS min, apoc.coll.max(list) AS max",
+                (row) -> {
+                    assertEquals(1L, row.get("min"));
+                    assertEquals(10000L, row.get("max"));
+                });
+        testCall(
+                db,
+                "WITH [x IN range(1, 10000) | x / 4.0] AS list RETURN apoc.coll.min(list) AS min, apoc.coll.max(list) AS max",
+                (row) -> {
+                    assertEquals(0.25D, row.get("min"));
+                    assertEquals(2500D, row.get("max"));
+                });
+    }
+
+    @Test
+    public void testMinMaxSkipNaN() {
+        testCall(
+                db,
+                "WITH [2.0, 0.0 / 0.0, 1.0, 3.0] AS list RETURN apoc.coll.min(list) AS min, apoc.coll.max(list) AS max",
+                (row) -> {
+                    assertEquals(1D, row.get("min"));
+                    assertEquals(3D, row.get("max"));
+                });
+    }
+
     @Test
     public void testMaxDate() throws Exception {
         testCall(
@@ -217,6 +246,22 @@ public class CollTest {
                 (row) -> assertEquals(asList(1L, 2L, 3L), row.get("value")));
     }
 
+    @Test
+    public void testSortFloats() {
+        testCall(
+                db,
+                "RETURN apoc.coll.sort([2.5, -1.0, 0.5]) as value",
+                (row) -> assertEquals(asList(-1D, 0.5D, 2.5D), row.get("value")));
+    }
+
+    @Test
+    public void testSortStrings() {
+        testCall(
+                db,
+                "RETURN apoc.coll.sort(['b', 'a', 'c']) as value",
+                (row) -> assertEquals(asList("a", "b", "c"), row.get("value")));
+    }
+
     @Test
     public void testIN() throws Exception {
         testCall(db, "RETURN apoc.coll.contains([1,2,3],1) AS value", (res) -> assertEquals(true, res.get("value")));
@@ -27,18 +27,27 @@ import apoc.ApocSettings;
 import apoc.graph.Graphs;
 import apoc.load.LoadArrow;
 import apoc.meta.Meta;
-import apoc.util.JsonUtil;
 import apoc.util.TestUtil;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.ZoneOffset;
+import java.time.LocalTime;
+import java.time.ZonedDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 import java.util.stream.LongStream;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.ipc.ArrowStreamReader;
+import org.apache.arrow.vector.types.DateUnit;
+import org.apache.arrow.vector.types.IntervalUnit;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Schema;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
@@ -48,6 +57,9 @@ import org.neo4j.configuration.GraphDatabaseSettings;
 import org.neo4j.graphdb.Result;
 import org.neo4j.test.rule.DbmsRule;
 import org.neo4j.test.rule.ImpermanentDbmsRule;
+import org.neo4j.values.storable.CoordinateReferenceSystem;
+import org.neo4j.values.storable.DurationValue;
+import org.neo4j.values.storable.Values;
 
 public class ArrowTest {
 
@@ -77,16 +89,10 @@ public class ArrowTest {
                     put("male", true);
                     put("<type>", null);
                     put("kids", List.of("Sam", "Anna", "Grace"));
-                    put(
-                            "place",
-                            Map.of("crs", "wgs-84-3d", "longitude", 33.46789D, "latitude", 13.1D, "height", 100.0D));
+                    put("place", Values.pointValue(CoordinateReferenceSystem.WGS84_3D, 33.46789D, 13.1D, 100.0D));
                     put("<target.id>", null);
                     put("since", null);
-                    put(
-                            "born",
-                            LocalDateTime.parse("2015-05-18T19:32:24.000")
-                                    .atOffset(ZoneOffset.UTC)
-                                    .toZonedDateTime());
+                    put("born", LocalDateTime.parse("2015-05-18T19:32:24.000"));
                 }
             },
             new HashMap<>() {
@@ -109,7 +115,7 @@ public class ArrowTest {
             new HashMap<>() {
                 {
                     put("name", null);
-                    put("bffSince", "P5M1DT12H");
+                    put("bffSince", DurationValue.parse("P5M1DT12H"));
                     put("<source.id>", 0L);
                     put("<id>", 0L);
                     put("age", null);
@@ -150,15 +156,6 @@ public class ArrowTest {
         return result.<String>columnAs("file").next();
     }
 
-    private <T> T readValue(String json, Class<T> clazz) {
-        if (json == null) return null;
-        try {
-            return JsonUtil.OBJECT_MAPPER.readValue(json, clazz);
-        } catch (JsonProcessingException e) {
-            return null;
-        }
-    }
-
     @Test
     public void testStreamRoundtripArrowQuery() {
         // given - when
@@ -188,11 +185,7 @@ public class ArrowTest {
             assertEquals(Arrays.asList(true, false, true), row.get("boolArray"));
             assertEquals(Arrays.asList("1", "2", "true", null), row.get("mixedArray"));
             assertEquals("{\"foo\":\"bar\"}", row.get("mapData"));
-            assertEquals(
-                    LocalDateTime.parse("2015-05-18T19:32:24.000")
-                            .atOffset(ZoneOffset.UTC)
-                            .toZonedDateTime(),
-                    row.get("dateData"));
+            assertEquals(LocalDateTime.parse("2015-05-18T19:32:24.000"), row.get("dateData"));
             assertEquals(Arrays.asList("[0]"), row.get("arrayArray"));
             assertEquals(1.1D, row.get("doubleData"));
             return true;
@@ -228,17 +221,75 @@ public class ArrowTest {
             assertEquals(Arrays.asList(true, false, true), row.get("boolArray"));
             assertEquals(Arrays.asList("1", "2", "true", null), row.get("mixedArray"));
             assertEquals("{\"foo\":\"bar\"}", row.get("mapData"));
-            assertEquals(
-                    LocalDateTime.parse("2015-05-18T19:32:24.000")
-                            .atOffset(ZoneOffset.UTC)
-                            .toZonedDateTime(),
-                    row.get("dateData"));
+            assertEquals(LocalDateTime.parse("2015-05-18T19:32:24.000"), row.get("dateData"));
             assertEquals(Arrays.asList("[0]"), row.get("arrayArray"));
             assertEquals(1.1D, row.get("doubleData"));
             return true;
         });
     }
 
+    @Test
+    public void testStreamRoundtripArrowTypedColumns() throws IOException {
+        // given - when
+        final String returnQuery = "RETURN date('2020-01-02') AS dateData,"
+                + "datetime('2015-05-18T19:32:24+02:00') AS dateTimeData,"
+                + "localtime('12:34:56.789') AS localTimeData,"
+                + "duration('P1Y2M3DT4.5S') AS durationData,"
+                + "point({x: 1.5, y: 2.5}) AS pointData,"
+                + "[date('2020-01-02'), date('2021-03-04')] AS dateArray";
+        final byte[] byteArray = db.executeTransactionally(
+                "CALL apoc.export.arrow.stream.query($query) YIELD value AS byteArray",
+                Map.of("query", returnQuery),
+                this::extractByteArray);
+
+        // then
+        try (RootAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(byteArray), allocator)) {
+            final Schema schema = reader.getVectorSchemaRoot().getSchema();
+            assertEquals(
+                    new ArrowType.Date(DateUnit.DAY),
+                    schema.findField("dateData").getType());
+            assertEquals(
+                    new ArrowType.Timestamp(TimeUnit.MICROSECOND, "UTC"),
+                    schema.findField("dateTimeData").getType());
+            assertEquals(
+                    new ArrowType.Interval(IntervalUnit.MONTH_DAY_NANO),
+                    schema.findField("durationData").getType());
+            assertEquals(
+                    ArrowType.Struct.INSTANCE, schema.findField("pointData").getType());
+        }
+
+        final String query = "CALL apoc.load.arrow.stream($byteArray) YIELD value " + "RETURN value";
+        db.executeTransactionally(query, Map.of("byteArray", byteArray), result -> {
+            final Map<String, Object> row = (Map<String, Object>) result.next().get("value");
+            assertEquals(LocalDate.parse("2020-01-02"), row.get("dateData"));
+            assertEquals(ZonedDateTime.parse("2015-05-18T17:32:24Z[UTC]"), row.get("dateTimeData"));
+            assertEquals(LocalTime.parse("12:34:56.789"), row.get("localTimeData"));
+            assertEquals(DurationValue.parse("P1Y2M3DT4.5S"), row.get("durationData"));
+            assertEquals(Values.pointValue(CoordinateReferenceSystem.Cartesian, 1.5D, 2.5D), row.get("pointData"));
+            assertEquals(List.of(LocalDate.parse("2020-01-02"), LocalDate.parse("2021-03-04")), row.get("dateArray"));
+            return true;
+        });
+    }
+
+    @Test
+    public void testStreamArrowGraphEncodesLabelsAndTypes() throws IOException {
+        final byte[] byteArray = db.executeTransactionally(
+                "CALL apoc.export.arrow.stream.all() YIELD value AS byteArray ", Map.of(), this::extractByteArray);
+
+        try (RootAllocator allocator = new RootAllocator();
+                ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(byteArray), allocator)) {
+            final Schema schema = reader.getVectorSchemaRoot().getSchema();
+            assertEquals(
+                    ArrowUtils.LABELS_DICTIONARY,
+                    schema.findField("labels").getChildren().get(0).getDictionary());
+            assertEquals(ArrowUtils.TYPES_DICTIONARY, schema.findField("<type>").getDictionary());
+            assertEquals(
+                    new ArrowType.Timestamp(TimeUnit.MICROSECOND, null),
+                    schema.findField("born").getType());
+        }
+    }
+
     @Test
     public void testStreamRoundtripArrowGraph() {
         // given - when
@@ -259,14 +310,7 @@ public class ArrowTest {
     }
 
     private List<Map<String, Object>> getActual(Result result) {
-        return result.stream()
-                .map(m -> (Map<String, Object>) m.get("value"))
-                .map(m -> {
-                    final Map<String, Object> newMap = new HashMap(m);
-                    newMap.put("place", readValue((String) m.get("place"), Map.class));
-                    return newMap;
-                })
-                .collect(Collectors.toList());
+        return result.stream().map(m -> (Map<String, Object>) m.get("value")).collect(Collectors.toList());
     }
 
     @Test
@@ -353,6 +353,37 @@ public class ExportCsvNeo4jAdminTest {
                 .collect(Collectors.toList());
     }
 
+    @Test
+    public void testExportCsvForAdminNeo4jImportWithInterleavedLabels() {
+        db.executeTransactionally("MATCH (n) DETACH DELETE n");
+        db.executeTransactionally("UNWIND range(0, 5) AS i "
+                + "FOREACH (_ IN CASE WHEN i % 2 = 0 THEN [1] ELSE [] END | CREATE (:Even {i: i})) "
+                + "FOREACH (_ IN CASE WHEN i % 2 = 1 THEN [1] ELSE [] END | CREATE (:Odd {i: i, name: 'odd'}))");
+        final String fileName = "interleaved.csv";
+
+        TestUtil.testCall(
+                db,
+                "CALL apoc.export.csv.all($fileName, {bulkImport: true, delim: ';'})",
+                map("fileName", fileName),
+                r -> assertEquals(6L, r.get("nodes")));
+
+        final String even = BinaryTestUtil.readFileToString(
+                new File(directory, "interleaved.nodes.Even.csv"), StandardCharsets.UTF_8, CompressionAlgo.NONE);
+        final String odd = BinaryTestUtil.readFileToString(
+                new File(directory, "interleaved.nodes.Odd.csv"), StandardCharsets.UTF_8, CompressionAlgo.NONE);
+        assertEquals(
+                List.of("0", "2", "4"),
+                convertCSVString(even, ";").stream()
+                        .map(row -> row.get("i:long"))
+                        .collect(Collectors.toList()));
+        assertEquals(
+                List.of("1", "3", "5"),
+                convertCSVString(odd, ";").stream()
+                        .map(row -> row.get("i:long"))
+                        .collect(Collectors.toList()));
+        assertTrue(odd.startsWith(":ID;i:long;name;:LABEL"));
+    }
+
     @Test(expected = RuntimeException.class)
     public void testCypherExportCsvForAdminNeo4jImportExceptionBulk() throws Exception {
         String fileName = "query_nodes.csv";
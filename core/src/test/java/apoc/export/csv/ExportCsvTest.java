@@ -51,6 +51,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.BeforeClass;
@@ -344,6 +345,80 @@ public class ExportCsvTest {
         db.executeTransactionally("MATCH (n:Sample) DETACH DELETE n");
     }
 
+    private static final String EXPECTED_SINGLE_PASS = String.format("_id,_labels,age,name,_start,_end,_type%n"
+            + "0,:User:User1,42,foo,,,%n"
+            + "1,:User,42,bar,,,%n"
+            + "2,:User,12,,,,%n"
+            + "3,:Address:Address1,,Andrea,,,%n"
+            + "4,:Address,,Bar Sport,,,%n"
+            + "5,:Address,,,,,%n"
+            + ",,,,0,1,KNOWS%n"
+            + ",,,,3,4,NEXT_DELIVERY%n");
+    private static final Set<String> EXPECTED_SINGLE_PASS_EXTRA = Set.of(
+            "_entity,_id,key,value",
+            "node,0,male,true",
+            "node,0,kids,[\"a\",\"b\",\"c\"]",
+            "node,3,city,Milano",
+            "node,3,street,Via Garibaldi, 7",
+            "node,5,street,via Benni");
+
+    @Test
+    public void testExportAllCsvSinglePassWithColumns() {
+        String fileName = "single.csv";
+        TestUtil.testCall(
+                db,
+                "CALL apoc.export.csv.all($file, {quotes: 'none', columns: {nodes: {name: 'String', age: 'Long'}}})",
+                map("file", fileName),
+                (r) -> assertResults(fileName, r, "database"));
+        assertEquals(EXPECTED_SINGLE_PASS, readFile(fileName));
+        assertEquals(
+                EXPECTED_SINGLE_PASS_EXTRA, Set.of(readFile("single.extra.csv").split(System.lineSeparator())));
+    }
+
+    @Test
+    public void testExportAllCsvSinglePassStreamed() {
+        TestUtil.testCall(
+                db,
+                "CALL apoc.export.csv.all(null, {stream: true, quotes: 'none', columns: {nodes: {name: 'String', age: 'Long'}}})",
+                (r) -> {
+                    String data = (String) r.get("data");
+                    assertTrue(data.startsWith(EXPECTED_SINGLE_PASS));
+                    assertEquals(
+                            EXPECTED_SINGLE_PASS_EXTRA,
+                            Set.of(data.substring(EXPECTED_SINGLE_PASS.length()).split(System.lineSeparator())));
+                });
+    }
+
+    @Test
+    public void testExportAllCsvSinglePassWithUnknownType() {
+        QueryExecutionException e = Assert.assertThrows(
+                QueryExecutionException.class,
+                () -> TestUtil.testCall(
+                        db, "CALL apoc.export.csv.all('unknown.csv', {columns: {nodes: {name: 'Text'}}})", (r) -> {}));
+        assertTrue(e.getMessage().contains("Unknown property type Text"));
+    }
+
+    @Test
+    public void testExportAllCsvPartitioned() {
+        TestUtil.testCall(
+                db,
+                "CALL apoc.export.csv.all($file, {quotes: 'none', partitions: 2})",
+                map("file", "partitioned.csv"),
+                (r) -> {
+                    assertEquals(6L, r.get("nodes"));
+                    assertEquals(2L, r.get("relationships"));
+                    assertEquals(12L, r.get("properties"));
+                    assertEquals("partitioned.csv", r.get("file"));
+                });
+        // each part has its own header
+        List<String> rows = Stream.of("partitioned.0.csv", "partitioned.1.csv")
+                .flatMap(file -> Arrays.stream(readFile(file).split(System.lineSeparator()))
+                        .skip(1))
+                .collect(Collectors.toList());
+        assertEquals(8, rows.size());
+        assertTrue(rows.stream().anyMatch(row -> row.startsWith("3,:Address:Address1,")));
+    }
+
     @Test
     public void testExportAllCsvWithQuotes() {
         String fileName = "all.csv";
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.export.csv;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class IdMappingTest {
+    private static final int ENTRIES = 100_000;
+
+    @Test
+    public void testStringIdMappingOnHeap() {
+        assertIdMapping(new StringIdMapping(IdMappingStorage.of(IdMappingStorage.Type.HEAP)), "id-");
+    }
+
+    @Test
+    public void testStringIdMappingMapped() {
+        assertIdMapping(new StringIdMapping(IdMappingStorage.of(IdMappingStorage.Type.MAPPED)), "äöü-");
+    }
+
+    @Test
+    public void testLongIdMappingOnHeap() {
+        assertIdMapping(new LongIdMapping(IdMappingStorage.of(IdMappingStorage.Type.HEAP)), "");
+    }
+
+    @Test
+    public void testLongIdMappingMapped() {
+        assertIdMapping(new LongIdMapping(IdMappingStorage.of(IdMappingStorage.Type.MAPPED)), "");
+    }
+
+    @Test
+    public void testLongIdMappingWithNonNumericId() {
+        try (IdMapping idMapping = new LongIdMapping(IdMappingStorage.of(IdMappingStorage.Type.HEAP))) {
+            idMapping.put("42", 0);
+            assertEquals(0L, idMapping.get("42"));
+            assertEquals(IdMapping.NOT_FOUND, idMapping.get("foo"));
+            assertEquals(IdMapping.NOT_FOUND, idMapping.get(null));
+        }
+    }
+
+    @Test
+    public void testLongIdMappingKeepsNonCanonicalIdsApart() {
+        try (IdMapping idMapping = new LongIdMapping(IdMappingStorage.of(IdMappingStorage.Type.MAPPED))) {
+            idMapping.put("1", 1);
+            idMapping.put("01", 2);
+            idMapping.put(" 1", 3);
+            idMapping.put("+1", 4);
+            idMapping.put("-0", 5);
+            idMapping.put("9223372036854775808", 6);
+            assertEquals(6, idMapping.size());
+            assertEquals(1L, idMapping.get("1"));
+            assertEquals(1L, idMapping.get(1L));
+            assertEquals(2L, idMapping.get("01"));
+            assertEquals(3L, idMapping.get(" 1"));
+            assertEquals(4L, idMapping.get("+1"));
+            assertEquals(5L, idMapping.get("-0"));
+            assertEquals(6L, idMapping.get("9223372036854775808"));
+            assertEquals(IdMapping.NOT_FOUND, idMapping.get("0"));
+            assertEquals(IdMapping.NOT_FOUND, idMapping.get("1 "));
+            assertFalse(idMapping.containsKey(null));
+        }
+    }
+
+    private void assertIdMapping(IdMapping idMapping, String prefix) {
+        try (idMapping) {
+            for (int i = 0; i < ENTRIES; i++) {
+                assertFalse(idMapping.containsKey(prefix + i));
+                idMapping.put(prefix + i, ENTRIES - i);
+            }
+            assertEquals(ENTRIES, idMapping.size());
+            for (int i = 0; i < ENTRIES; i++) {
+                assertTrue(idMapping.containsKey(prefix + i));
+                assertEquals(ENTRIES - i, idMapping.get(prefix + i));
+            }
+            assertEquals(IdMapping.NOT_FOUND, idMapping.get(prefix + ENTRIES));
+
+            // overriding an existing id doesn't add a new entry
+            idMapping.put(prefix + 0, 1);
+            assertEquals(1L, idMapping.get(prefix + 0));
+            assertEquals(ENTRIES, idMapping.size());
+
+            assertEquals((long) ENTRIES + 2, idMapping.getStats().get("lookups"));
+            assertEquals(1L, idMapping.getStats().get("misses"));
+        }
+    }
+}
@@ -48,6 +48,7 @@ import java.util.AbstractMap;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.io.FileUtils;
@@ -719,6 +720,84 @@ public class ImportCsvTest {
         assertThat(pairs, Matchers.contains("Jane Neo4j", "John TU Munich"));
     }
 
+    @Test
+    public void testRelationshipWithIdSpacesAndMappedIdMapping() {
+        testRelationshipWithIdSpacesAndIdMapping(map("idMappingStorage", "MAPPED"), "STRING");
+        db.executeTransactionally("MATCH (n) DETACH DELETE n");
+        testRelationshipWithIdSpacesAndIdMapping(map("idMappingStorage", "MAPPED", "stringIds", false), "LONG");
+        db.executeTransactionally("MATCH (n) DETACH DELETE n");
+        testRelationshipWithIdSpacesAndIdMapping(map("stringIds", false), "LONG");
+    }
+
+    private void testRelationshipWithIdSpacesAndIdMapping(Map<String, Object> config, String keyType) {
+        TestUtil.testCall(
+                db,
+                "CALL apoc.import.csv(" + "["
+                        + "  {fileName: $personFile, labels: ['Person']},"
+                        + "  {fileName: $companyFile, labels: ['Company']},"
+                        + "  {fileName: $universityFile, labels: ['University']}"
+                        + "],"
+                        + "["
+                        + "  {fileName: $relFile, type: 'AFFILIATED_WITH'}"
+                        + "],"
+                        + " $config)",
+                map(
+                        "personFile", "file:/custom-ids-idspaces-persons.csv",
+                        "companyFile", "file:/custom-ids-idspaces-companies.csv",
+                        "universityFile", "file:/custom-ids-idspaces-unis.csv",
+                        "relFile", "file:/custom-ids-idspaces-affiliated-with.csv",
+                        "config", config),
+                (r) -> {
+                    assertEquals(4L, r.get("nodes"));
+                    assertEquals(2L, r.get("relationships"));
+                    final Map<String, Map<String, Object>> idSpaces =
+                            (Map<String, Map<String, Object>>) ((Map) r.get("data")).get("idMapping");
+                    assertEquals(Set.of("Person", "Organisation"), idSpaces.keySet());
+                    final Map<String, Object> organisation = idSpaces.get("Organisation");
+                    assertEquals(keyType, organisation.get("keyType"));
+                    assertEquals(2L, organisation.get("entries"));
+                    assertEquals(2L, organisation.get("lookups"));
+                    assertEquals(0L, organisation.get("misses"));
+                });
+
+        List<String> pairs = TestUtil.firstColumn(
+                db, "MATCH (p:Person)-[:AFFILIATED_WITH]->(org) RETURN p.name + ' ' + org.name AS pair ORDER BY pair");
+        assertThat(pairs, Matchers.contains("Jane Neo4j", "John TU Munich"));
+    }
+
+    @Test
+    public void testRelationshipWithIdSpacesParallel() {
+        testRelationshipWithIdSpacesAndIdMapping(map("parallel", true, "concurrency", 2), "STRING");
+        db.executeTransactionally("MATCH (n) DETACH DELETE n");
+        testRelationshipWithIdSpacesAndIdMapping(map("parallel", true, "batchSize", 1, "stringIds", false), "LONG");
+    }
+
+    @Test(expected = QueryExecutionException.class)
+    public void testIgnoreDuplicateNodesParallel() {
+        db.executeTransactionally(
+                "CALL apoc.import.csv([{fileName: $file, labels: ['Person']}], [], $config)",
+                map(
+                        "file",
+                        "file:/id-with-duplicates.csv",
+                        "config",
+                        map("delimiter", '|', "stringIds", false, "parallel", true)));
+    }
+
+    @Test
+    public void testLoadDuplicateNodesParallel() {
+        TestUtil.testCall(
+                db,
+                "CALL apoc.import.csv([{fileName: $file, labels: ['Person']}], [], $config)",
+                map(
+                        "file",
+                        "file:/id-with-duplicates.csv",
+                        "config",
+                        map("delimiter", '|', "stringIds", false, "ignoreDuplicateNodes", true, "parallel", true)),
+                (r) -> assertEquals(1L, r.get("nodes")));
+
+        assertEquals(1L, (long) TestUtil.singleResultFirstColumn(db, "MATCH (n:Person) RETURN count(n)"));
+    }
+
     @Test
     public void ignoreFieldType() {
         final String query =
@@ -19,6 +19,7 @@
 package apoc.export.json;
 
 import static apoc.export.json.JsonFormat.Format;
+import static apoc.export.util.PartitionedExport.PARTITIONS_WITH_CHANGES_ERROR;
 import static apoc.util.BinaryTestUtil.getDecompressedData;
 import static apoc.util.CompressionAlgo.DEFLATE;
 import static apoc.util.CompressionAlgo.FRAMED_SNAPPY;
@@ -42,8 +43,11 @@ import apoc.util.FileTestUtil;
 import apoc.util.TestUtil;
 import apoc.util.Util;
 import java.io.File;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -96,6 +100,61 @@ public class ExportJsonTest {
         assertFileEquals(filename);
     }
 
+    @Test
+    public void testExportAllJsonPartitioned() {
+        String all = TestUtil.singleResultFirstColumn(
+                db, "CALL apoc.export.json.all(null, {stream: true}) YIELD data RETURN data");
+        List<Map<String, Object>> rows = TestUtil.firstColumn(
+                db,
+                "CALL apoc.export.json.all(null, {stream: true, partitions: 2}) "
+                        + "YIELD nodes, relationships, done, data "
+                        + "RETURN {nodes: nodes, relationships: relationships, done: done, data: data}");
+        assertEquals(2, rows.size());
+        Map<String, Object> last = rows.get(1);
+        assertEquals(3L, last.get("nodes"));
+        assertEquals(1L, last.get("relationships"));
+        assertEquals(true, last.get("done"));
+        Set<String> partitioned = new HashSet<>();
+        rows.forEach(row -> partitioned.addAll(List.of(((String) row.get("data")).split("\n"))));
+        assertEquals(Set.of(all.split("\n")), partitioned);
+    }
+
+    @Test
+    public void testExportAllJsonPartitionedStreamsBatchesOfEachPart() {
+        String all = TestUtil.singleResultFirstColumn(
+                db, "CALL apoc.export.json.all(null, {stream: true}) YIELD data RETURN data");
+        List<Map<String, Object>> rows = TestUtil.firstColumn(
+                db,
+                "CALL apoc.export.json.all(null, {stream: true, partitions: 2, batchSize: 1, useOptimizations: {unwindBatchSize: 1}}) "
+                        + "YIELD nodes, relationships, done, data "
+                        + "RETURN {nodes: nodes, relationships: relationships, done: done, data: data}");
+        assertTrue(rows.size() > 2);
+        rows.subList(0, rows.size() - 1).forEach(row -> assertEquals(false, row.get("done")));
+        Map<String, Object> last = rows.get(rows.size() - 1);
+        assertEquals(3L, last.get("nodes"));
+        assertEquals(1L, last.get("relationships"));
+        assertEquals(true, last.get("done"));
+        // the batches split the lines of the parts
+        String partitioned = rows.stream().map(row -> (String) row.get("data")).collect(Collectors.joining());
+        for (String line : all.split("\n")) {
+            assertTrue(line, partitioned.contains(line));
+        }
+        assertEquals(
+                all.replace("\n", "").length(), partitioned.replace("\n", "").length());
+    }
+
+    @Test
+    public void testExportAllJsonPartitionedFailsWithChangesInTheTransaction() {
+        QueryExecutionException e = Assert.assertThrows(
+                QueryExecutionException.class,
+                () -> TestUtil.count(
+                        db,
+                        "CREATE (:Pending) WITH count(*) AS created "
+                                + "CALL apoc.export.json.all(null, {stream: true, partitions: 2}) YIELD data RETURN data"));
+        assertError(e, PARTITIONS_WITH_CHANGES_ERROR, RuntimeException.class, "apoc.export.json.all");
+        assertEquals(0L, TestUtil.count(db, "MATCH (n:Pending) RETURN n"));
+    }
+
     @Test
     public void testJsonRoundtrip() {
         db.executeTransactionally("CREATE CONSTRAINT ON (n:User) assert n.neo4jImportId IS UNIQUE;");
@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.generate.relationship;
+
+import static org.junit.Assert.assertEquals;
+
+import apoc.generate.config.BarabasiAlbertConfig;
+import java.util.List;
+import org.junit.Test;
+import org.neo4j.internal.helpers.collection.Pair;
+
+public class BarabasiAlbertRelationshipGeneratorTest {
+
+    @Test
+    public void testSameSeedGeneratesSameEdges() {
+        BarabasiAlbertConfig config = new BarabasiAlbertConfig(100, 3);
+
+        List<Pair<Integer, Integer>> edges = new BarabasiAlbertRelationshipGenerator(config, 42).doGenerateEdges();
+
+        assertEquals(6 + (100 - 4) * 3, edges.size());
+        assertEquals(edges, new BarabasiAlbertRelationshipGenerator(config, 42).doGenerateEdges());
+    }
+}
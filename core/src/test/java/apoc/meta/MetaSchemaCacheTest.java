@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.meta;
+
+import static apoc.util.TestUtil.count;
+import static apoc.util.TestUtil.testCall;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import apoc.ApocSettings;
+import apoc.util.TestUtil;
+import java.util.List;
+import java.util.Map;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.neo4j.test.rule.DbmsRule;
+import org.neo4j.test.rule.ImpermanentDbmsRule;
+
+public class MetaSchemaCacheTest {
+
+    @Rule
+    public DbmsRule db = new ImpermanentDbmsRule().withSetting(ApocSettings.apoc_meta_cache_enabled, true);
+
+    @Before
+    public void setUp() {
+        TestUtil.registerProcedure(db, Meta.class);
+        db.executeTransactionally("CREATE (:Person {name: 'foo'})-[:KNOWS {since: 2020}]->(:Person {name: 'bar'})");
+    }
+
+    private Map<String, Object> stats() {
+        return db.executeTransactionally("CALL apoc.meta.cache.stats()", Map.of(), r ->
+                (Map<String, Object>) r.next().get("value"));
+    }
+
+    private static long delta(Map<String, Object> before, Map<String, Object> after, String key) {
+        return (long) after.get(key) - (long) before.get(key);
+    }
+
+    @After
+    public void teardown() {
+        db.shutdown();
+    }
+
+    @Test
+    public void testSchemaIsCached() {
+        Map<String, Object> before = stats();
+        count(db, "CALL apoc.meta.schema()");
+        testCall(db, "CALL apoc.meta.schema()", row -> {
+            Map<String, Object> value = (Map<String, Object>) row.get("value");
+            assertEquals(2L, ((Map<String, Object>) value.get("Person")).get("count"));
+            assertEquals(1L, ((Map<String, Object>) value.get("KNOWS")).get("count"));
+        });
+        Map<String, Object> after = stats();
+        assertEquals(1L, delta(before, after, "hits"));
+        assertEquals(1L, delta(before, after, "misses"));
+
+        // known label and property: the cached schema is still valid, with the updated count
+        db.executeTransactionally("CREATE (:Person {name: 'baz'})");
+        testCall(db, "CALL apoc.meta.schema()", row -> {
+            Map<String, Object> value = (Map<String, Object>) row.get("value");
+            assertEquals(3L, ((Map<String, Object>) value.get("Person")).get("count"));
+        });
+        after = stats();
+        assertEquals(2L, delta(before, after, "hits"));
+        assertEquals(0L, delta(before, after, "invalidations"));
+    }
+
+    @Test
+    public void testSchemaIsInvalidatedByNewLabelsAndProperties() {
+        Map<String, Object> before = stats();
+        count(db, "CALL apoc.meta.schema()");
+
+        db.executeTransactionally("CREATE (:Movie {title: 'The Matrix'})");
+        testCall(db, "CALL apoc.meta.schema()", row -> {
+            Map<String, Object> value = (Map<String, Object>) row.get("value");
+            assertTrue(value.containsKey("Movie"));
+        });
+
+        db.executeTransactionally("MATCH (p:Person {name: 'foo'}) SET p.age = 42");
+        testCall(db, "CALL apoc.meta.schema()", row -> {
+            Map<String, Object> value = (Map<String, Object>) row.get("value");
+            Map<String, Object> properties =
+                    (Map<String, Object>) ((Map<String, Object>) value.get("Person")).get("properties");
+            assertTrue(properties.containsKey("age"));
+        });
+        Map<String, Object> after = stats();
+        assertEquals(0L, delta(before, after, "hits"));
+        assertEquals(2L, delta(before, after, "invalidations"));
+    }
+
+    @Test
+    public void testNodeTypePropertiesAreInvalidatedByNewLabelCombinations() {
+        db.executeTransactionally("CREATE (:Movie {title: 'The Matrix'})");
+        count(db, "CALL apoc.meta.schema()");
+        count(db, "CALL apoc.meta.nodeTypeProperties()");
+        Map<String, Object> before = stats();
+
+        // known labels, in a new combination
+        db.executeTransactionally("CREATE (:Person:Movie)");
+        List<String> nodeTypes = db.executeTransactionally(
+                "CALL apoc.meta.nodeTypeProperties() YIELD nodeType RETURN collect(DISTINCT nodeType) AS nodeTypes",
+                Map.of(),
+                r -> (List<String>) r.next().get("nodeTypes"));
+        assertEquals(3, nodeTypes.size());
+        count(db, "CALL apoc.meta.schema()");
+        Map<String, Object> after = stats();
+        assertEquals(1L, delta(before, after, "invalidations"));
+        assertEquals(1L, delta(before, after, "hits"));
+    }
+
+    @Test
+    public void testSchemaIsInvalidatedByNewConnections() {
+        db.executeTransactionally("CREATE (:Movie {title: 'The Matrix'})");
+        count(db, "CALL apoc.meta.schema()");
+
+        db.executeTransactionally("MATCH (p:Person {name: 'foo'}), (m:Movie) CREATE (p)-[:KNOWS {since: 2021}]->(m)");
+        testCall(db, "CALL apoc.meta.schema()", row -> {
+            Map<String, Object> value = (Map<String, Object>) row.get("value");
+            Map<String, Object> relationships =
+                    (Map<String, Object>) ((Map<String, Object>) value.get("Movie")).get("relationships");
+            assertTrue(relationships.containsKey("KNOWS"));
+        });
+    }
+
+    @Test
+    public void testRelTypePropertiesAreInvalidatedByRelabeledConnectedNodes() {
+        db.executeTransactionally("CREATE (:Movie {title: 'The Matrix'})");
+        count(db, "CALL apoc.meta.schema()");
+        count(db, "CALL apoc.meta.relTypeProperties()");
+
+        // a known label, on a node connected by a known type
+        db.executeTransactionally("MATCH (p:Person {name: 'bar'}) SET p:Movie");
+        List<List<String>> targets = db.executeTransactionally(
+                "CALL apoc.meta.relTypeProperties() YIELD targetNodeLabels RETURN collect(targetNodeLabels) AS targets",
+                Map.of(),
+                r -> (List<List<String>>) r.next().get("targets"));
+        assertTrue(targets.toString(), targets.stream().anyMatch(labels -> labels.contains("Movie")));
+        testCall(db, "CALL apoc.meta.schema()", row -> {
+            Map<String, Object> value = (Map<String, Object>) row.get("value");
+            Map<String, Object> relationships =
+                    (Map<String, Object>) ((Map<String, Object>) value.get("Movie")).get("relationships");
+            assertTrue(relationships.containsKey("KNOWS"));
+        });
+    }
+
+    @Test
+    public void testSchemaIsInvalidatedByNewConstraints() {
+        count(db, "CALL apoc.meta.schema()");
+
+        db.executeTransactionally("CREATE CONSTRAINT ON (p:Person) ASSERT p.name IS UNIQUE");
+        testCall(db, "CALL apoc.meta.schema()", row -> {
+            Map<String, Object> value = (Map<String, Object>) row.get("value");
+            Map<String, Object> properties =
+                    (Map<String, Object>) ((Map<String, Object>) value.get("Person")).get("properties");
+            assertEquals(true, ((Map<String, Object>) properties.get("name")).get("unique"));
+        });
+    }
+
+    @Test
+    public void testNodeTypePropertiesAreComputedAgainWhenTheSchemaChanges() {
+        count(db, "CALL apoc.meta.nodeTypeProperties()");
+        count(db, "CALL apoc.meta.relTypeProperties()");
+        Map<String, Object> before = stats();
+
+        db.executeTransactionally("CREATE INDEX FOR (p:Person) ON (p.name)");
+        count(db, "CALL apoc.meta.nodeTypeProperties()");
+        count(db, "CALL apoc.meta.relTypeProperties()");
+        Map<String, Object> after = stats();
+        assertEquals(0L, delta(before, after, "hits"));
+        assertEquals(2L, delta(before, after, "misses"));
+    }
+
+    @Test
+    public void testUseCacheFalse() {
+        Map<String, Object> before = stats();
+        count(db, "CALL apoc.meta.nodeTypeProperties({useCache: false})");
+        count(db, "CALL apoc.meta.nodeTypeProperties({useCache: false})");
+        Map<String, Object> after = stats();
+        assertEquals(0L, delta(before, after, "hits"));
+        assertEquals(0L, delta(before, after, "misses"));
+    }
+}
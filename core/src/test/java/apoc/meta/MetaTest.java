@@ -1042,6 +1042,37 @@ public class MetaTest {
         });
     }
 
+    @Test
+    public void testSchemaWithSampleSize() {
+        db.executeTransactionally("UNWIND range(1, 1000) AS id CREATE (:Person {name: 'name' + id, age: id})");
+        db.executeTransactionally("CREATE (:Company {name: 'Neo4j'})-[:HAS]->(:Company {name: 'APOC', since: 2016})");
+        testCall(db, "CALL apoc.meta.schema({sampleSize: 10})", (row) -> {
+            Map<String, Object> o = (Map<String, Object>) row.get("value");
+            // sampled by probing random node ids
+            Map<String, Object> person = (Map<String, Object>) o.get("Person");
+            assertEquals(1000L, person.get("count"));
+            Map<String, Object> personProperties = (Map<String, Object>) person.get("properties");
+            assertEquals(Set.of("name", "age"), personProperties.keySet());
+            assertEquals("INTEGER", ((Map<String, Object>) personProperties.get("age")).get("type"));
+            // sampled by scanning the label, as it has fewer nodes than the sample size
+            Map<String, Object> company = (Map<String, Object>) o.get("Company");
+            assertEquals(Set.of("name", "since"), ((Map<String, Object>) company.get("properties")).keySet());
+            assertTrue(((Map<String, Object>) company.get("relationships")).containsKey("HAS"));
+        });
+
+        TestUtil.testResult(
+                db,
+                "CALL apoc.meta.nodeTypeProperties({sampleSize: 10}) YIELD nodeLabels, propertyName "
+                        + "RETURN nodeLabels, propertyName ORDER BY propertyName",
+                (r) -> {
+                    Set<String> personProperties = r.stream()
+                            .filter(m -> m.get("nodeLabels").equals(List.of("Person")))
+                            .map(m -> (String) m.get("propertyName"))
+                            .collect(Collectors.toSet());
+                    assertEquals(Set.of("name", "age"), personProperties);
+                });
+    }
+
     @Test
     public void testSchemaWithSample5() {
         db.executeTransactionally("create constraint on (p:Person) assert p.name is unique");
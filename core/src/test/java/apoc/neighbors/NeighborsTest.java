@@ -19,10 +19,12 @@
 package apoc.neighbors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 import apoc.util.TestUtil;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 import org.junit.After;
 import org.junit.Before;
@@ -211,4 +213,53 @@ public class NeighborsTest {
                         + "RETURN number",
                 (row) -> assertEquals(1L, row.get("number")));
     }
+
+    @Test
+    public void getNeighborsParallel() {
+        db.executeTransactionally("MATCH (n:First) "
+                + "UNWIND range(1, 200) AS i CREATE (n)-[:KNOWS]->(m:Neighbor {name: 'm' + i}) "
+                + "WITH m, i UNWIND range(1, 5) AS j CREATE (m)-[:KNOWS]->(:Neighbor {name: 'm' + i + '_' + j}) "
+                + "WITH count(*) AS created "
+                + "MATCH (n:First), (m:Neighbor) WHERE m.name ENDS WITH '_1' CREATE (m)-[:LIKES]->(n)");
+
+        final String serial = "MATCH (n:First) CALL apoc.neighbors.byhop(n, $types, 4) YIELD nodes "
+                + "RETURN [x IN nodes | id(x)] AS ids";
+        final String parallel = "MATCH (n:First) "
+                + "CALL apoc.neighbors.byhop(n, $types, 4, {parallel: true, concurrency: 4, minParallelFrontier: 1}) YIELD nodes "
+                + "RETURN [x IN nodes | id(x)] AS ids";
+        for (String types : List.of("KNOWS>", "KNOWS", "<", "KNOWS>|<LIKES", "LIKES")) {
+            final Map<String, Object> params = Map.of("types", types);
+            assertEquals(hops(serial, params), hops(parallel, params));
+        }
+
+        TestUtil.testCall(
+                db,
+                "MATCH (n:First) CALL apoc.neighbors.tohop.count(n, 'KNOWS>', 3, {parallel: true, minParallelFrontier: 1}) "
+                        + "YIELD value RETURN value",
+                (row) -> assertEquals(1203L, row.get("value")));
+    }
+
+    @Test
+    public void getNeighborsParallelSeesTheChangesOfTheTransaction() {
+        db.executeTransactionally("MATCH (n:First) UNWIND range(1, 20) AS i CREATE (n)-[:KNOWS]->(:Neighbor)");
+
+        TestUtil.testCall(
+                db,
+                "MATCH (n:First)-[:KNOWS]->(m:Neighbor) WHERE m.name IS NULL CREATE (m)-[:KNOWS]->(:Neighbor) "
+                        + "WITH DISTINCT n "
+                        + "CALL apoc.neighbors.tohop.count(n, 'KNOWS>', 2) YIELD value AS serial "
+                        + "CALL apoc.neighbors.tohop.count(n, 'KNOWS>', 2, {parallel: true, minParallelFrontier: 1}) "
+                        + "YIELD value AS parallel RETURN serial, parallel",
+                (row) -> {
+                    // the 20 neighbors created by the transaction are counted by both
+                    assertTrue((Long) row.get("serial") > 40);
+                    assertEquals(row.get("serial"), row.get("parallel"));
+                });
+    }
+
+    private List<Object> hops(String query, Map<String, Object> params) {
+        return db.executeTransactionally(query, params, result -> result.stream()
+                .map(row -> row.get("ids"))
+                .collect(Collectors.toList()));
+    }
 }
@@ -41,6 +41,7 @@ import org.junit.rules.ExpectedException;
 import org.neo4j.graphdb.QueryExecutionException;
 import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.Transaction;
+import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.test.rule.DbmsRule;
 import org.neo4j.test.rule.ImpermanentDbmsRule;
 
@@ -343,6 +344,37 @@ public class SubgraphTest {
                 "MATCH (m:Movie {title: 'The Matrix'}) CALL apoc.path.spanningTree(m,{minLevel:2}) yield path return count(distinct path) as cnt");
     }
 
+    @Test
+    public void testCursorTraversalSameAsTraversalFramework() {
+        List<Map<String, Object>> configs = List.of(
+                Map.of(),
+                Map.of("maxLevel", 2L),
+                Map.of("minLevel", 1L, "maxLevel", 3L, "bfs", false),
+                Map.of("relationshipFilter", "ACTED_IN|<FOLLOWS", "labelFilter", "+Person|Movie|-BigBrother"),
+                Map.of("relationshipFilter", "<ACTED_IN|DIRECTED>", "labelFilter", ">Movie", "bfs", false),
+                Map.of("labelFilter", "/Movie", "filterStartNode", true),
+                Map.of("sequence", "Person,ACTED_IN>,Movie,<DIRECTED", "maxLevel", 6L),
+                Map.of("sequence", "ACTED_IN>,Movie,<ACTED_IN|<DIRECTED,Person", "beginSequenceAtStart", false));
+        String query = "MATCH (m:Movie {title: 'The Matrix'}), (k:Person {name: 'Keanu Reeves'}) "
+                + "CALL apoc.path.spanningTree([m, k], $config) YIELD path "
+                + "RETURN [n IN nodes(path) | id(n)] AS nodes, [r IN relationships(path) | id(r)] AS rels";
+        for (Map<String, Object> config : configs) {
+            assertEquals(config.toString(), spanningTree(query, config, false), spanningTree(query, config, true));
+        }
+        // the traversal framework does not close the cursors of a traversal stopped by the limit,
+        // so the limited cursor traversal is compared to the first paths of the whole traversal
+        Map<String, Object> config = Map.of("labelFilter", "/Movie", "filterStartNode", true);
+        assertEquals(
+                spanningTree(query, config, false).subList(0, 5),
+                spanningTree(query, Util.merge(config, Map.of("limit", 5L)), true));
+    }
+
+    private static List<Map<String, Object>> spanningTree(
+            String query, Map<String, Object> config, boolean cursorTraversal) {
+        Map<String, Object> params = Map.of("config", Util.merge(config, Map.of("cursorTraversal", cursorTraversal)));
+        return db.executeTransactionally(query, params, Iterators::asList);
+    }
+
     public class RootCauseMatcher<T> extends TypeSafeMatcher<Throwable> {
         private final Class<T> rootCause;
         private final String message;
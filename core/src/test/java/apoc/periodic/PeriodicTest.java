@@ -437,6 +437,21 @@ public class PeriodicTest {
         return longStream.max().orElse(0l);
     }
 
+    @Test
+    public void testIterateManyBatchesWithLowConcurrency() {
+        testCall(
+                db,
+                "CALL apoc.periodic.iterate('UNWIND range(1,10000) AS x RETURN x', 'CREATE (:Many {id: x})', {batchSize:10, parallel:true, concurrency:2})",
+                row -> {
+                    assertEquals(1000L, row.get("batches"));
+                    assertEquals(10000L, row.get("total"));
+                    assertEquals(0L, row.get("failedBatches"));
+                    assertEquals(10000L, row.get("committedOperations"));
+                });
+
+        testCall(db, "MATCH (n:Many) RETURN count(n) AS count", row -> assertEquals(10000L, row.get("count")));
+    }
+
     @Test
     public void testIteratePrefixGiven() throws Exception {
         db.executeTransactionally("UNWIND range(1,100) AS x CREATE (:Person{name:'Person_'+x})");
@@ -1207,6 +1207,36 @@ public class GraphRefactoringTest {
                 });
     }
 
+    @Test
+    public void testRefactorCategorizeSkipsNodesWithoutTheKey() {
+        final String label = "Country";
+        final String targetKey = "name";
+        db.executeTransactionally("CREATE CONSTRAINT ON (n:`" + label + "`) ASSERT n.`" + targetKey + "` IS UNIQUE");
+        db.executeTransactionally("UNWIND range(1, 100) AS i CREATE (:Company {name: 'Other' + i})");
+        db.executeTransactionally("UNWIND ['IT', 'DE', 'IT', 'FR', 'DE'] AS country "
+                + "CREATE (:Company {name: 'Company' + country, country: country})");
+        // already connected to its category
+        db.executeTransactionally(
+                "MATCH (n:Company {country: 'FR'}) " + "CREATE (n)-[:OPERATES_IN]->(:Country {name: 'FR'})");
+
+        db.executeTransactionally(
+                "CALL apoc.refactor.categorize('country', 'OPERATES_IN', true, $label, $targetKey, [], 2)",
+                map("label", label, "targetKey", targetKey));
+
+        testCall(
+                db,
+                "MATCH (c:Country) WITH c ORDER BY c.name RETURN collect(c.name) AS names",
+                (r) -> assertEquals(List.of("DE", "FR", "IT"), r.get("names")));
+        testCall(
+                db,
+                "MATCH (n:Company)-[:OPERATES_IN]->(c:Country) RETURN count(*) AS count",
+                (r) -> assertEquals(5L, r.get("count")));
+        testCall(
+                db,
+                "MATCH (n:Company) WHERE n.country IS NULL AND NOT (n)--() RETURN count(*) AS count",
+                (r) -> assertEquals(100L, r.get("count")));
+    }
+
     @Test(expected = QueryExecutionException.class)
     public void testRefactorCategorizeExceptionWithNoConstraint() {
         // given
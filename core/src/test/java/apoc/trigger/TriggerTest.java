@@ -30,6 +30,7 @@ import apoc.util.TestUtil;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import org.junit.After;
 import org.junit.Before;
@@ -129,6 +130,43 @@ public class TriggerTest {
         });
     }
 
+    @Test
+    public void testSelectorLabels() {
+        db.executeTransactionally("CREATE (:Counter {count:0})");
+        db.executeTransactionally(
+                "CALL apoc.trigger.add('count-people','MATCH (c:Counter) SET c.count = c.count + size($createdNodes)',{labels: ['Person']})");
+        db.executeTransactionally("CREATE (:Foo), (:Bar)");
+        TestUtil.testCall(db, "MATCH (c:Counter) RETURN c.count as count", (row) -> {
+            assertEquals(0L, row.get("count"));
+        });
+        db.executeTransactionally("CREATE (:Person), (:Foo)");
+        TestUtil.testCall(db, "MATCH (c:Counter) RETURN c.count as count", (row) -> {
+            assertEquals(2L, row.get("count"));
+        });
+    }
+
+    @Test
+    public void testSelectorTypesAndProperties() {
+        db.executeTransactionally("CREATE (:Counter {count:0})");
+        db.executeTransactionally(
+                "CALL apoc.trigger.add('count-changes','MATCH (c:Counter) SET c.count = c.count + 1',{phase: 'after', types: ['KNOWS'], properties: ['since']})");
+        db.executeTransactionally("CREATE (:Foo)-[:LIKES]->(:Foo {name: 'foo'})");
+        db.executeTransactionally("CREATE (:Foo)-[:KNOWS]->(:Foo)");
+        db.executeTransactionally("MATCH (f:Foo {name: 'foo'}) SET f.since = 2020");
+        db.executeTransactionally("MATCH ()-[r:KNOWS]->() DELETE r");
+        TestUtil.testCall(db, "MATCH (c:Counter) RETURN c.count as count", (row) -> {
+            assertEquals(3L, row.get("count"));
+        });
+    }
+
+    @Test
+    public void testReferencedParameters() {
+        assertEquals(
+                Set.of("createdNodes", "assignedNodeProperties"),
+                TriggerMetadata.referencedParameters(
+                        "UNWIND $createdNodes AS n SET n.ts = $ts WITH $`assignedNodeProperties` AS props RETURN props"));
+    }
+
     @Test
     public void testRemoveTrigger() throws Exception {
         TestUtil.testCallCount(db, "CALL apoc.trigger.add('to-be-removed','RETURN 1',{}) YIELD name RETURN name", 1);
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+
+import java.text.DateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FormatCacheTest {
+
+    @Before
+    public void setUp() {
+        FormatCache.clear();
+    }
+
+    @Test
+    public void testPatternsAreCompiledOnce() {
+        // the stats are not reset by clear()
+        Map<String, Object> before = patternStats();
+        Pattern pattern = FormatCache.pattern("[a-z]+");
+        assertSame(pattern, FormatCache.pattern("[a-z]+"));
+        assertNotSame(pattern, FormatCache.pattern("[a-z]+", Pattern.CASE_INSENSITIVE));
+
+        Map<String, Object> stats = patternStats();
+        assertEquals(2L, stats.get("size"));
+        assertEquals(1L, (long) stats.get("hits") - (long) before.get("hits"));
+        assertEquals(2L, (long) stats.get("misses") - (long) before.get("misses"));
+    }
+
+    @Test
+    public void testInvalidPatternsAreNotWrapped() {
+        assertThrows(PatternSyntaxException.class, () -> FormatCache.pattern("[a-z"));
+        assertEquals(0L, patternStats().get("size"));
+    }
+
+    @Test
+    public void testDateFormatsAreCloned() {
+        DateFormat format = FormatCache.dateFormat("yyyy", "UTC", () -> newFormat("yyyy", "UTC"));
+        DateFormat other = FormatCache.dateFormat("yyyy", "UTC", () -> newFormat("yyyy", "UTC"));
+        // the instances are not thread safe, so they are never shared
+        assertNotSame(format, other);
+        assertEquals(format, other);
+
+        DateFormat tokyo = FormatCache.dateFormat("yyyy", "Asia/Tokyo", () -> newFormat("yyyy", "Asia/Tokyo"));
+        assertEquals(TimeZone.getTimeZone("Asia/Tokyo"), tokyo.getTimeZone());
+    }
+
+    @Test
+    public void testDateTimeFormattersAreKeyedByKind() {
+        DateTimeFormatter formatter =
+                FormatCache.dateTimeFormatter("yyyy", "a", () -> DateTimeFormatter.ofPattern("yyyy"));
+        assertSame(formatter, FormatCache.dateTimeFormatter("yyyy", "a", () -> DateTimeFormatter.ofPattern("yyyy")));
+        assertNotSame(formatter, FormatCache.dateTimeFormatter("yyyy", "b", () -> DateTimeFormatter.ofPattern("yyyy")));
+    }
+
+    private static DateFormat newFormat(String pattern, String timezone) {
+        DateFormat format = new java.text.SimpleDateFormat(pattern);
+        format.setTimeZone(TimeZone.getTimeZone(timezone));
+        return format;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> patternStats() {
+        return (Map<String, Object>) FormatCache.stats().get("patterns");
+    }
+}
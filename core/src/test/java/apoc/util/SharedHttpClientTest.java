@@ -0,0 +1,273 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.util;
+
+import static apoc.ApocConfig.apocConfig;
+import static apoc.util.MapUtil.map;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.test.rule.DbmsRule;
+import org.neo4j.test.rule.ImpermanentDbmsRule;
+
+public class SharedHttpClientTest {
+
+    private static final String JSON = "{\"foo\":[1,2,3]}";
+
+    @ClassRule
+    public static DbmsRule db = new ImpermanentDbmsRule();
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private String baseUrl;
+
+    // the client ports the requests came from, one per connection
+    private final Set<Integer> connections = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger concurrent = new AtomicInteger();
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    @Before
+    public void setUp() throws IOException {
+        SharedHttpClient.reset();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        executor = Executors.newFixedThreadPool(8);
+        server.setExecutor(executor);
+        server.createContext("/json", exchange -> {
+            boolean gzip = String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Encoding"))
+                    .contains("gzip");
+            respond(exchange, 200, JSON, gzip);
+        });
+        server.createContext("/redirect", exchange -> {
+            exchange.getResponseHeaders().add("Location", "/json");
+            respond(exchange, 302, "", false);
+        });
+        server.createContext("/slow", exchange -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+            respond(exchange, 200, JSON, false);
+        });
+        server.createContext("/stalled", exchange -> {
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream out = exchange.getResponseBody();
+            out.write(JSON.getBytes(StandardCharsets.UTF_8));
+            out.flush();
+            try {
+                // the rest of the body never comes
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            out.close();
+        });
+        server.start();
+        baseUrl = "http://localhost:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+        SharedHttpClient.reset();
+    }
+
+    private void respond(HttpExchange exchange, int code, String body, boolean gzip) throws IOException {
+        connections.add(exchange.getRemoteAddress().getPort());
+        exchange.getRequestBody().readAllBytes();
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        if (gzip) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(bytes);
+            }
+            bytes = compressed.toByteArray();
+            exchange.getResponseHeaders().add("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(code, bytes.length == 0 ? -1 : bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String read(InputStream stream) throws IOException {
+        try (stream) {
+            return new String(stream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    public void testConnectionsAreKeptAlive() throws IOException {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(JSON, read(Util.openInputStream(baseUrl + "/json", null, null, null)));
+        }
+        // the client returns the connection to its pool asynchronously once the body is read,
+        // so a request following right after may still open a second one
+        assertTrue("connections: " + connections.size(), connections.size() <= 2);
+        Map<String, Object> stats = SharedHttpClient.getInstance().stats();
+        assertEquals(5L, stats.get("requests"));
+        assertEquals(0L, stats.get("errors"));
+        assertEquals(0L, stats.get("inFlight"));
+    }
+
+    @Test
+    public void testGzipResponsesAreDecompressed() throws IOException {
+        StreamConnection sc = Util.getStreamConnection(baseUrl + "/json", null, null);
+        assertEquals("gzip", sc.getEncoding());
+        assertEquals(JSON, read(sc.toCountingInputStream(null)));
+
+        StreamConnection identity =
+                Util.getStreamConnection(baseUrl + "/json", map("Accept-Encoding", "identity"), null);
+        assertEquals(JSON, read(identity.toCountingInputStream(null)));
+    }
+
+    @Test
+    public void testRelativeRedirectsAreFollowed() throws IOException {
+        assertEquals(JSON, read(Util.openInputStream(baseUrl + "/redirect", null, null, null)));
+        assertEquals(2L, SharedHttpClient.getInstance().stats().get("requests"));
+    }
+
+    @Test
+    public void testNotFound() throws IOException {
+        StreamConnection sc = Util.getStreamConnection(baseUrl + "/missing", null, null);
+        try {
+            sc.getInputStream();
+            fail("Expected a FileNotFoundException");
+        } catch (FileNotFoundException e) {
+            assertTrue(e.getMessage().endsWith("/missing"));
+        }
+        assertEquals(1L, SharedHttpClient.getInstance().stats().get("errors"));
+    }
+
+    @Test
+    public void testRequestsAreLimitedPerHost() {
+        SharedHttpClient client = new SharedHttpClient(HttpClient.Version.HTTP_2, 2, true, 10_000, 10_000);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(CompletableFuture.supplyAsync(
+                        () -> {
+                            try {
+                                return read(client.openStream(baseUrl + "/slow", null, null, 0)
+                                        .getInputStream());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        },
+                        callers));
+            }
+            futures.forEach(future -> assertEquals(JSON, future.join()));
+        } finally {
+            callers.shutdownNow();
+        }
+        assertTrue("max concurrent requests: " + maxConcurrent.get(), maxConcurrent.get() <= 2);
+        assertEquals(8L, client.stats().get("requests"));
+    }
+
+    @Test
+    public void testIdleHostsAreNotKept() throws IOException {
+        SharedHttpClient client = new SharedHttpClient(HttpClient.Version.HTTP_1_1, 2, false, 10_000, 10_000);
+        InputStream stream = client.openStream(baseUrl + "/json", null, null, 0).getInputStream();
+        assertEquals(1L, client.stats().get("hosts"));
+        assertEquals(JSON, read(stream));
+        assertEquals(0L, client.stats().get("hosts"));
+
+        try {
+            client.openStream(baseUrl + "/missing", null, null, 0).getInputStream();
+            fail("Expected a FileNotFoundException");
+        } catch (FileNotFoundException e) {
+            assertEquals(0L, client.stats().get("hosts"));
+        }
+    }
+
+    @Test
+    public void testStalledBodiesTimeOut() throws IOException {
+        SharedHttpClient client = new SharedHttpClient(HttpClient.Version.HTTP_1_1, 2, false, 10_000, 200);
+        InputStream stream =
+                client.openStream(baseUrl + "/stalled", null, null, 0).getInputStream();
+        try (stream) {
+            stream.readAllBytes();
+            fail("Expected an HttpTimeoutException");
+        } catch (IOException e) {
+            // the stream of the body wraps the failure of the response
+            assertTrue(e.getCause() instanceof HttpTimeoutException);
+            assertEquals("Read timed out", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testBodiesHoldTheHostPermitUntilClosed() throws IOException {
+        SharedHttpClient client = new SharedHttpClient(HttpClient.Version.HTTP_1_1, 1, false, 200, 10_000);
+        InputStream stream = client.openStream(baseUrl + "/json", null, null, 0).getInputStream();
+        try {
+            client.openStream(baseUrl + "/json", null, null, 0);
+            fail("Expected the permit of the host to be held by the first body");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().startsWith("Timed out waiting"));
+        }
+        assertEquals(JSON, read(stream));
+        assertEquals(
+                JSON, read(client.openStream(baseUrl + "/json", null, null, 0).getInputStream()));
+    }
+
+    @Test
+    public void testTimeoutsAreReadFromTheConfig() {
+        SharedHttpClient client = SharedHttpClient.getInstance();
+        assertSame(client, SharedHttpClient.getInstance());
+        apocConfig().setProperty(SharedHttpClient.READ_TIMEOUT, 1234);
+        try {
+            assertNotSame(client, SharedHttpClient.getInstance());
+        } finally {
+            apocConfig().getConfig().clearProperty(SharedHttpClient.READ_TIMEOUT);
+        }
+    }
+}
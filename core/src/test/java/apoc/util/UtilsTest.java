@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Base64;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
@@ -326,6 +327,21 @@ public class UtilsTest {
                 QueryExecutionException.class);
     }
 
+    @Test
+    public void testFormatCacheStats() {
+        FormatCache.clear();
+        Map<String, Object> before = (Map<String, Object>) FormatCache.stats().get("patterns");
+        FormatCache.pattern("[a-z]+");
+        FormatCache.pattern("[a-z]+");
+        TestUtil.testCall(db, "CALL apoc.util.formatCache.stats()", r -> {
+            Map<String, Object> patterns = (Map<String, Object>) ((Map<String, Object>) r.get("value")).get("patterns");
+            assertEquals(1L, patterns.get("size"));
+            assertEquals(1L, (long) patterns.get("hits") - (long) before.get("hits"));
+            assertEquals(1L, (long) patterns.get("misses") - (long) before.get("misses"));
+            assertEquals(before.get("evictions"), patterns.get("evictions"));
+        });
+    }
+
     @Test
     public void testSleep() {
         String cypherSleep = "call apoc.util.sleep($duration)";
@@ -18,10 +18,13 @@
  */
 package apoc;
 
+import apoc.bolt.BoltDriverCache;
 import apoc.custom.CypherProcedures;
 import apoc.custom.CypherProceduresHandler;
+import apoc.load.JdbcConnectionPool;
 import apoc.load.LoadDirectory;
 import apoc.load.LoadDirectoryHandler;
+import apoc.mongodb.MongoClientCache;
 import apoc.ttl.TTLLifeCycle;
 import apoc.uuid.Uuid;
 import apoc.uuid.UuidHandler;
@@ -72,12 +75,33 @@ public class ExtendedApocGlobalComponents implements ApocGlobalComponents {
                 "directory",
                         new LoadDirectoryHandler(
                                 db, dependencies.log().getUserLog(LoadDirectory.class), dependencies.pools()),
-                "cypherProcedures", cypherProcedureHandler);
+                "cypherProcedures", cypherProcedureHandler,
+                "bolt",
+                        new BoltDriverCache(
+                                dependencies.pools(),
+                                dependencies.apocConfig(),
+                                dependencies.log().getUserLog(BoltDriverCache.class)),
+                "jdbc",
+                        new JdbcConnectionPool(
+                                dependencies.pools(),
+                                dependencies.apocConfig(),
+                                dependencies.log().getUserLog(JdbcConnectionPool.class)),
+                "mongo",
+                        new MongoClientCache(
+                                dependencies.pools(),
+                                dependencies.apocConfig(),
+                                dependencies.log().getUserLog(MongoClientCache.class)));
     }
 
     @Override
     public Collection<Class> getContextClasses() {
-        return List.of(CypherProceduresHandler.class, UuidHandler.class, LoadDirectoryHandler.class);
+        return List.of(
+                CypherProceduresHandler.class,
+                UuidHandler.class,
+                LoadDirectoryHandler.class,
+                BoltDriverCache.class,
+                JdbcConnectionPool.class,
+                MongoClientCache.class);
     }
 
     @Override
@@ -19,12 +19,16 @@
 package apoc.bolt;
 
 import apoc.Extended;
+import apoc.result.MapResult;
 import apoc.result.RowResult;
 import java.net.URISyntaxException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Stream;
+import org.neo4j.driver.ConnectionPoolMetrics;
+import org.neo4j.driver.Driver;
 import org.neo4j.graphdb.GraphDatabaseService;
 import org.neo4j.procedure.Context;
 import org.neo4j.procedure.Description;
@@ -42,9 +46,12 @@ public class Bolt {
     @Context
     public GraphDatabaseService db;
 
+    @Context
+    public BoltDriverCache driverCache;
+
     private <T> T withConnection(String url, Map<String, Object> config, Function<BoltConnection, T> action)
             throws URISyntaxException {
-        BoltConnection connection = BoltConnection.from(config, url);
+        BoltConnection connection = BoltConnection.from(config, url, driverCache);
         return action.apply(connection);
     }
 
@@ -83,4 +90,31 @@ public class Bolt {
         configuration.put("readOnly", false);
         return load(url, statement, params, configuration);
     }
+
+    @Procedure()
+    @Description(
+            "apoc.bolt.stats() - returns the statistics of the drivers shared by the apoc.bolt procedures, and of the connection pools of the ones with metrics enabled")
+    public Stream<MapResult> stats() {
+        if (driverCache == null) {
+            return Stream.of(new MapResult(Map.of("enabled", false)));
+        }
+        Map<String, Object> stats = new LinkedHashMap<>(driverCache.stats());
+        long inUse = 0;
+        long idle = 0;
+        long acquired = 0;
+        for (AutoCloseable closeable : driverCache.drivers()) {
+            Driver driver = (Driver) closeable;
+            if (driver.isMetricsEnabled()) {
+                for (ConnectionPoolMetrics metrics : driver.metrics().connectionPoolMetrics()) {
+                    inUse += metrics.inUse();
+                    idle += metrics.idle();
+                    acquired += metrics.acquired();
+                }
+            }
+        }
+        stats.put("connectionsInUse", inUse);
+        stats.put("connectionsIdle", idle);
+        stats.put("connectionsAcquired", acquired);
+        return Stream.of(new MapResult(stats));
+    }
 }
@@ -34,6 +34,7 @@ public class BoltConfig {
     private final boolean addStatistics;
     private final boolean readOnly;
     private final boolean streamStatements;
+    private final Map<String, Object> driverConfigMap;
     private final Config driverConfig;
     private final Map<String, Object> localParams;
     private final Map<String, Object> remoteParams;
@@ -47,8 +48,8 @@ public class BoltConfig {
         this.readOnly = (boolean) config.getOrDefault("readOnly", true);
         this.streamStatements = (boolean) config.getOrDefault("streamStatements", false);
         this.databaseName = (String) config.getOrDefault("databaseName", "neo4j");
-        this.driverConfig =
-                toDriverConfig((Map<String, Object>) config.getOrDefault("driverConfig", Collections.emptyMap()));
+        this.driverConfigMap = (Map<String, Object>) config.getOrDefault("driverConfig", Collections.emptyMap());
+        this.driverConfig = toDriverConfig(driverConfigMap);
         this.localParams = (Map<String, Object>) config.getOrDefault("localParams", Collections.emptyMap());
         this.remoteParams = (Map<String, Object>) config.getOrDefault("remoteParams", Collections.emptyMap());
         this.withRelationshipNodeProperties = Util.toBoolean(config.get("withRelationshipNodeProperties"));
@@ -58,6 +59,7 @@ public class BoltConfig {
         String logging = (String) driverConfMap.getOrDefault("logging", "INFO");
         boolean encryption = (boolean) driverConfMap.getOrDefault("encryption", false);
         boolean logLeakedSessions = (boolean) driverConfMap.getOrDefault("logLeakedSessions", true);
+        boolean metrics = (boolean) driverConfMap.getOrDefault("metrics", false);
         Long idleTimeBeforeConnectionTest = (Long) driverConfMap.getOrDefault("idleTimeBeforeConnectionTest", -1L);
         String trustStrategy = (String) driverConfMap.getOrDefault("trustStrategy", "TRUST_ALL_CERTIFICATES");
         Long connectionTimeoutMillis = (Long) driverConfMap.get("connectionTimeoutMillis");
@@ -70,6 +72,8 @@ public class BoltConfig {
         Config.ConfigBuilder config = Config.builder();
 
         config.withLogging(new JULogging(Level.parse(logging)));
+        // the connection pool metrics returned by apoc.bolt.stats are recorded on every acquisition, so only on demand
+        if (metrics) config.withDriverMetrics();
         if (encryption) config.withEncryption();
         config.withTrustStrategy(Config.TrustStrategy.trustAllCertificates());
         if (!logLeakedSessions) config.withoutEncryption();
@@ -131,6 +135,13 @@ public class BoltConfig {
         return driverConfig;
     }
 
+    /**
+     * @return the driver config as given, which identifies the drivers that can be shared
+     */
+    public Map<String, Object> getDriverConfigMap() {
+        return driverConfigMap;
+    }
+
     public Map<String, Object> getLocalParams() {
         return localParams;
     }
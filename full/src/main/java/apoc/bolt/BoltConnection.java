@@ -61,16 +61,22 @@ import org.neo4j.internal.helpers.collection.Iterators;
 public class BoltConnection {
     private final BoltConfig config;
     private final UriResolver resolver;
+    private final BoltDriverCache driverCache;
 
-    public BoltConnection(BoltConfig config, UriResolver resolver) {
+    public BoltConnection(BoltConfig config, UriResolver resolver, BoltDriverCache driverCache) {
         this.config = config;
         this.resolver = resolver;
+        this.driverCache = driverCache;
     }
 
-    public static BoltConnection from(Map<String, Object> config, String url) throws URISyntaxException {
+    /**
+     * @param driverCache the drivers shared between the calls, null to use a new driver closed with the result
+     */
+    public static BoltConnection from(Map<String, Object> config, String url, BoltDriverCache driverCache)
+            throws URISyntaxException {
         final UriResolver resolver = new UriResolver(url, "bolt");
         resolver.initialize();
-        return new BoltConnection(new BoltConfig(config), resolver);
+        return new BoltConnection(new BoltConfig(config), resolver, driverCache);
     }
 
     // methods from Bolt.java
@@ -127,9 +133,23 @@ public class BoltConnection {
     }
 
     private <T> Stream<T> withDriver(Function<Driver, Stream<T>> function) {
-        Driver driver =
-                GraphDatabase.driver(resolver.getConfiguredUri(), resolver.getToken(), config.getDriverConfig());
-        return function.apply(driver).onClose(driver::close);
+        if (driverCache == null || !driverCache.isEnabled()) {
+            Driver driver = newDriver();
+            return function.apply(driver).onClose(driver::close);
+        }
+        // the token is resolved from the url, so that the url and the driver config identify the driver
+        BoltDriverCache.Lease lease = driverCache.acquire(
+                List.of(resolver.getConfiguredUri().toString(), config.getDriverConfigMap()), this::newDriver);
+        try {
+            return function.apply((Driver) lease.get()).onClose(lease::close);
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    private Driver newDriver() {
+        return GraphDatabase.driver(resolver.getConfiguredUri(), resolver.getToken(), config.getDriverConfig());
     }
 
     private <T> Stream<T> withSession(Driver driver, Function<Session, Stream<T>> function) {
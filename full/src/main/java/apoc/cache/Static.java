@@ -21,6 +21,7 @@ package apoc.cache;
 import apoc.ApocConfig;
 import apoc.Extended;
 import apoc.result.KeyValueResult;
+import apoc.result.MapResult;
 import apoc.result.ObjectResult;
 import apoc.util.Util;
 import java.util.HashMap;
@@ -43,21 +44,24 @@ public class Static {
     @Context
     public ApocConfig apocConfig;
 
-    private static Map<String, Object> storage = new HashMap<>();
+    private StaticCache storage() {
+        return StaticCache.getInstance(apocConfig);
+    }
 
     @Procedure("apoc.static.get")
     @Deprecated
     @Description(
             "apoc.static.get(name) - returns statically stored value from config (apoc.static.<key>) or server lifetime storage")
     public Stream<ObjectResult> getProcedure(@Name("key") String key) {
-        return Stream.of(new ObjectResult(storage.getOrDefault(key, fromConfig(key))));
+        return Stream.of(new ObjectResult(get(key)));
     }
 
     @UserFunction("apoc.static.get")
     @Description(
             "apoc.static.get(name) - returns statically stored value from config (apoc.static.<key>) or server lifetime storage")
     public Object get(@Name("key") String key) {
-        return storage.getOrDefault(key, fromConfig(key));
+        Object value = storage().get(key);
+        return value == null ? fromConfig(key) : value;
     }
 
     @UserFunction("apoc.static.getAll")
@@ -73,7 +77,7 @@ public class Static {
         String configPrefix = prefix.isEmpty() ? "apoc.static" : "apoc.static." + prefix;
         Iterators.stream(apocConfig.getKeys(configPrefix))
                 .forEach(s -> result.put(s.substring(configPrefix.length() + 1), apocConfig.getString(s)));
-        result.putAll(Util.subMap(storage, prefix));
+        result.putAll(storage().subMap(prefix));
         return result;
     }
 
@@ -91,13 +95,24 @@ public class Static {
 
     @Procedure("apoc.static.set")
     @Description(
-            "apoc.static.set(name, value) - stores value under key for server lifetime storage, returns previously stored or configured value")
-    public Stream<ObjectResult> set(@Name("key") String key, @Name("value") Object value) {
-        Object previous = value == null ? storage.remove(key) : storage.put(key, value);
+            "apoc.static.set(name, value, {ttl: seconds}) - stores value under key for server lifetime storage, returns previously stored or configured value")
+    public Stream<ObjectResult> set(
+            @Name("key") String key,
+            @Name("value") Object value,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        double ttl = config == null ? -1 : Util.toDouble(config.getOrDefault("ttl", -1L));
+        Object previous = value == null ? storage().remove(key) : storage().put(key, value, (long) (ttl * 1000));
         return Stream.of(new ObjectResult(previous == null ? fromConfig(key) : previous));
     }
 
+    @Procedure("apoc.static.stats")
+    @Description(
+            "apoc.static.stats() - returns the number of entries, estimated bytes, hits, misses, evictions and expirations of the server lifetime storage")
+    public Stream<MapResult> stats() {
+        return Stream.of(new MapResult(storage().stats()));
+    }
+
     public static void clear() {
-        storage.clear();
+        StaticCache.reset();
     }
 }
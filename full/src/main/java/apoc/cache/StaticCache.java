@@ -0,0 +1,301 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.cache;
+
+import apoc.ApocConfig;
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The server lifetime storage of {@code apoc.static.*}: a concurrent map bounded by a number of entries
+ * and optionally an estimated size in bytes, evicting the least recently or the least frequently used entries,
+ * with an optional time to live per entry.
+ * The expired entries are dropped when they are read, and when the entries are evicted.
+ */
+public class StaticCache {
+
+    public static final String MAX_ENTRIES = "apoc.cache.static.max_entries";
+    public static final String MAX_BYTES = "apoc.cache.static.max_bytes";
+    public static final String TTL = "apoc.cache.static.ttl";
+    public static final String EVICTION = "apoc.cache.static.eviction";
+
+    public enum Eviction {
+        LRU,
+        LFU
+    }
+
+    // the eviction goes down to this fraction of the limits, so that it does not run on every put once full
+    private static final double EVICTION_WATERMARK = 0.9;
+
+    private static volatile StaticCache instance;
+
+    private static class Entry {
+        final Object value;
+        final long bytes;
+        final long expiresAt;
+        volatile long lastAccess;
+        final LongAdder accesses = new LongAdder();
+
+        Entry(Object value, long bytes, long expiresAt, long lastAccess) {
+            this.value = value;
+            this.bytes = bytes;
+            this.expiresAt = expiresAt;
+            this.lastAccess = lastAccess;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAt <= now;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long maxEntries;
+    private final long maxBytes;
+    private final long defaultTtl;
+    private final Eviction eviction;
+
+    // a logical clock for the recency of the accesses
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+
+    /**
+     * @param maxEntries the maximum number of entries, unbounded if not positive
+     * @param maxBytes the maximum estimated size of the values, unbounded if not positive
+     * @param defaultTtl the time to live in milliseconds of the entries stored without one, none if not positive
+     */
+    public StaticCache(long maxEntries, long maxBytes, long defaultTtl, Eviction eviction) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.defaultTtl = defaultTtl;
+        this.eviction = eviction;
+    }
+
+    public static StaticCache getInstance(ApocConfig apocConfig) {
+        StaticCache cache = instance;
+        if (cache == null) {
+            synchronized (StaticCache.class) {
+                cache = instance;
+                if (cache == null) {
+                    cache = new StaticCache(
+                            Long.parseLong(apocConfig.getString(MAX_ENTRIES, "100000")),
+                            Long.parseLong(apocConfig.getString(MAX_BYTES, "-1")),
+                            (long) (Double.parseDouble(apocConfig.getString(TTL, "-1")) * 1000),
+                            apocConfig.getEnumProperty(EVICTION, Eviction.class, Eviction.LRU));
+                    instance = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * Drops the storage, which is created again from the configuration on its next use
+     */
+    public static void reset() {
+        instance = null;
+    }
+
+    /**
+     * @return the value stored under the key, null if there is none or if it expired
+     */
+    public Object get(String key) {
+        Entry entry = entries.get(key);
+        long now = System.currentTimeMillis();
+        if (entry == null || expire(key, entry, now)) {
+            misses.increment();
+            return null;
+        }
+        entry.lastAccess = clock.incrementAndGet();
+        entry.accesses.increment();
+        hits.increment();
+        return entry.value;
+    }
+
+    /**
+     * @param ttl the time to live of the entry in milliseconds, the default one if not positive
+     * @return the value previously stored under the key, null if there was none or if it expired
+     */
+    public Object put(String key, Object value, long ttl) {
+        long timeToLive = ttl > 0 ? ttl : defaultTtl;
+        long now = System.currentTimeMillis();
+        long expiresAt = timeToLive > 0 ? now + timeToLive : Long.MAX_VALUE;
+        Entry entry = new Entry(value, estimateBytes(value), expiresAt, clock.incrementAndGet());
+        Entry previous = entries.put(key, entry);
+        bytes.addAndGet(entry.bytes - (previous == null ? 0 : previous.bytes));
+        evictIfNeeded();
+        return previous == null || previous.isExpired(now) ? null : previous.value;
+    }
+
+    /**
+     * @return the value removed, null if there was none or if it expired
+     */
+    public Object remove(String key) {
+        Entry previous = entries.remove(key);
+        if (previous == null) {
+            return null;
+        }
+        bytes.addAndGet(-previous.bytes);
+        return previous.isExpired(System.currentTimeMillis()) ? null : previous.value;
+    }
+
+    /**
+     * @return the values whose key starts with the prefix, keyed by the rest of the key like {@code Util.subMap}
+     */
+    public Map<String, Object> subMap(String prefix) {
+        Map<String, Object> result = new HashMap<>();
+        int len = prefix.length() + (prefix.isEmpty() || prefix.endsWith(".") ? 0 : 1);
+        long now = System.currentTimeMillis();
+        entries.forEach((key, entry) -> {
+            if (key.startsWith(prefix) && !expire(key, entry, now)) {
+                result.put(key.substring(len), entry.value);
+            }
+        });
+        return result;
+    }
+
+    public void clear() {
+        entries.keySet().forEach(this::remove);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("entries", (long) entries.size());
+        stats.put("bytes", bytes.get());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("evictions", evictions.sum());
+        stats.put("expirations", expirations.sum());
+        stats.put("maxEntries", maxEntries);
+        stats.put("maxBytes", maxBytes);
+        stats.put("eviction", eviction.name());
+        return stats;
+    }
+
+    private boolean expire(String key, Entry entry, long now) {
+        if (!entry.isExpired(now)) {
+            return false;
+        }
+        if (entries.remove(key, entry)) {
+            bytes.addAndGet(-entry.bytes);
+            expirations.increment();
+        }
+        return true;
+    }
+
+    private boolean isFull(double watermark) {
+        return (maxEntries > 0 && entries.size() > maxEntries * watermark)
+                || (maxBytes > 0 && bytes.get() > maxBytes * watermark);
+    }
+
+    private void evictIfNeeded() {
+        if (!isFull(1)) {
+            return;
+        }
+        synchronized (this) {
+            if (!isFull(1)) {
+                return;
+            }
+            long now = System.currentTimeMillis();
+            // the access counts and times are read once, as they keep changing while sorting
+            List<Candidate> candidates = new ArrayList<>();
+            entries.forEach((key, entry) -> {
+                if (!expire(key, entry, now)) {
+                    candidates.add(new Candidate(
+                            key, entry, eviction == Eviction.LFU ? entry.accesses.sum() : 0, entry.lastAccess));
+                }
+            });
+            candidates.sort(Comparator.<Candidate>comparingLong(c -> c.accesses).thenComparingLong(c -> c.lastAccess));
+            for (Candidate candidate : candidates) {
+                if (!isFull(EVICTION_WATERMARK)) {
+                    break;
+                }
+                if (entries.remove(candidate.key, candidate.entry)) {
+                    bytes.addAndGet(-candidate.entry.bytes);
+                    evictions.increment();
+                }
+            }
+        }
+    }
+
+    private static class Candidate {
+        final String key;
+        final Entry entry;
+        final long accesses;
+        final long lastAccess;
+
+        Candidate(String key, Entry entry, long accesses, long lastAccess) {
+            this.key = key;
+            this.entry = entry;
+            this.accesses = accesses;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * @return a rough estimate of the heap size of a value, for the values that Cypher can store
+     */
+    static long estimateBytes(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        }
+        if (value instanceof Map) {
+            long size = 48;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                size += 32 + estimateBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+            return size;
+        }
+        if (value instanceof Collection) {
+            long size = 24;
+            for (Object element : (Collection<?>) value) {
+                size += 8 + estimateBytes(element);
+            }
+            return size;
+        }
+        if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        }
+        if (value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            long size = 16;
+            for (int i = 0; i < length; i++) {
+                size += 8 + estimateBytes(Array.get(value, i));
+            }
+            return size;
+        }
+        // numbers, booleans, temporal and spatial values, entities
+        return 24;
+    }
+}
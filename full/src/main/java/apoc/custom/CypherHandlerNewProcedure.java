@@ -74,7 +74,12 @@ public class CypherHandlerNewProcedure {
     }
 
     public static void installFunction(
-            String databaseName, UserFunctionSignature signature, String statement, boolean forceSingle) {
+            String databaseName,
+            UserFunctionSignature signature,
+            String statement,
+            boolean forceSingle,
+            Map<String, Object> config) {
+        FunctionMemo memo = FunctionMemo.from(config);
         withSystemDb(tx -> {
             Node node = Util.mergeNode(
                     tx,
@@ -88,6 +93,7 @@ public class CypherHandlerNewProcedure {
             node.setProperty(inputs.name(), serializeSignatures(signature.inputSignature()));
             node.setProperty(output.name(), signature.outputType().toString());
             node.setProperty(SystemPropertyKeys.forceSingle.name(), forceSingle);
+            CypherProceduresHandler.storeFunctionMemo(node, memo);
 
             setLastUpdate(tx, databaseName);
         });
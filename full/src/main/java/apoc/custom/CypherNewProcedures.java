@@ -23,6 +23,7 @@ import static apoc.util.SystemDbUtil.checkInSystemDb;
 
 import apoc.Extended;
 import apoc.util.SystemDbUtil;
+import java.util.Map;
 import java.util.stream.Stream;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.kernel.api.procs.ProcedureSignature;
@@ -80,12 +81,13 @@ public class CypherNewProcedures {
             @Name("statement") String statement,
             @Name(value = "databaseName", defaultValue = "neo4j") String databaseName,
             @Name(value = "forceSingle", defaultValue = "false") boolean forceSingle,
-            @Name(value = "description", defaultValue = "") String description) {
+            @Name(value = "description", defaultValue = "") String description,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         checkIsValidDatabase(databaseName);
 
         UserFunctionSignature userFunctionSignature =
                 new Signatures(PREFIX).asFunctionSignature(signature, description);
-        CypherHandlerNewProcedure.installFunction(databaseName, userFunctionSignature, statement, forceSingle);
+        CypherHandlerNewProcedure.installFunction(databaseName, userFunctionSignature, statement, forceSingle, config);
     }
 
     // TODO - change with @SystemOnlyProcedure
@@ -139,18 +139,19 @@ public class CypherProcedures {
             throws ProcedureException {
         UserFunctionSignature signature = cypherProceduresHandler.functionSignature(name, output, inputs, description);
         validateFunction(statement, signature.inputSignature());
-        cypherProceduresHandler.storeFunction(signature, statement, forceSingle, false);
+        cypherProceduresHandler.storeFunction(signature, statement, forceSingle, false, null);
     }
 
     @Deprecated
     @Procedure(value = "apoc.custom.declareFunction", mode = Mode.WRITE, deprecatedBy = "apoc.custom.installFunction")
     @Description(
-            "apoc.custom.declareFunction(signature, statement, forceSingle, description) - register a custom cypher function")
+            "apoc.custom.declareFunction(signature, statement, forceSingle, description, config) - register a custom cypher function")
     public void declareFunction(
             @Name("signature") String signature,
             @Name("statement") String statement,
             @Name(value = "forceSingle", defaultValue = "false") boolean forceSingle,
-            @Name(value = "description", defaultValue = "") String description)
+            @Name(value = "description", defaultValue = "") String description,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config)
             throws ProcedureException {
         checkWriteAllowed(api, MSG_DEPRECATION);
         UserFunctionSignature userFunctionSignature =
@@ -160,7 +161,7 @@ public class CypherProcedures {
         validateFunction(statement, userFunctionSignature.inputSignature());
         final boolean mapResult = signatures.isMapResult(functionContext);
 
-        cypherProceduresHandler.storeFunction(userFunctionSignature, statement, forceSingle, mapResult);
+        cypherProceduresHandler.storeFunction(userFunctionSignature, statement, forceSingle, mapResult, config);
     }
 
     @Procedure(value = "apoc.custom.list", mode = Mode.READ)
@@ -117,7 +117,10 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
     private final GraphDatabaseService systemDb;
     private final GlobalProcedures globalProceduresRegistry;
     private final JobScheduler jobScheduler;
-    private long lastUpdate;
+    // the last update of the system db when the procedures and functions were last restored
+    private long lastUpdate = -1;
+    // what each procedure and function was restored from, to only register again the ones that changed
+    private final Map<String, List<Object>> restoredDescriptors = new HashMap<>();
     private final ThrowingFunction<Context, Transaction, ProcedureException> transactionComponentFunction;
     private final Set<ProcedureSignature> registeredProcedureSignatures = Collections.synchronizedSet(new HashSet<>());
     private final Set<UserFunctionSignature> registeredUserFunctionSignatures =
@@ -146,7 +149,7 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
         restoreProceduresHandle = jobScheduler.scheduleRecurring(
                 REFRESH_GROUP,
                 () -> {
-                    if (getLastUpdate() > lastUpdate) {
+                    if (getLastUpdate() != lastUpdate) {
                         restoreProceduresAndFunctions();
                     }
                 },
@@ -199,18 +202,35 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
         String statement = (String) node.getProperty(SystemPropertyKeys.statement.name());
         boolean forceSingle = (boolean) node.getProperty(SystemPropertyKeys.forceSingle.name(), false);
         boolean mapResult = (boolean) node.getProperty(SystemPropertyKeys.mapResult.name(), false);
+        Map<String, Object> memoConfig = node.getProperties(
+                SystemPropertyKeys.deterministic.name(),
+                SystemPropertyKeys.memoScope.name(),
+                SystemPropertyKeys.memoSize.name());
 
         UserFunctionSignature signature = getUserFunctionSignature(node);
-        return new UserFunctionDescriptor(signature, statement, forceSingle, mapResult);
+        return new UserFunctionDescriptor(signature, statement, forceSingle, mapResult, memoConfig);
     }
 
-    public synchronized void restoreProceduresAndFunctions() {
-        lastUpdate = System.currentTimeMillis();
+    /**
+     * Registers the procedures and functions added or changed in the system db since the last restore,
+     * and de-registers the removed ones.
+     * The query caches are only cleared when something changed.
+     * @return whether something changed
+     */
+    public synchronized boolean restoreProceduresAndFunctions() {
+        lastUpdate = getLastUpdate();
         Set<ProcedureSignature> currentProceduresToRemove = new HashSet<>(registeredProcedureSignatures);
         Set<UserFunctionSignature> currentUserFunctionsToRemove = new HashSet<>(registeredUserFunctionSignatures);
-
-        readSignatures().forEach(descriptor -> {
-            descriptor.register();
+        Map<String, List<Object>> descriptors = new HashMap<>();
+        boolean changed = false;
+
+        for (ProcedureOrFunctionDescriptor descriptor : readSignatures().collect(Collectors.toList())) {
+            List<Object> fingerprint = descriptor.fingerprint();
+            descriptors.put(descriptor.key(), fingerprint);
+            if (!fingerprint.equals(restoredDescriptors.get(descriptor.key()))) {
+                descriptor.register();
+                changed = true;
+            }
             if (descriptor instanceof ProcedureDescriptor) {
                 ProcedureSignature signature = ((ProcedureDescriptor) descriptor).getSignature();
                 currentProceduresToRemove.remove(signature);
@@ -218,13 +238,21 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
                 UserFunctionSignature signature = ((UserFunctionDescriptor) descriptor).getSignature();
                 currentUserFunctionsToRemove.remove(signature);
             }
-        });
+        }
 
         // de-register removed procs/functions
         currentProceduresToRemove.forEach(signature -> registerProcedure(signature, null));
         currentUserFunctionsToRemove.forEach(this::registerFunction);
-
-        api.executeTransactionally("call db.clearQueryCaches()");
+        changed |= !currentProceduresToRemove.isEmpty()
+                || !currentUserFunctionsToRemove.isEmpty()
+                || !descriptors.keySet().containsAll(restoredDescriptors.keySet());
+
+        restoredDescriptors.clear();
+        restoredDescriptors.putAll(descriptors);
+        if (changed) {
+            api.executeTransactionally("call db.clearQueryCaches()");
+        }
+        return changed;
     }
 
     private <T> T withSystemDb(Function<Transaction, T> action) {
@@ -236,7 +264,13 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
     }
 
     public synchronized void storeFunction(
-            UserFunctionSignature signature, String statement, boolean forceSingle, boolean mapResult) {
+            UserFunctionSignature signature,
+            String statement,
+            boolean forceSingle,
+            boolean mapResult,
+            Map<String, Object> config) {
+        // validates the configuration before anything is stored
+        FunctionMemo memo = FunctionMemo.from(config);
         withSystemDb(tx -> {
             Node node = Util.mergeNode(
                     tx,
@@ -254,15 +288,29 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
                     SystemPropertyKeys.output.name(), signature.outputType().toString());
             node.setProperty(SystemPropertyKeys.forceSingle.name(), forceSingle);
             node.setProperty(SystemPropertyKeys.mapResult.name(), mapResult);
+            storeFunctionMemo(node, memo);
 
             setLastUpdate(tx);
-            if (!registerFunction(signature, statement, forceSingle, mapResult)) {
+            if (!registerFunction(signature, statement, forceSingle, mapResult, memo)) {
                 throw new IllegalStateException("Error registering function " + signature + ", see log.");
             }
             return null;
         });
     }
 
+    static void storeFunctionMemo(Node node, FunctionMemo memo) {
+        if (memo == null) {
+            node.removeProperty(SystemPropertyKeys.deterministic.name());
+            node.removeProperty(SystemPropertyKeys.memoScope.name());
+            node.removeProperty(SystemPropertyKeys.memoSize.name());
+        } else {
+            node.setProperty(SystemPropertyKeys.deterministic.name(), true);
+            node.setProperty(
+                    SystemPropertyKeys.memoScope.name(), memo.getScope().name());
+            node.setProperty(SystemPropertyKeys.memoSize.name(), memo.getSize());
+        }
+    }
+
     public synchronized void storeProcedure(ProcedureSignature signature, String statement) {
         withSystemDb(tx -> {
             Node node = Util.mergeNode(
@@ -443,11 +491,19 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
     }
 
     public boolean registerFunction(UserFunctionSignature signature) {
-        return registerFunction(signature, null, false, false);
+        return registerFunction(signature, null, false, false, null);
     }
 
+    /**
+     * @param statement null indicates a removed function
+     * @param memo the memoization of the results of a deterministic function, null if there is none
+     */
     public boolean registerFunction(
-            UserFunctionSignature signature, String statement, boolean forceSingle, boolean mapResult) {
+            UserFunctionSignature signature,
+            String statement,
+            boolean forceSingle,
+            boolean mapResult,
+            FunctionMemo memo) {
         try {
             QualifiedName name = signature.name();
             boolean exists = globalProceduresRegistry
@@ -459,6 +515,9 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
             }
 
             final boolean isStatementNull = statement == null;
+            // how the result is converted only depends on the signature, so it is decided once and not on every call
+            final Function<Result, AnyValue> resultMapper =
+                    isStatementNull ? null : resultMapper(signature.outputType(), forceSingle, mapResult);
             globalProceduresRegistry.register(
                     new CallableUserFunction.BasicUserFunction(signature) {
                         @Override
@@ -468,38 +527,25 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
                                 final String error = String.format("Unknown function '%s'", name);
                                 throw new QueryExecutionException(error, null, "Neo.ClientError.Statement.SyntaxError");
                             } else {
+                                Transaction tx = transactionComponentFunction.apply(ctx);
+                                if (memo != null) {
+                                    AnyValue memoized = memo.get(tx, input);
+                                    if (memoized != null) {
+                                        return memoized;
+                                    }
+                                }
                                 Map<String, Object> params =
                                         params(input, signature.inputSignature(), ctx.valueMapper());
-                                AnyType outType = signature.outputType();
 
-                                Transaction tx = transactionComponentFunction.apply(ctx);
+                                AnyValue value;
                                 try (Result result = tx.execute(statement, params)) {
                                     //                resourceTracker.registerCloseableResource(result); // TODO
-                                    if (!result.hasNext()) return Values.NO_VALUE;
-                                    if (outType.equals(NTAny)) {
-                                        return ValueUtils.of(result.stream().collect(Collectors.toList()));
-                                    }
-                                    List<String> cols = result.columns();
-                                    if (cols.isEmpty()) return null;
-                                    if (!forceSingle && outType instanceof Neo4jTypes.ListType) {
-                                        Neo4jTypes.ListType listType = (Neo4jTypes.ListType) outType;
-                                        AnyType innerType = listType.innerType();
-                                        if (isWrapped(innerType, mapResult))
-                                            return ValueUtils.of(result.stream().collect(Collectors.toList()));
-                                        if (cols.size() == 1)
-                                            return ValueUtils.of(result.stream()
-                                                    .map(row -> row.get(cols.get(0)))
-                                                    .collect(Collectors.toList()));
-                                    } else {
-                                        Map<String, Object> row = result.next();
-                                        if (isWrapped(outType, mapResult)) {
-                                            return ValueUtils.of(row);
-                                        }
-                                        if (cols.size() == 1) return ValueUtils.of(row.get(cols.get(0)));
-                                    }
-                                    throw new IllegalStateException(
-                                            "Result mismatch " + cols + " output type is " + outType);
+                                    value = resultMapper.apply(result);
                                 }
+                                if (memo != null && value != null) {
+                                    memo.put(tx, input, value);
+                                }
+                                return value;
                             }
                         }
                     },
@@ -519,6 +565,34 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
         }
     }
 
+    private Function<Result, AnyValue> resultMapper(AnyType outType, boolean forceSingle, boolean mapResult) {
+        final boolean anyOutput = outType.equals(NTAny);
+        final boolean listOutput = !forceSingle && outType instanceof Neo4jTypes.ListType;
+        final boolean wrapped =
+                isWrapped(listOutput ? ((Neo4jTypes.ListType) outType).innerType() : outType, mapResult);
+        return result -> {
+            if (!result.hasNext()) return Values.NO_VALUE;
+            if (anyOutput) {
+                return ValueUtils.of(result.stream().collect(Collectors.toList()));
+            }
+            List<String> cols = result.columns();
+            if (cols.isEmpty()) return null;
+            if (listOutput) {
+                if (wrapped) return ValueUtils.of(result.stream().collect(Collectors.toList()));
+                if (cols.size() == 1)
+                    return ValueUtils.of(
+                            result.stream().map(row -> row.get(cols.get(0))).collect(Collectors.toList()));
+            } else {
+                Map<String, Object> row = result.next();
+                if (wrapped) {
+                    return ValueUtils.of(row);
+                }
+                if (cols.size() == 1) return ValueUtils.of(row.get(cols.get(0)));
+            }
+            throw new IllegalStateException("Result mismatch " + cols + " output type is " + outType);
+        };
+    }
+
     /**
      * We wrap the result only if we have a "true" map,
      * that is: the output signature is not a `MAP` / `LIST OF MAP`
@@ -791,6 +865,16 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
         }
 
         public abstract void register();
+
+        /**
+         * @return the kind and the name of the procedure or function
+         */
+        public abstract String key();
+
+        /**
+         * @return everything the procedure or function is registered from
+         */
+        public abstract List<Object> fingerprint();
     }
 
     public class ProcedureDescriptor extends ProcedureOrFunctionDescriptor {
@@ -809,19 +893,39 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
         public void register() {
             registerProcedure(getSignature(), getStatement());
         }
+
+        @Override
+        public String key() {
+            return PROCEDURE + ":" + signature.name();
+        }
+
+        @Override
+        public List<Object> fingerprint() {
+            return Arrays.asList(
+                    signature.toString(),
+                    signature.mode(),
+                    signature.description().orElse(null),
+                    getStatement());
+        }
     }
 
     public class UserFunctionDescriptor extends ProcedureOrFunctionDescriptor {
         private final UserFunctionSignature signature;
         private final boolean forceSingle;
         private final boolean mapResult;
+        private final Map<String, Object> memoConfig;
 
         public UserFunctionDescriptor(
-                UserFunctionSignature signature, String statement, boolean forceSingle, boolean mapResult) {
+                UserFunctionSignature signature,
+                String statement,
+                boolean forceSingle,
+                boolean mapResult,
+                Map<String, Object> memoConfig) {
             super(statement);
             this.signature = signature;
             this.forceSingle = forceSingle;
             this.mapResult = mapResult;
+            this.memoConfig = memoConfig;
         }
 
         public UserFunctionSignature getSignature() {
@@ -834,7 +938,24 @@ public class CypherProceduresHandler extends LifecycleAdapter implements Availab
 
         @Override
         public void register() {
-            registerFunction(getSignature(), getStatement(), isForceSingle(), mapResult);
+            // a new memoization on every registration, so that the results of a changed function are dropped
+            registerFunction(getSignature(), getStatement(), isForceSingle(), mapResult, FunctionMemo.from(memoConfig));
+        }
+
+        @Override
+        public String key() {
+            return FUNCTION + ":" + signature.name();
+        }
+
+        @Override
+        public List<Object> fingerprint() {
+            return Arrays.asList(
+                    signature.toString(),
+                    signature.description().orElse(null),
+                    getStatement(),
+                    forceSingle,
+                    mapResult,
+                    memoConfig);
         }
     }
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.custom;
+
+import apoc.util.Util;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.impl.coreapi.InternalTransaction;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.virtual.ListValue;
+import org.neo4j.values.virtual.MapValue;
+import org.neo4j.values.virtual.VirtualNodeValue;
+import org.neo4j.values.virtual.VirtualPathValue;
+import org.neo4j.values.virtual.VirtualRelationshipValue;
+
+/**
+ * The results of a custom function declared as {@code deterministic}, keyed by its input values,
+ * kept in a bounded least recently used cache either per transaction or for the whole database.
+ * The cache of a transaction is dropped when the transaction closes.
+ * The results in the global scope outlive the transaction that computed them, so the results and the inputs
+ * with nodes, relationships or paths are only kept per transaction.
+ * The cache is created with the registration of the function, so that it is dropped when the function changes.
+ */
+public class FunctionMemo {
+
+    public static final String DETERMINISTIC = "deterministic";
+    public static final String MEMO_SCOPE = "memoScope";
+    public static final String MEMO_SIZE = "memoSize";
+    public static final long DEFAULT_MEMO_SIZE = 10_000;
+
+    public enum Scope {
+        TRANSACTION,
+        GLOBAL
+    }
+
+    private final Scope scope;
+    private final long size;
+
+    private final Map<List<AnyValue>, AnyValue> global;
+    // the caches of the open transactions, by user transaction id, so that they don't retain the transactions
+    private final Map<Long, Map<List<AnyValue>, AnyValue>> transactions = new ConcurrentHashMap<>();
+
+    public FunctionMemo(Scope scope, long size) {
+        this.scope = scope;
+        this.size = size > 0 ? size : DEFAULT_MEMO_SIZE;
+        this.global = scope == Scope.GLOBAL ? lruMap(this.size) : null;
+    }
+
+    /**
+     * @return the memoization configured by {@code deterministic}, {@code memoScope} and {@code memoSize},
+     * null if the function is not deterministic
+     */
+    public static FunctionMemo from(Map<String, Object> config) {
+        if (config == null || !Util.toBoolean(config.get(DETERMINISTIC))) {
+            return null;
+        }
+        Scope scope = Scope.valueOf(config.getOrDefault(MEMO_SCOPE, Scope.TRANSACTION.name())
+                .toString()
+                .toUpperCase());
+        return new FunctionMemo(scope, Util.toLong(config.getOrDefault(MEMO_SIZE, DEFAULT_MEMO_SIZE)));
+    }
+
+    public Scope getScope() {
+        return scope;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * @return the result memoized for the input, null if there is none
+     */
+    public AnyValue get(Transaction tx, AnyValue[] input) {
+        List<AnyValue> key = Arrays.asList(input);
+        if (global != null) {
+            AnyValue result = global.get(key);
+            if (result != null) {
+                return result;
+            }
+        }
+        Map<List<AnyValue>, AnyValue> cache = transactions.get(transactionId(tx));
+        return cache == null ? null : cache.get(key);
+    }
+
+    public void put(Transaction tx, AnyValue[] input, AnyValue result) {
+        List<AnyValue> key = Arrays.asList(input.clone());
+        if (global != null && key.stream().allMatch(FunctionMemo::isDetached) && isDetached(result)) {
+            global.put(key, result);
+        } else {
+            transactions
+                    .computeIfAbsent(transactionId(tx), id -> {
+                        ((InternalTransaction) tx).addCloseCallback(() -> transactions.remove(id));
+                        return lruMap(size);
+                    })
+                    .put(key, result);
+        }
+    }
+
+    /**
+     * @return the number of transactions with memoized results, i.e. still open
+     */
+    int transactionCount() {
+        return transactions.size();
+    }
+
+    private static long transactionId(Transaction tx) {
+        return ((InternalTransaction) tx).kernelTransaction().getUserTransactionId();
+    }
+
+    /**
+     * @return whether the value can be used outside the transaction it comes from
+     */
+    static boolean isDetached(AnyValue value) {
+        if (value instanceof VirtualNodeValue
+                || value instanceof VirtualRelationshipValue
+                || value instanceof VirtualPathValue) {
+            return false;
+        }
+        if (value instanceof ListValue) {
+            for (AnyValue element : (ListValue) value) {
+                if (!isDetached(element)) {
+                    return false;
+                }
+            }
+        } else if (value instanceof MapValue) {
+            boolean[] detached = {true};
+            ((MapValue) value).foreach((key, element) -> detached[0] &= isDetached(element));
+            return detached[0];
+        }
+        return true;
+    }
+
+    private static <K, V> Map<K, V> lruMap(long maxSize) {
+        return Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        });
+    }
+}
@@ -16,19 +16,21 @@ import apoc.util.FileUtils;
 import apoc.util.Util;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.lang.reflect.Array;
 import java.nio.channels.SeekableByteChannel;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 import org.apache.arrow.memory.RootAllocator;
-import org.apache.arrow.vector.BitVector;
 import org.apache.arrow.vector.FieldVector;
 import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.dictionary.DictionaryProvider;
 import org.apache.arrow.vector.ipc.ArrowFileReader;
 import org.apache.arrow.vector.ipc.ArrowReader;
 import org.apache.arrow.vector.ipc.ArrowStreamReader;
@@ -85,7 +87,7 @@ public class ImportArrow {
                                 .collect(
                                         HashMap::new,
                                         (map, fieldVector) -> {
-                                            Object read = read(fieldVector, counter.get(), conf);
+                                            Object read = read(fieldVector, counter.get(), reader, conf);
                                             if (read == null) {
                                                 return;
                                             }
@@ -166,20 +168,35 @@ public class ImportArrow {
         return true;
     }
 
-    private static Object read(FieldVector fieldVector, int index, ArrowConfig conf) {
-
-        if (fieldVector.isNull(index)) {
+    private static Object read(FieldVector fieldVector, int index, DictionaryProvider dictionaries, ArrowConfig conf) {
+        final Object object = ArrowUtils.read(fieldVector, index, dictionaries);
+        if (object == null || object instanceof Collection && ((Collection) object).isEmpty()) {
             return null;
-        } else if (fieldVector instanceof BitVector) {
-            BitVector fe = (BitVector) fieldVector;
-            return fe.get(index) == 1;
-        } else {
-            Object object = fieldVector.getObject(index);
-            if (object instanceof Collection && ((Collection) object).isEmpty()) {
-                return null;
-            }
+        }
+        if (object instanceof Collection && !isText((Collection<?>) object)) {
+            // a typed list, e.g. the labels or a LongArray, stored as an array of its type
+            return toTypedArray((Collection<?>) object);
+        }
+        if (object instanceof Collection || object instanceof String || object instanceof Map) {
+            // the values exported as strings are converted by the mapping
             return toValidValue(object, fieldVector.getName(), conf.getMapping());
         }
+        // the typed columns are already read as their Neo4j values
+        return object;
+    }
+
+    private static boolean isText(Collection<?> collection) {
+        return collection.stream().filter(Objects::nonNull).findFirst().orElse(null) instanceof String;
+    }
+
+    private static Object toTypedArray(Collection<?> collection) {
+        final Class<?> type = collection.stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .<Class<?>>map(Object::getClass)
+                .orElse(Object.class);
+        final Object[] array = (Object[]) Array.newInstance(type, collection.size());
+        return collection.toArray(array);
     }
 
     private void addProps(Map<String, Object> row, Entity rel) {
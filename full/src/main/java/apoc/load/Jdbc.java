@@ -21,6 +21,7 @@ package apoc.load;
 import static apoc.load.util.JdbcUtil.*;
 
 import apoc.Extended;
+import apoc.Pools;
 import apoc.load.util.LoadJdbcConfig;
 import apoc.result.RowResult;
 import apoc.util.MapUtil;
@@ -30,6 +31,12 @@ import java.sql.*;
 import java.time.OffsetDateTime;
 import java.time.OffsetTime;
 import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 import org.neo4j.graphdb.GraphDatabaseService;
@@ -39,6 +46,7 @@ import org.neo4j.procedure.Description;
 import org.neo4j.procedure.Mode;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
+import org.neo4j.procedure.TerminationGuard;
 
 /**
  * @author mh
@@ -61,6 +69,15 @@ public class Jdbc {
     @Context
     public GraphDatabaseService db;
 
+    @Context
+    public Pools pools;
+
+    @Context
+    public TerminationGuard terminationGuard;
+
+    @Context
+    public JdbcConnectionPool connectionPool;
+
     @Procedure
     @Description("apoc.load.driver('org.apache.derby.jdbc.EmbeddedDriver') register JDBC driver of source database")
     public void driver(@Name("driverClass") String driverClass) {
@@ -105,29 +122,34 @@ public class Jdbc {
         LoadJdbcConfig loadJdbcConfig = new LoadJdbcConfig(config);
         String url = getUrlOrKey(urlOrKey);
         String query = getSqlOrKey(tableOrSelect);
+        if (loadJdbcConfig.isPartitioned()) {
+            return executePartitionedQuery(url, query, loadJdbcConfig, params);
+        }
         try {
-            Connection connection = getConnection(url, loadJdbcConfig);
-            // see https://jdbc.postgresql.org/documentation/91/query.html#query-with-cursors
-            connection.setAutoCommit(loadJdbcConfig.isAutoCommit());
+            JdbcConnectionPool.Lease lease = connect(url, loadJdbcConfig);
             try {
+                Connection connection = lease.get();
+                // see https://jdbc.postgresql.org/documentation/91/query.html#query-with-cursors
+                connection.setAutoCommit(loadJdbcConfig.isAutoCommit());
                 PreparedStatement stmt =
                         connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
                 stmt.setFetchSize(loadJdbcConfig.getFetchSize().intValue());
                 try {
                     for (int i = 0; i < params.length; i++) stmt.setObject(i + 1, params[i]);
                     ResultSet rs = stmt.executeQuery();
-                    Iterator<Map<String, Object>> supplier = new ResultSetIterator(log, rs, true, loadJdbcConfig);
+                    Iterator<Map<String, Object>> supplier = new ResultSetIterator(log, rs, false, loadJdbcConfig);
                     Spliterator<Map<String, Object>> spliterator =
                             Spliterators.spliteratorUnknownSize(supplier, Spliterator.ORDERED);
                     return StreamSupport.stream(spliterator, false)
                             .map(RowResult::new)
-                            .onClose(() -> closeIt(log, stmt, connection));
+                            .onClose(() -> closeIt(log, stmt, lease));
                 } catch (Exception sqle) {
                     closeIt(log, stmt);
                     throw sqle;
                 }
             } catch (Exception sqle) {
-                closeIt(log, connection);
+                markIfBroken(lease, sqle);
+                closeIt(log, lease);
                 throw sqle;
             }
         } catch (Exception e) {
@@ -135,6 +157,149 @@ public class Jdbc {
         }
     }
 
+    /**
+     * Reads the ranges of the partitionColumn in parallel, each with its own connection,
+     * the rows being returned in the order they are read
+     */
+    private Stream<RowResult> executePartitionedQuery(
+            String url, String query, LoadJdbcConfig config, Object... params) {
+        int partitions = config.getPartitions();
+        long stride = Math.max((config.getUpperBound() - config.getLowerBound()) / partitions, 1);
+        BlockingQueue<Map<String, Object>> queue =
+                new ArrayBlockingQueue<>(Math.max(config.getFetchSize().intValue(), 100));
+        AtomicInteger running = new AtomicInteger(partitions);
+        AtomicReference<Exception> error = new AtomicReference<>();
+        AtomicBoolean closed = new AtomicBoolean();
+        for (int i = 0; i < partitions; i++) {
+            String sql = partitionQuery(query, config.getPartitionColumn(), i, partitions);
+            long lowerBound = config.getLowerBound() + i * stride;
+            long upperBound = lowerBound + stride;
+            boolean first = i == 0;
+            boolean last = i == partitions - 1;
+            pools.getDefaultExecutorService().submit(() -> {
+                try (JdbcConnectionPool.Lease lease = connect(url, config)) {
+                    Connection connection = lease.get();
+                    connection.setAutoCommit(config.isAutoCommit());
+                    try (PreparedStatement stmt =
+                            connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                        stmt.setFetchSize(config.getFetchSize().intValue());
+                        int index = 1;
+                        for (Object param : params) stmt.setObject(index++, param);
+                        if (!first) stmt.setLong(index++, lowerBound);
+                        if (!last) stmt.setLong(index, upperBound);
+                        Iterator<Map<String, Object>> rows =
+                                new ResultSetIterator(log, stmt.executeQuery(), false, config);
+                        while (rows.hasNext() && !closed.get()) {
+                            offer(queue, rows.next(), closed);
+                        }
+                    } catch (SQLException e) {
+                        markIfBroken(lease, e);
+                        throw e;
+                    }
+                } catch (Exception e) {
+                    error.compareAndSet(null, e);
+                } finally {
+                    if (running.decrementAndGet() == 0) {
+                        offer(queue, END_OF_ROWS, closed);
+                    }
+                }
+            });
+        }
+        Iterator<Map<String, Object>> rows = new Iterator<>() {
+            private Map<String, Object> next;
+
+            @Override
+            public boolean hasNext() {
+                if (next == null) {
+                    next = take();
+                }
+                return next != END_OF_ROWS;
+            }
+
+            @Override
+            public Map<String, Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map<String, Object> current = next;
+                next = null;
+                return current;
+            }
+
+            private Map<String, Object> take() {
+                try {
+                    while (true) {
+                        terminationGuard.check();
+                        Map<String, Object> row = queue.poll(100, TimeUnit.MILLISECONDS);
+                        if (row == END_OF_ROWS && error.get() != null) {
+                            throw logsErrorAndThrowsException(error.get(), query, log);
+                        }
+                        if (row != null) {
+                            return row;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while reading the partitions", e);
+                }
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(rows, 0), false)
+                .map(RowResult::new)
+                .onClose(() -> closed.set(true));
+    }
+
+    private static final Map<String, Object> END_OF_ROWS = Collections.unmodifiableMap(new HashMap<>());
+
+    /**
+     * The first range also has the rows without value, the last one has no upper bound
+     */
+    static String partitionQuery(String query, String column, int partition, int partitions) {
+        String condition;
+        if (partition == 0) {
+            condition = column + " < ? OR " + column + " IS NULL";
+        } else if (partition == partitions - 1) {
+            condition = column + " >= ?";
+        } else {
+            condition = column + " >= ? AND " + column + " < ?";
+        }
+        return "SELECT * FROM (" + query + ") AS APOC_PARTITION WHERE " + condition;
+    }
+
+    private static void offer(BlockingQueue<Map<String, Object>> queue, Map<String, Object> row, AtomicBoolean closed) {
+        try {
+            while (!closed.get() && !queue.offer(row, 100, TimeUnit.MILLISECONDS)) {
+                // waits for the rows to be consumed, until the stream is closed
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JdbcConnectionPool.Lease connect(String url, LoadJdbcConfig config) throws Exception {
+        if (connectionPool == null) {
+            return JdbcConnectionPool.Lease.unpooled(getConnection(url, config));
+        }
+        List<Object> key = config.hasCredentials()
+                ? Arrays.asList(
+                        url,
+                        config.getCredentials().getUser(),
+                        config.getCredentials().getPassword())
+                : Arrays.asList(url, null, null);
+        return connectionPool.acquire(key, () -> getConnection(url, config));
+    }
+
+    /**
+     * The connections with an error of the connection exception class (SQLState 08) are not reused
+     */
+    private static void markIfBroken(JdbcConnectionPool.Lease lease, Exception e) {
+        if (e instanceof SQLException
+                && ((SQLException) e).getSQLState() != null
+                && ((SQLException) e).getSQLState().startsWith("08")) {
+            lease.markBroken();
+        }
+    }
+
     @Procedure(mode = Mode.DBMS)
     @Description(
             "apoc.load.jdbcUpdate('key or url','statement',[params],config) YIELD row - update relational database, from a SQL statement with optional parameters")
@@ -151,24 +316,24 @@ public class Jdbc {
             String urlOrKey, String query, Map<String, Object> config, Object... params) {
         String url = getUrlOrKey(urlOrKey);
         LoadJdbcConfig jdbcConfig = new LoadJdbcConfig(config);
-        try {
-            Connection connection = getConnection(url, jdbcConfig);
+        try (JdbcConnectionPool.Lease lease = connect(url, jdbcConfig)) {
+            Connection connection = lease.get();
             try {
-                PreparedStatement stmt =
-                        connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
-                stmt.setFetchSize(5000);
-                try {
+                if (jdbcConfig.isBatch()) {
+                    return Stream.of(MapUtil.map("count", executeBatch(connection, query, jdbcConfig, params)))
+                            .map(RowResult::new);
+                }
+                connection.setAutoCommit(true);
+                try (PreparedStatement stmt =
+                        connection.prepareStatement(query, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    stmt.setFetchSize(5000);
                     for (int i = 0; i < params.length; i++) stmt.setObject(i + 1, params[i]);
                     int updateCount = stmt.executeUpdate();
-                    closeIt(log, stmt, connection);
                     Map<String, Object> result = MapUtil.map("count", updateCount);
                     return Stream.of(result).map(RowResult::new);
-                } catch (Exception sqle) {
-                    closeIt(log, stmt);
-                    throw sqle;
                 }
             } catch (Exception sqle) {
-                closeIt(log, connection);
+                markIfBroken(lease, sqle);
                 throw sqle;
             }
         } catch (Exception e) {
@@ -176,6 +341,49 @@ public class Jdbc {
         }
     }
 
+    /**
+     * Executes the statement once per row of parameters, sending batchSize rows at a time, in a single transaction
+     * @return the count of updated rows
+     */
+    private static long executeBatch(Connection connection, String query, LoadJdbcConfig config, Object... rows)
+            throws SQLException {
+        connection.setAutoCommit(false);
+        long count = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(query)) {
+            int batched = 0;
+            for (Object row : rows) {
+                if (!(row instanceof List)) {
+                    throw new IllegalArgumentException(
+                            "With batch: true, the params must be a list of lists of parameters, one per row");
+                }
+                List<?> values = (List<?>) row;
+                for (int i = 0; i < values.size(); i++) stmt.setObject(i + 1, values.get(i));
+                stmt.addBatch();
+                if (++batched == config.getBatchSize()) {
+                    count += sum(stmt.executeBatch());
+                    batched = 0;
+                }
+            }
+            if (batched > 0) {
+                count += sum(stmt.executeBatch());
+            }
+            connection.commit();
+            return count;
+        } catch (Exception e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private static long sum(int[] updateCounts) {
+        long sum = 0;
+        for (int updateCount : updateCounts) {
+            // Statement.SUCCESS_NO_INFO when the driver does not know the count of a row
+            sum += updateCount == Statement.SUCCESS_NO_INFO ? 1 : Math.max(updateCount, 0);
+        }
+        return sum;
+    }
+
     private static RuntimeException logsErrorAndThrowsException(Exception e, String query, Log log) {
         String errorMessage = "Cannot execute SQL statement `%s`.%nError:%n%s";
         String exceptionMsg = e.getMessage();
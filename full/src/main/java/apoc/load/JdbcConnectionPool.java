@@ -0,0 +1,262 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.load;
+
+import apoc.ApocConfig;
+import apoc.Pools;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+
+/**
+ * The connections used by {@code apoc.load.jdbc} and {@code apoc.load.jdbcUpdate}, kept open between the calls,
+ * keyed by the url and the credentials.
+ * At most {@code apoc.jdbc.pool.max_size} idle connections are kept per key, the most recently used being reused first,
+ * and the ones not used for {@code apoc.jdbc.pool.idle_timeout} milliseconds are closed by a recurring job
+ * of the APOC scheduled pool.
+ */
+public class JdbcConnectionPool extends LifecycleAdapter {
+
+    public static final String ENABLED = "apoc.jdbc.pool.enabled";
+    public static final String MAX_SIZE = "apoc.jdbc.pool.max_size";
+    public static final String IDLE_TIMEOUT = "apoc.jdbc.pool.idle_timeout";
+
+    // the connections idle for longer are checked with the database before being reused
+    private static final long VALIDATION_INTERVAL = 30_000;
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+
+    private final Pools pools;
+    private final Log log;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long idleTimeout;
+
+    private final Map<List<Object>, Deque<Idle>> idle = new ConcurrentHashMap<>();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private ScheduledFuture<?> eviction;
+
+    @FunctionalInterface
+    public interface ConnectionFactory {
+        Connection create() throws Exception;
+    }
+
+    private static class Idle {
+        final Connection connection;
+        final long since = System.currentTimeMillis();
+
+        Idle(Connection connection) {
+            this.connection = connection;
+        }
+    }
+
+    /**
+     * A connection in use, given back to the pool when closed, or closed if it does not come from a pool
+     */
+    public static class Lease implements AutoCloseable {
+        private final JdbcConnectionPool pool;
+        private final List<Object> key;
+        private final Connection connection;
+        private volatile boolean broken;
+
+        private Lease(JdbcConnectionPool pool, List<Object> key, Connection connection) {
+            this.pool = pool;
+            this.key = key;
+            this.connection = connection;
+        }
+
+        public static Lease unpooled(Connection connection) {
+            return new Lease(null, null, connection);
+        }
+
+        public Connection get() {
+            return connection;
+        }
+
+        /**
+         * The connection is closed instead of being reused, e.g. after a connection error
+         */
+        public void markBroken() {
+            broken = true;
+        }
+
+        @Override
+        public void close() {
+            if (pool == null) {
+                closeQuietly(connection, null);
+            } else {
+                pool.release(this);
+            }
+        }
+    }
+
+    public JdbcConnectionPool(Pools pools, ApocConfig apocConfig, Log log) {
+        this(
+                pools,
+                log,
+                apocConfig.getBoolean(ENABLED, true),
+                apocConfig.getInt(MAX_SIZE, 8),
+                Long.parseLong(apocConfig.getString(IDLE_TIMEOUT, "300000")));
+    }
+
+    JdbcConnectionPool(Pools pools, Log log, boolean enabled, int maxSize, long idleTimeout) {
+        this.pools = pools;
+        this.log = log;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        if (enabled && idleTimeout > 0) {
+            long interval = Math.max(idleTimeout / 2, 1000);
+            eviction = pools.getScheduledExecutorService()
+                    .scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (eviction != null) {
+            eviction.cancel(false);
+        }
+        idle.values().forEach(connections -> {
+            Idle entry;
+            while ((entry = connections.pollFirst()) != null) {
+                closeQuietly(entry.connection, log);
+            }
+        });
+        idle.clear();
+    }
+
+    /**
+     * @return an idle connection of the key, or one created by the factory if there is none
+     */
+    public Lease acquire(List<Object> key, ConnectionFactory factory) throws Exception {
+        if (!enabled) {
+            created.increment();
+            return Lease.unpooled(factory.create());
+        }
+        Deque<Idle> connections = idle.get(key);
+        Idle entry;
+        while (connections != null && (entry = connections.pollFirst()) != null) {
+            if (isUsable(entry)) {
+                reused.increment();
+                return new Lease(this, key, entry.connection);
+            }
+            evicted.increment();
+            closeQuietly(entry.connection, log);
+        }
+        created.increment();
+        return new Lease(this, key, factory.create());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("idle", idle.values().stream().mapToLong(Deque::size).sum());
+        stats.put("created", created.sum());
+        stats.put("reused", reused.sum());
+        stats.put("evicted", evicted.sum());
+        stats.put("maxSize", (long) maxSize);
+        stats.put("idleTimeout", idleTimeout);
+        return stats;
+    }
+
+    void evictIdle() {
+        long now = System.currentTimeMillis();
+        idle.values()
+                .forEach(connections -> connections.forEach(entry -> {
+                    // removed only if not taken meanwhile
+                    if (now - entry.since > idleTimeout && connections.remove(entry)) {
+                        evicted.increment();
+                        closeQuietly(entry.connection, log);
+                    }
+                }));
+    }
+
+    private void release(Lease lease) {
+        if (lease.broken || !reset(lease.connection)) {
+            closeQuietly(lease.connection, log);
+            return;
+        }
+        Deque<Idle> connections = idle.computeIfAbsent(lease.key, key -> new ConcurrentLinkedDeque<>());
+        if (connections.size() >= maxSize) {
+            evicted.increment();
+            closeQuietly(lease.connection, log);
+            return;
+        }
+        connections.offerFirst(new Idle(lease.connection));
+    }
+
+    /**
+     * Ends the transaction left open by a connection without auto commit
+     */
+    private boolean reset(Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isUsable(Idle entry) {
+        try {
+            if (entry.connection.isClosed()) {
+                return false;
+            }
+            return System.currentTimeMillis() - entry.since < VALIDATION_INTERVAL
+                    || entry.connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(Connection connection, Log log) {
+        try {
+            connection.close();
+        } catch (Exception e) {
+            if (log != null) {
+                log.warn("Error closing the jdbc connection: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package apoc.ml;
+
+import static apoc.ml.OpenAI.ENABLE_BACK_OFF_RETRIES_CONF_KEY;
+
+import apoc.ApocConfig;
+import apoc.Pools;
+import apoc.util.SimpleRateLimiter;
+import apoc.util.Util;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.eclipse.collections.impl.list.mutable.primitive.LongArrayList;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.TransactionTerminatedException;
+import org.neo4j.procedure.TerminationGuard;
+
+/**
+ * Computes the embeddings of the texts returned by a statement with their nodes, and writes them to the nodes.
+ * The texts are sent in chunks of at most {@code batchSize} texts and {@code maxTokensPerRequest} estimated tokens,
+ * with at most {@code concurrency} requests in flight on the {@link Pools} executor,
+ * and at most {@code requestsPerMinute} requests started per minute.
+ * The requests answered with a 429 are retried with a back off, like {@code enableBackOffRetries} does.
+ * The embeddings of each chunk are written in their own transaction, from the thread running the procedure,
+ * so they stay written when the procedure fails afterwards, and the error reports how many were written.
+ */
+public class EmbeddingWriter {
+    public static final String BATCH_SIZE_CONF_KEY = "batchSize";
+    public static final String MAX_TOKENS_CONF_KEY = "maxTokensPerRequest";
+    public static final String CONCURRENCY_CONF_KEY = "concurrency";
+    public static final String REQUESTS_PER_MINUTE_CONF_KEY = "requestsPerMinute";
+    public static final String PARAMS_CONF_KEY = "params";
+
+    public static final String FAILED_AFTER_WRITING =
+            "Failed after writing the embeddings of %d nodes in %d committed batches: %s";
+
+    // the limits of the OpenAI embeddings API, with some headroom for the token estimate
+    public static final int DEFAULT_BATCH_SIZE = 2048;
+    public static final long DEFAULT_MAX_TOKENS = 250_000;
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    // the configuration entries of the procedure, not sent to the API
+    private static final Set<String> WRITER_CONF_KEYS = Set.of(
+            BATCH_SIZE_CONF_KEY,
+            MAX_TOKENS_CONF_KEY,
+            CONCURRENCY_CONF_KEY,
+            REQUESTS_PER_MINUTE_CONF_KEY,
+            PARAMS_CONF_KEY);
+
+    public static class EmbeddingWriteResult {
+        public final long batches;
+        public final long total;
+        public final long written;
+        public final long skipped;
+        public final long failedOperations;
+        public final long failedBatches;
+        public final long timeTaken;
+        public final Map<String, Long> errorMessages;
+
+        public EmbeddingWriteResult(
+                long batches,
+                long total,
+                long written,
+                long skipped,
+                long failedOperations,
+                long failedBatches,
+                long timeTaken,
+                Map<String, Long> errorMessages) {
+            this.batches = batches;
+            this.total = total;
+            this.written = written;
+            this.skipped = skipped;
+            this.failedOperations = failedOperations;
+            this.failedBatches = failedBatches;
+            this.timeTaken = timeTaken;
+            this.errorMessages = errorMessages;
+        }
+    }
+
+    private static class Chunk {
+        final long[] nodes;
+        final List<String> texts;
+
+        Chunk(long[] nodes, List<String> texts) {
+            this.nodes = nodes;
+            this.texts = texts;
+        }
+    }
+
+    private static class Response {
+        final Chunk chunk;
+        final List<Map<String, Object>> data;
+        final Exception error;
+
+        Response(Chunk chunk, List<Map<String, Object>> data, Exception error) {
+            this.chunk = chunk;
+            this.data = data;
+            this.error = error;
+        }
+    }
+
+    private final GraphDatabaseService db;
+    private final Pools pools;
+    private final TerminationGuard terminationGuard;
+    private final ApocConfig apocConfig;
+    private final String apiKey;
+    private final Map<String, Object> requestConfig;
+    private final int batchSize;
+    private final long maxTokens;
+    private final Semaphore permits;
+    private final SimpleRateLimiter rateLimiter;
+
+    private final BlockingQueue<Response> responses = new LinkedBlockingQueue<>();
+    // set on failure, so that the requests not sent yet are dropped
+    private volatile boolean aborted;
+    private int inFlight;
+    private long batches;
+    private long total;
+    private long written;
+    private long skipped;
+    private long failedOperations;
+    private long failedBatches;
+    private final Map<String, Long> errorMessages = new HashMap<>();
+
+    public EmbeddingWriter(
+            GraphDatabaseService db,
+            Pools pools,
+            TerminationGuard terminationGuard,
+            ApocConfig apocConfig,
+            String apiKey,
+            Map<String, Object> configuration) {
+        this.db = db;
+        this.pools = pools;
+        this.terminationGuard = terminationGuard;
+        this.apocConfig = apocConfig;
+        this.apiKey = apiKey;
+        this.batchSize =
+                Math.max(Util.toInteger(configuration.getOrDefault(BATCH_SIZE_CONF_KEY, DEFAULT_BATCH_SIZE)), 1);
+        this.maxTokens = Util.toLong(configuration.getOrDefault(MAX_TOKENS_CONF_KEY, DEFAULT_MAX_TOKENS));
+        this.permits = new Semaphore(
+                Math.max(Util.toInteger(configuration.getOrDefault(CONCURRENCY_CONF_KEY, DEFAULT_CONCURRENCY)), 1));
+        int requestsPerMinute = Util.toInteger(configuration.getOrDefault(REQUESTS_PER_MINUTE_CONF_KEY, 0));
+        this.rateLimiter = requestsPerMinute > 0 ? new SimpleRateLimiter(60_000, requestsPerMinute) : null;
+        this.requestConfig = new HashMap<>(configuration);
+        WRITER_CONF_KEYS.forEach(requestConfig::remove);
+        // the rate limits of the provider are expected when sending many requests
+        requestConfig.putIfAbsent(ENABLE_BACK_OFF_RETRIES_CONF_KEY, true);
+    }
+
+    /**
+     * @param statement returns the nodes to write to as {@code node} and their texts as {@code text}
+     */
+    public EmbeddingWriteResult write(
+            Transaction tx, String statement, Map<String, Object> params, String embeddingProperty) {
+        long start = System.currentTimeMillis();
+        try {
+            writeAll(tx, statement, params, embeddingProperty);
+        } catch (TransactionTerminatedException e) {
+            aborted = true;
+            throw e;
+        } catch (RuntimeException e) {
+            aborted = true;
+            // not as the cause, as the procedures report the message of the root cause
+            RuntimeException failure = new RuntimeException(
+                    String.format(FAILED_AFTER_WRITING, written, batches - failedBatches, e.getMessage()));
+            failure.addSuppressed(e);
+            throw failure;
+        }
+        return new EmbeddingWriteResult(
+                batches,
+                total,
+                written,
+                skipped,
+                failedOperations,
+                failedBatches,
+                System.currentTimeMillis() - start,
+                errorMessages);
+    }
+
+    private void writeAll(Transaction tx, String statement, Map<String, Object> params, String embeddingProperty) {
+        LongArrayList nodes = new LongArrayList(batchSize);
+        List<String> texts = new ArrayList<>(batchSize);
+        long tokens = 0;
+        try (Result result = tx.execute(statement, params)) {
+            while (result.hasNext()) {
+                terminationGuard.check();
+                Map<String, Object> row = result.next();
+                Object node = row.get("node");
+                Object text = row.get("text");
+                if (!(node instanceof Node) || !(text instanceof String) || StringUtils.isBlank((String) text)) {
+                    skipped++;
+                    continue;
+                }
+                long estimate = estimateTokens((String) text);
+                if (!texts.isEmpty() && (texts.size() >= batchSize || tokens + estimate > maxTokens)) {
+                    submit(new Chunk(nodes.toArray(), texts), embeddingProperty);
+                    nodes.clear();
+                    texts = new ArrayList<>(batchSize);
+                    tokens = 0;
+                }
+                nodes.add(((Node) node).getId());
+                texts.add((String) text);
+                tokens += estimate;
+                total++;
+            }
+        }
+        if (!texts.isEmpty()) {
+            submit(new Chunk(nodes.toArray(), texts), embeddingProperty);
+        }
+        while (inFlight > 0) {
+            terminationGuard.check();
+            writeNext(embeddingProperty, 100);
+        }
+    }
+
+    /**
+     * A rough estimate of the tokens of a text, about 4 characters per token for the english texts
+     */
+    static long estimateTokens(String text) {
+        return text.length() / 4 + 1;
+    }
+
+    private void submit(Chunk chunk, String embeddingProperty) {
+        // the embeddings received meanwhile are written while waiting for a request to complete
+        while (!permits.tryAcquire()) {
+            terminationGuard.check();
+            writeNext(embeddingProperty, 100);
+        }
+        while (rateLimiter != null && !rateLimiter.canExecute()) {
+            terminationGuard.check();
+            writeNext(embeddingProperty, 100);
+        }
+        inFlight++;
+        pools.getDefaultExecutorService().submit(() -> {
+            try {
+                if (aborted) {
+                    return;
+                }
+                responses.add(new Response(chunk, request(chunk.texts), null));
+            } catch (Exception e) {
+                responses.add(new Response(chunk, null, e));
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> request(List<String> texts) throws Exception {
+        return OpenAI.executeRequest(
+                        apiKey,
+                        requestConfig,
+                        "embeddings",
+                        "text-embedding-ada-002",
+                        "input",
+                        texts,
+                        "$.data",
+                        apocConfig)
+                .flatMap(v -> ((List<Map<String, Object>>) v).stream())
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeNext(String embeddingProperty, long timeoutMillis) {
+        final Response response;
+        try {
+            response = responses.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for the embeddings", e);
+        }
+        if (response == null) {
+            return;
+        }
+        inFlight--;
+        batches++;
+        if (response.error != null) {
+            fail(response.chunk, response.error);
+            return;
+        }
+        try (Transaction tx = db.beginTx()) {
+            long count = 0;
+            for (Map<String, Object> embedding : response.data) {
+                int index = Util.toInteger(embedding.get("index"));
+                List<Number> vector = (List<Number>) embedding.get("embedding");
+                double[] values = new double[vector.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = vector.get(i).doubleValue();
+                }
+                tx.getNodeById(response.chunk.nodes[index]).setProperty(embeddingProperty, values);
+                count++;
+            }
+            tx.commit();
+            written += count;
+            failedOperations += response.chunk.nodes.length - count;
+        } catch (Exception e) {
+            fail(response.chunk, e);
+        }
+    }
+
+    private void fail(Chunk chunk, Exception error) {
+        failedBatches++;
+        failedOperations += chunk.nodes.length;
+        errorMessages.merge(String.valueOf(error.getMessage()), 1L, Long::sum);
+    }
+}
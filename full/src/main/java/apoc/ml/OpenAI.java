@@ -11,6 +11,7 @@ import static apoc.ml.MLUtil.MODEL_CONF_KEY;
 
 import apoc.ApocConfig;
 import apoc.Extended;
+import apoc.Pools;
 import apoc.result.MapResult;
 import apoc.util.ExtendedUtil;
 import apoc.util.JsonUtil;
@@ -29,10 +30,14 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.apache.commons.collections4.MapUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.neo4j.graphdb.GraphDatabaseService;
+import org.neo4j.graphdb.Transaction;
 import org.neo4j.procedure.Context;
 import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
 import org.neo4j.procedure.Name;
 import org.neo4j.procedure.Procedure;
+import org.neo4j.procedure.TerminationGuard;
 
 @Extended
 public class OpenAI {
@@ -45,6 +50,18 @@ public class OpenAI {
     @Context
     public ApocConfig apocConfig;
 
+    @Context
+    public GraphDatabaseService db;
+
+    @Context
+    public Transaction tx;
+
+    @Context
+    public Pools pools;
+
+    @Context
+    public TerminationGuard terminationGuard;
+
     public static class EmbeddingResult {
         public final long index;
         public final String text;
@@ -161,6 +178,20 @@ public class OpenAI {
                 });
     }
 
+    @Procedure(value = "apoc.ml.openai.embedding.write", mode = Mode.WRITE)
+    @Description(
+            "apoc.ml.openai.embedding.write(statement, embeddingProperty, api_key, configuration) - computes the embeddings of the `text` returned by the statement with the `node`, with concurrent batched requests, and writes them to the embeddingProperty of the nodes")
+    public Stream<EmbeddingWriter.EmbeddingWriteResult> writeEmbedding(
+            @Name("statement") String statement,
+            @Name("embeddingProperty") String embeddingProperty,
+            @Name("api_key") String apiKey,
+            @Name(value = "configuration", defaultValue = "{}") Map<String, Object> configuration) {
+        Map<String, Object> params =
+                (Map<String, Object>) configuration.getOrDefault(EmbeddingWriter.PARAMS_CONF_KEY, Map.of());
+        EmbeddingWriter writer = new EmbeddingWriter(db, pools, terminationGuard, apocConfig, apiKey, configuration);
+        return Stream.of(writer.write(tx, statement, params, embeddingProperty));
+    }
+
     @Procedure("apoc.ml.openai.completion")
     @Description("apoc.ml.openai.completion(prompt, api_key, configuration) - prompts the completion API")
     public Stream<MapResult> completion(
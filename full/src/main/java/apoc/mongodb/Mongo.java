@@ -44,6 +44,9 @@ public class Mongo {
     @Context
     public Log log;
 
+    @Context
+    public MongoClientCache clientCache;
+
     @Procedure("apoc.mongo.aggregate")
     @Description(
             "apoc.mongo.aggregate(uri, pipeline, $config) yield value - perform an aggregate operation on mongodb collection")
@@ -55,7 +58,8 @@ public class Mongo {
         return executeMongoQuery(
                 uri,
                 conf,
-                coll -> coll.aggregate(getDocuments(pipeline)).map(MapResult::new),
+                coll -> coll.aggregate(getDocuments(pipeline), conf.getBatchSize())
+                        .map(MapResult::new),
                 getExceptionConsumer("apoc.mongo.aggregate", uri, config));
     }
 
@@ -87,7 +91,12 @@ public class Mongo {
                 uri,
                 conf,
                 coll -> coll.find(
-                                getDocument(query), conf.getProject(), conf.getSort(), conf.getSkip(), conf.getLimit())
+                                getDocument(query),
+                                conf.getProject(),
+                                conf.getSort(),
+                                conf.getSkip(),
+                                conf.getLimit(),
+                                conf.getBatchSize())
                         .map(MapResult::new),
                 getExceptionConsumer("apoc.mongo.find", uri, config));
     }
@@ -101,7 +110,10 @@ public class Mongo {
             @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
         MongoDbConfig conf = getMongoConfig(config);
         try (MongoDbCollInterface coll = getColl(uri, conf)) {
-            coll.insertDocs(documents.stream().map(MongoDBUtils::getDocument).collect(Collectors.toList()));
+            coll.insertDocs(
+                    documents.stream().map(MongoDBUtils::getDocument).collect(Collectors.toList()),
+                    conf.getWriteBatchSize(),
+                    conf.isOrdered());
         } catch (Exception e) {
             mongoErrorLog("apoc.mongo.insert", uri, config, e, "documents = " + documents + ",");
             throw new RuntimeException(e);
@@ -140,6 +152,22 @@ public class Mongo {
                 getExceptionConsumer("apoc.mongo.delete", uri, config, "query = " + query + ","));
     }
 
+    @Procedure("apoc.mongo.bulkWrite")
+    @Description(
+            "apoc.mongo.bulkWrite(uri, operations, $config) yield value - executes the given insertOne, updateOne, updateMany, replaceOne, deleteOne and deleteMany operations on the mongodb collection, in batches of batchSize operations")
+    public Stream<MapResult> bulkWrite(
+            @Name("uri") String uri,
+            @Name("operations") List<Map<String, Object>> operations,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        MongoDbConfig conf = getMongoConfig(config);
+        return executeMongoQuery(
+                uri,
+                conf,
+                coll -> Stream.of(
+                        new MapResult(coll.bulkWrite(operations, conf.getWriteBatchSize(), conf.isOrdered()))),
+                getExceptionConsumer("apoc.mongo.bulkWrite", uri, config));
+    }
+
     private Consumer<Exception> getExceptionConsumer(String procedureName, String uri, Map<String, Object> config) {
         return getExceptionConsumer(procedureName, uri, config, "");
     }
@@ -176,6 +204,6 @@ public class Mongo {
     }
 
     private MongoDbCollInterface getColl(@Name("url") String url, MongoDbConfig conf) {
-        return MongoDbCollInterface.Factory.create(url, conf);
+        return MongoDbCollInterface.Factory.create(url, conf, clientCache);
     }
 }
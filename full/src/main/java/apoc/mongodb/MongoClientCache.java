@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.mongodb;
+
+import apoc.ApocConfig;
+import apoc.Pools;
+import apoc.util.ClientCache;
+import org.neo4j.logging.Log;
+
+/**
+ * The clients used by {@code apoc.mongo.*} and {@code apoc.mongodb.*}, kept open between the calls and shared by them,
+ * keyed by the connection string, which holds the credentials and the client options.
+ * Each client has its own connection pool and monitoring threads, that are now created once per connection string.
+ * The clients not used for {@code apoc.mongo.client.cache.idle_timeout} milliseconds are closed by a recurring job,
+ * and the least recently used clients not in use are closed when there are more than
+ * {@code apoc.mongo.client.cache.max_size}.
+ */
+public class MongoClientCache extends ClientCache {
+
+    public static final String ENABLED = "apoc.mongo.client.cache.enabled";
+    public static final String MAX_SIZE = "apoc.mongo.client.cache.max_size";
+    public static final String IDLE_TIMEOUT = "apoc.mongo.client.cache.idle_timeout";
+
+    public MongoClientCache(Pools pools, ApocConfig apocConfig, Log log) {
+        this(
+                pools,
+                log,
+                apocConfig.getBoolean(ENABLED, true),
+                apocConfig.getInt(MAX_SIZE, 16),
+                Long.parseLong(apocConfig.getString(IDLE_TIMEOUT, "300000")));
+    }
+
+    MongoClientCache(Pools pools, Log log, boolean enabled, int maxSize, long idleTimeout) {
+        super(pools, log, "mongo client", "clients", enabled, maxSize, idleTimeout);
+    }
+}
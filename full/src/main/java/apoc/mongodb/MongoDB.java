@@ -68,6 +68,9 @@ public class MongoDB {
     @Context
     public Log log;
 
+    @Context
+    public MongoClientCache clientCache;
+
     @Deprecated
     @Procedure(deprecatedBy = "apoc.mongo.find")
     @Description(
@@ -132,7 +135,7 @@ public class MongoDB {
             boolean objectIdAsMap) {
         String url = getMongoDBUrl(hostOrKey);
         return MongoDbCollInterface.Factory.create(
-                url, db, collection, compatibleValues, extractReferences, objectIdAsMap);
+                url, db, collection, compatibleValues, extractReferences, objectIdAsMap, clientCache);
     }
 
     @Deprecated
@@ -206,21 +209,15 @@ public class MongoDB {
             @Name("db") String db,
             @Name("collection") String collection,
             @Name("documents") List<Map<String, Object>> documents) {
-        executeMongoQuery(
-                hostOrKey,
-                db,
-                collection,
-                false,
-                false,
-                false,
-                coll -> {
-                    coll.insert(documents);
-                    return null;
-                },
-                e -> log.error(
-                        "apoc.mongodb.insert - hostOrKey = [" + hostOrKey + "], db = [" + db + "], collection = ["
-                                + collection + "], documents = [" + documents + "]",
-                        e));
+        try (MongoDbCollInterface coll = getColl(hostOrKey, db, collection, false, false, false)) {
+            coll.insert(documents);
+        } catch (Exception e) {
+            log.error(
+                    "apoc.mongodb.insert - hostOrKey = [" + hostOrKey + "], db = [" + db + "], collection = ["
+                            + collection + "], documents = [" + documents + "]",
+                    e);
+            throw new RuntimeException("Error during connection", e);
+        }
     }
 
     @Deprecated
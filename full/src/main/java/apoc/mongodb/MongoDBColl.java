@@ -24,17 +24,24 @@ import apoc.util.Util;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mongodb.ConnectionString;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.AggregateIterable;
 import com.mongodb.client.FindIterable;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 import com.mongodb.client.MongoIterable;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.InsertManyOptions;
+import com.mongodb.client.model.WriteModel;
 import com.mongodb.client.result.DeleteResult;
 import com.mongodb.client.result.UpdateResult;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -63,8 +70,11 @@ class MongoDBColl implements MongoDbCollInterface {
     public static final String ID = "_id";
     private final MongoCollection<Document> collection;
     private final MongoClient mongoClient;
+    // the lease of the shared client, null if the client is closed with the collection
+    private final MongoClientCache.Lease lease;
     private boolean compatibleValues = false;
     private boolean doorStop = false;
+    private boolean closed = false;
     private final MongoDatabase database;
     private boolean extractReferences = false;
     private boolean objectIdAsMap = true;
@@ -72,8 +82,9 @@ class MongoDBColl implements MongoDbCollInterface {
     // visible for testing
     public static final String ERROR_MESSAGE = "The connection string must have %s name";
 
-    private MongoDBColl(String url, String db, String coll) {
-        mongoClient = MongoClients.create(url);
+    private MongoDBColl(String url, String db, String coll, MongoClientCache clientCache) {
+        lease = acquire(clientCache, url, () -> MongoClients.create(url));
+        mongoClient = lease == null ? MongoClients.create(url) : (MongoClient) lease.get();
         database = mongoClient.getDatabase(db);
         collection = database.getCollection(coll);
     }
@@ -91,8 +102,9 @@ class MongoDBColl implements MongoDbCollInterface {
             String coll,
             boolean compatibleValues,
             boolean extractReferences,
-            boolean objectIdAsMap) {
-        this(url, db, coll);
+            boolean objectIdAsMap,
+            MongoClientCache clientCache) {
+        this(url, db, coll, clientCache);
         getConfigs(compatibleValues, extractReferences, objectIdAsMap);
     }
 
@@ -100,9 +112,10 @@ class MongoDBColl implements MongoDbCollInterface {
      *
      * @param uri the string Uri to convert in connectionString
      * @param conf the configuration
+     * @param clientCache the clients shared between the calls, null to use a new client closed with the collection
      * @see MongoDbConfig
      */
-    public MongoDBColl(String uri, MongoDbConfig conf) {
+    public MongoDBColl(String uri, MongoDbConfig conf, MongoClientCache clientCache) {
 
         ConnectionString connectionString = new ConnectionString(uri);
 
@@ -122,16 +135,21 @@ class MongoDBColl implements MongoDbCollInterface {
             collectionName = collectionFromUri;
         }
 
-        mongoClient = MongoClients.create(connectionString);
+        // the authentication is checked once per client, as the shared clients have the same credentials
+        Supplier<MongoClient> factory = () -> {
+            MongoClient client = MongoClients.create(connectionString);
+            try {
+                // check if correctly authenticated
+                client.getDatabase(connectionString.getDatabase()).runCommand(new Document("listCollections", 1));
+            } catch (Exception e) {
+                client.close();
+                throw new RuntimeException(e);
+            }
+            return client;
+        };
+        lease = acquire(clientCache, uri, factory);
+        mongoClient = lease == null ? factory.get() : (MongoClient) lease.get();
         database = mongoClient.getDatabase(connectionString.getDatabase());
-
-        try {
-            // check if correctly authenticated
-            database.runCommand(new Document("listCollections", 1));
-        } catch (Exception e) {
-            mongoClient.close();
-            throw new RuntimeException(e);
-        }
         this.collection = database.getCollection(collectionName);
 
         // with new procedure we return always Neo4j values
@@ -144,10 +162,31 @@ class MongoDBColl implements MongoDbCollInterface {
         this.objectIdAsMap = objectIdAsMap;
     }
 
+    private static MongoClientCache.Lease acquire(
+            MongoClientCache clientCache, String url, Supplier<MongoClient> factory) {
+        if (clientCache == null || !clientCache.isEnabled()) {
+            return null;
+        }
+        return clientCache.acquire(List.of(url), factory);
+    }
+
     @Override
     public void close() {
         if (doorStop) return;
-        mongoClient.close();
+        release();
+    }
+
+    /**
+     * Gives the client back to the cache, or closes it if it is not shared
+     */
+    private void release() {
+        if (closed) return;
+        closed = true;
+        if (lease == null) {
+            mongoClient.close();
+        } else {
+            lease.close();
+        }
     }
 
     /**
@@ -280,7 +319,14 @@ class MongoDBColl implements MongoDbCollInterface {
 
     @Override
     public Stream<Map<String, Object>> aggregate(List<Document> pipeline) {
-        return asStream(collection.aggregate(pipeline));
+        return aggregate(pipeline, 0);
+    }
+
+    @Override
+    public Stream<Map<String, Object>> aggregate(List<Document> pipeline, int batchSize) {
+        AggregateIterable<Document> documents = collection.aggregate(pipeline);
+        if (batchSize > 0) documents = documents.batchSize(batchSize);
+        return asStream(documents);
     }
 
     @Override
@@ -296,8 +342,15 @@ class MongoDBColl implements MongoDbCollInterface {
 
     @Override
     public Stream<Map<String, Object>> find(Document query, Document project, Document sort, int skip, int limit) {
+        return find(query, project, sort, skip, limit, 0);
+    }
+
+    @Override
+    public Stream<Map<String, Object>> find(
+            Document query, Document project, Document sort, int skip, int limit, int batchSize) {
         FindIterable<Document> documents =
                 collection.find(query).projection(project).sort(sort).skip(skip).limit(limit);
+        if (batchSize > 0) documents = documents.batchSize(batchSize);
         return asStream(documents);
     }
 
@@ -306,21 +359,22 @@ class MongoDBColl implements MongoDbCollInterface {
     }
 
     private Stream<Map<String, Object>> asStream(MongoIterable<Document> result) {
+        // the cursor fetches the documents in batches while the stream is consumed
+        MongoCursor<Document> cursor = result.iterator();
         this.doorStop = true;
-        Iterable<Document> it = () -> result.iterator();
+        Iterable<Document> it = () -> cursor;
         return StreamSupport.stream(it.spliterator(), false)
                 .map(doc -> this.documentToPackableMap(doc))
                 .onClose(() -> {
-                    Util.close(result.iterator());
-                    Util.close(mongoClient);
+                    Util.close(cursor);
+                    release();
                 });
     }
 
     @Override
     public void insert(List<Map<String, Object>> docs) {
-        for (Map<String, Object> doc : docs) {
-            collection.insertOne(new Document(doc));
-        }
+        if (docs.isEmpty()) return;
+        insertDocs(docs.stream().map(Document::new).collect(Collectors.toList()));
     }
 
     @Override
@@ -328,6 +382,44 @@ class MongoDBColl implements MongoDbCollInterface {
         collection.insertMany(documents);
     }
 
+    @Override
+    public long insertDocs(List<Document> documents, int batchSize, boolean ordered) {
+        InsertManyOptions options = new InsertManyOptions().ordered(ordered);
+        int size = batchSize > 0 ? batchSize : documents.size();
+        long inserted = 0;
+        for (int from = 0; from < documents.size(); from += size) {
+            List<Document> batch = documents.subList(from, Math.min(from + size, documents.size()));
+            inserted += collection.insertMany(batch, options).getInsertedIds().size();
+        }
+        return inserted;
+    }
+
+    @Override
+    public Map<String, Object> bulkWrite(List<Map<String, Object>> operations, int batchSize, boolean ordered) {
+        BulkWriteOptions options = new BulkWriteOptions().ordered(ordered);
+        int size = batchSize > 0 ? batchSize : operations.size();
+        long inserted = 0, matched = 0, modified = 0, deleted = 0, upserted = 0, batches = 0;
+        // the operations are converted one batch at a time, so that only the documents of a batch are kept
+        for (int from = 0; from < operations.size(); from += size) {
+            List<WriteModel<Document>> batch =
+                    MongoDBUtils.getWriteModels(operations.subList(from, Math.min(from + size, operations.size())));
+            BulkWriteResult result = collection.bulkWrite(batch, options);
+            inserted += result.getInsertedCount();
+            matched += result.getMatchedCount();
+            modified += result.getModifiedCount();
+            deleted += result.getDeletedCount();
+            upserted += result.getUpserts().size();
+            batches++;
+        }
+        return Util.map(
+                "inserted", inserted,
+                "matched", matched,
+                "modified", modified,
+                "deleted", deleted,
+                "upserted", upserted,
+                "batches", batches);
+    }
+
     @Override
     public long update(Map<String, Object> query, Map<String, Object> update) {
         return update(new Document(query), new Document(update));
@@ -20,6 +20,16 @@ package apoc.mongodb;
 
 import apoc.util.JsonUtil;
 import apoc.util.MissingDependencyException;
+import apoc.util.Util;
+import com.mongodb.client.model.DeleteManyModel;
+import com.mongodb.client.model.DeleteOneModel;
+import com.mongodb.client.model.InsertOneModel;
+import com.mongodb.client.model.ReplaceOneModel;
+import com.mongodb.client.model.ReplaceOptions;
+import com.mongodb.client.model.UpdateManyModel;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.model.WriteModel;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -30,6 +40,9 @@ public class MongoDBUtils {
             + "Please put the apoc-mongodb-dependencies-5.x.x-all.jar into plugin folder.\n"
             + "See the documentation: See the documentation: https://neo4j.com/labs/apoc/5/database-integration/mongo/#mongodb-dependencies";
 
+    private static final List<String> WRITE_OPERATIONS =
+            List.of("insertOne", "updateOne", "updateMany", "replaceOne", "deleteOne", "deleteMany");
+
     protected static Document getDocument(Object query) {
         if (query == null) {
             return new Document();
@@ -52,6 +65,54 @@ public class MongoDBUtils {
         return pipeline.stream().map(MongoDBUtils::getDocument).collect(Collectors.toList());
     }
 
+    /**
+     * Converts the operations with the syntax of the bulkWrite of the mongo shell,
+     * e.g. {@code {updateOne: {filter: {name: 'foo'}, update: {`$set`: {age: 42}}, upsert: true}}}
+     */
+    protected static List<WriteModel<Document>> getWriteModels(List<Map<String, Object>> operations) {
+        return operations.stream().map(MongoDBUtils::getWriteModel).collect(Collectors.toList());
+    }
+
+    private static WriteModel<Document> getWriteModel(Map<String, Object> operation) {
+        if (operation == null || operation.size() != 1) {
+            throw new IllegalArgumentException("Each operation must be a map with a single key, one of "
+                    + WRITE_OPERATIONS + ", got " + operation);
+        }
+        Map.Entry<String, Object> entry = operation.entrySet().iterator().next();
+        if (!(entry.getValue() instanceof Map)) {
+            throw new IllegalArgumentException(
+                    "The " + entry.getKey() + " operation must be a map, got " + entry.getValue());
+        }
+        Map<String, Object> args = (Map<String, Object>) entry.getValue();
+        boolean upsert = Util.toBoolean(args.get("upsert"));
+        switch (entry.getKey()) {
+            case "insertOne":
+                return new InsertOneModel<>(getDocument(args.get("document")));
+            case "updateOne":
+                return new UpdateOneModel<>(
+                        getDocument(args.get("filter")),
+                        getDocument(args.get("update")),
+                        new UpdateOptions().upsert(upsert));
+            case "updateMany":
+                return new UpdateManyModel<>(
+                        getDocument(args.get("filter")),
+                        getDocument(args.get("update")),
+                        new UpdateOptions().upsert(upsert));
+            case "replaceOne":
+                return new ReplaceOneModel<>(
+                        getDocument(args.get("filter")),
+                        getDocument(args.get("replacement")),
+                        new ReplaceOptions().upsert(upsert));
+            case "deleteOne":
+                return new DeleteOneModel<>(getDocument(args.get("filter")));
+            case "deleteMany":
+                return new DeleteManyModel<>(getDocument(args.get("filter")));
+            default:
+                throw new IllegalArgumentException(
+                        "Unknown operation " + entry.getKey() + ", expected one of " + WRITE_OPERATIONS);
+        }
+    }
+
     protected static MongoDbConfig getMongoConfig(Map<String, Object> config) {
         try {
             return new MongoDbConfig(config);
@@ -18,15 +18,34 @@ public interface MongoDbCollInterface extends Closeable {
 
     Stream<Map<String, Object>> aggregate(List<Document> pipeline);
 
+    /**
+     * @param batchSize the number of documents of each round trip of the cursor, 0 for the default of the server
+     */
+    Stream<Map<String, Object>> aggregate(List<Document> pipeline, int batchSize);
+
     Stream<Map<String, Object>> find(
             Map<String, Object> query, Map<String, Object> project, Map<String, Object> sort, Long skip, Long limit);
 
     Stream<Map<String, Object>> find(Document query, Document project, Document sort, int skip, int limit);
 
+    Stream<Map<String, Object>> find(
+            Document query, Document project, Document sort, int skip, int limit, int batchSize);
+
     void insert(List<Map<String, Object>> docs);
 
     void insertDocs(List<Document> docs);
 
+    /**
+     * Inserts the documents with an insertMany of at most batchSize documents at a time
+     */
+    long insertDocs(List<Document> docs, int batchSize, boolean ordered);
+
+    /**
+     * Executes the operations with a bulkWrite of at most batchSize operations at a time
+     * @return the number of documents inserted, matched, modified, deleted and upserted, and the batches sent
+     */
+    Map<String, Object> bulkWrite(List<Map<String, Object>> operations, int batchSize, boolean ordered);
+
     long update(Map<String, Object> query, Map<String, Object> update);
 
     long update(Document query, Document update);
@@ -47,16 +66,34 @@ public interface MongoDbCollInterface extends Closeable {
                 boolean compatibleValues,
                 boolean extractReferences,
                 boolean objectIdAsMap) {
+            return create(url, db, coll, compatibleValues, extractReferences, objectIdAsMap, null);
+        }
+
+        /**
+         * @param clientCache the clients shared between the calls, null to use a new client closed with the collection
+         */
+        public static MongoDbCollInterface create(
+                String url,
+                String db,
+                String coll,
+                boolean compatibleValues,
+                boolean extractReferences,
+                boolean objectIdAsMap,
+                MongoClientCache clientCache) {
             try {
-                return new MongoDBColl(url, db, coll, compatibleValues, extractReferences, objectIdAsMap);
+                return new MongoDBColl(url, db, coll, compatibleValues, extractReferences, objectIdAsMap, clientCache);
             } catch (Exception e) {
                 throw new RuntimeException("Could not create MongoDBColl instance", e);
             }
         }
 
         public static MongoDbCollInterface create(String url, MongoDbConfig conf) {
+            return create(url, conf, null);
+        }
+
+        public static MongoDbCollInterface create(String url, MongoDbConfig conf, MongoClientCache clientCache) {
             try {
-                return new MongoDBColl(url, conf);
+                return new MongoDBColl(url, conf, clientCache);
             } catch (Exception e) {
                 throw new RuntimeException("Could not create MongoDBColl instance", e);
             }
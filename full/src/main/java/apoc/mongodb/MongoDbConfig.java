@@ -27,6 +27,8 @@ import org.bson.Document;
 
 public class MongoDbConfig {
 
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 1000;
+
     private final boolean compatibleValues;
     private final boolean extractReferences;
     private final boolean objectIdAsMap;
@@ -40,6 +42,9 @@ public class MongoDbConfig {
     private final int skip;
     private final int limit;
 
+    private final int batchSize;
+    private final boolean ordered;
+
     public MongoDbConfig(Map<String, Object> config) {
         if (config == null) config = Collections.emptyMap();
         this.compatibleValues = Util.toBoolean(config.getOrDefault("compatibleValues", true));
@@ -51,6 +56,8 @@ public class MongoDbConfig {
         this.sort = getDocument(config.get("sort"));
         this.skip = Util.toInteger(config.getOrDefault("skip", 0));
         this.limit = Util.toInteger(config.getOrDefault("limit", 0));
+        this.batchSize = Util.toInteger(config.getOrDefault("batchSize", 0));
+        this.ordered = Util.toBoolean(config.getOrDefault("ordered", true));
     }
 
     public boolean isCompatibleValues() {
@@ -88,4 +95,22 @@ public class MongoDbConfig {
     public int getLimit() {
         return limit;
     }
+
+    /**
+     * @return the number of documents of each round trip of the cursors, 0 for the default of the server
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @return the number of documents or operations sent with each write request
+     */
+    public int getWriteBatchSize() {
+        return batchSize > 0 ? batchSize : DEFAULT_WRITE_BATCH_SIZE;
+    }
+
+    public boolean isOrdered() {
+        return ordered;
+    }
 }
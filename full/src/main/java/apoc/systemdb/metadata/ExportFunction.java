@@ -38,14 +38,23 @@ public class ExportFunction implements ExportMetadata {
                 ? (String) node.getProperty(outputName)
                 : getSignature(node, SystemPropertyKeys.outputs.name());
 
+        // the memoization config is only exported for deterministic functions
+        final String config = node.hasProperty(SystemPropertyKeys.deterministic.name())
+                ? String.format(
+                        ", {deterministic: true, memoScope: '%s', memoSize: %s}",
+                        node.getProperty(SystemPropertyKeys.memoScope.name()),
+                        node.getProperty(SystemPropertyKeys.memoSize.name()))
+                : "";
+
         String statement = String.format(
-                "CALL apoc.custom.declareFunction('%s(%s) :: (%s)', '%s', %s, '%s');",
+                "CALL apoc.custom.declareFunction('%s(%s) :: (%s)', '%s', %s, '%s'%s);",
                 node.getProperty(SystemPropertyKeys.name.name()),
                 inputs,
                 outputs,
                 node.getProperty(SystemPropertyKeys.statement.name()),
                 node.getProperty(SystemPropertyKeys.forceSingle.name()),
-                node.getProperty(SystemPropertyKeys.description.name()));
+                node.getProperty(SystemPropertyKeys.description.name()),
+                config);
         progressReporter.nextRow();
         return List.of(Pair.of(getFileName(node, Type.CypherFunction.name()), statement));
     }
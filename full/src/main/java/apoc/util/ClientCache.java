@@ -0,0 +1,251 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.util;
+
+import apoc.Pools;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+import org.neo4j.logging.Log;
+
+/**
+ * The clients of a remote service kept open between the calls of the procedures and shared by them, keyed by
+ * what identifies a client, e.g. the url with the credentials.
+ * The clients not used for {@code idleTimeout} milliseconds are closed by a recurring job of the APOC scheduled pool,
+ * and the least recently used clients not in use are closed when there are more than {@code maxSize}.
+ * The clients are kept as {@link AutoCloseable}, as their libraries are optional dependencies
+ * that are only loaded by the procedures.
+ */
+public class ClientCache extends LifecycleAdapter {
+
+    private final Pools pools;
+    private final Log log;
+    private final String name;
+    private final String statsKey;
+    private final boolean enabled;
+    private final int maxSize;
+    private final long idleTimeout;
+
+    private final Map<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder evicted = new LongAdder();
+    private ScheduledFuture<?> eviction;
+
+    private static class Entry {
+        final List<Object> key;
+        final AutoCloseable client;
+        final AtomicInteger leases = new AtomicInteger();
+        volatile long lastUsed = System.currentTimeMillis();
+
+        Entry(List<Object> key, AutoCloseable client) {
+            this.key = key;
+            this.client = client;
+        }
+    }
+
+    /**
+     * A client in use, released when closed
+     */
+    public class Lease implements AutoCloseable {
+        private final Entry entry;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        public AutoCloseable get() {
+            return entry.client;
+        }
+
+        @Override
+        public void close() {
+            // released once, so that closing twice cannot let the eviction close a client still in use
+            if (closed.compareAndSet(false, true)) {
+                entry.lastUsed = System.currentTimeMillis();
+                entry.leases.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * @param name the name of the clients in the log messages
+     * @param statsKey the key of the number of clients in the {@link #stats()}
+     */
+    protected ClientCache(
+            Pools pools, Log log, String name, String statsKey, boolean enabled, int maxSize, long idleTimeout) {
+        this.pools = pools;
+        this.log = log;
+        this.name = name;
+        this.statsKey = statsKey;
+        this.enabled = enabled;
+        this.maxSize = maxSize;
+        this.idleTimeout = idleTimeout;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public void start() {
+        if (enabled && idleTimeout > 0) {
+            long interval = Math.max(idleTimeout / 2, 1000);
+            eviction = pools.getScheduledExecutorService()
+                    .scheduleWithFixedDelay(this::evictIdle, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (eviction != null) {
+            eviction.cancel(false);
+        }
+        entries.values().forEach(this::close);
+        entries.clear();
+    }
+
+    /**
+     * @return the client of the key, created by the factory if there is none
+     */
+    public Lease acquire(List<Object> key, Supplier<? extends AutoCloseable> factory) {
+        Entry newEntry = null;
+        while (true) {
+            Entry entry = lease(key);
+            if (entry != null) {
+                if (newEntry != null) {
+                    // another call added a client for the key in the meantime
+                    close(newEntry);
+                }
+                reused.increment();
+                return new Lease(entry);
+            }
+            if (newEntry == null) {
+                // created without holding the lock of the key, as it can take network round trips
+                newEntry = new Entry(key, factory.get());
+                newEntry.leases.incrementAndGet();
+            }
+            if (entries.putIfAbsent(key, newEntry) == null) {
+                created.increment();
+                evictExceeding();
+                return new Lease(newEntry);
+            }
+        }
+    }
+
+    public List<AutoCloseable> clients() {
+        return entries.values().stream().map(entry -> entry.client).collect(Collectors.toList());
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        stats.put(statsKey, (long) entries.size());
+        stats.put(
+                "inUse",
+                entries.values().stream().filter(e -> e.leases.get() > 0).count());
+        stats.put("created", created.sum());
+        stats.put("reused", reused.sum());
+        stats.put("evicted", evicted.sum());
+        stats.put("maxSize", (long) maxSize);
+        stats.put("idleTimeout", idleTimeout);
+        return stats;
+    }
+
+    /**
+     * Closes the clients not in use
+     */
+    public void clear() {
+        entries.values().forEach(this::evict);
+    }
+
+    /**
+     * Closes the clients not used for {@code idleTimeout} milliseconds, run by the recurring job
+     */
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        entries.values().stream()
+                .filter(entry -> now - entry.lastUsed > idleTimeout)
+                .forEach(this::evict);
+    }
+
+    /**
+     * @return the entry of the key leased while holding its lock, so that the eviction cannot close it in between,
+     * or null if there is none
+     */
+    private Entry lease(List<Object> key) {
+        return entries.computeIfPresent(key, (k, current) -> {
+            current.leases.incrementAndGet();
+            return current;
+        });
+    }
+
+    private void evictExceeding() {
+        if (maxSize <= 0 || entries.size() <= maxSize) {
+            return;
+        }
+        // the last uses are read once, as they keep changing while sorting
+        Map<Entry, Long> lastUses = new HashMap<>();
+        entries.values().forEach(entry -> lastUses.put(entry, entry.lastUsed));
+        List<Entry> candidates = new ArrayList<>(lastUses.keySet());
+        candidates.sort(Comparator.comparingLong(lastUses::get));
+        for (Entry entry : candidates) {
+            if (entries.size() <= maxSize) {
+                break;
+            }
+            evict(entry);
+        }
+    }
+
+    private void evict(Entry entry) {
+        boolean[] removed = {false};
+        entries.computeIfPresent(entry.key, (key, current) -> {
+            if (current != entry || current.leases.get() > 0) {
+                return current;
+            }
+            removed[0] = true;
+            return null;
+        });
+        if (removed[0]) {
+            evicted.increment();
+            close(entry);
+        }
+    }
+
+    private void close(Entry entry) {
+        try {
+            entry.client.close();
+        } catch (Exception e) {
+            log.warn("Error closing the " + name + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.cache;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+public class StaticCacheTest {
+
+    @Test
+    public void testLruEviction() {
+        StaticCache cache = new StaticCache(10, -1, -1, StaticCache.Eviction.LRU);
+        for (int i = 0; i < 10; i++) {
+            cache.put("key" + i, i, -1);
+        }
+        cache.get("key0");
+        cache.put("key10", 10, -1);
+
+        // evicted down to 9 entries, the least recently used first
+        Map<String, Object> stats = cache.stats();
+        assertEquals(9L, stats.get("entries"));
+        assertEquals(2L, stats.get("evictions"));
+        assertNotNull(cache.get("key0"));
+        assertNull(cache.get("key1"));
+        assertNull(cache.get("key2"));
+        assertNotNull(cache.get("key10"));
+    }
+
+    @Test
+    public void testLfuEviction() {
+        StaticCache cache = new StaticCache(3, -1, -1, StaticCache.Eviction.LFU);
+        cache.put("a", 1, -1);
+        cache.put("b", 2, -1);
+        cache.put("c", 3, -1);
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        cache.put("d", 4, -1);
+
+        assertNull(cache.get("c"));
+        assertNotNull(cache.get("a"));
+        assertNotNull(cache.get("b"));
+    }
+
+    @Test
+    public void testMaxBytes() {
+        StaticCache cache = new StaticCache(-1, 10_000, -1, StaticCache.Eviction.LRU);
+        for (int i = 0; i < 100; i++) {
+            cache.put("key." + i, List.of("a".repeat(100)), -1);
+        }
+        Map<String, Object> stats = cache.stats();
+        assertTrue((long) stats.get("bytes") <= 10_000);
+        assertTrue((long) stats.get("evictions") > 0);
+        assertEquals(List.of("a".repeat(100)), cache.subMap("key").get("99"));
+    }
+
+    @Test
+    public void testTtl() throws InterruptedException {
+        StaticCache cache = new StaticCache(-1, -1, -1, StaticCache.Eviction.LRU);
+        cache.put("short", 1, 10);
+        cache.put("long", 2, 60_000);
+        Thread.sleep(20);
+        assertNull(cache.get("short"));
+        assertEquals(2, cache.get("long"));
+        assertEquals(1L, cache.stats().get("expirations"));
+    }
+}
@@ -18,11 +18,13 @@
  */
 package apoc.cache;
 
+import static apoc.ApocConfig.apocConfig;
 import static apoc.util.MapUtil.map;
 import static org.junit.Assert.*;
 
 import apoc.util.TestUtil;
 import java.util.Collections;
+import java.util.Map;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -109,4 +111,42 @@ public class StaticTest {
         TestUtil.testCall(db, "call apoc.static.set('test2',null)", r -> assertEquals(42L, r.get("value")));
         TestUtil.testCall(db, "call apoc.static.get('test2')", r -> assertNull(r.get("value")));
     }
+
+    @Test
+    public void testSetWithTtl() throws Exception {
+        TestUtil.testCall(db, "call apoc.static.set('test',42,{ttl: 1})", r -> assertEquals(VALUE, r.get("value")));
+        TestUtil.testCall(db, "return apoc.static.get('test') as value", r -> assertEquals(42L, r.get("value")));
+        Thread.sleep(1100);
+        TestUtil.testCall(db, "return apoc.static.get('test') as value", r -> assertEquals(VALUE, r.get("value")));
+        TestUtil.testCall(db, "call apoc.static.stats()", r -> {
+            Map<String, Object> stats = (Map<String, Object>) r.get("value");
+            assertEquals(0L, stats.get("entries"));
+            assertEquals(1L, stats.get("hits"));
+            assertEquals(1L, stats.get("misses"));
+            assertEquals(1L, stats.get("expirations"));
+        });
+    }
+
+    @Test
+    public void testSetWithFractionalTtl() throws Exception {
+        TestUtil.testCall(db, "call apoc.static.set('test3',42,{ttl: 0.2})", r -> assertNull(r.get("value")));
+        TestUtil.testCall(db, "return apoc.static.get('test3') as value", r -> assertEquals(42L, r.get("value")));
+        Thread.sleep(300);
+        TestUtil.testCall(db, "return apoc.static.get('test3') as value", r -> assertNull(r.get("value")));
+    }
+
+    @Test
+    public void testStorageIsBoundedByDefault() {
+        TestUtil.testCall(
+                db, "call apoc.static.stats()", r -> assertEquals(100000L, ((Map) r.get("value")).get("maxEntries")));
+        apocConfig().setProperty(StaticCache.MAX_ENTRIES, -1);
+        try {
+            Static.clear();
+            TestUtil.testCall(
+                    db, "call apoc.static.stats()", r -> assertEquals(-1L, ((Map) r.get("value")).get("maxEntries")));
+        } finally {
+            apocConfig().getConfig().clearProperty(StaticCache.MAX_ENTRIES);
+            Static.clear();
+        }
+    }
 }
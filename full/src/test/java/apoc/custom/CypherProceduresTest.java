@@ -61,6 +61,8 @@ import org.neo4j.internal.helpers.collection.Iterators;
 import org.neo4j.procedure.Mode;
 import org.neo4j.test.rule.DbmsRule;
 import org.neo4j.test.rule.ImpermanentDbmsRule;
+import org.neo4j.values.AnyValue;
+import org.neo4j.values.storable.Values;
 
 /**
  * @author mh
@@ -791,6 +793,86 @@ public class CypherProceduresTest {
         TestUtil.count(db, "call custom.answer()");
     }
 
+    @Test
+    public void shouldRefreshOnlyWhenChanged() {
+        db.executeTransactionally("call apoc.custom.asProcedure('answer', 'RETURN 42 as answer')");
+
+        RegisterComponentFactory.RegisterComponentLifecycle registerComponentLifecycle =
+                db.getDependencyResolver().resolveDependency(RegisterComponentFactory.RegisterComponentLifecycle.class);
+        CypherProceduresHandler cypherProceduresHandler = (CypherProceduresHandler) registerComponentLifecycle
+                .getResolvers()
+                .get(CypherProceduresHandler.class)
+                .get(db.databaseName());
+        assertTrue(cypherProceduresHandler.restoreProceduresAndFunctions());
+        assertFalse(cypherProceduresHandler.restoreProceduresAndFunctions());
+
+        db.executeTransactionally("call apoc.custom.asProcedure('answer', 'RETURN 43 as answer')");
+        assertTrue(cypherProceduresHandler.restoreProceduresAndFunctions());
+        assertFalse(cypherProceduresHandler.restoreProceduresAndFunctions());
+        TestUtil.testCall(db, "call custom.answer()", (row) -> assertEquals(43L, ((Map) row.get("row")).get("answer")));
+    }
+
+    @Test
+    public void testDeterministicFunctionPerTransaction() {
+        db.executeTransactionally("CALL apoc.custom.declareFunction('countMemo(input :: INT) :: INT', "
+                + "'MATCH (n:Counter) RETURN $input + count(n) AS value', false, '', {deterministic: true})");
+        db.executeTransactionally("CALL apoc.custom.declareFunction('countNoMemo(input :: INT) :: INT', "
+                + "'MATCH (n:Counter) RETURN $input + count(n) AS value')");
+
+        try (Transaction tx = db.beginTx()) {
+            assertEquals(1L, countFunction(tx, "countMemo"));
+            assertEquals(1L, countFunction(tx, "countNoMemo"));
+            tx.createNode(Label.label("Counter"));
+            // memoized for the rest of the transaction
+            assertEquals(1L, countFunction(tx, "countMemo"));
+            assertEquals(2L, countFunction(tx, "countNoMemo"));
+            tx.commit();
+        }
+        try (Transaction tx = db.beginTx()) {
+            assertEquals(2L, countFunction(tx, "countMemo"));
+            tx.commit();
+        }
+    }
+
+    @Test
+    public void testDeterministicFunctionGlobal() {
+        db.executeTransactionally("CALL apoc.custom.declareFunction('countGlobal(input :: INT) :: INT', "
+                + "'MATCH (n:Counter) RETURN $input + count(n) AS value', false, '', "
+                + "{deterministic: true, memoScope: 'global'})");
+
+        assertEquals(1L, (long) TestUtil.singleResultFirstColumn(db, "RETURN custom.countGlobal(1)"));
+        db.executeTransactionally("CREATE (:Counter)");
+        assertEquals(1L, (long) TestUtil.singleResultFirstColumn(db, "RETURN custom.countGlobal(1)"));
+        assertEquals(3L, (long) TestUtil.singleResultFirstColumn(db, "RETURN custom.countGlobal(2)"));
+
+        // declaring the function again drops its results
+        db.executeTransactionally("CALL apoc.custom.declareFunction('countGlobal(input :: INT) :: INT', "
+                + "'MATCH (n:Counter) RETURN $input + count(n) AS value', false, '', "
+                + "{deterministic: true, memoScope: 'global'})");
+        // a new query, as the cached plan of the previous one still refers to the previous function
+        assertEquals(2L, (long) TestUtil.singleResultFirstColumn(db, "RETURN custom.countGlobal(1) AS value"));
+    }
+
+    @Test
+    public void testDeterministicFunctionDropsTheResultsOfClosedTransactions() {
+        FunctionMemo memo = new FunctionMemo(FunctionMemo.Scope.TRANSACTION, 10);
+        AnyValue[] input = {Values.longValue(1)};
+        try (Transaction tx = db.beginTx()) {
+            memo.put(tx, input, Values.longValue(2));
+            assertEquals(Values.longValue(2), memo.get(tx, input));
+            assertEquals(1, memo.transactionCount());
+        }
+        assertEquals(0, memo.transactionCount());
+        try (Transaction tx = db.beginTx()) {
+            assertNull(memo.get(tx, input));
+        }
+    }
+
+    private static long countFunction(Transaction tx, String name) {
+        return (long)
+                tx.execute("RETURN custom." + name + "(1) AS value").next().get("value");
+    }
+
     @Test
     public void shouldRemovalOfFunctionNodeDeactivate() {
         thrown.expect(QueryExecutionException.class);
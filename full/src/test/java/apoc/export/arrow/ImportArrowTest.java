@@ -92,6 +92,15 @@ public class ImportArrowTest {
         testImportCommon(file, config);
     }
 
+    @Test
+    public void testStreamRoundtripImportArrowAllWithoutMapping() {
+        final byte[] bytes =
+                db.executeTransactionally("CALL apoc.export.arrow.stream.all", Map.of(), this::extractByteArray);
+
+        // the temporal values, the durations and the points are typed columns
+        testImportCommon(bytes, Map.of());
+    }
+
     private void testImportCommon(Object file, Map<String, Object> config) {
         // then
         Map<String, Object> params = Map.of("file", file, "config", config);
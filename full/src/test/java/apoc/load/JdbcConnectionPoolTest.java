@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) "Neo4j"
+ * Neo4j Sweden AB [http://neo4j.com]
+ *
+ * This file is part of Neo4j.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package apoc.load;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+import org.neo4j.logging.NullLog;
+
+public class JdbcConnectionPoolTest {
+
+    private static final String URL = "jdbc:derby:memory:poolDB;create=true";
+    private static final List<Object> KEY = Arrays.asList(URL, null, null);
+
+    private static JdbcConnectionPool pool(int maxSize, long idleTimeout) {
+        return new JdbcConnectionPool(null, NullLog.getInstance(), true, maxSize, idleTimeout);
+    }
+
+    private static Connection connect() throws Exception {
+        return DriverManager.getConnection(URL);
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws Exception {
+        JdbcConnectionPool pool = pool(8, -1);
+        Connection connection;
+        try (JdbcConnectionPool.Lease lease = pool.acquire(KEY, JdbcConnectionPoolTest::connect)) {
+            connection = lease.get();
+        }
+        try (JdbcConnectionPool.Lease first = pool.acquire(KEY, JdbcConnectionPoolTest::connect);
+                JdbcConnectionPool.Lease second = pool.acquire(KEY, JdbcConnectionPoolTest::connect)) {
+            assertSame(connection, first.get());
+            assertNotSame(connection, second.get());
+        }
+
+        Map<String, Object> stats = pool.stats();
+        assertEquals(2L, stats.get("created"));
+        assertEquals(1L, stats.get("reused"));
+        assertEquals(2L, stats.get("idle"));
+
+        pool.stop();
+        assertTrue(connection.isClosed());
+        assertEquals(0L, pool.stats().get("idle"));
+    }
+
+    @Test
+    public void testIdleConnectionsAreLimited() throws Exception {
+        JdbcConnectionPool pool = pool(1, -1);
+        JdbcConnectionPool.Lease first = pool.acquire(KEY, JdbcConnectionPoolTest::connect);
+        JdbcConnectionPool.Lease second = pool.acquire(KEY, JdbcConnectionPoolTest::connect);
+        first.close();
+        second.close();
+
+        assertFalse(first.get().isClosed());
+        assertTrue(second.get().isClosed());
+        assertEquals(1L, pool.stats().get("idle"));
+        assertEquals(1L, pool.stats().get("evicted"));
+        pool.stop();
+    }
+
+    @Test
+    public void testIdleConnectionsAreEvicted() throws Exception {
+        JdbcConnectionPool pool = pool(8, 1);
+        JdbcConnectionPool.Lease lease = pool.acquire(KEY, JdbcConnectionPoolTest::connect);
+        lease.close();
+        Thread.sleep(10);
+        pool.evictIdle();
+
+        assertTrue(lease.get().isClosed());
+        assertEquals(0L, pool.stats().get("idle"));
+    }
+
+    @Test
+    public void testBrokenConnectionsAreClosed() throws Exception {
+        JdbcConnectionPool pool = pool(8, -1);
+        JdbcConnectionPool.Lease lease = pool.acquire(KEY, JdbcConnectionPoolTest::connect);
+        lease.markBroken();
+        lease.close();
+
+        assertTrue(lease.get().isClosed());
+        assertEquals(0L, pool.stats().get("idle"));
+    }
+
+    @Test
+    public void testOpenTransactionsAreRolledBack() throws Exception {
+        JdbcConnectionPool pool = pool(8, -1);
+        try (JdbcConnectionPool.Lease lease = pool.acquire(KEY, JdbcConnectionPoolTest::connect)) {
+            lease.get().setAutoCommit(false);
+            lease.get().createStatement().execute("CREATE TABLE ROLLED_BACK (ID INT)");
+        }
+        try (JdbcConnectionPool.Lease lease = pool.acquire(KEY, JdbcConnectionPoolTest::connect)) {
+            assertFalse(lease.get()
+                    .getMetaData()
+                    .getTables(null, null, "ROLLED_BACK", null)
+                    .next());
+        }
+        pool.stop();
+    }
+}
@@ -39,6 +39,7 @@ import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Types;
 import java.time.ZoneId;
+import java.util.List;
 import java.util.Map;
 import org.junit.*;
 import org.junit.rules.ExpectedException;
@@ -265,6 +266,31 @@ public class JdbcTest extends AbstractJdbcTest {
                 (row) -> assertEquals(Util.map("count", 1), row.get("row")));
     }
 
+    @Test
+    public void testLoadJdbcUpdateBatchAndPartitionedRead() throws Exception {
+        conn.createStatement().execute("CREATE TABLE NUMBERS (ID INT, NAME varchar(50))");
+        conn.createStatement().execute("INSERT INTO NUMBERS VALUES(NULL, 'Unknown')");
+        testCall(
+                db,
+                "UNWIND range(0, 99) AS id WITH collect([id, 'Name ' + id]) AS rows "
+                        + "CALL apoc.load.jdbcUpdate('jdbc:derby:derbyDB', 'INSERT INTO NUMBERS VALUES(?, ?)', rows, "
+                        + "{batch: true, batchSize: 30}) YIELD row RETURN row",
+                (row) -> assertEquals(Util.map("count", 100L), row.get("row")));
+
+        testCall(
+                db,
+                "CALL apoc.load.jdbc('jdbc:derby:derbyDB', 'SELECT * FROM NUMBERS', [], "
+                        + "{partitionColumn: 'ID', lowerBound: 0, upperBound: 100, partitions: 4}) YIELD row "
+                        + "RETURN count(row) AS count, count(DISTINCT row.ID) AS ids, "
+                        + "collect(CASE WHEN row.ID IS NULL THEN row.NAME END) AS unknown",
+                (row) -> {
+                    assertEquals(101L, row.get("count"));
+                    assertEquals(100L, row.get("ids"));
+                    assertEquals(List.of("Unknown"), row.get("unknown"));
+                });
+        conn.createStatement().execute("DROP TABLE NUMBERS");
+    }
+
     @Test
     public void testLoadJdbcWithSpecialCharWithAuthentication() {
         db.executeTransactionally(
@@ -3,14 +3,30 @@ package apoc.ml;
 import static apoc.ApocConfig.APOC_IMPORT_FILE_ENABLED;
 import static apoc.ApocConfig.APOC_ML_OPENAI_URL;
 import static apoc.ApocConfig.apocConfig;
+import static apoc.util.MapUtil.map;
 import static apoc.util.TestUtil.getUrlFileName;
 import static apoc.util.TestUtil.testCall;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import apoc.util.JsonUtil;
 import apoc.util.TestUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
@@ -51,6 +67,134 @@ public class OpenAITest {
         });
     }
 
+    @Test
+    public void writeEmbeddings() throws IOException {
+        AtomicInteger requests = new AtomicInteger();
+        AtomicInteger concurrent = new AtomicInteger();
+        AtomicInteger maxConcurrent = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        // returns [text length, index] as the embedding of each input, after a rate limit error on the first request
+        server.createContext("/embeddings", exchange -> {
+            Map<String, Object> request = JsonUtil.OBJECT_MAPPER.readValue(exchange.getRequestBody(), Map.class);
+            if (requests.getAndIncrement() == 0) {
+                respond(exchange, 429, "{}");
+                return;
+            }
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            List<String> input = (List<String>) request.get("input");
+            List<Map<String, Object>> data = new ArrayList<>();
+            for (int i = 0; i < input.size(); i++) {
+                data.add(map(
+                        "object",
+                        "embedding",
+                        "index",
+                        i,
+                        "embedding",
+                        List.of(input.get(i).length(), i)));
+            }
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            concurrent.decrementAndGet();
+            respond(exchange, 200, JsonUtil.OBJECT_MAPPER.writeValueAsString(map("object", "list", "data", data)));
+        });
+        server.start();
+        try {
+            db.executeTransactionally("UNWIND range(1, 25) AS i CREATE (:Doc {id: i, text: 'text ' + i})");
+            db.executeTransactionally("CREATE (:Doc {id: 26, text: ' '})");
+
+            testCall(
+                    db,
+                    "CALL apoc.ml.openai.embedding.write('MATCH (d:Doc) RETURN d AS node, d.text AS text', 'embedding', 'fake-api-key', $conf)",
+                    map(
+                            "conf",
+                            map(
+                                    "endpoint",
+                                    "http://localhost:" + server.getAddress().getPort(),
+                                    "batchSize",
+                                    4,
+                                    "concurrency",
+                                    3)),
+                    (row) -> {
+                        assertEquals(7L, row.get("batches"));
+                        assertEquals(25L, row.get("total"));
+                        assertEquals(25L, row.get("written"));
+                        assertEquals(1L, row.get("skipped"));
+                        assertEquals(0L, row.get("failedOperations"));
+                    });
+
+            // the first request is retried after its rate limit error
+            assertEquals(8, requests.get());
+            assertTrue(maxConcurrent.get() <= 3);
+            testCall(
+                    db,
+                    "MATCH (d:Doc) WHERE d.embedding[0] = size(d.text) RETURN count(*) AS count",
+                    (row) -> assertEquals(25L, row.get("count")));
+        } finally {
+            server.stop(0);
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void writeEmbeddingsReportsTheCommittedBatchesOnFailure() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/embeddings", exchange -> {
+            Map<String, Object> request = JsonUtil.OBJECT_MAPPER.readValue(exchange.getRequestBody(), Map.class);
+            List<Map<String, Object>> data = new ArrayList<>();
+            for (int i = 0; i < ((List<String>) request.get("input")).size(); i++) {
+                data.add(map("object", "embedding", "index", i, "embedding", List.of(i)));
+            }
+            respond(exchange, 200, JsonUtil.OBJECT_MAPPER.writeValueAsString(map("object", "list", "data", data)));
+        });
+        server.start();
+        try {
+            db.executeTransactionally("UNWIND range(1, 20) AS i CREATE (:Doc {id: i, text: 'text ' + i})");
+
+            // the statement fails on its 15th row, after some batches are written
+            RuntimeException e = assertThrows(
+                    RuntimeException.class,
+                    () -> db.executeTransactionally(
+                            "CALL apoc.ml.openai.embedding.write('MATCH (d:Doc) WITH d ORDER BY d.id "
+                                    + "RETURN d AS node, d.text + (1 / (15 - d.id)) AS text', 'embedding', 'fake-api-key', $conf)",
+                            map(
+                                    "conf",
+                                    map(
+                                            "endpoint",
+                                            "http://localhost:"
+                                                    + server.getAddress().getPort(),
+                                            "batchSize",
+                                            2,
+                                            "concurrency",
+                                            1))));
+            Matcher matcher = Pattern.compile("Failed after writing the embeddings of (\\d+) nodes")
+                    .matcher(e.getMessage());
+            assertTrue(matcher.find(), e.getMessage());
+            assertTrue(e.getMessage().contains("/ by zero"), e.getMessage());
+            // the batches written before the failure stay committed
+            long written = Long.parseLong(matcher.group(1));
+            assertTrue(written > 0);
+            testCall(
+                    db,
+                    "MATCH (d:Doc) WHERE d.embedding IS NOT NULL RETURN count(*) AS count",
+                    (row) -> assertEquals(written, row.get("count")));
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(code, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
     @Test
     public void completion() {
         testCall(db, "CALL apoc.ml.openai.completion('What color is the sky? Answer: ', 'fake-api-key')", (row) -> {
@@ -580,6 +580,84 @@ public class MongoTest extends MongoTestBase {
         });
     }
 
+    @Test
+    public void testInsertInBatches() {
+        testResult(
+                db,
+                "UNWIND range(1, 5) AS i WITH collect({batchId: i, batch: true}) AS docs "
+                        + "CALL apoc.mongo.insert($uri, docs, {batchSize: 2, ordered: false}) RETURN 1",
+                map("uri", PERSON_URI),
+                (r) -> assertFalse("should be empty", r.hasNext()));
+
+        testCall(db, "CALL apoc.mongo.count($uri, {batch: true})", map("uri", PERSON_URI), r -> {
+            assertEquals(5L, r.get("value"));
+        });
+
+        testCall(db, "CALL apoc.mongo.delete($uri, {batch: true})", map("uri", PERSON_URI), r -> {
+            assertEquals(5L, r.get("value"));
+        });
+    }
+
+    @Test
+    public void testBulkWrite() {
+        testCall(
+                db,
+                "UNWIND range(1, 5) AS i WITH collect({insertOne: {document: {bulkId: i, bulk: true}}}) AS inserts "
+                        + "CALL apoc.mongo.bulkWrite($uri, inserts + [ "
+                        + "{updateOne: {filter: {bulkId: 1}, update: {`$set`: {updated: true}}}}, "
+                        + "{updateMany: {filter: {bulkId: {`$gt`: 3}}, update: {`$set`: {updated: true}}}}, "
+                        + "{replaceOne: {filter: {bulkId: 6}, replacement: {bulkId: 6, bulk: true}, upsert: true}}, "
+                        + "{deleteOne: {filter: {bulkId: 2}}}], {batchSize: 3}) YIELD value RETURN value",
+                map("uri", PERSON_URI),
+                r -> {
+                    Map<String, Object> value = (Map<String, Object>) r.get("value");
+                    assertEquals(5L, value.get("inserted"));
+                    assertEquals(3L, value.get("matched"));
+                    assertEquals(3L, value.get("modified"));
+                    assertEquals(1L, value.get("upserted"));
+                    assertEquals(1L, value.get("deleted"));
+                    assertEquals(3L, value.get("batches"));
+                });
+
+        testCall(
+                db,
+                "CALL apoc.mongo.bulkWrite($uri, [{deleteMany: {filter: {bulk: true}}}]) YIELD value RETURN value",
+                map("uri", PERSON_URI),
+                r -> assertEquals(5L, ((Map<String, Object>) r.get("value")).get("deleted")));
+    }
+
+    @Test(expected = QueryExecutionException.class)
+    public void testBulkWriteFailsWithUnknownOperation() {
+        try {
+            testCall(
+                    db,
+                    "CALL apoc.mongo.bulkWrite($uri, [{upsertOne: {document: {}}}])",
+                    map("uri", PERSON_URI),
+                    r -> {});
+        } catch (QueryExecutionException e) {
+            assertTrue(e.getMessage().contains("Unknown operation upsertOne"));
+            throw e;
+        }
+    }
+
+    @Test
+    public void testClientIsSharedBetweenCalls() {
+        clientCache().clear();
+        Map<String, Object> before = clientCache().stats();
+        for (int i = 0; i < 3; i++) {
+            testCall(
+                    db,
+                    "CALL apoc.mongo.find($uri, {name: 'testDocument'}, {batchSize: 100}) YIELD value RETURN count(*) AS count",
+                    map("uri", TEST_URI),
+                    r -> assertEquals(NUM_OF_RECORDS, r.get("count")));
+        }
+        Map<String, Object> after = clientCache().stats();
+        assertEquals(1L, after.get("clients"));
+        assertEquals(0L, after.get("inUse"));
+        assertEquals(1L, (long) after.get("created") - (long) before.get("created"));
+        assertEquals(2L, (long) after.get("reused") - (long) before.get("reused"));
+    }
+
     @Test
     public void testInsertWithRegex() {
         testResult(
@@ -9,6 +9,7 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.neo4j.test.assertion.Assert.assertEventually;
 
+import apoc.RegisterComponentFactory;
 import apoc.util.JsonUtil;
 import com.mongodb.client.MongoClient;
 import com.mongodb.client.MongoCollection;
@@ -103,6 +104,8 @@ public class MongoTestBase {
 
     @After
     public void after() {
+        // the shared clients keep their connections open between the calls
+        clientCache().clear();
         // the connections active before must be equal to the connections active after
         assertEventually(
                 () -> {
@@ -115,6 +118,15 @@ public class MongoTestBase {
                 TimeUnit.SECONDS);
     }
 
+    protected static MongoClientCache clientCache() {
+        RegisterComponentFactory.RegisterComponentLifecycle registerComponentLifecycle =
+                db.getDependencyResolver().resolveDependency(RegisterComponentFactory.RegisterComponentLifecycle.class);
+        return (MongoClientCache) registerComponentLifecycle
+                .getResolvers()
+                .get(MongoClientCache.class)
+                .get(db.databaseName());
+    }
+
     public static void createContainer(boolean withAuth, MongoVersion mongoVersion) {
         mongo = new GenericContainer(mongoVersion.dockerImg)
                 .withNetworkAliases("mongo-" + Base58.randomString(6))